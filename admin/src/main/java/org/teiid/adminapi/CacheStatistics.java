@@ -28,5 +28,15 @@ public interface CacheStatistics extends AdminObject, DomainAware {
 	int getTotalEntries();
 	
 	int getRequestCount();
+	
+	/**
+	 * @return the percentage of the estimated bytes requested that were served from the cache
+	 */
+	double getByteHitRatio();
+	
+	/**
+	 * @return the estimated bytes held by the cache
+	 */
+	long getTotalBytes();
 
 }
@@ -100,5 +100,25 @@ public interface Request extends AdminObject, DomainAware {
      * @return The thread state
      */
 	ThreadState getThreadState();
+	
+	/**
+	 * @return the bytes of processing memory currently reserved by the request
+	 */
+	long getReservedBytes();
+	
+	/**
+	 * @return the max bytes of processing memory reserved by the request
+	 */
+	long getPeakReservedBytes();
+	
+	/**
+	 * @return the estimated bytes of the request's batches written to storage
+	 */
+	long getSpilledBytes();
+	
+	/**
+	 * @return the number of batches the request has read back from storage
+	 */
+	long getBatchesRead();
     
 }
@@ -30,6 +30,8 @@ public class CacheStatisticsMetadata extends AdminObjectImpl implements CacheSta
 	private double hitRatio;
 	private int totalEntries;
 	private int requestCount;
+	private double byteHitRatio;
+	private long totalBytes;
 	
 	@Override
 	public int getRequestCount() {
@@ -58,11 +60,31 @@ public class CacheStatisticsMetadata extends AdminObjectImpl implements CacheSta
 		this.totalEntries = value;
 	}	
 	
+	@Override
+	public double getByteHitRatio() {
+		return byteHitRatio;
+	}
+	
+	public void setByteHitRatio(double byteHitRatio) {
+		this.byteHitRatio = byteHitRatio;
+	}
+	
+	@Override
+	public long getTotalBytes() {
+		return totalBytes;
+	}
+	
+	public void setTotalBytes(long totalBytes) {
+		this.totalBytes = totalBytes;
+	}
+	
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("hitRatio=").append(hitRatio);//$NON-NLS-1$
 		sb.append("; totalEntries=").append(totalEntries); //$NON-NLS-1$
 		sb.append("; requestCount=").append(requestCount); //$NON-NLS-1$
+		sb.append("; byteHitRatio=").append(byteHitRatio); //$NON-NLS-1$
+		sb.append("; totalBytes=").append(totalBytes); //$NON-NLS-1$
 		return sb.toString();
 	}
 }
@@ -53,6 +53,8 @@ public class DataPolicyMetadata implements DataPolicy, Serializable {
     private Set<String> hasRowPermissions = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
 
 	private boolean grantAll;
+	
+	private transient volatile int version;
 
 	@Override
     public String getName() {
@@ -89,6 +91,7 @@ public class DataPolicyMetadata implements DataPolicy, Serializable {
 	
 	public void setPermissions(List<DataPermission> permissions) {
 		this.permissions.clear();
+		version++;
 		for (DataPermission permission:permissions) {
 			addPermissionMetadata((PermissionMetaData)permission);
 		}
@@ -101,6 +104,7 @@ public class DataPolicyMetadata implements DataPolicy, Serializable {
 	}
 
 	private void addPermissionMetadata(PermissionMetaData permission) {
+		version++;
 		PermissionMetaData previous = null;
 		if (permission.getAllowLanguage() != null) {
 			previous = this.languagePermissions.put(permission.getResourceName(), permission);
@@ -482,6 +486,14 @@ public class DataPolicyMetadata implements DataPolicy, Serializable {
     
     public void setGrantAll(boolean grantAll) {
 		this.grantAll = grantAll;
+		version++;
+	}
+    
+    /**
+     * @return a counter that changes whenever the permissions of this policy change
+     */
+    public int getVersion() {
+		return version;
 	}
     
     public DataPolicyMetadata clone() {
@@ -42,6 +42,10 @@ public class RequestMetadata extends AdminObjectImpl implements Request {
     private String transactionId;
     private ProcessingState processingState = ProcessingState.PROCESSING;
     private ThreadState threadState = ThreadState.RUNNING;
+    private long reservedBytes;
+    private long peakReservedBytes;
+    private long spilledBytes;
+    private long batchesRead;
     
     @Override
     public long getExecutionId() {
@@ -124,6 +128,42 @@ public class RequestMetadata extends AdminObjectImpl implements Request {
 		this.transactionId = id;
 	}
 	
+	@Override
+	public long getReservedBytes() {
+		return reservedBytes;
+	}
+	
+	public void setReservedBytes(long reservedBytes) {
+		this.reservedBytes = reservedBytes;
+	}
+	
+	@Override
+	public long getPeakReservedBytes() {
+		return peakReservedBytes;
+	}
+	
+	public void setPeakReservedBytes(long peakReservedBytes) {
+		this.peakReservedBytes = peakReservedBytes;
+	}
+	
+	@Override
+	public long getSpilledBytes() {
+		return spilledBytes;
+	}
+	
+	public void setSpilledBytes(long spilledBytes) {
+		this.spilledBytes = spilledBytes;
+	}
+	
+	@Override
+	public long getBatchesRead() {
+		return batchesRead;
+	}
+	
+	public void setBatchesRead(long batchesRead) {
+		this.batchesRead = batchesRead;
+	}
+	
     @Override
 	public boolean equals(Object obj) {
     	if (!(obj instanceof RequestMetadata)) {
@@ -152,6 +192,10 @@ public class RequestMetadata extends AdminObjectImpl implements Request {
     		str.append("; transactionId=").append(transactionId);
     	}
     	str.append("; sourceRequest=").append(sourceRequest);
+    	if (!sourceRequest) {
+    		str.append("; peakReservedBytes=").append(peakReservedBytes);
+    		str.append("; spilledBytes=").append(spilledBytes);
+    	}
     	str.append("; processingTime=").append(new Date(startTime));
     	str.append("; command=").append(command); 
     	
@@ -1226,6 +1226,8 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 		private static final String HITRATIO = "hit-ratio"; //$NON-NLS-1$
 		private static final String TOTAL_ENTRIES = "total-entries"; //$NON-NLS-1$
 		private static final String REQUEST_COUNT = "request-count"; //$NON-NLS-1$
+		private static final String BYTE_HITRATIO = "byte-hit-ratio"; //$NON-NLS-1$
+		private static final String TOTAL_BYTES = "total-bytes"; //$NON-NLS-1$
 		
 		public static CacheStatisticsMetadataMapper INSTANCE = new CacheStatisticsMetadataMapper();
 		
@@ -1236,6 +1238,8 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 			node.get(TOTAL_ENTRIES).set(object.getTotalEntries());
 			node.get(HITRATIO).set(object.getHitRatio());
 			node.get(REQUEST_COUNT).set(object.getRequestCount());
+			node.get(BYTE_HITRATIO).set(object.getByteHitRatio());
+			node.get(TOTAL_BYTES).set(object.getTotalBytes());
 			
 			wrapDomain(object, node);
 			return node;
@@ -1249,6 +1253,12 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 			cache.setTotalEntries(node.get(TOTAL_ENTRIES).asInt());
 			cache.setHitRatio(node.get(HITRATIO).asDouble());
 			cache.setRequestCount(node.get(REQUEST_COUNT).asInt());
+			if (node.has(BYTE_HITRATIO)) {
+				cache.setByteHitRatio(node.get(BYTE_HITRATIO).asDouble());
+			}
+			if (node.has(TOTAL_BYTES)) {
+				cache.setTotalBytes(node.get(TOTAL_BYTES).asLong());
+			}
 			
 			unwrapDomain(cache, node);
 			return cache;
@@ -1258,6 +1268,8 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 			addAttribute(node, TOTAL_ENTRIES, ModelType.STRING, true);
 			addAttribute(node, HITRATIO, ModelType.STRING, true);
 			addAttribute(node, REQUEST_COUNT, ModelType.STRING, true);
+			addAttribute(node, BYTE_HITRATIO, ModelType.STRING, true);
+			addAttribute(node, TOTAL_BYTES, ModelType.STRING, true);
 			return node; 		
 		}
 		
@@ -1265,7 +1277,9 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 			return new AttributeDefinition[] {
 					new SimpleAttributeDefinition(TOTAL_ENTRIES, ModelType.STRING, false),
 					new SimpleAttributeDefinition(HITRATIO, ModelType.STRING, false),
-					new SimpleAttributeDefinition(REQUEST_COUNT, ModelType.STRING, false)
+					new SimpleAttributeDefinition(REQUEST_COUNT, ModelType.STRING, false),
+					new SimpleAttributeDefinition(BYTE_HITRATIO, ModelType.STRING, false),
+					new SimpleAttributeDefinition(TOTAL_BYTES, ModelType.STRING, false)
 			};
 		}
 	}	
@@ -1280,6 +1294,10 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 		private static final String EXECUTION_ID = "execution-id"; //$NON-NLS-1$
 		private static final String STATE = "processing-state"; //$NON-NLS-1$
 		private static final String THREAD_STATE = "thread-state"; //$NON-NLS-1$
+		private static final String RESERVED_BYTES = "reserved-bytes"; //$NON-NLS-1$
+		private static final String PEAK_RESERVED_BYTES = "peak-reserved-bytes"; //$NON-NLS-1$
+		private static final String SPILLED_BYTES = "spilled-bytes"; //$NON-NLS-1$
+		private static final String BATCHES_READ = "batches-read"; //$NON-NLS-1$
 		
 		public static RequestMetadataMapper INSTANCE = new RequestMetadataMapper();
 		
@@ -1301,6 +1319,12 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 			}
 			node.get(STATE).set(request.getState().name());
 			node.get(THREAD_STATE).set(request.getThreadState().name());
+			if (!request.sourceRequest()) {
+				node.get(RESERVED_BYTES).set(request.getReservedBytes());
+				node.get(PEAK_RESERVED_BYTES).set(request.getPeakReservedBytes());
+				node.get(SPILLED_BYTES).set(request.getSpilledBytes());
+				node.get(BATCHES_READ).set(request.getBatchesRead());
+			}
 			
 			wrapDomain(request, node);
 			return node;
@@ -1324,6 +1348,18 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 			}
 			request.setState(ProcessingState.valueOf(node.get(STATE).asString()));
 			request.setThreadState(ThreadState.valueOf(node.get(THREAD_STATE).asString()));
+			if (node.has(RESERVED_BYTES)) {
+				request.setReservedBytes(node.get(RESERVED_BYTES).asLong());
+			}
+			if (node.has(PEAK_RESERVED_BYTES)) {
+				request.setPeakReservedBytes(node.get(PEAK_RESERVED_BYTES).asLong());
+			}
+			if (node.has(SPILLED_BYTES)) {
+				request.setSpilledBytes(node.get(SPILLED_BYTES).asLong());
+			}
+			if (node.has(BATCHES_READ)) {
+				request.setBatchesRead(node.get(BATCHES_READ).asLong());
+			}
 			
 			unwrapDomain(request, node);
 			return request;
@@ -1339,6 +1375,10 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 			addAttribute(node, TRANSACTION_ID, ModelType.STRING, false);
 			addAttribute(node, STATE, ModelType.STRING, true);
 			addAttribute(node, THREAD_STATE, ModelType.STRING, true);
+			addAttribute(node, RESERVED_BYTES, ModelType.LONG, false);
+			addAttribute(node, PEAK_RESERVED_BYTES, ModelType.LONG, false);
+			addAttribute(node, SPILLED_BYTES, ModelType.LONG, false);
+			addAttribute(node, BATCHES_READ, ModelType.LONG, false);
 			return node; 		
 		}
 		
@@ -1352,7 +1392,11 @@ public class VDBMetadataMapper implements MetadataMapper<VDBMetaData> {
 					new SimpleAttributeDefinition(NODE_ID, ModelType.INT, true),
 					new SimpleAttributeDefinition(TRANSACTION_ID, ModelType.STRING, true),
 					new SimpleAttributeDefinition(STATE, ModelType.STRING, false),
-					new SimpleAttributeDefinition(THREAD_STATE, ModelType.STRING, false)
+					new SimpleAttributeDefinition(THREAD_STATE, ModelType.STRING, false),
+					new SimpleAttributeDefinition(RESERVED_BYTES, ModelType.LONG, true),
+					new SimpleAttributeDefinition(PEAK_RESERVED_BYTES, ModelType.LONG, true),
+					new SimpleAttributeDefinition(SPILLED_BYTES, ModelType.LONG, true),
+					new SimpleAttributeDefinition(BATCHES_READ, ModelType.LONG, true)
 			};
 		}
 	}
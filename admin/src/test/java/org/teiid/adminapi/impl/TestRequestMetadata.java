@@ -40,6 +40,9 @@ public class TestRequestMetadata {
 		
 		assertEquals(request, actual);
 		assertEquals(request.getState(), actual.getState());
+		assertEquals(request.getPeakReservedBytes(), actual.getPeakReservedBytes());
+		assertEquals(request.getSpilledBytes(), actual.getSpilledBytes());
+		assertEquals(request.getBatchesRead(), actual.getBatchesRead());
 	}
 
 	private RequestMetadata buildRequest() {
@@ -53,6 +56,10 @@ public class TestRequestMetadata {
 		request.setStartTime(12345L);
 		request.setTransactionId("transaction-id");//$NON-NLS-1$
 		request.setThreadState(ThreadState.RUNNING);
+		request.setReservedBytes(1024);
+		request.setPeakReservedBytes(4096);
+		request.setSpilledBytes(2048);
+		request.setBatchesRead(3);
 		//request.setNodeId(1);
 		return request;
 	}
@@ -120,6 +127,34 @@ public class TestRequestMetadata {
 			"        },\n" + 
 			"        \"description\" : \"Thread state\",\n" + 
 			"        \"required\" : true\n" + 
+			"    },\n" + 
+			"    \"reserved-bytes\" : {\n" + 
+			"        \"type\" : {\n" + 
+			"            \"TYPE_MODEL_VALUE\" : \"LONG\"\n" + 
+			"        },\n" + 
+			"        \"description\" : \"Processing memory bytes currently reserved\",\n" + 
+			"        \"required\" : false\n" + 
+			"    },\n" + 
+			"    \"peak-reserved-bytes\" : {\n" + 
+			"        \"type\" : {\n" + 
+			"            \"TYPE_MODEL_VALUE\" : \"LONG\"\n" + 
+			"        },\n" + 
+			"        \"description\" : \"Max processing memory bytes reserved\",\n" + 
+			"        \"required\" : false\n" + 
+			"    },\n" + 
+			"    \"spilled-bytes\" : {\n" + 
+			"        \"type\" : {\n" + 
+			"            \"TYPE_MODEL_VALUE\" : \"LONG\"\n" + 
+			"        },\n" + 
+			"        \"description\" : \"Estimated bytes of batches written to storage\",\n" + 
+			"        \"required\" : false\n" + 
+			"    },\n" + 
+			"    \"batches-read\" : {\n" + 
+			"        \"type\" : {\n" + 
+			"            \"TYPE_MODEL_VALUE\" : \"LONG\"\n" + 
+			"        },\n" + 
+			"        \"description\" : \"Batches read back from storage\",\n" + 
+			"        \"required\" : false\n" + 
 			"    }\n" + 
 			"}";
 	@Test public void testDescribe() {
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.translator;
+
+/**
+ * Holds the result of an asynchronous source call for an {@link Execution}.
+ * <br>
+ * The execution should start the call and return from execute, then complete this result
+ * from the callback of the call.  Completion notifies the engine via {@link ExecutionContext#dataAvailable()}, 
+ * so the engine does not need to poll.  Until then {@link #get()} throws {@link DataNotAvailableException#NO_POLLING}, 
+ * which may be propagated from the next method.
+ * 
+ * @param <T> the result type
+ * @since 8.7
+ */
+public class AsyncResult<T> {
+	
+	private ExecutionContext executionContext;
+	private volatile boolean done;
+	private T result;
+	private Throwable exception;
+	
+	public AsyncResult(ExecutionContext executionContext) {
+		this.executionContext = executionContext;
+	}
+	
+	/**
+	 * Complete with the given result.  Only the first completion has an effect.
+	 */
+	public void setResult(T value) {
+		synchronized (this) {
+			if (done) {
+				return;
+			}
+			this.result = value;
+			this.done = true;
+		}
+		executionContext.dataAvailable();
+	}
+	
+	/**
+	 * Complete with the given failure.  Only the first completion has an effect.
+	 */
+	public void setException(Throwable t) {
+		synchronized (this) {
+			if (done) {
+				return;
+			}
+			this.exception = t;
+			this.done = true;
+		}
+		executionContext.dataAvailable();
+	}
+	
+	public boolean isDone() {
+		return done;
+	}
+	
+	/**
+	 * @return the result if complete
+	 * @throws DataNotAvailableException if not yet complete
+	 * @throws TranslatorException if completed with a failure
+	 */
+	public T get() throws TranslatorException, DataNotAvailableException {
+		if (!done) {
+			throw DataNotAvailableException.NO_POLLING;
+		}
+		if (exception != null) {
+			if (exception instanceof TranslatorException) {
+				throw (TranslatorException)exception;
+			}
+			throw new TranslatorException(exception);
+		}
+		return result;
+	}
+
+}
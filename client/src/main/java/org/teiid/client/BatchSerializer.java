@@ -63,11 +63,15 @@ import org.teiid.jdbc.JDBCPlugin;
  *   outside of jdbc allowed values
  * <li>version 2: starts with 8.2 and adds better array serialization and
  *   uses a safer date/time serialization
+ * <li>version 3: starts with 8.6 and adds a cache of repeated string, object, and array values
+ * <li>version 4: starts with 8.7 and encodes integral, string, and date/time columns 
+ *   into a single byte array per column using varints, length prefixed strings, and 
+ *   date/time deltas 
  * </ul>
  */
 public class BatchSerializer {
 
-    static final byte CURRENT_VERSION = (byte)3;
+    static final byte CURRENT_VERSION = (byte)4;
 
 	private BatchSerializer() {} // Uninstantiable
 
@@ -80,15 +84,22 @@ public class BatchSerializer {
         serializers.put(DataTypeManager.DefaultDataTypes.BOOLEAN,       new ColumnSerializer[] {new BooleanColumnSerializer()});
         serializers.put(DataTypeManager.DefaultDataTypes.BYTE,          new ColumnSerializer[] {new ByteColumnSerializer()});
         serializers.put(DataTypeManager.DefaultDataTypes.CHAR,          new ColumnSerializer[] {new CharColumnSerializer()});
-        serializers.put(DataTypeManager.DefaultDataTypes.DATE,          new ColumnSerializer[] {new DateColumnSerializer(), new DateColumnSerializer1(), new DateColumnSerializer()});
+        ColumnSerializer date = new DateColumnSerializer();
+        ColumnSerializer time = new TimeColumnSerializer();
+        ColumnSerializer timestamp = new TimestampColumnSerializer();
+        ColumnSerializer integer = new IntColumnSerializer();
+        ColumnSerializer longSer = new LongColumnSerializer();
+        ColumnSerializer shortSer = new ShortColumnSerializer();
+        ColumnSerializer string1 = new StringColumnSerializer1();
+        serializers.put(DataTypeManager.DefaultDataTypes.DATE,          new ColumnSerializer[] {date, new DateColumnSerializer1(), date, date, new DateTimeColumnSerializer4(false)});
         serializers.put(DataTypeManager.DefaultDataTypes.DOUBLE,        new ColumnSerializer[] {new DoubleColumnSerializer()});
         serializers.put(DataTypeManager.DefaultDataTypes.FLOAT,         new ColumnSerializer[] {new FloatColumnSerializer()});
-        serializers.put(DataTypeManager.DefaultDataTypes.INTEGER,       new ColumnSerializer[] {new IntColumnSerializer()});
-        serializers.put(DataTypeManager.DefaultDataTypes.LONG,          new ColumnSerializer[] {new LongColumnSerializer()});
-        serializers.put(DataTypeManager.DefaultDataTypes.SHORT,         new ColumnSerializer[] {new ShortColumnSerializer()});
-        serializers.put(DataTypeManager.DefaultDataTypes.TIME,          new ColumnSerializer[] {new TimeColumnSerializer(), new TimeColumnSerializer1(), new TimeColumnSerializer()});
-        serializers.put(DataTypeManager.DefaultDataTypes.TIMESTAMP,     new ColumnSerializer[] {new TimestampColumnSerializer()});
-        serializers.put(DataTypeManager.DefaultDataTypes.STRING,     	new ColumnSerializer[] {defaultSerializer, new StringColumnSerializer1(), new StringColumnSerializer1(), new StringColumnSerializer3()});
+        serializers.put(DataTypeManager.DefaultDataTypes.INTEGER,       new ColumnSerializer[] {integer, integer, integer, integer, new IntColumnSerializer4()});
+        serializers.put(DataTypeManager.DefaultDataTypes.LONG,          new ColumnSerializer[] {longSer, longSer, longSer, longSer, new LongColumnSerializer4()});
+        serializers.put(DataTypeManager.DefaultDataTypes.SHORT,         new ColumnSerializer[] {shortSer, shortSer, shortSer, shortSer, new ShortColumnSerializer4()});
+        serializers.put(DataTypeManager.DefaultDataTypes.TIME,          new ColumnSerializer[] {time, new TimeColumnSerializer1(), time, time, new DateTimeColumnSerializer4(true)});
+        serializers.put(DataTypeManager.DefaultDataTypes.TIMESTAMP,     new ColumnSerializer[] {timestamp, timestamp, timestamp, timestamp, new TimestampColumnSerializer4()});
+        serializers.put(DataTypeManager.DefaultDataTypes.STRING,     	new ColumnSerializer[] {defaultSerializer, string1, string1, new StringColumnSerializer3(), new StringColumnSerializer4()});
         serializers.put(DataTypeManager.DefaultDataTypes.CLOB,  	   	new ColumnSerializer[] {defaultSerializer, new ClobColumnSerializer1()});
         serializers.put(DataTypeManager.DefaultDataTypes.BLOB,     		new ColumnSerializer[] {defaultSerializer, new BlobColumnSerializer1()});
         serializers.put(DataTypeManager.DefaultDataTypes.XML,     		new ColumnSerializer[] {defaultSerializer, new XmlColumnSerializer1()});
@@ -797,6 +808,350 @@ public class BatchSerializer {
         }
     }
 
+    /**
+     * A growable byte array holding the encoded non-null values of a column
+     */
+    static final class ColumnBuffer {
+    	byte[] bytes;
+    	int pos;
+    	
+    	ColumnBuffer(int size) {
+    		this.bytes = new byte[size];
+    	}
+    	
+    	void ensureCapacity(int length) {
+    		if (pos + length > bytes.length) {
+    			bytes = Arrays.copyOf(bytes, Math.max(pos + length, bytes.length << 1));
+    		}
+    	}
+    	
+    	/**
+    	 * Write an unsigned LEB128 varint
+    	 */
+    	void writeVarLong(long val) {
+    		ensureCapacity(10);
+    		while ((val & ~0x7FL) != 0) {
+    			bytes[pos++] = (byte)((val & 0x7F) | 0x80);
+    			val >>>= 7;
+    		}
+    		bytes[pos++] = (byte)val;
+    	}
+    	
+    	/**
+    	 * Write a zig-zag varint, so that small negative values are also compact
+    	 */
+    	void writeZigZag(long val) {
+    		writeVarLong((val << 1) ^ (val >> 63));
+    	}
+    	
+    	long readVarLong() throws IOException {
+    		long result = 0;
+    		for (int shift = 0; shift < 64; shift += 7) {
+    			if (pos >= bytes.length) {
+    				throw new IOException("Invalid varint"); //$NON-NLS-1$
+    			}
+    			byte b = bytes[pos++];
+    			result |= (long)(b & 0x7F) << shift;
+    			if ((b & 0x80) == 0) {
+    				return result;
+    			}
+    		}
+    		throw new IOException("Invalid varint"); //$NON-NLS-1$
+    	}
+    	
+    	long readZigZag() throws IOException {
+    		long val = readVarLong();
+    		return (val >>> 1) ^ -(val & 1);
+    	}
+    	
+    	/**
+    	 * Write the chars as UTF-8, except that 0 uses the 2 byte form and surrogates 
+    	 * are encoded individually so that any java string is preserved.
+    	 */
+    	void writeChars(String str) {
+    		int length = str.length();
+    		ensureCapacity(length * 3);
+    		for (int i = 0; i < length; i++) {
+    			char c = str.charAt(i);
+    			if (c > 0 && c < 0x80) {
+    				bytes[pos++] = (byte)c;
+    			} else if (c < 0x800) {
+    				bytes[pos++] = (byte)(0xC0 | (c >> 6));
+    				bytes[pos++] = (byte)(0x80 | (c & 0x3F));
+    			} else {
+    				bytes[pos++] = (byte)(0xE0 | (c >> 12));
+    				bytes[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+    				bytes[pos++] = (byte)(0x80 | (c & 0x3F));
+    			}
+    		}
+    	}
+    	
+    	String readChars(int length) throws IOException {
+    		char[] chars = new char[length];
+    		try {
+	    		for (int i = 0; i < length; i++) {
+	    			int b = bytes[pos++] & 0xFF;
+	    			if (b < 0x80) {
+	    				chars[i] = (char)b;
+	    			} else if (b < 0xE0) {
+	    				chars[i] = (char)(((b & 0x1F) << 6) | (bytes[pos++] & 0x3F));
+	    			} else {
+	    				chars[i] = (char)(((b & 0x0F) << 12) | ((bytes[pos++] & 0x3F) << 6) | (bytes[pos++] & 0x3F));
+	    			}
+	    		}
+    		} catch (ArrayIndexOutOfBoundsException e) {
+    			throw new IOException("Invalid string length"); //$NON-NLS-1$
+    		}
+    		return new String(chars);
+    	}
+    }
+    
+    /**
+     * Encodes all of the non-null column values into a {@link ColumnBuffer} that is written
+     * with a single call.  Subclasses loop over the column directly rather than being called per value.
+     */
+    private static abstract class ColumnSerializer4 extends ColumnSerializer {
+    	@Override
+    	public void writeColumn(ObjectOutput out, int col,
+    			List<? extends List<?>> batch, Map<Object, Integer> cache)
+    			throws IOException {
+    		writeIsNullData(out, col, batch);
+    		ColumnBuffer buffer = new ColumnBuffer(Math.max(16, batch.size() << 2));
+    		encode(buffer, col, batch);
+    		out.writeInt(buffer.pos);
+    		out.write(buffer.bytes, 0, buffer.pos);
+    	}
+    	
+    	@Override
+    	public void readColumn(ObjectInput in, int col,
+    			List<List<Object>> batch, byte[] isNull, List<Object> cache)
+    			throws IOException, ClassNotFoundException {
+    		readIsNullData(in, isNull);
+    		ColumnBuffer buffer = new ColumnBuffer(in.readInt());
+    		in.readFully(buffer.bytes);
+    		decode(buffer, col, batch, isNull);
+    	}
+    	
+    	protected abstract void encode(ColumnBuffer buffer, int col, List<? extends List<?>> batch);
+    	
+    	protected abstract void decode(ColumnBuffer buffer, int col, List<List<Object>> batch, byte[] isNull) throws IOException;
+    }
+    
+    private static class IntColumnSerializer4 extends ColumnSerializer4 {
+    	@Override
+    	protected void encode(ColumnBuffer buffer, int col, List<? extends List<?>> batch) {
+    		for (int row = 0; row < batch.size(); row++) {
+    			Object obj = batch.get(row).get(col);
+    			if (obj != null) {
+    				buffer.writeZigZag(((Integer)obj).intValue());
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	protected void decode(ColumnBuffer buffer, int col, List<List<Object>> batch, byte[] isNull) throws IOException {
+    		for (int row = 0; row < batch.size(); row++) {
+    			if (!isNullObject(isNull, row)) {
+    				batch.get(row).set(col, DataTypeManager.getCanonicalValue(Integer.valueOf((int)buffer.readZigZag())));
+    			}
+    		}
+    	}
+    }
+    
+    private static class LongColumnSerializer4 extends ColumnSerializer4 {
+    	@Override
+    	protected void encode(ColumnBuffer buffer, int col, List<? extends List<?>> batch) {
+    		for (int row = 0; row < batch.size(); row++) {
+    			Object obj = batch.get(row).get(col);
+    			if (obj != null) {
+    				buffer.writeZigZag(((Long)obj).longValue());
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	protected void decode(ColumnBuffer buffer, int col, List<List<Object>> batch, byte[] isNull) throws IOException {
+    		for (int row = 0; row < batch.size(); row++) {
+    			if (!isNullObject(isNull, row)) {
+    				batch.get(row).set(col, DataTypeManager.getCanonicalValue(Long.valueOf(buffer.readZigZag())));
+    			}
+    		}
+    	}
+    }
+    
+    private static class ShortColumnSerializer4 extends ColumnSerializer4 {
+    	@Override
+    	protected void encode(ColumnBuffer buffer, int col, List<? extends List<?>> batch) {
+    		for (int row = 0; row < batch.size(); row++) {
+    			Object obj = batch.get(row).get(col);
+    			if (obj != null) {
+    				buffer.writeZigZag(((Short)obj).shortValue());
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	protected void decode(ColumnBuffer buffer, int col, List<List<Object>> batch, byte[] isNull) throws IOException {
+    		for (int row = 0; row < batch.size(); row++) {
+    			if (!isNullObject(isNull, row)) {
+    				batch.get(row).set(col, DataTypeManager.getCanonicalValue(Short.valueOf((short)buffer.readZigZag())));
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Writes the millis of each value as a delta from the prior non-null value
+     */
+    private static class DateTimeColumnSerializer4 extends ColumnSerializer4 {
+    	private boolean time;
+    	
+    	public DateTimeColumnSerializer4(boolean time) {
+    		this.time = time;
+		}
+    	
+    	@Override
+    	protected void encode(ColumnBuffer buffer, int col, List<? extends List<?>> batch) {
+    		long previous = 0;
+    		for (int row = 0; row < batch.size(); row++) {
+    			Object obj = batch.get(row).get(col);
+    			if (obj != null) {
+    				long val = time?((Time)obj).getTime():((java.sql.Date)obj).getTime();
+    				buffer.writeZigZag(val - previous);
+    				previous = val;
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	protected void decode(ColumnBuffer buffer, int col, List<List<Object>> batch, byte[] isNull) throws IOException {
+    		long previous = 0;
+    		for (int row = 0; row < batch.size(); row++) {
+    			if (!isNullObject(isNull, row)) {
+    				previous += buffer.readZigZag();
+    				batch.get(row).set(col, DataTypeManager.getCanonicalValue(time?new Time(previous):new java.sql.Date(previous)));
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Writes the millis of each value as a delta from the prior non-null value followed
+     * by the sub-millisecond nanos
+     */
+    private static class TimestampColumnSerializer4 extends ColumnSerializer4 {
+    	@Override
+    	protected void encode(ColumnBuffer buffer, int col, List<? extends List<?>> batch) {
+    		long previous = 0;
+    		for (int row = 0; row < batch.size(); row++) {
+    			Object obj = batch.get(row).get(col);
+    			if (obj != null) {
+    				Timestamp ts = (Timestamp)obj;
+    				long val = ts.getTime();
+    				buffer.writeZigZag(val - previous);
+    				buffer.writeVarLong(ts.getNanos() % 1000000);
+    				previous = val;
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	protected void decode(ColumnBuffer buffer, int col, List<List<Object>> batch, byte[] isNull) throws IOException {
+    		long previous = 0;
+    		for (int row = 0; row < batch.size(); row++) {
+    			if (!isNullObject(isNull, row)) {
+    				previous += buffer.readZigZag();
+    				Timestamp ts = new Timestamp(previous);
+    				int nanos = (int)buffer.readVarLong();
+    				if (nanos != 0) {
+    					ts.setNanos(ts.getNanos() + nanos);
+    				}
+    				batch.get(row).set(col, DataTypeManager.getCanonicalValue(ts));
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Writes the length + 1 followed by the chars.  A length of 0 indicates a repeat of the 
+     * prior non-null value.
+     */
+    private static class StringColumnSerializer4 extends ColumnSerializer4 {
+    	private static final int MAX_INLINE_STRING_LENGTH = 5;
+    	private static final int MAX_CACHED_STRINGS = 1 << 12;
+    	
+    	/*
+    	 * Each non-null value is 0 for a repeat of the previous value, (index << 1) | 1 
+    	 * for a value in the cache, or (length + 1) << 1 followed by the chars.
+    	 * Like version 3, only longer strings are cached and the cache is bounded.
+    	 */
+    	@Override
+    	protected void encode(ColumnBuffer buffer, int col, List<? extends List<?>> batch) {
+    		String previous = null;
+    		Map<String, Integer> cache = null;
+    		for (int row = 0; row < batch.size(); row++) {
+    			Object obj = batch.get(row).get(col);
+    			if (obj != null) {
+    				String str = (String)obj;
+    				if (str.equals(previous)) {
+    					buffer.writeVarLong(0);
+    					continue;
+    				}
+    				previous = str;
+    				if (str.length() > MAX_INLINE_STRING_LENGTH) {
+    					if (cache == null) {
+    						cache = new HashMap<String, Integer>();
+    					}
+    					Integer index = cache.get(str);
+    					if (index != null) {
+    						buffer.writeVarLong(((long)index << 1) | 1);
+    						continue;
+    					}
+    					if (cache.size() < MAX_CACHED_STRINGS) {
+    						cache.put(str, cache.size());
+    					}
+    				}
+    				buffer.writeVarLong((str.length() + 1l) << 1);
+    				buffer.writeChars(str);
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	protected void decode(ColumnBuffer buffer, int col, List<List<Object>> batch, byte[] isNull) throws IOException {
+    		Object previous = null;
+    		List<Object> cache = null;
+    		for (int row = 0; row < batch.size(); row++) {
+    			if (!isNullObject(isNull, row)) {
+    				long code = buffer.readVarLong();
+    				if ((code & 1) != 0) {
+    					long index = code >>> 1;
+    					if (cache == null || index >= cache.size()) {
+    						throw new IOException("Invalid string reference"); //$NON-NLS-1$
+    					}
+    					previous = cache.get((int)index);
+    				} else if (code != 0) {
+    					long length = code >>> 1;
+    					if (length > Integer.MAX_VALUE) {
+    						throw new IOException("Invalid string length"); //$NON-NLS-1$
+    					}
+    					String str = DataTypeManager.getCanonicalValue(buffer.readChars((int)length - 1));
+    					if (str.length() > MAX_INLINE_STRING_LENGTH) {
+    						if (cache == null) {
+    							cache = new ArrayList<Object>();
+    						}
+    						if (cache.size() < MAX_CACHED_STRINGS) {
+    							cache.add(str);
+    						}
+    					}
+    					previous = str;
+    				}
+    				batch.get(row).set(col, previous);
+    			}
+    		}
+    	}
+    }
+    
     private static ColumnSerializer getSerializer(String type, byte version) {
     	ColumnSerializer[] sers = serializers.get(type);
     	if (sers == null) {
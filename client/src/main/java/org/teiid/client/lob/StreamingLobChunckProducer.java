@@ -23,6 +23,7 @@
 package org.teiid.client.lob;
 
 import java.io.IOException;
+import java.util.LinkedList;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -38,6 +39,7 @@ public class StreamingLobChunckProducer implements LobChunkProducer {
 		private final Streamable<?> streamable;
 		private final DQP dqp;
 		private final long requestId;
+		private int prefetch;
 		
 		public Factory(DQP dqp,
 				long requestId, Streamable<?> streamable) {
@@ -48,7 +50,17 @@ public class StreamingLobChunckProducer implements LobChunkProducer {
 		}
 
 		public StreamingLobChunckProducer getLobChunkProducer() {
-			return new StreamingLobChunckProducer(dqp, requestId, streamable);
+			StreamingLobChunckProducer producer = new StreamingLobChunckProducer(dqp, requestId, streamable);
+			producer.prefetch = prefetch;
+			return producer;
+		}
+		
+		/**
+		 * Set the number of chunk requests to issue ahead of the reader
+		 * @param prefetch
+		 */
+		public void setPrefetch(int prefetch) {
+			this.prefetch = Math.max(0, prefetch);
 		}
 	}
 	
@@ -58,6 +70,9 @@ public class StreamingLobChunckProducer implements LobChunkProducer {
 	private final DQP dqp;
 	private final long requestId;
 	private final int streamRequestId = REQUEST_SEQUENCE.getAndIncrement();
+	private int prefetch;
+	private LinkedList<Future<LobChunk>> pending = new LinkedList<Future<LobChunk>>();
+	private boolean lastReceived;
 
 	public StreamingLobChunckProducer(DQP dqp, long requestId,
 			Streamable<?> streamable) {
@@ -68,8 +83,20 @@ public class StreamingLobChunckProducer implements LobChunkProducer {
 
 	public LobChunk getNextChunk() throws IOException {
 	    try {
-	    	Future<LobChunk> result = dqp.requestNextLobChunk(streamRequestId, requestId, streamable.getReferenceStreamId());
-	    	return result.get();
+	    	//keep the pipeline full so that the server may send chunks while we consume 
+	    	while (!lastReceived && pending.size() <= prefetch) {
+	    		pending.add(dqp.requestNextLobChunk(streamRequestId, requestId, streamable.getReferenceStreamId()));
+	    	}
+	    	if (pending.isEmpty()) {
+	    		return new LobChunk(new byte[0], true);
+	    	}
+	    	LobChunk chunk = pending.removeFirst().get();
+	    	if (chunk.isLast()) {
+	    		//requests still outstanding will be answered with empty chunks
+	    		lastReceived = true;
+	    		pending.clear();
+	    	}
+	    	return chunk;
 	    } catch (Exception e) {
 	        IOException ex = new IOException(JDBCPlugin.Util.getString("StreamImpl.Unable_to_read_data_from_stream", e.getMessage())); //$NON-NLS-1$
 	        ex.initCause(e);
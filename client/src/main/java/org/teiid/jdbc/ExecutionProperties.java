@@ -117,6 +117,16 @@ public interface ExecutionProperties {
     
     public static final String JDBC4COLUMNNAMEANDLABELSEMANTICS = "useJDBC4ColumnNameAndLabelSemantics"; //$NON-NLS-1$
     
+    /**
+     * The number of lob chunk requests to keep outstanding ahead of the reader
+     * when streaming lob values.  Requires a server that queues pipelined
+     * chunk requests.
+     * 
+     * Default is <code>0</code>, which requests a single chunk at a time
+     * @since 8.7
+     */
+    public static final String LOB_CHUNK_PREFETCH = "lobChunkPrefetch"; //$NON-NLS-1$
+    
     
 }
     
\ No newline at end of file
@@ -64,5 +64,6 @@ public class JDBCPlugin { // extends Plugin {
 		TEIID20032,
 		TEIID20033, 
 		TEIID20034,
+		TEIID20035,
 	}	
 }
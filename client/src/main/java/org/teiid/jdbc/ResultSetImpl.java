@@ -330,6 +330,20 @@ public class ResultSetImpl extends WrapperImpl implements TeiidResultSet, BatchF
     
 	private InputStreamFactory createInputStreamFactory(Streamable<?> type) {
 		final StreamingLobChunckProducer.Factory factory = new StreamingLobChunckProducer.Factory(this.statement.getDQP(), this.requestID, type);
+		String prefetch = this.statement.getExecutionProperty(ExecutionProperties.LOB_CHUNK_PREFETCH);
+		if (prefetch != null) {
+			int value = -1;
+			try {
+				value = Integer.parseInt(prefetch.trim());
+			} catch (NumberFormatException e) {
+				//logged below
+			}
+			if (value < 0) {
+				logger.log(Level.WARNING, JDBCPlugin.Util.gs(JDBCPlugin.Event.TEIID20035, prefetch));
+			} else {
+				factory.setPrefetch(value);
+			}
+		}
 		InputStreamFactory isf = new InputStreamFactory() {
 			@Override
 			public InputStream getInputStream() throws IOException {
@@ -31,6 +31,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
 
@@ -131,11 +132,37 @@ public class TestBatchSerializer {
         helpTestSerialization(sampleBatchTypes, sampleBatchWithNulls(4096), BatchSerializer.CURRENT_VERSION); // A bunch of rows. This should also test large strings
     }
     
+    @Test public void testSerializePriorVersions() throws Exception {
+        helpTestSerialization(sampleBatchTypes, sampleBatchWithNulls(17), (byte)2);
+        helpTestSerialization(sampleBatchTypes, sampleBatchWithNulls(833), (byte)3);
+    }
+    
+    @Test public void testBinaryEncodings() throws Exception {
+    	String[] types = {DataTypeManager.DefaultDataTypes.INTEGER, DataTypeManager.DefaultDataTypes.LONG, 
+    			DataTypeManager.DefaultDataTypes.STRING, DataTypeManager.DefaultDataTypes.TIMESTAMP};
+    	Timestamp ts = TimestampUtil.createTimestamp(-1, 0, 1, 1, 1, 1, 123456789);
+    	List<?>[] batch = new List[] {
+    			Arrays.asList(Integer.MIN_VALUE, Long.MIN_VALUE, "\u0000\ud800abc", ts),
+    			Arrays.asList(-1, Long.MAX_VALUE, "\u0000\ud800abc", null),
+    			Arrays.asList(null, 0l, "", new Timestamp(ts.getTime() - 1)),
+    			Arrays.asList(Integer.MAX_VALUE, null, null, ts),
+    	};
+    	helpTestSerialization(types, batch, BatchSerializer.CURRENT_VERSION);
+    }
+    
     @Test public void testSerializeLargeStrings() throws Exception {
         List<?> row = Arrays.asList(new Object[] {sampleString(66666)});
         helpTestSerialization(new String[] {DataTypeManager.DefaultDataTypes.STRING}, new List[] {row}, BatchSerializer.CURRENT_VERSION);
     }
     
+    @Test public void testSerializeRepeatedStrings() throws Exception {
+        List<?>[] batch = new List[300];
+        for (int i = 0; i < batch.length; i++) {
+        	batch[i] = Arrays.asList(i%3==0?"abc":("repeated value " + (i%7))); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        helpTestSerialization(new String[] {DataTypeManager.DefaultDataTypes.STRING}, batch, BatchSerializer.CURRENT_VERSION);
+    }
+    
     @Test public void testSerializeNoData() throws Exception {
         helpTestSerialization(sampleBatchTypes, new List[0], BatchSerializer.CURRENT_VERSION);
     }
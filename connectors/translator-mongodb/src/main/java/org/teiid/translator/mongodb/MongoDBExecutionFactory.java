@@ -49,6 +49,7 @@ import org.teiid.translator.*;
 import org.teiid.translator.jdbc.AliasModifier;
 import org.teiid.translator.jdbc.FunctionModifier;
 
+import com.mongodb.AggregationOptions;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
@@ -60,6 +61,7 @@ import com.mongodb.gridfs.GridFSInputFile;
 @Translator(name="mongodb", description="MongoDB Translator, reads and writes the data to MongoDB")
 public class MongoDBExecutionFactory extends ExecutionFactory<ConnectionFactory, MongoDBConnection> {
 	protected Map<String, FunctionModifier> functionModifiers = new TreeMap<String, FunctionModifier>(String.CASE_INSENSITIVE_ORDER);
+	private boolean useDisk = true;
 
 	public MongoDBExecutionFactory() {
 		setSupportsOrderBy(true);
@@ -102,6 +104,28 @@ public class MongoDBExecutionFactory extends ExecutionFactory<ConnectionFactory,
 	    return new MongoDBMetadataProcessor();
 	}
 
+    @TranslatorProperty(display="Use Disk", description="Allow aggregation pipeline stages to use temporary files on the server when they exceed the memory limit. Requires MongoDB 2.6 or later.", advanced=true)
+    public boolean useDisk() {
+    	return this.useDisk;
+    }
+
+    public void setUseDisk(boolean useDisk) {
+    	this.useDisk = useDisk;
+    }
+
+    /**
+     * Options for cursor based aggregation, which is not limited by the size of a single result document
+     * @param batchSize
+     * @return
+     */
+    public AggregationOptions getOptions(int batchSize) {
+    	return AggregationOptions.builder()
+    			.batchSize(batchSize)
+    			.outputMode(AggregationOptions.OutputMode.CURSOR)
+    			.allowDiskUse(useDisk())
+    			.build();
+    }
+
     public void registerFunctionModifier(String name, FunctionModifier modifier) {
     	this.functionModifiers.put(name, modifier);
     }
@@ -264,7 +288,7 @@ public class MongoDBExecutionFactory extends ExecutionFactory<ConnectionFactory,
 
     @Override
 	public boolean supportsBulkUpdate() {
-    	return false;
+    	return true;
     }
 
 	@Override
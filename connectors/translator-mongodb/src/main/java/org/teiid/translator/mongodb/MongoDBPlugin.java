@@ -56,6 +56,7 @@ public class MongoDBPlugin {
     	TEIID18020,
     	TEIID18021,
     	TEIID18022,
-    	TEIID18023
+    	TEIID18023,
+    	TEIID18024
     }
 }
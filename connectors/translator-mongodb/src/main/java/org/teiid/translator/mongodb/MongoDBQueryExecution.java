@@ -22,7 +22,6 @@
 package org.teiid.translator.mongodb;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import org.teiid.language.QueryExpression;
@@ -36,8 +35,8 @@ import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.TranslatorException;
 
-import com.mongodb.AggregationOutput;
 import com.mongodb.BasicDBObject;
+import com.mongodb.Cursor;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
 import com.mongodb.MongoException;
@@ -45,7 +44,7 @@ import com.mongodb.MongoException;
 public class MongoDBQueryExecution extends MongoDBBaseExecution implements ResultSetExecution {
 	private Select command;
 	private MongoDBExecutionFactory executionFactory;
-	private Iterator<DBObject> results;
+	private Cursor results;
 	private MongoDBSelectVisitor visitor;
 	private Class<?>[] expectedTypes;
 
@@ -99,8 +98,7 @@ public class MongoDBQueryExecution extends MongoDBBaseExecution implements Resul
 			buildAggregate(ops, "$limit", this.visitor.limit); //$NON-NLS-1$
 
 			try {
-				AggregationOutput output = collection.aggregate(ops.remove(0), ops.toArray(new DBObject[ops.size()]));
-				this.results = output.results().iterator();
+				this.results = collection.aggregate(ops, this.executionFactory.getOptions(this.executionContext.getBatchSize()));
 			} catch (MongoException e) {
 				throw new TranslatorException(e);
 			}
@@ -131,7 +129,10 @@ public class MongoDBQueryExecution extends MongoDBBaseExecution implements Resul
 
 	@Override
 	public void close() {
-		this.results = null;
+		if (this.results != null) {
+			this.results.close();
+			this.results = null;
+		}
 	}
 
 	@Override
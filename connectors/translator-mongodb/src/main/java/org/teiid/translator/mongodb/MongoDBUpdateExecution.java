@@ -27,9 +27,21 @@ import java.util.LinkedHashMap;
 import java.util.List;
 
 import org.teiid.GeneratedKeys;
+import org.teiid.language.BatchedCommand;
 import org.teiid.language.Command;
+import org.teiid.language.Comparison;
+import org.teiid.language.Expression;
+import org.teiid.language.ExpressionValueSource;
+import org.teiid.language.Function;
+import org.teiid.language.In;
 import org.teiid.language.Insert;
+import org.teiid.language.IsNull;
+import org.teiid.language.Like;
+import org.teiid.language.Literal;
+import org.teiid.language.Parameter;
+import org.teiid.language.SetClause;
 import org.teiid.language.Update;
+import org.teiid.language.visitor.HierarchyVisitor;
 import org.teiid.metadata.Column;
 import org.teiid.metadata.ForeignKey;
 import org.teiid.metadata.KeyRecord;
@@ -46,6 +58,8 @@ import org.teiid.translator.mongodb.MutableDBRef.Association;
 import com.mongodb.AggregationOutput;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteResult;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
 import com.mongodb.MongoException;
@@ -53,6 +67,84 @@ import com.mongodb.WriteConcern;
 import com.mongodb.WriteResult;
 
 public class MongoDBUpdateExecution extends MongoDBBaseExecution implements UpdateExecution {
+	
+	/**
+	 * Replaces the {@link Parameter}s of a bulk command with {@link Literal}s, so that
+	 * the command can be executed once for each row of parameter values.
+	 */
+	private static class ParameterBinder extends HierarchyVisitor {
+		private List<Literal> literals = new ArrayList<Literal>();
+		private List<Integer> valueIndexes = new ArrayList<Integer>();
+		private boolean unbound;
+		
+		private Expression bind(Expression expr) {
+			if (!(expr instanceof Parameter)) {
+				return expr;
+			}
+			Parameter param = (Parameter)expr;
+			Literal literal = new Literal(null, param.getType());
+			this.literals.add(literal);
+			this.valueIndexes.add(param.getValueIndex());
+			return literal;
+		}
+		
+		private void bind(List<Expression> exprs) {
+			for (int i = 0; i < exprs.size(); i++) {
+				exprs.set(i, bind(exprs.get(i)));
+			}
+		}
+		
+		@Override
+		public void visit(Comparison obj) {
+			obj.setLeftExpression(bind(obj.getLeftExpression()));
+			obj.setRightExpression(bind(obj.getRightExpression()));
+			super.visit(obj);
+		}
+		
+		@Override
+		public void visit(In obj) {
+			obj.setLeftExpression(bind(obj.getLeftExpression()));
+			bind(obj.getRightExpressions());
+			super.visit(obj);
+		}
+		
+		@Override
+		public void visit(Like obj) {
+			obj.setLeftExpression(bind(obj.getLeftExpression()));
+			obj.setRightExpression(bind(obj.getRightExpression()));
+			super.visit(obj);
+		}
+		
+		@Override
+		public void visit(IsNull obj) {
+			obj.setExpression(bind(obj.getExpression()));
+			super.visit(obj);
+		}
+		
+		@Override
+		public void visit(Function obj) {
+			bind(obj.getParameters());
+			super.visit(obj);
+		}
+		
+		@Override
+		public void visit(SetClause obj) {
+			obj.setValue(bind(obj.getValue()));
+			super.visit(obj);
+		}
+		
+		@Override
+		public void visit(Parameter obj) {
+			this.unbound = true;
+		}
+		
+		void setValues(List<?> row) {
+			for (int i = 0; i < this.literals.size(); i++) {
+				this.literals.get(i).setValue(row.get(this.valueIndexes.get(i)));
+			}
+		}
+	}
+	
 	private Command command;
 	private MongoDBUpdateVisitor visitor;
 	private MongoDBExecutionFactory executionFactory;
@@ -64,13 +156,28 @@ public class MongoDBUpdateExecution extends MongoDBBaseExecution implements Upda
 			MongoDBConnection connection) throws TranslatorException {
 		super(executionContext, metadata, connection);
 		this.command = command;
+		this.executionFactory = executionFactory;
 
-		this.visitor = new MongoDBUpdateVisitor(executionFactory, metadata, this.mongoDB);
-		this.visitor.visitNode(command);
+		if (getParameterValues() == null) {
+			this.visitor = createVisitor(command);
+		}
+	}
+
+	private MongoDBUpdateVisitor createVisitor(Command cmd) throws TranslatorException {
+		MongoDBUpdateVisitor result = new MongoDBUpdateVisitor(this.executionFactory, this.metadata, this.mongoDB);
+		result.visitNode(cmd);
+
+		if (!result.exceptions.isEmpty()) {
+			throw result.exceptions.get(0);
+		}
+		return result;
+	}
 
-		if (!this.visitor.exceptions.isEmpty()) {
-			throw this.visitor.exceptions.get(0);
+	private Iterator<? extends List<?>> getParameterValues() {
+		if (this.command instanceof BatchedCommand) {
+			return ((BatchedCommand)this.command).getParameterValues();
 		}
+		return null;
 	}
 
 	@Override
@@ -91,30 +198,63 @@ public class MongoDBUpdateExecution extends MongoDBBaseExecution implements Upda
 	}
 
 	private void executeInternal() throws TranslatorException {
+		Iterator<? extends List<?>> args = getParameterValues();
+		if (args != null) {
+			if (this.command instanceof Insert) {
+				executeBulkInsert(args);
+			} else {
+				executeBulkUpdate(args);
+			}
+			return;
+		}
 		
+		WriteResult result = executeCommand();
+		if (result != null) {
+			if (result.getError() != null) {
+				throw new TranslatorException(result.getError());
+			}
+			this.results = new int[1];
+			this.results[0] = result.getN();
+
+			if (this.command instanceof Insert) {
+	            if (this.executionContext.getCommandContext().isReturnAutoGeneratedKeys()) {
+	            	addAutoGeneretedKeys(result);
+	            }
+			}
+		}
+	}
+	
+	/**
+	 * Execute an update or delete once for each row of parameter values
+	 */
+	private void executeBulkUpdate(Iterator<? extends List<?>> args) throws TranslatorException {
+		ParameterBinder binder = new ParameterBinder();
+		binder.visitNode(this.command);
+		if (binder.unbound) {
+			throw new TranslatorException(MongoDBPlugin.Util.gs(MongoDBPlugin.Event.TEIID18024));
+		}
+		int count = 0;
+		while (args.hasNext()) {
+			binder.setValues(args.next());
+			this.visitor = createVisitor(this.command);
+			WriteResult result = executeCommand();
+			if (result != null) {
+				if (result.getError() != null) {
+					throw new TranslatorException(result.getError());
+				}
+				count += result.getN();
+			}
+		}
+		this.results = new int[] {count};
+	}
+
+	private WriteResult executeCommand() throws TranslatorException {
 		DBCollection collection = getCollection(this.visitor.mongoDoc.getTargetTable());
 		MongoDocument mongoDoc = this.visitor.mongoDoc;
 
 		WriteResult result = null;
 		if (this.command instanceof Insert) {
-			// get pull key based documents to embed
-			LinkedHashMap<String, DBObject> embeddedDocuments = fetchEmbeddedDocuments();
-
-			// check if this document need to be embedded in any other document
-			if (mongoDoc.isMerged()) {
-				MergeDetails mergeInfo = mongoDoc.getMergeParentCriteria(this.mongoDB, null, null, this.visitor.getInsert(this.mongoDB, embeddedDocuments), false);
-
-				if (mergeInfo.association.equals(Association.MANY)) {
-					result = collection.update(mergeInfo.match, new BasicDBObject("$push", mergeInfo.update), false, true, WriteConcern.ACKNOWLEDGED); //$NON-NLS-1$
-				}
-				else {
-					result = collection.update(mergeInfo.match, new BasicDBObject("$set", mergeInfo.update), false, true, WriteConcern.ACKNOWLEDGED); //$NON-NLS-1$
-				}
-			}
-			else {
-				// gets its own collection
-				result = collection.insert(this.visitor.getInsert(this.mongoDB, embeddedDocuments), WriteConcern.ACKNOWLEDGED);
-			}
+			result = insert(collection, null);
 		}
 		else if (this.command instanceof Update) {
 			// get pull key based documents to embed
@@ -204,19 +344,102 @@ public class MongoDBUpdateExecution extends MongoDBBaseExecution implements Upda
 			}
 		}
 
-		if (result != null) {
-			if (result.getError() != null) {
-				throw new TranslatorException(result.getError());
+		return result;
+	}
+
+	/**
+	 * Insert the document for the current visitor, or if a bulk operation is supplied 
+	 * add the equivalent write to it.
+	 * @return the result or null if added to the bulk operation
+	 */
+	private WriteResult insert(DBCollection collection, BulkWriteOperation bulk) throws TranslatorException {
+		MongoDocument mongoDoc = this.visitor.mongoDoc;
+		// get pull key based documents to embed
+		LinkedHashMap<String, DBObject> embeddedDocuments = fetchEmbeddedDocuments();
+
+		// check if this document need to be embedded in any other document
+		if (mongoDoc.isMerged()) {
+			MergeDetails mergeInfo = mongoDoc.getMergeParentCriteria(this.mongoDB, null, null, this.visitor.getInsert(this.mongoDB, embeddedDocuments), false);
+
+			BasicDBObject update = null;
+			if (mergeInfo.association.equals(Association.MANY)) {
+				update = new BasicDBObject("$push", mergeInfo.update); //$NON-NLS-1$
 			}
-			this.results = new int[1];
-			this.results[0] = result.getN();
+			else {
+				update = new BasicDBObject("$set", mergeInfo.update); //$NON-NLS-1$
+			}
+			if (bulk != null) {
+				bulk.find(mergeInfo.match).update(update);
+				return null;
+			}
+			return collection.update(mergeInfo.match, update, false, true, WriteConcern.ACKNOWLEDGED);
+		}
+		// gets its own collection
+		BasicDBObject document = this.visitor.getInsert(this.mongoDB, embeddedDocuments);
+		if (bulk != null) {
+			bulk.insert(document);
+			return null;
+		}
+		return collection.insert(document, WriteConcern.ACKNOWLEDGED);
+	}
 
-			if (this.command instanceof Insert) {
-	            if (this.executionContext.getCommandContext().isReturnAutoGeneratedKeys()) {
-	            	addAutoGeneretedKeys(result);
-	            }
+	/**
+	 * Send the rows of a bulk insert as ordered bulk writes of up to the batch size, 
+	 * rather than as an insert per row.
+	 */
+	private void executeBulkInsert(Iterator<? extends List<?>> args) throws TranslatorException {
+		Insert insert = (Insert)this.command;
+		List<Expression> values = ((ExpressionValueSource)insert.getValueSource()).getValues();
+		boolean generatedKeys = this.executionContext.getCommandContext().isReturnAutoGeneratedKeys();
+		int batchSize = Math.max(1, this.executionContext.getBatchSize());
+
+		DBCollection collection = null;
+		BulkWriteOperation bulk = null;
+		int pending = 0;
+		int count = 0;
+		while (args.hasNext()) {
+			List<?> row = args.next();
+			List<Expression> rowValues = new ArrayList<Expression>(values.size());
+			for (Expression expr : values) {
+				if (expr instanceof Parameter) {
+					Parameter param = (Parameter)expr;
+					expr = new Literal(row.get(param.getValueIndex()), param.getType());
+				}
+				rowValues.add(expr);
+			}
+			this.visitor = createVisitor(new Insert(insert.getTable(), insert.getColumns(), new ExpressionValueSource(rowValues)));
+			if (collection == null) {
+				collection = getCollection(this.visitor.mongoDoc.getTargetTable());
+			}
+			if (generatedKeys) {
+				//the keys are obtained from each write result
+				WriteResult result = insert(collection, null);
+				if (result.getError() != null) {
+					throw new TranslatorException(result.getError());
+				}
+				count += result.getN();
+				addAutoGeneretedKeys(result);
+				continue;
 			}
+			if (bulk == null) {
+				bulk = collection.initializeOrderedBulkOperation();
+			}
+			insert(collection, bulk);
+			if (++pending >= batchSize) {
+				count += executeBulk(bulk);
+				bulk = null;
+				pending = 0;
+			}
+		}
+		if (bulk != null) {
+			count += executeBulk(bulk);
 		}
+		this.results = new int[] {count};
+	}
+
+	private int executeBulk(BulkWriteOperation bulk) {
+		BulkWriteResult result = bulk.execute(WriteConcern.ACKNOWLEDGED);
+		return result.getInsertedCount() + result.getMatchedCount();
 	}
 
 	private void updateReferenceTables(DBCollection collection, MongoDocument mongoDoc, DBObject match) throws TranslatorException {
@@ -21,7 +21,8 @@
  */
 package org.teiid.translator.mongodb;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -38,9 +39,10 @@ import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ResultSetExecution;
 import org.teiid.translator.TranslatorException;
 
-import com.mongodb.AggregationOutput;
+import com.mongodb.AggregationOptions;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
+import com.mongodb.Cursor;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
@@ -60,7 +62,7 @@ public class TestMongoDBQueryExecution {
     	this.utility = new TranslationUtility(metadata);
     }
 
-	private DBCollection helpExecute(String query, String[] expectedCollection, int expectedParameters) throws TranslatorException {
+	private DBCollection helpExecute(String query, String[] expectedCollection) throws TranslatorException {
 		Command cmd = this.utility.parseCommand(query);
 		ExecutionContext context = Mockito.mock(ExecutionContext.class);
 		MongoDBConnection connection = Mockito.mock(MongoDBConnection.class);
@@ -71,15 +73,8 @@ public class TestMongoDBQueryExecution {
 			Mockito.stub(db.getCollection(collection)).toReturn(dbCollection);
 		}
 
-		AggregationOutput output = Mockito.mock(AggregationOutput.class);
-		Mockito.stub(output.results()).toReturn(new ArrayList<DBObject>());
-
-		ArrayList<DBObject> params = new ArrayList<DBObject>();
-		for (int i = 0; i < expectedParameters; i++) {
-			params.add(Mockito.any(DBObject.class));
-		}
-
-		Mockito.stub(dbCollection.aggregate(params.remove(0), params.toArray(new DBObject[params.size()]))).toReturn(output);
+		Cursor output = Mockito.mock(Cursor.class);
+		Mockito.stub(dbCollection.aggregate(Mockito.anyList(), Mockito.any(AggregationOptions.class))).toReturn(output);
 
 		Mockito.stub(db.collectionExists(Mockito.anyString())).toReturn(true);
 		Mockito.stub(connection.getDatabase()).toReturn(db);
@@ -91,11 +86,15 @@ public class TestMongoDBQueryExecution {
 		return dbCollection;
 	}
 
+	private List<DBObject> buildArray(DBObject ... basicDBObjects) {
+		return Arrays.asList(basicDBObjects);
+	}
+
 	@Test
 	public void testSimpleSelectNoAssosiations() throws Exception {
 		String query = "SELECT * FROM Customers";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"}, 1);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$_id");
@@ -110,84 +109,84 @@ public class TestMongoDBQueryExecution {
 	    result.append( "_m9","$Phone");
 	    result.append( "_m10","$Fax");
 
-		Mockito.verify(dbCollection).aggregate(new BasicDBObject("$project", result));
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 
 	@Test
 	public void testSimpleWhere() throws Exception {
 		String query = "SELECT CompanyName, ContactTitle FROM Customers WHERE Country='USA'";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$CompanyName");
 	    result.append( "_m1","$ContactTitle");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$match", new BasicDBObject("Country", "USA")),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 
 	@Test
 	public void testSelectEmbeddable() throws Exception {
 		String query = "SELECT CategoryName FROM Categories";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Categories"}, 1);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Categories"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$CategoryName");
 
-		Mockito.verify(dbCollection).aggregate(
-						new BasicDBObject("$project", result));
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 	
 	@Test
 	public void testSelectEmbeddableWithWhere_ON_NONPK() throws Exception {
 		String query = "SELECT CategoryName FROM Categories WHERE CategoryName = 'Drinks'";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Categories"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Categories"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$CategoryName");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$match",new BasicDBObject("CategoryName", "Drinks")),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}	
 	
 	@Test
 	public void testSelectEmbeddableWithWhere_ON_PK() throws Exception {
 		String query = "SELECT CategoryName FROM Categories WHERE CategoryID = 10";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Categories"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Categories"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$CategoryName");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$match",new BasicDBObject("_id", 10)),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}	
 
 	@Test
 	public void testSelectFromMerged() throws Exception {
 		String query = "SELECT UnitPrice FROM OrderDetails";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$OrderDetails.UnitPrice");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$unwind","$OrderDetails"),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 
 	@Test
 	public void testSelectMergedWithWhere() throws Exception {
 		String query = "SELECT * FROM OrderDetails WHERE odID = 10248";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$OrderDetails._id.odID");
@@ -197,40 +196,40 @@ public class TestMongoDBQueryExecution {
 	    result.append( "_m4","$OrderDetails.Discount");
 
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$unwind","$OrderDetails"),
 						new BasicDBObject("$match", new BasicDBObject("OrderDetails._id.odID.$id", 10248)),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 	
 	@Test // one-2-many
 	public void testSelectMergedWithWhere_ON_NON_PK() throws Exception {
 		String query = "SELECT Quantity FROM OrderDetails WHERE UnitPrice = '0.99'";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$OrderDetails.Quantity");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$unwind","$OrderDetails"),
 						new BasicDBObject("$match", new BasicDBObject("OrderDetails.UnitPrice", 0.99F)),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}	
 	
 	@Test // one-2-one
 	public void testSelectMergedWithWhere_ON_NON_PK_one_to_one() throws Exception {
 		String query = "SELECT cust_id, zip FROM Address WHERE Street = 'Highway 100'";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$address._id");
 	    result.append( "_m1","$address.zip");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$match", new BasicDBObject("address.street", "Highway 100")),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}	
 	
 	@Test // one-2-one
@@ -239,45 +238,45 @@ public class TestMongoDBQueryExecution {
 				"FROM customer c join address a " +
 				"on c.customer_id=a.cust_id";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$name");
 	    result.append( "_m1","$address.zip");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$match", new BasicDBObject("address", new BasicDBObject("$exists", "true"))),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}	
 	
 	@Test // one-2-one
 	public void testSelectMergedWithNOWhere_one_to_one() throws Exception {
 		String query = "SELECT cust_id, zip FROM Address";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$address._id");
 	    result.append( "_m1","$address.zip");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$match", QueryBuilder.start("address").exists("true").get()),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}	
 
 	@Test
 	public void testTwoTableInnerJoinMergeAssosiationMany() throws Exception {
 		String query = "SELECT o.CustomerID, od.ProductID FROM Orders o JOIN OrderDetails od ON o.OrderID=od.odID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"});
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$CustomerID");
 	    result.append( "_m1","$OrderDetails._id.ProductID");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$unwind","$OrderDetails"),
 						new BasicDBObject("$match", QueryBuilder.start("OrderDetails").exists("true").get()),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 
 	@Test
@@ -285,15 +284,15 @@ public class TestMongoDBQueryExecution {
 		String query = "select p.ProductName, c.CategoryName from Products p " +
 				"join Categories c on p.CategoryID = c.CategoryID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Products"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Products"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$ProductName");
 	    result.append( "_m1","$Categories.CategoryName");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$match", QueryBuilder.start("Categories").exists("true").get()),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 
 	@Test
@@ -302,7 +301,7 @@ public class TestMongoDBQueryExecution {
 				"JOIN Categories c on p.CategoryID = c.CategoryID " +
 				"WHERE p.CategoryID = 1 AND c.CategoryID = 1";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Products"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Products"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$ProductName");
@@ -313,9 +312,9 @@ public class TestMongoDBQueryExecution {
 	    DBObject p2 =  QueryBuilder.start("Categories._id").is(1).get();
 
 	    DBObject match = QueryBuilder.start().and(exists, p1, p2).get();
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$match", match),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 
 	@Test
@@ -324,7 +323,7 @@ public class TestMongoDBQueryExecution {
 				"FROM Orders o JOIN OrderDetails od ON o.OrderID=od.odID " +
 				"JOIN Shippers s ON o.ShipVia = s.ShipperID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$CustomerID");
@@ -335,10 +334,10 @@ public class TestMongoDBQueryExecution {
 	    		(QueryBuilder.start("Shippers").exists("true").get())).get();
 
 	    
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$unwind","$OrderDetails"),
 						new BasicDBObject("$match", match),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 
 	@Test
@@ -347,7 +346,7 @@ public class TestMongoDBQueryExecution {
 				"LEFT OUTER JOIN OrderDetails ON Orders.OrderID = OrderDetails.odID " +
 				"WHERE OrderDetails.odID IS NOT NULL";
 		
-		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"}, 4);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Orders"});
 
 	    BasicDBObject projection = new BasicDBObject();
 	    projection.append( "OrderID", 1);
@@ -363,11 +362,11 @@ public class TestMongoDBQueryExecution {
 	    result.append( "_m1","$__NN_OrderDetails._id.ProductID");
 
 	    DBObject match = QueryBuilder.start("__NN_OrderDetails._id.odID.$id").notEquals(null).get();
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    				new BasicDBObject("$project", projection),
 						new BasicDBObject("$unwind","$__NN_OrderDetails"),
 						new BasicDBObject("$match",match),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 
 
@@ -375,7 +374,7 @@ public class TestMongoDBQueryExecution {
     public void testSelectNestedEmbedding()  throws Exception {
     	String query = "select T1.e1, T2.e1, T3.e1 from T1 JOIN T2 ON T1.e1=T2.e1 JOIN T3 ON T2.e1 = T3.e1";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"T1", "T2", "T3"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"T1", "T2", "T3"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$e1");
@@ -384,26 +383,26 @@ public class TestMongoDBQueryExecution {
 
 	    DBObject match = QueryBuilder.start().and(QueryBuilder.start("T2").exists("true").get(),
 	    		(QueryBuilder.start("T3").exists("true").get())).get();
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    		new BasicDBObject("$match", match),
-	    		new BasicDBObject("$project", result));
+	    		new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }
 
     @Test
     public void testSelectNestedMerge()  throws Exception {
     	String query = "select * from payment";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$rental.payment._id");
 	    result.append( "_m1","$rental.payment.rental_id");
 	    result.append( "_m2","$rental.payment.amount");
 
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 				new BasicDBObject("$unwind","$rental"),
 				new BasicDBObject("$unwind","$rental.payment"),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }
     
         
@@ -415,15 +414,15 @@ public class TestMongoDBQueryExecution {
     			"Products p " +
     			"ON s.SupplierID = p.SupplierID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Products"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Products"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$ProductName");
 	    result.append( "_m1","$Suppliers.CompanyName");
 
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 				new BasicDBObject("$match", QueryBuilder.start("Suppliers").exists("true").get()),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }
     
     @Test // embedded means always nested as doc not as array 
@@ -434,15 +433,15 @@ public class TestMongoDBQueryExecution {
     			"Suppliers s " +
     			"ON s.SupplierID = p.SupplierID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Products"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Products"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$ProductName");
 	    result.append( "_m1","$Suppliers.CompanyName");
 
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 				new BasicDBObject("$match", QueryBuilder.start("Suppliers").exists("true").get()),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }    
     
     @Test(expected=TranslatorException.class) // embedded means always nested as doc not as array 
@@ -453,15 +452,15 @@ public class TestMongoDBQueryExecution {
     			"Products p " +
     			"ON s.SupplierID = p.SupplierID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Products"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Products"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$ProductName");
 	    result.append( "_m1","$Suppliers.CompanyName");
 
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 				new BasicDBObject("$match", QueryBuilder.start("SupplierID").notEquals(null).and(QueryBuilder.start("Suppliers._id").notEquals(null).get()).get()),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }    
     
     @Test // embedded means always nested as doc not as array 
@@ -472,14 +471,14 @@ public class TestMongoDBQueryExecution {
     			"Suppliers s " +
     			"ON s.SupplierID = p.SupplierID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Products"}, 1);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Products"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$ProductName");
 	    result.append( "_m1","$Suppliers.CompanyName");
 
-	    Mockito.verify(dbCollection).aggregate(
-				new BasicDBObject("$project", result));
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }    
     
     @Test // embedded means always nested as doc not as array 
@@ -490,13 +489,13 @@ public class TestMongoDBQueryExecution {
     			"Products p " +
     			"ON s.SupplierID = p.SupplierID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Products"}, 1);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Products"});
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$ProductName");
 	    result.append( "_m1","$Suppliers.CompanyName");
 
-	    Mockito.verify(dbCollection).aggregate(
-				new BasicDBObject("$project", result));
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }    
     
     // embedded means always nested as doc not as array
@@ -508,15 +507,15 @@ public class TestMongoDBQueryExecution {
     			"Suppliers s " +
     			"ON s.SupplierID = p.SupplierID";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Products"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Products"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$ProductName");
 	    result.append( "_m1","$Suppliers.CompanyName");
 
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 				new BasicDBObject("$match", QueryBuilder.start("_id").notEquals(null).get()),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }
     
     @Test // merge where one to many relation 
@@ -527,16 +526,16 @@ public class TestMongoDBQueryExecution {
     			"Notes n " +
     			"ON c.customer_id = n.CustomerId";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$name");
 	    result.append( "_m1","$Notes.Comment");
 
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    		new BasicDBObject("$unwind", "$Notes"),
 				new BasicDBObject("$match", QueryBuilder.start("Notes").exists("true").get()),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }
     
     @Test // merge where one to many relation 
@@ -547,7 +546,7 @@ public class TestMongoDBQueryExecution {
     			"Notes n " +
     			"ON c.customer_id = n.CustomerId";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$name");
@@ -559,10 +558,10 @@ public class TestMongoDBQueryExecution {
 	 	project.append("customer_id", 1);
 	 	project.append("name", 1);
 	 	project.append("__NN_Notes", ifnull);
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    		new BasicDBObject("$project", project),
 	    		new BasicDBObject("$unwind", "$__NN_Notes"),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }
     
     @Test // merge where one to many relation - equal to inner join with doc format teiid has
@@ -573,16 +572,16 @@ public class TestMongoDBQueryExecution {
     			"Notes n " +
     			"ON c.customer_id = n.CustomerId";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 		
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$name");
 	    result.append( "_m1","$Notes.Comment");
 		
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    		new BasicDBObject("$unwind", "$Notes"),
 	    		new BasicDBObject("$match", QueryBuilder.start("Notes").exists("true").get()),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }    
     
     
@@ -594,16 +593,16 @@ public class TestMongoDBQueryExecution {
     			"Customer c " +
     			"ON c.customer_id = n.CustomerId";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 		
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$name");
 	    result.append( "_m1","$Notes.Comment");
 		
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    		new BasicDBObject("$unwind", "$Notes"),
 	    		new BasicDBObject("$match", QueryBuilder.start("Notes").exists("true").get()),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }    
     
     @Test // merge where one to many relation (2 merged tables into customer)
@@ -615,7 +614,7 @@ public class TestMongoDBQueryExecution {
     			"ON c.customer_id = n.CustomerId " +
     			"LEFT JOIN rental r ON r.customer_id = c.customer_id";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 4);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$name");
@@ -627,11 +626,11 @@ public class TestMongoDBQueryExecution {
 	 	project.append("name", 1);
 	 	project.append("__NN_Notes", buildIfNullExpression("Notes"));
 	 	project.append("__NN_rental", buildIfNullExpression("rental"));
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    		new BasicDBObject("$project", project),
 	    		new BasicDBObject("$unwind", "$__NN_rental"),
 	    		new BasicDBObject("$unwind", "$__NN_Notes"),
-				new BasicDBObject("$project", result));
+				new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
     }    
 
 	private BasicDBObject buildIfNullExpression(String table) {
@@ -648,21 +647,21 @@ public class TestMongoDBQueryExecution {
 	public void testSimpleGroupBy() throws Exception {
 		String query = "SELECT Country FROM Customers GROUP BY Country";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$_id._c0");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$group", new BasicDBObject("_id", new BasicDBObject("_c0", "$Country"))),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}
 	
 	@Test
 	public void testMultipleGroupBy() throws Exception {
 		String query = "SELECT Country,City FROM Customers GROUP BY Country,City";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"});
 
 	    BasicDBObject project = new BasicDBObject();
 	    project.append( "_m0","$_id._c0");
@@ -672,30 +671,30 @@ public class TestMongoDBQueryExecution {
 	    group.append( "_c0","$Country");
 	    group.append( "_c1","$City");
 	    	    
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$group", new BasicDBObject("_id", group)),
-						new BasicDBObject("$project", project));
+						new BasicDBObject("$project", project))), Mockito.any(AggregationOptions.class));
 	}	
 	
 	@Test
 	public void testDistinctSingle() throws Exception {
 		String query = "SELECT DISTINCT Country FROM Customers";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$_id._m0");
 
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$group", new BasicDBObject("_id", new BasicDBObject("_m0", "$Country"))),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}	
 	
 	@Test
 	public void testDistinctMulti() throws Exception {
 		String query = "SELECT DISTINCT Country, City FROM Customers";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"Customers"});
 
 	    BasicDBObject result = new BasicDBObject();
 	    result.append( "_m0","$_id._m0");
@@ -705,9 +704,9 @@ public class TestMongoDBQueryExecution {
 	    group.append( "_m0","$Country");
 	    group.append( "_m1","$City");
 	    
-		Mockito.verify(dbCollection).aggregate(
+		Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 						new BasicDBObject("$group", new BasicDBObject("_id", group)),
-						new BasicDBObject("$project", result));
+						new BasicDBObject("$project", result))), Mockito.any(AggregationOptions.class));
 	}	
 	
     @Test // embedded means always nested as doc not as array 
@@ -717,7 +716,7 @@ public class TestMongoDBQueryExecution {
 				"on c.customer_id=a.cust_id " +
 				"GROUP BY c.name, a.zip";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 3);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject project = new BasicDBObject();
 	    project.append( "_m0","$_id._c0");
@@ -727,10 +726,10 @@ public class TestMongoDBQueryExecution {
 	    group.append( "_c0","$name");
 	    group.append( "_c1","$address.zip");	    
 
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    		new BasicDBObject("$match", new BasicDBObject("address", new BasicDBObject("$exists", "true"))),
 	    		new BasicDBObject("$group", new BasicDBObject("_id", group)),
-				new BasicDBObject("$project", project));
+				new BasicDBObject("$project", project))), Mockito.any(AggregationOptions.class));
     }	
     
     @Test // embedded means always nested as doc not as array 
@@ -742,7 +741,7 @@ public class TestMongoDBQueryExecution {
 				"ORDER BY c.name, a.zip " +
 				"limit 2";
 
-		DBCollection dbCollection = helpExecute(query, new String[]{"customer"}, 6);
+		DBCollection dbCollection = helpExecute(query, new String[]{"customer"});
 
 	    BasicDBObject project = new BasicDBObject();
 	    project.append( "_m0","$_id._c0");
@@ -756,20 +755,20 @@ public class TestMongoDBQueryExecution {
 	    sort.append( "_m0",1);
 	    sort.append( "_m1",1);
 	    
-	    Mockito.verify(dbCollection).aggregate(
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(
 	    		new BasicDBObject("$match", new BasicDBObject("address", new BasicDBObject("$exists", "true"))),
 	    		new BasicDBObject("$group", new BasicDBObject("_id", group)),
 				new BasicDBObject("$project", project),
 				new BasicDBObject("$sort", sort),
 				new BasicDBObject("$skip", 0),
-				new BasicDBObject("$limit", 2));
+				new BasicDBObject("$limit", 2))), Mockito.any(AggregationOptions.class));
     }    
     
     @Test
     public void testSumWithGroupBy() throws Exception {
     	String query = "SELECT SUM(age) as total FROM users GROUP BY user_id";
     	
-    	DBCollection dbCollection = helpExecute(query, new String[]{"users"}, 2);
+    	DBCollection dbCollection = helpExecute(query, new String[]{"users"});
     	BasicDBObject id = new BasicDBObject();
 	    id.append( "_c0","$user_id");
 	    
@@ -779,9 +778,9 @@ public class TestMongoDBQueryExecution {
 		BasicDBObject project = new BasicDBObject();
 	    project.append( "total",1);
 
-	    Mockito.verify(dbCollection).aggregate(	    		
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(	    		
 	    		new BasicDBObject("$group", group),
-				new BasicDBObject("$project", project));
+				new BasicDBObject("$project", project))), Mockito.any(AggregationOptions.class));
     }
     
     
@@ -789,7 +788,7 @@ public class TestMongoDBQueryExecution {
     public void testSumWithGroupBy2() throws Exception {
     	String query = "SELECT user_id, status, SUM(age) as total FROM users GROUP BY user_id, status";
     	
-		DBCollection dbCollection = helpExecute(query, new String[]{"users"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"users"});
 
 		BasicDBObject project = new BasicDBObject();
 	    project.append( "_m0","$_id._c0");
@@ -803,16 +802,16 @@ public class TestMongoDBQueryExecution {
 	    BasicDBObject group = new BasicDBObject("_id", id);
 	    group.append("total", new BasicDBObject("$sum", "$age"));
 		
-	    Mockito.verify(dbCollection).aggregate(	    		
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(	    		
 	    		new BasicDBObject("$group", group),
-				new BasicDBObject("$project", project));
+				new BasicDBObject("$project", project))), Mockito.any(AggregationOptions.class));
     }
  
     @Test
     public void testSumWithGroupBy3() throws Exception {
     	String query = "SELECT user_id, SUM(age) as total FROM users GROUP BY user_id";
     	
-		DBCollection dbCollection = helpExecute(query, new String[]{"users"}, 2);
+		DBCollection dbCollection = helpExecute(query, new String[]{"users"});
 
 		BasicDBObject project = new BasicDBObject();
 	    project.append( "_m0","$_id._c0");
@@ -824,16 +823,16 @@ public class TestMongoDBQueryExecution {
 	    BasicDBObject group = new BasicDBObject("_id", id);
 	    group.append("total", new BasicDBObject("$sum", "$age"));
 		
-	    Mockito.verify(dbCollection).aggregate(	    		
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(	    		
 	    		new BasicDBObject("$group", group),
-				new BasicDBObject("$project", project));    	
+				new BasicDBObject("$project", project))), Mockito.any(AggregationOptions.class));    	
     }     
     
     @Test
     public void testAggregateWithHaving() throws Exception {
     	String query = "SELECT SUM(age) as total FROM users GROUP BY user_id HAVING SUM(age) > 250";
 
-    	DBCollection dbCollection = helpExecute(query, new String[]{"users"}, 3);
+    	DBCollection dbCollection = helpExecute(query, new String[]{"users"});
 
 		BasicDBObject project = new BasicDBObject();
 	    project.append( "total",1);
@@ -844,10 +843,10 @@ public class TestMongoDBQueryExecution {
 	    BasicDBObject group = new BasicDBObject("_id", id);
 	    group.append("total", new BasicDBObject("$sum", "$age"));
 		
-	    Mockito.verify(dbCollection).aggregate(	   
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(	   
 	    		new BasicDBObject("$group", group),
 	    		new BasicDBObject("$match", QueryBuilder.start("total").greaterThan(250).get()),
-				new BasicDBObject("$project", project));    	
+				new BasicDBObject("$project", project))), Mockito.any(AggregationOptions.class));    	
     	
     }    
     
@@ -855,7 +854,7 @@ public class TestMongoDBQueryExecution {
     public void testAggregateWithHavingAndWhere() throws Exception {
     	String query = "SELECT SUM(age) as total FROM users WHERE age > 45 GROUP BY user_id HAVING SUM(age) > 250";
     	
-		DBCollection dbCollection = helpExecute(query, new String[]{"users"}, 4);
+		DBCollection dbCollection = helpExecute(query, new String[]{"users"});
 
 		BasicDBObject project = new BasicDBObject();
 	    project.append( "total",1);
@@ -866,10 +865,10 @@ public class TestMongoDBQueryExecution {
 	    BasicDBObject group = new BasicDBObject("_id", id);
 	    group.append("total", new BasicDBObject("$sum", "$age"));
 		
-	    Mockito.verify(dbCollection).aggregate(	   
+	    Mockito.verify(dbCollection).aggregate(Mockito.eq(buildArray(	   
 	    		new BasicDBObject("$match", QueryBuilder.start("age").greaterThan(45).get()),
 	    		new BasicDBObject("$group", group),
 	    		new BasicDBObject("$match", QueryBuilder.start("total").greaterThan(250).get()),
-				new BasicDBObject("$project", project));    	
+				new BasicDBObject("$project", project))), Mockito.any(AggregationOptions.class));    	
     }    
 }
@@ -21,7 +21,11 @@
  */
 package org.teiid.translator.mongodb;
 
+import static org.junit.Assert.*;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -31,6 +35,12 @@ import org.teiid.cdk.api.TranslationUtility;
 import org.teiid.core.util.ObjectConverterUtil;
 import org.teiid.core.util.UnitTestUtil;
 import org.teiid.language.Command;
+import org.teiid.language.Comparison;
+import org.teiid.language.Expression;
+import org.teiid.language.ExpressionValueSource;
+import org.teiid.language.Insert;
+import org.teiid.language.Parameter;
+import org.teiid.language.Update;
 import org.teiid.mongodb.MongoDBConnection;
 import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.unittest.RealMetadataFactory;
@@ -79,6 +89,89 @@ public class TestMongoDBUpdateExecution {
 		Mockito.verify(dbCollection, Mockito.never()).update(new BasicDBObject(), result, false, true, WriteConcern.ACKNOWLEDGED);
 	}
 
+	@Test
+	public void testBulkInsert() throws Exception {
+		String query = "insert into Customers (CustomerID, CompanyName) VALUES ('11', 'jboss')";
+		Insert insert = (Insert)this.utility.parseCommand(query);
+		List<Expression> values = ((ExpressionValueSource)insert.getValueSource()).getValues();
+		for (int i = 0; i < values.size(); i++) {
+			Parameter param = new Parameter();
+			param.setType(String.class);
+			param.setValueIndex(i);
+			values.set(i, param);
+		}
+		List<List<?>> rows = new ArrayList<List<?>>();
+		rows.add(Arrays.asList("11", "jboss"));
+		rows.add(Arrays.asList("12", "teiid"));
+		insert.setParameterValues(rows.iterator());
+
+		ExecutionContext context = Mockito.mock(ExecutionContext.class);
+		Mockito.stub(context.getCommandContext()).toReturn(Mockito.mock(CommandContext.class));
+		Mockito.stub(context.getBatchSize()).toReturn(256);
+		MongoDBConnection connection = Mockito.mock(MongoDBConnection.class);
+		DB db = Mockito.mock(DB.class);
+		DBCollection dbCollection = Mockito.mock(DBCollection.class);
+		Mockito.stub(db.getCollection("Customers")).toReturn(dbCollection);
+		Mockito.stub(db.collectionExists(Mockito.anyString())).toReturn(true);
+		Mockito.stub(connection.getDatabase()).toReturn(db);
+
+		BulkWriteOperation bulk = Mockito.mock(BulkWriteOperation.class);
+		Mockito.stub(dbCollection.initializeOrderedBulkOperation()).toReturn(bulk);
+		BulkWriteResult bulkResult = Mockito.mock(BulkWriteResult.class);
+		Mockito.stub(bulkResult.getInsertedCount()).toReturn(2);
+		Mockito.stub(bulk.execute(WriteConcern.ACKNOWLEDGED)).toReturn(bulkResult);
+
+		UpdateExecution execution = this.translator.createUpdateExecution(insert, context, this.utility.createRuntimeMetadata(), connection);
+		execution.execute();
+
+		Mockito.verify(bulk).insert(new BasicDBObject("_id", "11").append("CompanyName", "jboss"));
+		Mockito.verify(bulk).insert(new BasicDBObject("_id", "12").append("CompanyName", "teiid"));
+		Mockito.verify(bulk, Mockito.times(1)).execute(WriteConcern.ACKNOWLEDGED);
+		Mockito.verify(dbCollection, Mockito.never()).insert(Mockito.any(DBObject.class), Mockito.any(WriteConcern.class));
+		assertArrayEquals(new int[] {2}, execution.getUpdateCounts());
+	}
+
+	@Test
+	public void testBulkUpdate() throws Exception {
+		String query = "UPDATE Customers SET CompanyName='JBOSS' WHERE CustomerID = '11'";
+		Update update = (Update)this.utility.parseCommand(query);
+		Parameter value = new Parameter();
+		value.setType(String.class);
+		value.setValueIndex(0);
+		update.getChanges().get(0).setValue(value);
+		Parameter key = new Parameter();
+		key.setType(String.class);
+		key.setValueIndex(1);
+		((Comparison)update.getWhere()).setRightExpression(key);
+		List<List<?>> rows = new ArrayList<List<?>>();
+		rows.add(Arrays.asList("jboss", "11"));
+		rows.add(Arrays.asList("teiid", "12"));
+		update.setParameterValues(rows.iterator());
+
+		ExecutionContext context = Mockito.mock(ExecutionContext.class);
+		Mockito.stub(context.getCommandContext()).toReturn(Mockito.mock(CommandContext.class));
+		MongoDBConnection connection = Mockito.mock(MongoDBConnection.class);
+		DB db = Mockito.mock(DB.class);
+		DBCollection dbCollection = Mockito.mock(DBCollection.class);
+		Mockito.stub(db.getCollection("Customers")).toReturn(dbCollection);
+		Mockito.stub(db.collectionExists(Mockito.anyString())).toReturn(true);
+		Mockito.stub(connection.getDatabase()).toReturn(db);
+		WriteResult writeResult = Mockito.mock(WriteResult.class);
+		Mockito.stub(writeResult.getN()).toReturn(1);
+		Mockito.stub(dbCollection.update(Mockito.any(BasicDBObject.class),
+				Mockito.any(BasicDBObject.class),
+				Mockito.eq(false),
+				Mockito.eq(true),
+				Mockito.any(WriteConcern.class))).toReturn(writeResult);
+
+		UpdateExecution execution = this.translator.createUpdateExecution(update, context, this.utility.createRuntimeMetadata(), connection);
+		execution.execute();
+
+		Mockito.verify(dbCollection).update(new BasicDBObject("_id", "11"), new BasicDBObject("$set", new BasicDBObject("CompanyName", "jboss")), false, true, WriteConcern.ACKNOWLEDGED);
+		Mockito.verify(dbCollection).update(new BasicDBObject("_id", "12"), new BasicDBObject("$set", new BasicDBObject("CompanyName", "teiid")), false, true, WriteConcern.ACKNOWLEDGED);
+		assertArrayEquals(new int[] {2}, execution.getUpdateCounts());
+	}
+
 	@Test
 	public void testEmbeddableInsert() throws Exception {
 		String query = "INSERT INTO Categories (CategoryID, CategoryName, Description, Picture) " +
@@ -27,9 +27,11 @@ import static org.teiid.translator.TypeFacility.RUNTIME_NAMES.STRING;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.resource.cci.ConnectionFactory;
 
+import org.teiid.core.util.ExecutorUtils;
 import org.teiid.language.Argument;
 import org.teiid.language.Call;
 import org.teiid.language.Command;
@@ -50,6 +52,8 @@ public class SalesForceExecutionFactory extends ExecutionFactory<ConnectionFacto
 	private static final String INCLUDES = "includes";//$NON-NLS-1$
 	private boolean auditModelFields = false;
 	private int maxInsertBatchSize = 2048;
+	private int maxPrefetchThreads;
+	private Executor prefetchExecutor;
 	
 	public SalesForceExecutionFactory() {
 	    // http://jira.jboss.org/jira/browse/JBEDSP-306
@@ -73,6 +77,9 @@ public class SalesForceExecutionFactory extends ExecutionFactory<ConnectionFacto
 		super.start();
 		addPushDownFunction(SALESFORCE, INCLUDES, BOOLEAN, STRING, STRING);
 		addPushDownFunction(SALESFORCE, EXCLUDES, BOOLEAN, STRING, STRING);
+		if (maxPrefetchThreads > 0) {
+			prefetchExecutor = ExecutorUtils.newFixedThreadPool(maxPrefetchThreads, "Salesforce Prefetch"); //$NON-NLS-1$
+		}
 		LogManager.logTrace(LogConstants.CTX_CONNECTOR, "Salesforce ExecutionFactory Started"); //$NON-NLS-1$
 	}
 
@@ -80,7 +87,9 @@ public class SalesForceExecutionFactory extends ExecutionFactory<ConnectionFacto
 	@Override
 	public ResultSetExecution createResultSetExecution(QueryExpression command, ExecutionContext executionContext, RuntimeMetadata metadata, SalesforceConnection connection)
 			throws TranslatorException {
-		return new QueryExecutionImpl(command, connection, metadata, executionContext);
+		QueryExecutionImpl result = new QueryExecutionImpl(command, connection, metadata, executionContext);
+		result.setPrefetchExecutor(prefetchExecutor);
+		return result;
 	}
 	
 	@Override
@@ -246,4 +255,13 @@ public class SalesForceExecutionFactory extends ExecutionFactory<ConnectionFacto
     	}
 		this.maxInsertBatchSize = maxInsertBatchSize;
 	}
+    
+    @TranslatorProperty(display="Max Prefetch Threads", description="The max number of threads used to fetch the next page of query results while the current page is processed.  0 disables prefetch.  Default 0.", advanced=true)
+    public int getMaxPrefetchThreads() {
+		return maxPrefetchThreads;
+	}
+    
+    public void setMaxPrefetchThreads(int maxPrefetchThreads) {
+		this.maxPrefetchThreads = maxPrefetchThreads;
+	}
 }
@@ -32,6 +32,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -52,6 +53,7 @@ import org.teiid.metadata.AbstractMetadataRecord;
 import org.teiid.metadata.Column;
 import org.teiid.metadata.RuntimeMetadata;
 import org.teiid.metadata.Table;
+import org.teiid.translator.AsyncResult;
 import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ResultSetExecution;
@@ -114,6 +116,12 @@ public class QueryExecutionImpl implements ResultSetExecution {
 	
 	private Calendar cal;
 	
+	private Executor prefetchExecutor;
+	
+	private AsyncResult<QueryResult> prefetch;
+	
+	private Prefetch prefetchTask;
+	
 	public QueryExecutionImpl(QueryExpression command, SalesforceConnection connection, RuntimeMetadata metadata, ExecutionContext context) {
 		this.connection = connection;
 		this.metadata = metadata;
@@ -128,10 +136,26 @@ public class QueryExecutionImpl implements ResultSetExecution {
 
 	public void cancel() throws TranslatorException {
 		LogManager.logDetail(LogConstants.CTX_CONNECTOR, SalesForcePlugin.Util.getString("SalesforceQueryExecutionImpl.cancel"));//$NON-NLS-1$
+		Prefetch task = prefetchTask;
+		if (task != null) {
+			task.cancel();
+		}
 	}
 
 	public void close() {
 		LogManager.logDetail(LogConstants.CTX_CONNECTOR, SalesForcePlugin.Util.getString("SalesforceQueryExecutionImpl.close")); //$NON-NLS-1$
+		prefetch = null;
+		Prefetch task = prefetchTask;
+		prefetchTask = null;
+		if (task != null) {
+			//the connection must not be in use once the execution is closed
+			task.cancel();
+			try {
+				task.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
 	}
 
 	@Override
@@ -163,48 +187,114 @@ public class QueryExecutionImpl implements ResultSetExecution {
 		}
 	}
 	
+	/**
+	 * Set the executor used to request the next page of results while the current page is processed.
+	 * If null, pages are requested as needed.
+	 */
+	public void setPrefetchExecutor(Executor prefetchExecutor) {
+		this.prefetchExecutor = prefetchExecutor;
+	}
+	
 	@SuppressWarnings("unchecked")
 	@Override
 	public List next() throws TranslatorException, DataNotAvailableException {
-		List<?> result = getRow(results);
+		List<?> result = getRow();
 		return result;
 	}
 
-	private List<Object> getRow(QueryResult result) throws TranslatorException {
-		List<Object> row;
+	private List<Object> getRow() throws TranslatorException, DataNotAvailableException {
 		if(null == resultBatch) {
-			loadBatch();
+			loadBatch(results);
 		}
-		if(resultBatch.size() == topResultIndex) {
-			row = null;
-		} else {
-			row = resultBatch.get(topResultIndex);
-			topResultIndex++;
-			if(resultBatch.size() == topResultIndex) {
-				if(!result.isDone()) {
-					loadBatch();
-				}
+		while (resultBatch.size() == topResultIndex) {
+			if (results.isDone()) {
+				return null;
 			}
-			
+			loadBatch(nextResults());
+		}
+		return resultBatch.get(topResultIndex++);
+	}
+	
+	private QueryResult nextResults() throws TranslatorException, DataNotAvailableException {
+		if (prefetch != null) {
+			QueryResult result = prefetch.get();
+			prefetch = null;
+			prefetchTask = null;
+			return result;
+		}
+		try {
+			return connection.queryMore(results.getQueryLocator(), context.getBatchSize());
+		} catch (ResourceException e) {
+			throw new TranslatorException(e);
 		}
-		return row;
 	}
 
-		private void loadBatch() throws TranslatorException {
-			try {
-				if(null != resultBatch) { // if we have an old batch, then we have to get new results
-					results = connection.queryMore(results.getQueryLocator(), context.getBatchSize());
+		private void loadBatch(QueryResult result) throws TranslatorException {
+			results = result;
+			if (prefetchExecutor != null && !result.isDone()) {
+				startPrefetch(result.getQueryLocator());
+			}
+			resultBatch = new ArrayList<List<Object>>();
+			topResultIndex = 0;
+			for(SObject sObject : result.getRecords()) {
+				List<Object[]> rows = getObjectData(sObject);
+				for(Iterator<Object[]> i = rows.iterator(); i.hasNext(); ) {
+					resultBatch.add(Arrays.asList(i.next()));
 				}
-				resultBatch = new ArrayList<List<Object>>();
-				topResultIndex = 0;
-				for(SObject sObject : results.getRecords()) {
-					List<Object[]> result = getObjectData(sObject);
-					for(Iterator<Object[]> i = result.iterator(); i.hasNext(); ) {
-						resultBatch.add(Arrays.asList(i.next()));
+			}
+		}
+
+		private void startPrefetch(String queryLocator) {
+			prefetch = new AsyncResult<QueryResult>(context);
+			prefetchTask = new Prefetch(prefetch, queryLocator, context.getBatchSize());
+			prefetchExecutor.execute(prefetchTask);
+		}
+		
+		/**
+		 * Issues the queryMore for the next page.  Once cancelled the call will not be started, 
+		 * but a call already in flight is allowed to complete since it is using the connection.
+		 */
+		private class Prefetch implements Runnable {
+			private AsyncResult<QueryResult> result;
+			private String queryLocator;
+			private int batchSize;
+			private boolean cancelled;
+			private boolean running;
+			
+			Prefetch(AsyncResult<QueryResult> result, String queryLocator, int batchSize) {
+				this.result = result;
+				this.queryLocator = queryLocator;
+				this.batchSize = batchSize;
+			}
+			
+			@Override
+			public void run() {
+				synchronized (this) {
+					if (cancelled) {
+						return;
 					}
+					running = true;
+				}
+				try {
+					result.setResult(connection.queryMore(queryLocator, batchSize));
+				} catch (Throwable e) {
+					result.setException(e);
+				} finally {
+					synchronized (this) {
+						running = false;
+						notifyAll();
+					}
+				}
+			}
+			
+			synchronized void cancel() {
+				cancelled = true;
+			}
+			
+			synchronized void await() throws InterruptedException {
+				while (running) {
+					wait();
 				}
-			} catch (ResourceException e) {
-				throw new TranslatorException(e);
 			}
 		}
 
@@ -26,17 +26,25 @@ import static org.junit.Assert.*;
 
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.teiid.cdk.api.TranslationUtility;
 import org.teiid.language.Select;
 import org.teiid.metadata.RuntimeMetadata;
 import org.teiid.query.unittest.TimestampUtil;
+import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.salesforce.SalesforceConnection;
 import org.teiid.translator.salesforce.execution.visitors.TestVisitors;
@@ -74,6 +82,135 @@ public class TestQueryExecutionImpl {
 		assertNull(qei.next());
 	}
 	
+	@Test public void testPrefetch() throws Exception {
+		Select command = (Select)translationUtility.parseCommand("select Name from Account"); //$NON-NLS-1$
+		SalesforceConnection sfc = Mockito.mock(SalesforceConnection.class);
+		QueryResult qr = new QueryResult();
+		SObject so = new SObject();
+		so.setType("Account");
+		Element elem = Mockito.mock(Element.class);
+		Mockito.stub(elem.getLocalName()).toReturn("AccountName");
+		so.getAny().add(elem);
+		qr.getRecords().add(so);
+		qr.setDone(false);
+		qr.setQueryLocator("x");
+		QueryResult finalQr = new QueryResult();
+		finalQr.getRecords().add(so);
+		finalQr.setDone(true);
+		Mockito.stub(sfc.query("SELECT Account.AccountName FROM Account", 0, false)).toReturn(qr);
+		Mockito.stub(sfc.queryMore("x", 0)).toReturn(finalQr);
+		ExecutionContext ec = Mockito.mock(ExecutionContext.class);
+		QueryExecutionImpl qei = new QueryExecutionImpl(command, sfc, Mockito.mock(RuntimeMetadata.class), ec);
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		qei.setPrefetchExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		});
+		qei.execute();
+		assertNotNull(qei.next());
+		//the next page should be requested while the first is processed
+		assertEquals(1, tasks.size());
+		try {
+			qei.next();
+			fail();
+		} catch (DataNotAvailableException e) {
+			
+		}
+		tasks.get(0).run();
+		Mockito.verify(ec).dataAvailable();
+		assertNotNull(qei.next());
+		assertNull(qei.next());
+		assertEquals(1, tasks.size());
+		Mockito.verify(sfc, Mockito.times(1)).queryMore("x", 0);
+	}
+	
+	@Test public void testCloseDuringPrefetch() throws Exception {
+		Select command = (Select)translationUtility.parseCommand("select Name from Account"); //$NON-NLS-1$
+		SalesforceConnection sfc = Mockito.mock(SalesforceConnection.class);
+		QueryResult qr = new QueryResult();
+		SObject so = new SObject();
+		so.setType("Account");
+		Element elem = Mockito.mock(Element.class);
+		Mockito.stub(elem.getLocalName()).toReturn("AccountName");
+		so.getAny().add(elem);
+		qr.getRecords().add(so);
+		qr.setDone(false);
+		qr.setQueryLocator("x");
+		final QueryResult finalQr = new QueryResult();
+		finalQr.setDone(true);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Mockito.stub(sfc.query("SELECT Account.AccountName FROM Account", 0, false)).toReturn(qr);
+		Mockito.stub(sfc.queryMore("x", 0)).toAnswer(new Answer<QueryResult>() {
+			@Override
+			public QueryResult answer(InvocationOnMock invocation) throws Throwable {
+				started.countDown();
+				release.await();
+				return finalQr;
+			}
+		});
+		final QueryExecutionImpl qei = new QueryExecutionImpl(command, sfc, Mockito.mock(RuntimeMetadata.class), Mockito.mock(ExecutionContext.class));
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		qei.setPrefetchExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		});
+		qei.execute();
+		assertNotNull(qei.next());
+		assertEquals(1, tasks.size());
+		Thread prefetchThread = new Thread(tasks.get(0));
+		prefetchThread.start();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Thread closeThread = new Thread() {
+			@Override
+			public void run() {
+				qei.close();
+			}
+		};
+		closeThread.start();
+		//close must wait for the in flight queryMore
+		closeThread.join(200);
+		assertTrue(closeThread.isAlive());
+		release.countDown();
+		closeThread.join(5000);
+		assertFalse(closeThread.isAlive());
+		prefetchThread.join(5000);
+	}
+	
+	@Test public void testCancelBeforePrefetch() throws Exception {
+		Select command = (Select)translationUtility.parseCommand("select Name from Account"); //$NON-NLS-1$
+		SalesforceConnection sfc = Mockito.mock(SalesforceConnection.class);
+		QueryResult qr = new QueryResult();
+		qr.setDone(false);
+		qr.setQueryLocator("x");
+		Mockito.stub(sfc.query("SELECT Account.AccountName FROM Account", 0, false)).toReturn(qr);
+		QueryExecutionImpl qei = new QueryExecutionImpl(command, sfc, Mockito.mock(RuntimeMetadata.class), Mockito.mock(ExecutionContext.class));
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		qei.setPrefetchExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		});
+		qei.execute();
+		try {
+			qei.next();
+			fail();
+		} catch (DataNotAvailableException e) {
+			
+		}
+		assertEquals(1, tasks.size());
+		qei.cancel();
+		qei.close();
+		//a cancelled prefetch should not use the connection
+		tasks.get(0).run();
+		Mockito.verify(sfc, Mockito.never()).queryMore("x", 0);
+	}
+	
 	@BeforeClass static public void oneTimeSetup() {
 		TimeZone.setDefault(TimeZone.getTimeZone("GMT-06:00"));
 	}
@@ -33,9 +33,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import javax.activation.DataSource;
+import javax.xml.ws.AsyncHandler;
 import javax.xml.ws.Dispatch;
+import javax.xml.ws.Response;
 import javax.xml.ws.Service.Mode;
 import javax.xml.ws.WebServiceException;
 import javax.xml.ws.handler.MessageContext;
@@ -49,6 +52,7 @@ import org.teiid.core.types.InputStreamFactory;
 import org.teiid.language.Argument;
 import org.teiid.language.Call;
 import org.teiid.metadata.RuntimeMetadata;
+import org.teiid.translator.AsyncResult;
 import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ProcedureExecution;
@@ -89,6 +93,9 @@ public class BinaryWSProcedureExecution implements ProcedureExecution {
     int responseCode = 200;
     private boolean useResponseContext;
     private boolean alwaysAllowPayloads;
+    private boolean asynchronous;
+    private AsyncResult<DataSource> asyncResult;
+    private Response<DataSource> response;
 
 	/**
      * @param env
@@ -108,6 +115,14 @@ public class BinaryWSProcedureExecution implements ProcedureExecution {
     public void setAlwaysAllowPayloads(boolean alwaysAllowPayloads) {
 		this.alwaysAllowPayloads = alwaysAllowPayloads;
 	}
+    
+    /**
+     * If true the request is made with an asynchronous invocation and the response 
+     * is not available until {@link #next()} no longer throws a {@link DataNotAvailableException}
+     */
+    public void setAsynchronous(boolean asynchronous) {
+		this.asynchronous = asynchronous;
+	}
 
     public void execute() throws TranslatorException {
         List<Argument> arguments = this.procedure.getArguments();
@@ -144,27 +159,54 @@ public class BinaryWSProcedureExecution implements ProcedureExecution {
 				ds = new InputStreamFactory.BlobInputStreamFactory((Blob)payload);
 			}
 
-			this.returnValue = dispatch.invoke(ds);
-			
-			Map<String, Object> rc = dispatch.getResponseContext();
-			this.responseCode = (Integer)rc.get(WSConnection.STATUS_CODE);
-			if (this.useResponseContext) {
-				//it's presumed that the caller will handle the response codes
-				this.responseContext = rc;
-			} else {
-				//TODO: may need to add logic around some 200/300 codes - cxf should at least be logging this
-				if (this.responseCode >= 400) {
-		    		String message = conn.getStatusMessage(this.responseCode);
-		    		throw new TranslatorException(WSExecutionFactory.Event.TEIID15005, WSExecutionFactory.UTIL.gs(WSExecutionFactory.Event.TEIID15005, this.responseCode, message));
-				}
+			if (this.asynchronous) {
+				final AsyncResult<DataSource> result = new AsyncResult<DataSource>(this.context);
+				this.asyncResult = result;
+				this.response = dispatch.invokeAsync(ds, new AsyncHandler<DataSource>() {
+					@Override
+					public void handleResponse(Response<DataSource> res) {
+						try {
+							result.setResult(res.get());
+						} catch (ExecutionException e) {
+							result.setException(e.getCause());
+						} catch (InterruptedException e) {
+							result.setException(e);
+						}
+					}
+				});
+				return;
 			}
+
+			this.returnValue = dispatch.invoke(ds);
+			handleResponse(dispatch.getResponseContext());
 		} catch (WebServiceException e) {
 			throw new TranslatorException(e);
 		}
     }
+    
+    private void handleResponse(Map<String, Object> rc) throws TranslatorException {
+		this.responseCode = (Integer)rc.get(WSConnection.STATUS_CODE);
+		if (this.useResponseContext) {
+			//it's presumed that the caller will handle the response codes
+			this.responseContext = rc;
+		} else {
+			//TODO: may need to add logic around some 200/300 codes - cxf should at least be logging this
+			if (this.responseCode >= 400) {
+	    		String message = conn.getStatusMessage(this.responseCode);
+	    		throw new TranslatorException(WSExecutionFactory.Event.TEIID15005, WSExecutionFactory.UTIL.gs(WSExecutionFactory.Event.TEIID15005, this.responseCode, message));
+			}
+		}
+    }
 
 	@Override
     public List<?> next() throws TranslatorException, DataNotAvailableException {
+		if (this.asyncResult != null) {
+			this.returnValue = this.asyncResult.get();
+			this.asyncResult = null;
+			Map<String, Object> rc = this.response.getContext();
+			this.response = null;
+			handleResponse(rc);
+		}
     	return null;
     }
 
@@ -186,7 +228,10 @@ public class BinaryWSProcedureExecution implements ProcedureExecution {
     }
 
     public void cancel() throws TranslatorException {
-        // no-op
+    	Response<DataSource> pending = this.response;
+    	if (pending != null) {
+    		pending.cancel(true);
+    	}
     }
 
     public void addHeader(String name, List<String> value) {
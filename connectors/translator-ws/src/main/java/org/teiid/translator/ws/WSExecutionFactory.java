@@ -83,6 +83,7 @@ public class WSExecutionFactory extends ExecutionFactory<ConnectionFactory, WSCo
 	private Mode defaultServiceMode = Mode.PAYLOAD;
 	private Binding defaultBinding = Binding.SOAP12;
 	private String xmlParamName;
+	private boolean asynchronousInvocation;
 	
 	public WSExecutionFactory() {
 		setSourceRequiredForMetadata(true);
@@ -115,11 +116,22 @@ public class WSExecutionFactory extends ExecutionFactory<ConnectionFactory, WSCo
 		this.xmlParamName = xmlParamName;
 	}
 	
+	@TranslatorProperty(description="If true, requests are made with asynchronous invocations and the engine is notified when the response is available rather than a thread waiting for it.", display="Asynchronous Invocation", advanced=true)
+	public boolean isAsynchronousInvocation() {
+		return asynchronousInvocation;
+	}
+	
+	public void setAsynchronousInvocation(boolean asynchronousInvocation) {
+		this.asynchronousInvocation = asynchronousInvocation;
+	}
+	
     @Override
     public ProcedureExecution createProcedureExecution(Call command, ExecutionContext executionContext, RuntimeMetadata metadata, WSConnection connection)
     		throws TranslatorException {
     	if (command.getProcedureName().equalsIgnoreCase(INVOKE_HTTP)) {
-    		return new BinaryWSProcedureExecution(command, metadata, executionContext, this, connection);
+    		BinaryWSProcedureExecution execution = new BinaryWSProcedureExecution(command, metadata, executionContext, this, connection);
+    		execution.setAsynchronous(this.asynchronousInvocation);
+    		return execution;
     	}
     	if (command.getArguments().size() > 2 || command.getProcedureName().equalsIgnoreCase(INVOKE)) {
     		return new WSProcedureExecution(command, metadata, executionContext, this, connection);
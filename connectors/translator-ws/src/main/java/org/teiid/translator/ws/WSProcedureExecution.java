@@ -28,6 +28,7 @@ import java.sql.SQLException;
 import java.sql.SQLXML;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.Transformer;
@@ -35,7 +36,9 @@ import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stax.StAXSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.ws.AsyncHandler;
 import javax.xml.ws.Dispatch;
+import javax.xml.ws.Response;
 import javax.xml.ws.WebServiceException;
 import javax.xml.ws.handler.MessageContext;
 
@@ -45,6 +48,7 @@ import org.teiid.core.types.XMLType.Type;
 import org.teiid.language.Argument;
 import org.teiid.language.Call;
 import org.teiid.metadata.RuntimeMetadata;
+import org.teiid.translator.AsyncResult;
 import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.ProcedureExecution;
@@ -65,6 +69,8 @@ public class WSProcedureExecution implements ProcedureExecution {
     private StAXSource returnValue;
     private WSConnection conn;
     private WSExecutionFactory executionFactory;
+    private AsyncResult<StAXSource> asyncResult;
+    private Response<StAXSource> response;
     
     /** 
      * @param env
@@ -132,7 +138,24 @@ public class WSProcedureExecution implements ProcedureExecution {
 				// JBoss Native DispatchImpl throws exception when the source is null
 				source = new StAXSource(XMLType.getXmlInputFactory().createXMLEventReader(new StringReader("<none/>"))); //$NON-NLS-1$
 			}
-			this.returnValue = dispatch.invoke(source);
+			if (executionFactory.isAsynchronousInvocation()) {
+				final AsyncResult<StAXSource> result = new AsyncResult<StAXSource>(this.context);
+				this.asyncResult = result;
+				this.response = dispatch.invokeAsync(source, new AsyncHandler<StAXSource>() {
+					@Override
+					public void handleResponse(Response<StAXSource> res) {
+						try {
+							result.setResult(res.get());
+						} catch (ExecutionException e) {
+							result.setException(e.getCause());
+						} catch (InterruptedException e) {
+							result.setException(e);
+						}
+					}
+				});
+			} else {
+				this.returnValue = dispatch.invoke(source);
+			}
 		} catch (SQLException e) {
 			throw new TranslatorException(e);
 		} catch (WebServiceException e) {
@@ -153,6 +176,11 @@ public class WSProcedureExecution implements ProcedureExecution {
     
     @Override
     public List<?> next() throws TranslatorException, DataNotAvailableException {
+    	if (this.asyncResult != null) {
+    		this.returnValue = this.asyncResult.get();
+    		this.asyncResult = null;
+    		this.response = null;
+    	}
     	return null;
     }  
     
@@ -173,6 +201,9 @@ public class WSProcedureExecution implements ProcedureExecution {
     }
 
     public void cancel() throws TranslatorException {
-        // no-op
+    	Response<StAXSource> pending = this.response;
+    	if (pending != null) {
+    		pending.cancel(true);
+    	}
     }    
 }
@@ -34,10 +34,13 @@ import java.util.Properties;
 
 import javax.activation.DataSource;
 import javax.xml.transform.stax.StAXSource;
+import javax.xml.ws.AsyncHandler;
 import javax.xml.ws.Dispatch;
+import javax.xml.ws.Response;
 import javax.xml.ws.Service;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.teiid.cdk.CommandBuilder;
 import org.teiid.core.util.ObjectConverterUtil;
@@ -48,6 +51,7 @@ import org.teiid.metadata.Procedure;
 import org.teiid.query.metadata.SystemMetadata;
 import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.unittest.RealMetadataFactory;
+import org.teiid.translator.DataNotAvailableException;
 import org.teiid.translator.ExecutionContext;
 import org.teiid.translator.WSConnection;
 
@@ -121,6 +125,48 @@ public class TestWSTranslator {
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test public void testAsynchronous() throws Exception {
+		WSExecutionFactory ef = new WSExecutionFactory();
+		ef.setAsynchronousInvocation(true);
+    	MetadataFactory mf = new MetadataFactory("vdb", 1, "x", SystemMetadata.getInstance().getRuntimeTypeMap(), new Properties(), null);
+		ef.getMetadata(mf, null);
+		
+		TransformationMetadata tm = RealMetadataFactory.createTransformationMetadata(mf.asMetadataStore(), "vdb");
+		RuntimeMetadataImpl rm = new RuntimeMetadataImpl(tm);
+		WSConnection mockConnection = Mockito.mock(WSConnection.class);
+		Dispatch<Object> mockDispatch = mockDispatch();
+		Mockito.stub(mockConnection.createDispatch(Mockito.any(String.class), Mockito.any(String.class), Mockito.any(Class.class), Mockito.any(Service.Mode.class))).toReturn(mockDispatch);
+		CommandBuilder cb = new CommandBuilder(tm);
+		
+		Call call = (Call)cb.getCommand("call invokeHttp('GET', null, null)");
+		ExecutionContext ec = Mockito.mock(ExecutionContext.class);
+		BinaryWSProcedureExecution pe = (BinaryWSProcedureExecution)ef.createProcedureExecution(call, ec, rm, mockConnection);
+		pe.execute();
+		
+		ArgumentCaptor<AsyncHandler> handler = ArgumentCaptor.forClass(AsyncHandler.class);
+		Mockito.verify(mockDispatch).invokeAsync(Mockito.any(DataSource.class), handler.capture());
+		Mockito.verify(mockDispatch, Mockito.never()).invoke(Mockito.any(DataSource.class));
+		try {
+			pe.next();
+			fail();
+		} catch (DataNotAvailableException e) {
+			assertEquals(-1, e.getRetryDelay());
+		}
+		
+		Response<Object> response = Mockito.mock(Response.class);
+		DataSource ds = Mockito.mock(DataSource.class);
+		Mockito.stub(response.get()).toReturn(ds);
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put(WSConnection.STATUS_CODE, 200);
+		Mockito.stub(response.getContext()).toReturn(map);
+		handler.getValue().handleResponse(response);
+		Mockito.verify(ec).dataAvailable();
+		
+		assertNull(pe.next());
+		assertEquals(ds, pe.getOutputParameterValues().get(0));
+	}
+
 	private Dispatch<Object> mockDispatch() {
 		Dispatch<Object> mockDispatch = Mockito.mock(Dispatch.class);
 		Map<String, Object> map = new HashMap<String, Object>();
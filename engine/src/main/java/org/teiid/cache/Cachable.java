@@ -31,4 +31,14 @@ public interface Cachable {
 	boolean restore(TupleBufferCache bufferManager);
 
 	AccessInfo getAccessInfo();
+	
+	/**
+	 * @return the estimated size in bytes of the cached value, or 0 if the value should not count against the byte budget
+	 */
+	long getSizeEstimate();
+	
+	/**
+	 * @return the cost in milliseconds to produce the cached value
+	 */
+	long getCost();
 }
@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.common.buffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the buffer manager activity attributable to a single user request.
+ * <br>
+ * Reservations are updated by the processing thread, while spills may be performed
+ * by any thread that evicts one of the request's batches.
+ */
+public class BufferUsage {
+	
+	private AtomicLong reservedBytes = new AtomicLong();
+	private AtomicLong peakReservedBytes = new AtomicLong();
+	private AtomicLong spilledBytes = new AtomicLong();
+	private AtomicLong batchesRead = new AtomicLong();
+	
+	public void addReservedBytes(long bytes) {
+		long reserved = reservedBytes.addAndGet(bytes);
+		while (true) {
+			long peak = peakReservedBytes.get();
+			if (reserved <= peak || peakReservedBytes.compareAndSet(peak, reserved)) {
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Record that a batch of the estimated size was written to storage
+	 */
+	public void addSpilledBytes(long bytes) {
+		spilledBytes.addAndGet(bytes);
+	}
+	
+	/**
+	 * Record that a batch had to be read back from storage
+	 */
+	public void batchRead() {
+		batchesRead.incrementAndGet();
+	}
+	
+	public long getReservedBytes() {
+		return reservedBytes.get();
+	}
+	
+	public long getPeakReservedBytes() {
+		return peakReservedBytes.get();
+	}
+	
+	public long getSpilledBytes() {
+		return spilledBytes.get();
+	}
+	
+	public long getBatchesRead() {
+		return batchesRead.get();
+	}
+
+}
@@ -37,6 +37,7 @@ import org.teiid.client.ResizingArrayList;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidRuntimeException;
 import org.teiid.query.QueryPlugin;
+import org.teiid.query.sql.symbol.Constant;
 
 /**
  * A linked list Page entry in the tree
@@ -97,6 +98,9 @@ class SPage implements Cloneable {
 	protected Object trackingObject;
 	protected List<List<?>> values;
 	protected List<SPage> children;
+	//zone map of the non-null column values for leaf pages, see STree.setZoneMaps
+	protected Object[] min;
+	protected Object[] max;
 	
 	SPage(STree stree, boolean leaf) {
 		this.stree = stree;
@@ -185,6 +189,9 @@ class SPage implements Cloneable {
 		if (values instanceof LightWeightCopyOnWriteList<?>) {
 			values = ((LightWeightCopyOnWriteList<List<?>>)values).getList();
 		}
+		if (children == null && stree.zoneMapColumns != null) {
+			updateZoneMap(values);
+		}
 		if (values.size() < stree.minPageSize) {
 			setDirectValues(values);
 			return;
@@ -198,6 +205,32 @@ class SPage implements Cloneable {
 		this.trackingObject = null;
 	}
 
+	private void updateZoneMap(List<List<?>> values) {
+		boolean[] columns = stree.zoneMapColumns;
+		Object[] newMin = new Object[columns.length];
+		Object[] newMax = new Object[columns.length];
+		for (int i = 0; i < values.size(); i++) {
+			List<?> tuple = values.get(i);
+			for (int col = 0; col < columns.length; col++) {
+				if (!columns[col]) {
+					continue;
+				}
+				Object value = tuple.get(col);
+				if (value == null) {
+					continue;
+				}
+				if (newMin[col] == null || Constant.COMPARATOR.compare(value, newMin[col]) < 0) {
+					newMin[col] = value;
+				}
+				if (newMax[col] == null || Constant.COMPARATOR.compare(value, newMax[col]) > 0) {
+					newMax[col] = value;
+				}
+			}
+		}
+		this.min = newMin;
+		this.max = newMax;
+	}
+
 	private void setDirectValues(List<List<?>> values) {
 		if (managedBatch != null && trackingObject == null) {
 			stree.getBatchManager(children == null).remove(managedBatch);
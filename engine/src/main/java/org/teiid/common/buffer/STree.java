@@ -40,6 +40,7 @@ import org.teiid.common.buffer.LobManager.ReferenceMode;
 import org.teiid.common.buffer.SPage.SearchResult;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidRuntimeException;
+import org.teiid.core.types.DataTypeManager;
 import org.teiid.query.QueryPlugin;
 import org.teiid.query.processor.relational.ListNestedSortComparator;
 
@@ -52,6 +53,84 @@ import org.teiid.query.processor.relational.ListNestedSortComparator;
 public class STree implements Cloneable {
 	
 	public enum InsertMode {ORDERED, NEW, UPDATE}
+	
+	/**
+	 * Builds an empty tree bottom up from tuples in key order.
+	 * Each page is filled before it is written and only the first key of each
+	 * page is added to the level above, so there are no searches or page splits.
+	 */
+	public class BulkLoader {
+		private ArrayList<SPage> heads = new ArrayList<SPage>();
+		private ArrayList<SPage> tails = new ArrayList<SPage>();
+		private List firstKey;
+		private List previous;
+		private int count;
+		
+		BulkLoader() {
+			truncate(false);
+			heads.add(header[0]);
+			tails.add(header[0]);
+		}
+		
+		/**
+		 * Add the next tuple
+		 * @return the tuple if it is not in key order or is a duplicate, otherwise null
+		 */
+		public List add(List tuple) throws TeiidComponentException {
+			if (tuple.size() != leafManager.getTypes().length) {
+				throw new AssertionError("Invalid tuple."); //$NON-NLS-1$
+			}
+			if (previous != null && comparator.compare(previous, tuple) >= 0) {
+				return tuple;
+			}
+			if (lobManager != null) {
+				lobManager.updateReferences(tuple, ReferenceMode.CREATE);
+			}
+			if (firstKey == null) {
+				firstKey = extractKey(tuple);
+			}
+			addValue(0, tuple, null);
+			previous = tuple;
+			count++;
+			return null;
+		}
+		
+		private void addValue(int level, List value, SPage child) throws TeiidComponentException {
+			SPage page = tails.get(level);
+			if (page.values.size() == getPageSize(level == 0)) {
+				page.setValues(page.values);
+				SPage next = new SPage(STree.this, level == 0);
+				next.prev = page;
+				page.next = next;
+				tails.set(level, next);
+				if (level + 1 == tails.size()) {
+					//second page at this level, so start the next level with the head
+					SPage parent = new SPage(STree.this, false);
+					heads.add(parent);
+					tails.add(parent);
+					addValue(level + 1, firstKey, heads.get(level));
+				}
+				addValue(level + 1, extractKey(value), next);
+				page = next;
+			}
+			page.values.add(value);
+			if (child != null) {
+				page.children.add(child);
+			}
+		}
+		
+		/**
+		 * Write the partial pages and make the tree available
+		 */
+		public void finish() throws TeiidComponentException {
+			for (SPage page : tails) {
+				page.setValues(page.values);
+			}
+			header = heads.toArray(new SPage[heads.size()]);
+			rowCount.set(count);
+		}
+		
+	}
 
 	private static final Random seedGenerator = new Random(0);
 
@@ -71,6 +150,7 @@ public class STree implements Cloneable {
 	protected boolean batchInsert;
 	protected SPage incompleteInsert;
 	protected LobManager lobManager;
+	protected boolean[] zoneMapColumns;
     
     protected ReentrantLock updateLock = new ReentrantLock();
     
@@ -155,6 +235,7 @@ public class STree implements Cloneable {
 			if (page.next == null) {
 				break;
 			}
+			page = page.next;
 		}
 	}
 	
@@ -176,15 +257,23 @@ public class STree implements Cloneable {
 	
 	public void readValuesFrom(ObjectInputStream ois) throws IOException, ClassNotFoundException, TeiidComponentException {
 		int size = ois.readInt();
-		int sizeHint = this.getExpectedHeight(size);
-		batchInsert = true;
-		while (this.getRowCount() < size) {
+		BulkLoader loader = createBulkLoader();
+		int read = 0;
+		while (read < size) {
 			List<List<Object>> batch = BatchSerializer.readBatch(ois, leafManager.getTypes());
 			for (List list : batch) {
-				this.insert(list, InsertMode.ORDERED, sizeHint);
+				loader.add(list);
 			}
+			read += batch.size();
 		}
-		batchInsert = false;
+		loader.finish();
+	}
+	
+	/**
+	 * Create a {@link BulkLoader} for this tree.  Any existing values will be removed.
+	 */
+	public BulkLoader createBulkLoader() {
+		return new BulkLoader();
 	}
 	
 	protected SPage findChildTail(SPage page) {
@@ -579,6 +668,32 @@ public class STree implements Cloneable {
 		}
 	}
 	
+	/**
+	 * Maintain the min/max values of the comparable columns for each leaf page so that
+	 * scans may skip pages with a {@link TupleBrowser.ZoneMapFilter}.
+	 * Should be set prior to adding values.
+	 */
+	public void setZoneMaps(boolean zoneMaps) {
+		if (!zoneMaps) {
+			this.zoneMapColumns = null;
+			return;
+		}
+		String[] types = leafManager.getTypes();
+		this.zoneMapColumns = new boolean[types.length];
+		for (int i = 0; i < types.length; i++) {
+			String type = types[i];
+			this.zoneMapColumns[i] = !DataTypeManager.isNonComparable(type) && !DataTypeManager.isLOB(type) 
+					&& !DataTypeManager.isArrayType(type) && !DataTypeManager.DefaultDataTypes.OBJECT.equals(type);
+		}
+	}
+	
+	/**
+	 * @return true if the column has a zone map
+	 */
+	public boolean hasZoneMap(int column) {
+		return this.zoneMapColumns != null && this.zoneMapColumns[column];
+	}
+	
 	public int getPageSize(boolean leaf) {
 		if (leaf) {
 			return leafSize;
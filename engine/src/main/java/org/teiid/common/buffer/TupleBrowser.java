@@ -37,8 +37,24 @@ import org.teiid.core.TeiidProcessingException;
  */
 public class TupleBrowser implements TupleSource {
 	
+	/**
+	 * Determines from a leaf page zone map whether the page may contain matching values.
+	 * See {@link STree#setZoneMaps(boolean)}
+	 */
+	public interface ZoneMapFilter {
+		
+		/**
+		 * @param min the min non-null value of each column, null if all values are null or the column does not have a zone map
+		 * @param max the max non-null value of each column
+		 * @return false if no value of the page can match
+		 */
+		boolean canMatch(Object[] min, Object[] max);
+	}
+	
 	private final STree tree;
 	
+	private ZoneMapFilter zoneMapFilter;
+	
 	private TupleSource valueSet;
 	
 	private SPage page;
@@ -220,6 +236,17 @@ public class TupleBrowser implements TupleSource {
 				return null;
 			}
 			if (values == null) {
+				if (zoneMapFilter != null && page.min != null && !zoneMapFilter.canMatch(page.min, page.max)) {
+					//skip the page without loading its values
+					if (page == bound) {
+						page = null;
+					} else if (direction) {
+						page = page.next;
+					} else {
+						page = page.prev;
+					}
+					continue;
+				}
 				values = page.getValues();
 				if (direction) {
 					index = 0;
@@ -246,6 +273,14 @@ public class TupleBrowser implements TupleSource {
 		}
 	}
 	
+	/**
+	 * Set a filter used to skip leaf pages when scanning.  The filter is only a
+	 * preliminary check, the caller must still evaluate the returned tuples.
+	 */
+	public void setZoneMapFilter(ZoneMapFilter zoneMapFilter) {
+		this.zoneMapFilter = zoneMapFilter;
+	}
+	
 	public void reset(TupleSource ts) throws TeiidComponentException {
 		this.valueSet = ts;
 		resetState();
@@ -37,6 +37,8 @@ import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -56,6 +58,7 @@ import org.teiid.core.types.DataTypeManager;
 import org.teiid.core.types.DataTypeManager.WeakReferenceHashedValueCache;
 import org.teiid.core.types.Streamable;
 import org.teiid.core.util.Assertion;
+import org.teiid.core.util.NamedThreadFactory;
 import org.teiid.dqp.internal.process.DQPConfiguration;
 import org.teiid.dqp.internal.process.RequestWorkItem;
 import org.teiid.logging.LogConstants;
@@ -86,10 +89,15 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
 	/**
 	 * Asynch cleaner attempts to age out old entries and to reduce the memory size when 
 	 * little is reserved.
+	 * <br/>
+	 * Each cleaner loops on its own pooled thread so that one buffer manager cannot
+	 * starve the cleaning of another.  The manager is only weakly held, so the loop
+	 * also ends if the manager is collected without being shutdown.
 	 */
 	private static final int MAX_READ_AGE = 1<<17;
-	private static final class Cleaner extends TimerTask {
+	private static final class Cleaner implements Runnable {
 		WeakReference<BufferManagerImpl> bufferRef;
+		volatile boolean cancelled;
 		
 		public Cleaner(BufferManagerImpl bufferManagerImpl) {
 			this.bufferRef = new WeakReference<BufferManagerImpl>(bufferManagerImpl);
@@ -97,10 +105,9 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
 		
 		@Override
 		public void run() {
-			while (true) {
+			while (!cancelled) {
 				BufferManagerImpl impl = this.bufferRef.get();
 				if (impl == null) {
-					this.cancel();
 					return;
 				}
 				impl.cleaning.set(true);
@@ -117,6 +124,8 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
 				}
 				synchronized (this) {
 					impl.cleaning.set(false);
+					//don't hold the manager while waiting so that an unused manager can be collected
+					impl = null;
 					try {
 						this.wait(100);
 					} catch (InterruptedException e) {
@@ -125,6 +134,11 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
 				}
 			}
 		}
+		
+		public synchronized void cancel() {
+			this.cancelled = true;
+			this.notify();
+		}
 	}
 	
 	private final class Remover implements Removable {
@@ -157,9 +171,14 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
 		private LobManager lobManager;
 		private long totalSize;
 		private long rowsSampled;
+		private BufferUsage bufferUsage;
 
 		private BatchManagerImpl(Long newID, Class<?>[] types) {
 			this.id = newID;
+			CommandContext context = CommandContext.getThreadLocalContext();
+			if (context != null) {
+				this.bufferUsage = context.getBufferUsage();
+			}
 			this.sizeUtility = new SizeUtility(types);
 			this.types = new String[types.length];
 			for (int i = 0; i < types.length; i++) {
@@ -304,6 +323,11 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
 				if (LogManager.isMessageToBeRecorded(LogConstants.CTX_BUFFER_MGR, MessageLevel.DETAIL)) {
 					LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, id, "reading batch", batch, "from storage, total reads:", count); //$NON-NLS-1$ //$NON-NLS-2$
 				}
+				//attribute the read to the requesting context, which may differ from the creator for shared results
+				CommandContext context = CommandContext.getThreadLocalContext();
+				if (context != null) {
+					context.getBufferUsage().batchRead();
+				}
 				ce = cache.get(o, batch, this.ref);
 				if (ce == null) {
 					throw new AssertionError("Batch not found in storage " + batch); //$NON-NLS-1$
@@ -418,14 +442,13 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
 	private AtomicLong writeCount = new AtomicLong();
 	private AtomicLong referenceHit = new AtomicLong();
 	
-	//TODO: this does not scale well with multiple embedded instances
-	private static final Timer timer = new Timer("BufferManager Cleaner", true); //$NON-NLS-1$
+	private static final ExecutorService cleanerExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("BufferManager Cleaner")); //$NON-NLS-1$
 	private Cleaner cleaner;
 	private AtomicBoolean cleaning = new AtomicBoolean();
 	
 	public BufferManagerImpl() {
 		this.cleaner = new Cleaner(this);
-		timer.schedule(cleaner, 100);
+		cleanerExecutor.execute(cleaner);
 	}
 	
 	void clearSoftReference(BatchSoftReference bsr) {
@@ -900,6 +923,13 @@ public class BufferManagerImpl implements BufferManager, ReplicatedObject<String
 			if (LogManager.isMessageToBeRecorded(LogConstants.CTX_BUFFER_MGR, MessageLevel.DETAIL)) {
 				LogManager.logDetail(LogConstants.CTX_BUFFER_MGR, s.getId(), ce.getId(), "writing batch to storage, total writes: ", count); //$NON-NLS-1$
 			}
+			//eviction may happen on any thread, so attribute the write to the owning request
+			if (s instanceof BatchManagerImpl) {
+				BufferUsage usage = ((BatchManagerImpl)s).bufferUsage;
+				if (usage != null) {
+					usage.addSpilledBytes(ce.getSizeEstimate());
+				}
+			}
 		}
 		boolean result = cache.add(ce, s);
 		if (s.useSoftCache()) {
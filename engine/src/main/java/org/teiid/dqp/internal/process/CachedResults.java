@@ -52,6 +52,8 @@ public class CachedResults implements Serializable, Cachable {
 	private String uuid;
 	private boolean hasLobs;
 	private int rowLimit;
+	private long sizeEstimate;
+	private long cost;
 	
 	private AccessInfo accessInfo = new AccessInfo();
 	
@@ -67,11 +69,26 @@ public class CachedResults implements Serializable, Cachable {
 		this.results = results;
 		this.uuid = results.getId();
 		this.hasLobs = results.isLobs();
+		this.sizeEstimate = (long)results.getRowCount() * results.getRowSizeEstimate();
 		if (plan != null) {
 			this.accessInfo.populate(plan.getContext(), true);
 		}
 	}
 	
+	@Override
+	public long getSizeEstimate() {
+		return sizeEstimate;
+	}
+	
+	@Override
+	public long getCost() {
+		return cost;
+	}
+	
+	public void setCost(long cost) {
+		this.cost = cost;
+	}
+	
 	public void setCommand(Command command) {
 		this.command = command;
 	}
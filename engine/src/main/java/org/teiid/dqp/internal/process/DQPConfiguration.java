@@ -21,6 +21,8 @@
  */
 package org.teiid.dqp.internal.process;
 
+import java.util.List;
+
 import org.teiid.client.RequestMessage;
 
 
@@ -49,6 +51,8 @@ public class DQPConfiguration{
     private int userRequestSourceConcurrency = DEFAULT_USER_REQUEST_SOURCE_CONCURRENCY;
     private boolean detectingChangeEvents = true;
     private long queryTimeout;
+    private boolean semanticResultSetCacheEnabled;
+    private List<ResourceGroup> resourceGroups;
     
     private transient AuthorizationValidator authorizationValidator;
 
@@ -165,6 +169,34 @@ public class DQPConfiguration{
 		return queryTimeout;
 	}
 
+	/**
+	 * If true, queries that miss the result set cache may be answered from the cached
+	 * results of a broader query over the same FROM clause.
+	 */
+	public boolean isSemanticResultSetCacheEnabled() {
+		return semanticResultSetCacheEnabled;
+	}
+	
+	public void setSemanticResultSetCacheEnabled(
+			boolean semanticResultSetCacheEnabled) {
+		this.semanticResultSetCacheEnabled = semanticResultSetCacheEnabled;
+	}
+
+	/**
+	 * The {@link ResourceGroup}s used to classify requests for admission control.
+	 * Requests not matching any group share a default group.
+	 * <br/>
+	 * Resource groups are only set programmatically, such as through the EmbeddedConfiguration.
+	 * They are not exposed as server subsystem configuration.
+	 */
+	public List<ResourceGroup> getResourceGroups() {
+		return resourceGroups;
+	}
+	
+	public void setResourceGroups(List<ResourceGroup> resourceGroups) {
+		this.resourceGroups = resourceGroups;
+	}
+
 	public TeiidExecutor getTeiidExecutor() {
 		return new ThreadReuseExecutor(DQPConfiguration.PROCESS_PLAN_QUEUE_NAME, getMaxThreads());
 	}
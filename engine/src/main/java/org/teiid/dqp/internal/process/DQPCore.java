@@ -26,7 +26,6 @@ import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -57,6 +56,8 @@ import org.teiid.client.util.ResultsReceiver;
 import org.teiid.client.xa.XATransactionException;
 import org.teiid.client.xa.XidImpl;
 import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.BufferUsage;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.TeiidRuntimeException;
@@ -101,6 +102,7 @@ public class DQPCore implements DQP {
     private TempTableDataManager dataTierMgr;
     private SessionAwareCache<PreparedPlan> prepPlanCache;
     private SessionAwareCache<CachedResults> rsCache;
+    private SemanticResultsCache semanticCache;
     private TransactionService transactionService;
     private EventDistributor eventDistributor;
     
@@ -114,7 +116,7 @@ public class DQPCore implements DQP {
     private int maxActivePlans = DQPConfiguration.DEFAULT_MAX_ACTIVE_PLANS;
     private int currentlyActivePlans;
     private int userRequestSourceConcurrency;
-    private LinkedList<RequestWorkItem> waitingPlans = new LinkedList<RequestWorkItem>();
+    private WorkloadManager waitingPlans = new WorkloadManager(null);
     private int maxWaitingPlans = 0;
 	private AuthorizationValidator authorizationValidator;
 	
@@ -197,6 +199,14 @@ public class DQPCore implements DQP {
             	if (holder.getTransactionContext() != null && holder.getTransactionContext().getTransactionType() != Scope.NONE) {
             		req.setTransactionId(holder.getTransactionContext().getTransactionId());
             	}
+            	QueryProcessor processor = holder.getProcessor();
+            	if (processor != null) {
+            		BufferUsage usage = processor.getContext().getBufferUsage();
+            		req.setReservedBytes(usage.getReservedBytes());
+            		req.setPeakReservedBytes(usage.getPeakReservedBytes());
+            		req.setSpilledBytes(usage.getSpilledBytes());
+            		req.setBatchesRead(usage.getBatchesRead());
+            	}
 
                 for (DataTierTupleSource conInfo : holder.getConnectorRequests()) {
                     String connectorName = conInfo.getConnectorName();
@@ -280,14 +290,15 @@ public class DQPCore implements DQP {
         }
         boolean runInThread = requestMsg.isSync();
         synchronized (waitingPlans) {
-			if (runInThread || currentlyActivePlans <= maxActivePlans) {
+        	workItem.resourceGroup = waitingPlans.getGroup(workContext);
+			if (runInThread || (currentlyActivePlans <= maxActivePlans && waitingPlans.canStart(workItem))) {
 				startActivePlan(workItem, !runInThread);
 			} else {
 				if (LogManager.isMessageToBeRecorded(LogConstants.CTX_DQP, MessageLevel.DETAIL)) {
 		            LogManager.logDetail(LogConstants.CTX_DQP, workItem.requestID, "Queuing plan, since max plans has been reached.");  //$NON-NLS-1$
 		        }  
 				waitingPlans.add(workItem);
-				maxWaitingPlans = Math.max(this.maxWaitingPlans, waitingPlans.size());
+				maxWaitingPlans = Math.max(this.maxWaitingPlans, waitingPlans.getWaitingCount());
 			}
 		}
         if (runInThread) {
@@ -322,6 +333,7 @@ public class DQPCore implements DQP {
 		}
 		if (!continuous) {
 			this.currentlyActivePlans++;
+			this.waitingPlans.started(workItem);
 		}
 	}
 	
@@ -332,8 +344,12 @@ public class DQPCore implements DQP {
         	}
         	workItem.active = false;
     		currentlyActivePlans--;
-			if (!waitingPlans.isEmpty()) {
-				RequestWorkItem work = waitingPlans.remove();
+    		waitingPlans.finished(workItem);
+			while (currentlyActivePlans <= maxActivePlans) {
+				RequestWorkItem work = waitingPlans.next();
+				if (work == null) {
+					break;
+				}
 				startActivePlan(work, true);
 			}
 		}
@@ -356,7 +372,7 @@ public class DQPCore implements DQP {
     }
     
     public int getWaitingPlanCount() {
-    	return waitingPlans.size();
+    	return waitingPlans.getWaitingCount();
     }
     
     public int getMaxWaitingPlanWatermark() {
@@ -572,6 +588,10 @@ public class DQPCore implements DQP {
 		return rsCache;
 	}
 	
+	SemanticResultsCache getSemanticCache() {
+		return semanticCache;
+	}
+	
 	int getProcessorTimeSlice() {
 		return this.config.getTimeSliceInMilli();
 	}	
@@ -591,6 +611,7 @@ public class DQPCore implements DQP {
         Executor timeoutExecutor = ExecutorUtils.newFixedThreadPool(3, "Server Side Timeout"); //$NON-NLS-1$
         this.cancellationTimer = new EnhancedTimer(timeoutExecutor, timeoutExecutor);
         this.maxActivePlans = config.getMaxActivePlans();
+        this.waitingPlans = new WorkloadManager(config.getResourceGroups());
         
         if (this.maxActivePlans > config.getMaxThreads()) {
         	LogManager.logWarning(LogConstants.CTX_DQP, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30006, this.maxActivePlans, config.getMaxThreads()));
@@ -605,11 +626,20 @@ public class DQPCore implements DQP {
 			 throw new TeiidRuntimeException(QueryPlugin.Event.TEIID30496, e);
 		}
         
+        if (this.rsCache != null && this.rsCache.getMaxSizeBytes() == SessionAwareCache.DEFAULT_MAX_SIZE_BYTES && this.bufferManager instanceof BufferManagerImpl) {
+        	//allow cached results to weigh up to half of the memory reserved for batches
+        	this.rsCache.setMaxSizeBytes(((BufferManagerImpl)this.bufferManager).getMaxReserveKB() * 512L);
+        }
+        
         this.userRequestSourceConcurrency = config.getUserRequestSourceConcurrency();
         if (this.userRequestSourceConcurrency < 1) {
         	this.userRequestSourceConcurrency = Math.min(config.getMaxThreads(), 2*config.getMaxThreads()/this.maxActivePlans);
         }
         
+        if (this.rsCache != null && config.isSemanticResultSetCacheEnabled()) {
+        	this.semanticCache = new SemanticResultsCache(this.rsCache);
+        }
+        
         DataTierManagerImpl processorDataManager = new DataTierManagerImpl(this, this.bufferManager, this.config.isDetectingChangeEvents());
         processorDataManager.setEventDistributor(eventDistributor);
 		dataTierMgr = new TempTableDataManager(processorDataManager, this.bufferManager, this.rsCache);
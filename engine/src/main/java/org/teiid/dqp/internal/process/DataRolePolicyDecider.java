@@ -22,20 +22,27 @@
 
 package org.teiid.dqp.internal.process;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.teiid.CommandContext;
 import org.teiid.PolicyDecider;
 import org.teiid.adminapi.DataPolicy;
 import org.teiid.adminapi.DataPolicy.Context;
 import org.teiid.adminapi.DataPolicy.PermissionType;
+import org.teiid.adminapi.VDB;
 import org.teiid.adminapi.impl.DataPolicyMetadata;
+import org.teiid.adminapi.impl.DataPolicyMetadata.PermissionMetaData;
+import org.teiid.adminapi.impl.VDBMetaData;
 import org.teiid.core.util.PropertiesUtils;
 
 public class DataRolePolicyDecider implements PolicyDecider {
@@ -43,47 +50,160 @@ public class DataRolePolicyDecider implements PolicyDecider {
     private boolean allowCreateTemporaryTablesByDefault = PropertiesUtils.getBooleanProperty(System.getProperties(), "org.teiid.allowCreateTemporaryTablesByDefault", false); //$NON-NLS-1$
     private boolean allowFunctionCallsByDefault = PropertiesUtils.getBooleanProperty(System.getProperties(), "org.teiid.allowFunctionCallsByDefault", false); //$NON-NLS-1$
 
+	/**
+	 * The permissions of a set of allowed policies merged by resource name, so that each level
+	 * of a resource name needs only a single lookup.  Decisions are remembered per resource.
+	 */
+	static class PermissionIndex {
+		static final int MAX_DECISIONS = 1 << 16;
+		
+		private DataPolicyMetadata[] policies;
+		private int[] versions;
+		private Map<String, Integer> positions = new HashMap<String, Integer>();
+		private boolean grantAll;
+		private Map<String, PermissionMetaData[]> permissions = new HashMap<String, PermissionMetaData[]>();
+		private Map<PermissionType, ConcurrentHashMap<String, Boolean>> decisions = new EnumMap<PermissionType, ConcurrentHashMap<String, Boolean>>(PermissionType.class);
+		
+		PermissionIndex(Collection<DataPolicy> allowed) {
+			this.policies = allowed.toArray(new DataPolicyMetadata[allowed.size()]);
+			this.versions = new int[policies.length];
+			for (int i = 0; i < policies.length; i++) {
+				DataPolicyMetadata policy = policies[i];
+				this.versions[i] = policy.getVersion();
+				this.positions.put(policy.getName(), i);
+				this.grantAll |= policy.isGrantAll();
+				for (Map.Entry<String, PermissionMetaData> entry : policy.getPermissionMap().entrySet()) {
+					String key = entry.getKey().toLowerCase(Locale.ENGLISH);
+					PermissionMetaData[] perms = this.permissions.get(key);
+					if (perms == null) {
+						perms = new PermissionMetaData[policies.length];
+						this.permissions.put(key, perms);
+					}
+					perms[i] = entry.getValue();
+				}
+			}
+			for (PermissionType type : PermissionType.values()) {
+				decisions.put(type, new ConcurrentHashMap<String, Boolean>());
+			}
+		}
+		
+		/**
+		 * @return true if the index was built from the same policies and none have since changed
+		 */
+		boolean isCurrent(Collection<DataPolicy> allowed) {
+			if (allowed.size() != policies.length) {
+				return false;
+			}
+			for (DataPolicy policy : allowed) {
+				Integer i = positions.get(policy.getName());
+				if (i == null || policy != policies[i] || policies[i].getVersion() != versions[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		boolean allows(String resource, PermissionType action) {
+			ConcurrentHashMap<String, Boolean> cache = decisions.get(action);
+			Boolean result = cache.get(resource);
+			if (result == null) {
+				result = computeAllows(resource, action);
+				if (cache.size() < MAX_DECISIONS) {
+					cache.put(resource, result);
+				}
+			}
+			return result;
+		}
+		
+		/**
+		 * A resource is accessible if the most specific permission of any policy allows it.
+		 */
+		private boolean computeAllows(String resource, PermissionType action) {
+			if (grantAll) {
+				return true;
+			}
+			if (action == PermissionType.LANGUAGE) {
+				//don't check less specific permissions
+				for (DataPolicyMetadata policy : policies) {
+					if (Boolean.TRUE.equals(policy.allows(resource, action))) {
+						return true;
+					}
+				}
+				return false;
+			}
+			boolean[] exclude = new boolean[policies.length];
+			int excludeCount = 0;
+			String name = resource.toLowerCase(Locale.ENGLISH);
+			while (name.length() > 0 && excludeCount < policies.length) {
+				PermissionMetaData[] perms = permissions.get(name);
+				if (perms != null) {
+					for (int j = 0; j < perms.length; j++) {
+						if (exclude[j] || perms[j] == null) {
+							continue;
+						}
+						Boolean allows = perms[j].allows(action);
+						if (allows != null) {
+							if (allows) {
+								return true;
+							}
+							exclude[j] = true;
+							excludeCount++;
+						}
+					}
+				}
+				name = name.substring(0, Math.max(0, name.lastIndexOf('.')));
+			}
+			return false;
+		}
+	}
+	
+	/**
+	 * The {@link PermissionIndex}es of a vdb keyed by the names of the allowed policies
+	 */
+	static class PermissionIndexes extends ConcurrentHashMap<Set<String>, PermissionIndex> {
+		private static final long serialVersionUID = -2491473493725460516L;
+	}
+	
 	@Override
 	public Set<String> getInaccessibleResources(PermissionType action,
 			Set<String> resources, Context context, CommandContext commandContext) {
 		if (action == PermissionType.EXECUTE && context == Context.FUNCTION && allowFunctionCallsByDefault) {
 			return Collections.emptySet();
 		}
-		List<DataPolicy> policies = new ArrayList<DataPolicy>(commandContext.getAllowedDataPolicies().values());
-		int policyCount = policies.size();
-		boolean[] exclude = new boolean[policyCount];
-		outer:for (Iterator<String> iter = resources.iterator(); iter.hasNext();) {
-			String resource = iter.next();
-			Arrays.fill(exclude, false);
-			int excludeCount = 0;
-			while (resource.length() > 0) {
-				for (int j = 0; j < policyCount; j++) {
-					if (exclude[j]) {
-						continue;
-					}
-					DataPolicyMetadata policy = (DataPolicyMetadata)policies.get(j);
-					if (policy.isGrantAll()) {
-						resources.clear();
-						return resources;
-					}
-					Boolean allows = policy.allows(resource, action);
-					if (allows != null) {
-						if (allows) {
-							iter.remove();
-							continue outer;
-						}
-						exclude[j] = true;
-						excludeCount++;
-					}
-				}
-				if (excludeCount == policyCount || action == PermissionType.LANGUAGE) {
-					break; //don't check less specific permissions
-				}
-				resource = resource.substring(0, Math.max(0, resource.lastIndexOf('.')));
+		PermissionIndex index = getPermissionIndex(commandContext);
+		for (Iterator<String> iter = resources.iterator(); iter.hasNext();) {
+			if (index.allows(iter.next(), action)) {
+				iter.remove();
 			}
 		}
 		return resources;
 	}
+	
+	PermissionIndex getPermissionIndex(CommandContext commandContext) {
+		Map<String, DataPolicy> allowed = commandContext.getAllowedDataPolicies();
+		VDB vdb = commandContext.getVdb();
+		if (!(vdb instanceof VDBMetaData)) {
+			return new PermissionIndex(allowed.values());
+		}
+		VDBMetaData vdbMetaData = (VDBMetaData)vdb;
+		PermissionIndexes indexes = vdbMetaData.getAttachment(PermissionIndexes.class);
+		if (indexes == null) {
+			synchronized (vdbMetaData) {
+				indexes = vdbMetaData.getAttachment(PermissionIndexes.class);
+				if (indexes == null) {
+					indexes = new PermissionIndexes();
+					vdbMetaData.addAttchment(PermissionIndexes.class, indexes);
+				}
+			}
+		}
+		Set<String> key = allowed.keySet();
+		PermissionIndex index = indexes.get(key);
+		if (index == null || !index.isCurrent(allowed.values())) {
+			index = new PermissionIndex(allowed.values());
+			indexes.put(new HashSet<String>(key), index);
+		}
+		return index;
+	}
 
 	@Override
 	public boolean hasRole(String roleName, CommandContext context) {
@@ -25,6 +25,7 @@ package org.teiid.dqp.internal.process;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.sql.SQLException;
+import java.util.LinkedList;
 
 import javax.resource.spi.work.Work;
 
@@ -35,7 +36,6 @@ import org.teiid.core.types.BlobType;
 import org.teiid.core.types.ClobType;
 import org.teiid.core.types.Streamable;
 import org.teiid.core.types.XMLType;
-import org.teiid.core.util.Assertion;
 import org.teiid.core.util.ReaderInputStream;
 import org.teiid.logging.LogManager;
 import org.teiid.query.QueryPlugin;
@@ -50,7 +50,10 @@ public class LobWorkItem implements Work {
 	private String streamId; 
     private ByteLobChunkStream stream;
     private int streamRequestId;
-    private ResultsReceiver<LobChunk> resultsReceiver;
+    private LinkedList<ResultsReceiver<LobChunk>> resultsReceivers = new LinkedList<ResultsReceiver<LobChunk>>();
+    private Object streamLock = new Object();
+    private boolean done;
+    private Exception failure;
 	
 	public LobWorkItem(RequestWorkItem parent, DQPCore dqpCore, String streamId, int streamRequestId) {
 		this.chunkSize = dqpCore.getChunkSize();
@@ -60,9 +63,37 @@ public class LobWorkItem implements Work {
 	}
 
 	public void run() {
+		//chunk requests may be pipelined by the client, so serve everything pending in order
+		synchronized (streamLock) {
+			while (true) {
+				ResultsReceiver<LobChunk> resultsReceiver = null;
+				synchronized (this) {
+					resultsReceiver = resultsReceivers.poll();
+				}
+				if (resultsReceiver == null) {
+					if (done) {
+						//nothing is outstanding, so a later request will be for a new stream
+						parent.removeLobStream(streamRequestId, this);
+					}
+					return;
+				}
+				processChunkRequest(resultsReceiver);
+			}
+		}
+	}
+
+	private void processChunkRequest(ResultsReceiver<LobChunk> resultsReceiver) {
+		if (failure != null) {
+			resultsReceiver.exceptionOccurred(failure);
+			return;
+		}
+		if (done) {
+			//requests issued ahead of the end of the stream
+			resultsReceiver.receiveResults(new LobChunk(new byte[0], true));
+			return;
+		}
 		LobChunk chunk = null;
 		Exception ex = null;
-		boolean shouldClose = false;
 		
     	try {
         	// If no previous stream is not found for this request create one and 
@@ -73,7 +104,6 @@ public class LobWorkItem implements Work {
             
             // now get the chunk from stream
             chunk = stream.getNextChunk();
-            shouldClose = chunk.isLast();
         } catch (TeiidComponentException e) {            
             LogManager.logWarning(org.teiid.logging.LogConstants.CTX_DQP, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30027));
             ex = e;
@@ -81,22 +111,22 @@ public class LobWorkItem implements Work {
 			ex = e;
 		} 
         
-        synchronized (this) {
-	        if (ex != null) {
-	        	resultsReceiver.exceptionOccurred(ex);
-	        	shouldClose = true;
-	        } else {
-	        	resultsReceiver.receiveResults(chunk);
-	        }
-	        resultsReceiver = null;
-        }
-        
-        if (shouldClose) {
-        	close();
+        if (ex != null) {
+        	failure = ex;
+        	closeStream();
+        	resultsReceiver.exceptionOccurred(ex);
+        } else {
+        	if (chunk.isLast()) {
+        		//stay registered until the pending requests are served so that 
+        		//any outstanding pipelined requests do not restart the stream 
+        		closeStream();
+        	}
+        	resultsReceiver.receiveResults(chunk);
         }
 	}
-
-	void close() {
+	
+	private void closeStream() {
+		done = true;
 		try {
 			if (stream != null) {
 				stream.close();
@@ -104,6 +134,13 @@ public class LobWorkItem implements Work {
 		} catch (IOException e) {
 			LogManager.logWarning(org.teiid.logging.LogConstants.CTX_DQP, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30027));
 		}
+		stream = null;
+	}
+
+	void close() {
+		synchronized (streamLock) {
+			closeStream();
+		}
 		parent.removeLobStream(streamRequestId);
 	}    
     
@@ -134,9 +171,8 @@ public class LobWorkItem implements Work {
         }
     }
     
-    synchronized void setResultsReceiver(ResultsReceiver<LobChunk> resultsReceiver) {
-    	Assertion.isNull(this.resultsReceiver, "Cannot request results with a pending request"); //$NON-NLS-1$
-    	this.resultsReceiver = resultsReceiver;
+    synchronized void addResultsReceiver(ResultsReceiver<LobChunk> resultsReceiver) {
+    	this.resultsReceivers.add(resultsReceiver);
     }
 
 	@Override
@@ -113,6 +113,19 @@ public class PreparedPlan implements Cachable {
 		return accessInfo;
 	}
 	
+	/**
+	 * Plans do not hold buffers and remain bounded by entry count
+	 */
+	@Override
+	public long getSizeEstimate() {
+		return 0;
+	}
+	
+	@Override
+	public long getCost() {
+		return 0;
+	}
+	
 	@Override
 	public boolean prepare(TupleBufferCache bufferManager) {
 		return true; //no remotable actions
@@ -71,6 +71,7 @@ import org.teiid.query.sql.lang.BatchedUpdateCommand;
 import org.teiid.query.sql.lang.Command;
 import org.teiid.query.sql.lang.Insert;
 import org.teiid.query.sql.lang.Limit;
+import org.teiid.query.sql.lang.Query;
 import org.teiid.query.sql.lang.QueryCommand;
 import org.teiid.query.sql.lang.StoredProcedure;
 import org.teiid.query.sql.symbol.Constant;
@@ -128,6 +129,8 @@ public class Request {
 	private boolean resultSetCacheEnabled = true;
 	private int userRequestConcurrency;
 	private AuthorizationValidator authorizationValidator;
+	private SemanticResultsCache semanticCache;
+	boolean semanticCacheHit;
 	private Executor executor;
 	protected Options options;
 
@@ -240,6 +243,13 @@ public class Request {
         this.context.setVDBClassLoader(workContext.getVDB().getAttachment(ClassLoader.class));
     }
     
+    /**
+     * Set the cache used to answer the request from the results of a broader cached query
+     */
+    void setSemanticCache(SemanticResultsCache semanticCache) {
+		this.semanticCache = semanticCache;
+	}
+    
     public void setUserRequestConcurrency(int userRequestConcurrency) {
 		this.userRequestConcurrency = userRequestConcurrency;
 	}
@@ -381,6 +391,14 @@ public class Request {
 				break;
 			}
 		}
+        
+        if (this.semanticCache != null && command instanceof Query) {
+        	Command residual = this.semanticCache.getResidual((Query)command, workContext, createParseInfo(this.requestMsg), metadata, context, tempTableStore, bufferManager);
+        	if (residual != null) {
+        		command = residual;
+        		this.semanticCacheHit = true;
+        	}
+        }
 
         validateQuery(command);
         
@@ -168,6 +168,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
 	private final TransactionService transactionService;
 	private final DQPWorkContext dqpWorkContext;
 	boolean active;
+	WorkloadManager.Group resourceGroup;
 	
     /*
      * obtained during new
@@ -599,7 +600,9 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
 							return;
 						}
 						LogManager.logDetail(LogConstants.CTX_DQP, requestID, "Cached result command to be modified, will not use the cached results", cacheId); //$NON-NLS-1$
-					} 
+					} else if (!requestMsg.isPreparedStatement() && requestMsg.getParameterValues().isEmpty()) {
+						request.setSemanticCache(dqpCore.getSemanticCache());
+					}
 				} else {
 					LogManager.logDetail(LogConstants.CTX_DQP, requestID, "Parameters are not serializable - cache cannot be used for", cacheId); //$NON-NLS-1$
 				}
@@ -611,7 +614,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
 			analysisRecord = request.analysisRecord;
 		}
 		originalCommand = request.userCommand;
-        if (cachable && (requestMsg.useResultSetCache() || originalCommand.getCacheHint() != null) && rsCache != null && originalCommand.areResultsCachable()) {
+        if (cachable && !request.semanticCacheHit && (requestMsg.useResultSetCache() || originalCommand.getCacheHint() != null) && rsCache != null && originalCommand.areResultsCachable()) {
         	this.cid = cacheId;
         	//turn on the collection of data objects used
         	request.processor.getContext().setDataObjects(new HashSet<Object>(4));
@@ -746,6 +749,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
     	CachedResults cr = new CachedResults();
     	cr.setCommand(originalCommand);
         cr.setResults(resultsBuffer, processor.getProcessorPlan());
+        cr.setCost(System.currentTimeMillis() - processingTimestamp);
         if (requestMsg.getRowLimit() > 0 && resultsBuffer.getRowCount() == requestMsg.getRowLimit() + (collector.isSaveLastRow()?1:0)) {
         	cr.setRowLimit(requestMsg.getRowLimit());
         }
@@ -767,6 +771,10 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
 			LogManager.logInfo(LogConstants.CTX_DQP, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30008, originalCommand));
 		}
         dqpCore.getRsCache().put(cid, determinismLevel, cr, originalCommand.getCacheHint() != null?originalCommand.getCacheHint().getTtl():null);
+        SemanticResultsCache semanticCache = dqpCore.getSemanticCache();
+        if (semanticCache != null && cr.getRowLimit() == 0 && !requestMsg.isPreparedStatement() && requestMsg.getParameterValues().isEmpty()) {
+        	semanticCache.addCandidate(this.dqpWorkContext, requestMsg.getCommandString(), originalCommand);
+        }
 	}
 	
 	public SessionAwareCache<CachedResults> getRsCache() {
@@ -1023,7 +1031,7 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
             	lobStreams.put(streamRequestId, workItem);
             }
 		}
-    	workItem.setResultsReceiver(chunckReceiver);
+    	workItem.addResultsReceiver(chunckReceiver);
     	if (this.dqpWorkContext.useCallingThread()) {
     		workItem.run();
     	} else {
@@ -1035,6 +1043,17 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
         this.lobStreams.remove(streamRequestId);
     } 
     
+    /**
+     * Remove the stream only if it is still registered for the given work item 
+     */
+    void removeLobStream(int streamRequestId, LobWorkItem workItem) {
+    	synchronized (lobStreams) {
+    		if (this.lobStreams.get(streamRequestId) == workItem) {
+    			this.lobStreams.remove(streamRequestId);
+    		}
+		}
+    } 
+    
     public boolean requestCancel() throws TeiidComponentException {
     	synchronized (this) {
         	if (this.isCanceled || this.closeRequested) {
@@ -1190,7 +1209,10 @@ public class RequestWorkItem extends AbstractWorkItem implements PrioritizedRunn
 	
 	@Override
 	public int getPriority() {
-		return (closeRequested || isCanceled) ? 0 : 1000;
+		if (closeRequested || isCanceled) {
+			return 0;
+		}
+		return resourceGroup == null ? ResourceGroup.DEFAULT_PRIORITY : resourceGroup.config.getPriority();
 	}
 	
 	@Override
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.dqp.internal.process;
+
+import java.io.Serializable;
+
+/**
+ * Configuration of a workload class used for admission control.
+ * <br/>
+ * A request belongs to the first configured group whose non-null vdb, user, and application
+ * names all match.  Waiting plans are admitted across groups in weighted fair order, and a group
+ * may additionally cap how many of its plans are active at once.
+ */
+public class ResourceGroup implements Serializable {
+	
+	private static final long serialVersionUID = -4391718839447563370L;
+	
+	public static final int DEFAULT_PRIORITY = 1000;
+	
+	private String name;
+	private String vdbName;
+	private String userName;
+	private String applicationName;
+	private int weight = 1;
+	private int maxActivePlans = -1;
+	private int priority = DEFAULT_PRIORITY;
+	
+	public ResourceGroup() {
+		
+	}
+	
+	public ResourceGroup(String name) {
+		this.name = name;
+	}
+	
+	public boolean matches(DQPWorkContext workContext) {
+		return matches(vdbName, workContext.getVdbName()) 
+				&& matches(userName, workContext.getUserName()) 
+				&& matches(applicationName, workContext.getApplicationName());
+	}
+	
+	private static boolean matches(String pattern, String value) {
+		return pattern == null || pattern.equalsIgnoreCase(value);
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public void setName(String name) {
+		this.name = name;
+	}
+	
+	public String getVdbName() {
+		return vdbName;
+	}
+	
+	public void setVdbName(String vdbName) {
+		this.vdbName = vdbName;
+	}
+	
+	public String getUserName() {
+		return userName;
+	}
+	
+	public void setUserName(String userName) {
+		this.userName = userName;
+	}
+	
+	public String getApplicationName() {
+		return applicationName;
+	}
+	
+	public void setApplicationName(String applicationName) {
+		this.applicationName = applicationName;
+	}
+	
+	/**
+	 * The relative share of plan admissions given to this group while plans are waiting.
+	 */
+	public int getWeight() {
+		return weight;
+	}
+	
+	public void setWeight(int weight) {
+		this.weight = Math.max(1, weight);
+	}
+	
+	/**
+	 * The maximum number of active plans for this group, or -1 if only the engine
+	 * wide limit applies.
+	 */
+	public int getMaxActivePlans() {
+		return maxActivePlans;
+	}
+	
+	public void setMaxActivePlans(int maxActivePlans) {
+		this.maxActivePlans = maxActivePlans;
+	}
+	
+	/**
+	 * The processing priority of the group's work items - lower values are run first.
+	 * The default is {@value #DEFAULT_PRIORITY}.
+	 */
+	public int getPriority() {
+		return priority;
+	}
+	
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+	
+	@Override
+	public String toString() {
+		return "ResourceGroup " + name; //$NON-NLS-1$
+	}
+
+}
@@ -0,0 +1,296 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.dqp.internal.process;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.teiid.CommandListener;
+import org.teiid.common.buffer.BufferManager;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.core.util.LRUCache;
+import org.teiid.dqp.internal.process.SessionAwareCache.CacheID;
+import org.teiid.logging.LogConstants;
+import org.teiid.logging.LogManager;
+import org.teiid.query.metadata.QueryMetadataInterface;
+import org.teiid.query.parser.ParseInfo;
+import org.teiid.query.parser.QueryParser;
+import org.teiid.query.resolver.QueryResolver;
+import org.teiid.query.sql.LanguageObject;
+import org.teiid.query.sql.lang.Command;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.From;
+import org.teiid.query.sql.lang.Query;
+import org.teiid.query.sql.lang.Select;
+import org.teiid.query.sql.lang.UnaryFromClause;
+import org.teiid.query.sql.symbol.AggregateSymbol;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.sql.symbol.Expression;
+import org.teiid.query.sql.symbol.GroupSymbol;
+import org.teiid.query.sql.symbol.WindowFunction;
+import org.teiid.query.sql.util.SymbolMap;
+import org.teiid.query.sql.visitor.AggregateSymbolCollectorVisitor;
+import org.teiid.query.sql.visitor.ElementCollectorVisitor;
+import org.teiid.query.sql.visitor.ExpressionMappingVisitor;
+import org.teiid.query.sql.visitor.ValueIteratorProviderCollectorVisitor;
+import org.teiid.query.tempdata.TempTableStore;
+import org.teiid.query.util.CommandContext;
+
+/**
+ * Answers queries that miss the result set cache from the cached results of a broader query.
+ * <br/>
+ * Cached queries that are a plain projection and conjunctive filter over their FROM clause are
+ * tracked as candidates.  A new query with the same FROM clause whose conjuncts are a superset of
+ * the candidate's is subsumed - it is rewritten as the residual filter, projection, grouping, ordering and limit
+ * over a request scoped temp table that reads directly from the cached {@link org.teiid.common.buffer.TupleBuffer}.
+ * <br/>
+ * Lookups go through the {@link SessionAwareCache} so that the scope and ttl of the cached entry are respected. 
+ */
+public class SemanticResultsCache {
+	
+	private static final String TEMP_TABLE_PREFIX = "#semantic_cache_"; //$NON-NLS-1$
+	private static final String COLUMN_PREFIX = "c_"; //$NON-NLS-1$
+	
+	static final int DEFAULT_MAX_ENTRIES = 1024;
+	static final int MAX_CANDIDATES_PER_ENTRY = 16;
+	
+	private SessionAwareCache<CachedResults> rsCache;
+	private Map<String, Set<String>> candidates;
+	private AtomicLong tableCount = new AtomicLong();
+	
+	public SemanticResultsCache(SessionAwareCache<CachedResults> rsCache) {
+		this(rsCache, DEFAULT_MAX_ENTRIES);
+	}
+	
+	public SemanticResultsCache(SessionAwareCache<CachedResults> rsCache, int maxEntries) {
+		this.rsCache = rsCache;
+		this.candidates = Collections.synchronizedMap(new LRUCache<String, Set<String>>(maxEntries));
+	}
+	
+	/**
+	 * Track the cached results of the given command as a candidate for subsumption
+	 */
+	void addCandidate(DQPWorkContext workContext, String sql, Command command) {
+		if (!(command instanceof Query)) {
+			return;
+		}
+		Query query = (Query)command;
+		if (!isCandidate(query)) {
+			return;
+		}
+		String key = getKey(workContext, query.getFrom());
+		synchronized (candidates) {
+			Set<String> sqls = candidates.get(key);
+			if (sqls == null) {
+				sqls = new LinkedHashSet<String>();
+				candidates.put(key, sqls);
+			} else {
+				sqls.remove(sql);
+				if (sqls.size() >= MAX_CANDIDATES_PER_ENTRY) {
+					sqls.remove(sqls.iterator().next());
+				}
+			}
+			sqls.add(sql);
+		}
+	}
+	
+	/**
+	 * Determine if the query is a plain projection and filter, such that its results can be 
+	 * further filtered, projected, or grouped to answer another query.
+	 */
+	static boolean isCandidate(Query query) {
+		if (query.getInto() != null || query.getWith() != null || query.getGroupBy() != null 
+				|| query.getHaving() != null || query.getOrderBy() != null || query.getLimit() != null 
+				|| query.getSelect().isDistinct() || query.getFrom() == null) {
+			return false;
+		}
+		List<AggregateSymbol> aggs = new ArrayList<AggregateSymbol>();
+		List<WindowFunction> windowFunctions = new ArrayList<WindowFunction>();
+		AggregateSymbolCollectorVisitor.getAggregates(query.getSelect(), aggs, null, null, windowFunctions, null);
+		if (!aggs.isEmpty() || !windowFunctions.isEmpty()) {
+			return false;
+		}
+		return !hasSubqueries(query);
+	}
+	
+	private static boolean hasSubqueries(Query query) {
+		return !ValueIteratorProviderCollectorVisitor.getValueIteratorProviders(query.getSelect()).isEmpty()
+				|| (query.getCriteria() != null && !ValueIteratorProviderCollectorVisitor.getValueIteratorProviders(query.getCriteria()).isEmpty())
+				|| (query.getHaving() != null && !ValueIteratorProviderCollectorVisitor.getValueIteratorProviders(query.getHaving()).isEmpty());
+	}
+	
+	private static String getKey(DQPWorkContext workContext, From from) {
+		return workContext.getVdbName() + '.' + workContext.getVdbVersion() + ' ' + from;
+	}
+	
+	/**
+	 * Find cached results that subsume the resolved query.
+	 * @return the residual command, resolved against a temp table in the temp table store holding the cached results, 
+	 * or null if there are no cached results that subsume the query.  The temp table is removed when the command context is closed.
+	 */
+	Command getResidual(Query query, DQPWorkContext workContext, ParseInfo pi, QueryMetadataInterface metadata, 
+			CommandContext context, final TempTableStore tempTableStore, BufferManager bufferManager) throws TeiidComponentException {
+		if (query.getFrom() == null || query.getInto() != null || query.getWith() != null 
+				|| (query.getOption() != null && query.getOption().isNoCache()) || hasSubqueries(query)) {
+			return null;
+		}
+		List<String> sqls = null;
+		String key = getKey(workContext, query.getFrom());
+		synchronized (candidates) {
+			Set<String> entry = candidates.get(key);
+			if (entry == null) {
+				return null;
+			}
+			sqls = new ArrayList<String>(entry);
+		}
+		List<Criteria> conjuncts = Criteria.separateCriteriaByAnd(query.getCriteria());
+		for (int i = sqls.size() - 1; i >= 0; i--) {
+			String sql = sqls.get(i);
+			CacheID id = new CacheID(workContext, pi, sql);
+			CachedResults cr = rsCache.get(id);
+			if (cr == null) {
+				removeCandidate(key, sql);
+				continue;
+			}
+			if (cr.getRowLimit() != 0) {
+				continue;
+			}
+			Command cached = null;
+			try {
+				cached = cr.getCommand(sql, metadata, pi);
+			} catch (TeiidProcessingException e) {
+				LogManager.logDetail(LogConstants.CTX_DQP, e, "Could not resolve the cached command", sql); //$NON-NLS-1$
+				continue;
+			}
+			if (!(cached instanceof Query)) {
+				continue;
+			}
+			Query cachedQuery = (Query)cached.clone();
+			if (!query.getFrom().equals(cachedQuery.getFrom())) {
+				continue;
+			}
+			List<Criteria> residual = new ArrayList<Criteria>(conjuncts);
+			boolean subsumes = true;
+			for (Criteria crit : Criteria.separateCriteriaByAnd(cachedQuery.getCriteria())) {
+				if (!residual.remove(crit)) {
+					subsumes = false;
+					break;
+				}
+			}
+			if (!subsumes) {
+				continue;
+			}
+			final String name = TEMP_TABLE_PREFIX + tableCount.getAndIncrement();
+			GroupSymbol group = new GroupSymbol(name);
+			List<ElementSymbol> columns = new ArrayList<ElementSymbol>();
+			Query residualQuery = createResidual(query, cachedQuery, residual, group, columns);
+			if (residualQuery == null) {
+				continue;
+			}
+			String residualSql = residualQuery.toString();
+			boolean success = false;
+			try {
+				tempTableStore.addTempTable(name, columns, cr.getResults(), bufferManager);
+				Command result = QueryParser.getQueryParser().parseCommand(residualSql, pi);
+				QueryResolver.resolveCommand(result, metadata);
+				context.addListener(new CommandListener() {
+					
+					@Override
+					public void commandClosed(org.teiid.CommandContext commandContext) {
+						try {
+							tempTableStore.removeTempTableByName(name, null);
+						} catch (TeiidProcessingException e) {
+							LogManager.logDetail(LogConstants.CTX_DQP, e, "Could not remove the semantic cache table", name); //$NON-NLS-1$
+						}
+					}
+				});
+				success = true;
+				LogManager.logDetail(LogConstants.CTX_DQP, "Using the cached results of", sql, "to answer", query, "as", residualSql); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				return result;
+			} catch (TeiidProcessingException e) {
+				LogManager.logDetail(LogConstants.CTX_DQP, e, "Could not use the cached results of", sql, "to answer", query); //$NON-NLS-1$ //$NON-NLS-2$
+			} finally {
+				if (!success && tempTableStore.hasTempTable(name)) {
+					try {
+						tempTableStore.removeTempTableByName(name, null);
+					} catch (TeiidProcessingException e) {
+						LogManager.logDetail(LogConstants.CTX_DQP, e, "Could not remove the semantic cache table", name); //$NON-NLS-1$
+					}
+				}
+			}
+		}
+		return null;
+	}
+	
+	private void removeCandidate(String key, String sql) {
+		synchronized (candidates) {
+			Set<String> sqls = candidates.get(key);
+			if (sqls != null) {
+				sqls.remove(sql);
+				if (sqls.isEmpty()) {
+					candidates.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Map the query onto the columns of the cached results.
+	 * @return the residual query or null if the query references values not projected by the cached query
+	 */
+	static Query createResidual(Query query, Query cachedQuery, List<Criteria> residual, GroupSymbol group, List<ElementSymbol> columns) {
+		List<Expression> cachedSymbols = cachedQuery.getSelect().getProjectedSymbols();
+		Map<Expression, ElementSymbol> mapping = new HashMap<Expression, ElementSymbol>();
+		for (int i = 0; i < cachedSymbols.size(); i++) {
+			Expression ex = cachedSymbols.get(i);
+			ElementSymbol column = new ElementSymbol(COLUMN_PREFIX + i, group, ex.getType());
+			columns.add(column);
+			Expression key = SymbolMap.getExpression(ex);
+			if (!mapping.containsKey(key)) {
+				mapping.put(key, column);
+			}
+		}
+		Query result = (Query)query.clone();
+		Select select = new Select(LanguageObject.Util.deepClone(query.getSelect().getProjectedSymbols(), Expression.class));
+		select.setDistinct(query.getSelect().isDistinct());
+		result.setSelect(select);
+		result.setFrom(new From(Arrays.asList(new UnaryFromClause(group))));
+		result.setCriteria(Criteria.combineCriteria(LanguageObject.Util.deepClone(residual, Criteria.class)));
+		ExpressionMappingVisitor.mapExpressions(result, mapping);
+		for (ElementSymbol es : ElementCollectorVisitor.getElements(result, true)) {
+			if (es.getGroupSymbol() != null && !group.equals(es.getGroupSymbol())) {
+				return null;
+			}
+		}
+		return result;
+	}
+
+}
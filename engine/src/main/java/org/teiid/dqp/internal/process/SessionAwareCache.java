@@ -25,15 +25,21 @@ package org.teiid.dqp.internal.process;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.teiid.adminapi.Admin;
 import org.teiid.cache.Cachable;
 import org.teiid.cache.Cache;
 import org.teiid.cache.CacheFactory;
 import org.teiid.common.buffer.TupleBufferCache;
+import org.teiid.core.TeiidRuntimeException;
 import org.teiid.core.util.Assertion;
 import org.teiid.core.util.EquivalenceUtil;
 import org.teiid.core.util.HashCodeUtil;
@@ -46,10 +52,15 @@ import org.teiid.vdb.runtime.VDBKey;
 
 /**
  * This class is used to cache session aware objects
+ * <br/>
+ * {@link Cachable} entries with a size estimate are also weighed against a byte budget.  When the budget
+ * is exceeded the entries with the least cost to recompute per byte are evicted first, using
+ * a GreedyDual-Size policy so that entries that have not been hit recently also age out. 
  */
 public class SessionAwareCache<T> {
 	public static final String REPL = "-repl"; //$NON-NLS-1$
 	public static final int DEFAULT_MAX_SIZE_TOTAL = 512;
+	public static final long DEFAULT_MAX_SIZE_BYTES = -1;
 	public enum Type {
 		RESULTSET,
 		PREPAREDPLAN;
@@ -64,9 +75,44 @@ public class SessionAwareCache<T> {
 	private AtomicInteger cacheHit = new AtomicInteger();
 	private AtomicInteger totalRequests = new AtomicInteger();
 	private AtomicInteger cachePuts = new AtomicInteger();
+	private AtomicLong cacheHitBytes = new AtomicLong();
+	private AtomicLong cachePutBytes = new AtomicLong();
 	
 	private TupleBufferCache bufferManager;
 	
+	private static class Weight implements Comparable<Weight> {
+		final CacheID id;
+		final boolean local;
+		final long size;
+		final double benefit;
+		double priority;
+		long order;
+		
+		Weight(CacheID id, boolean local, long size, long cost) {
+			this.id = id;
+			this.local = local;
+			this.size = size;
+			//treat everything as costing at least a millisecond, so that size still matters
+			this.benefit = Math.max(1, cost)/(double)size;
+		}
+		
+		@Override
+		public int compareTo(Weight o) {
+			int result = Double.compare(this.priority, o.priority);
+			if (result != 0) {
+				return result;
+			}
+			return this.order < o.order ? -1 : (this.order > o.order ? 1 : 0);
+		}
+	}
+	
+	private long maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+	private long sizeBytes;
+	private double inflation;
+	private long weightOrder;
+	private Map<CacheID, Weight> weights = new HashMap<CacheID, Weight>();
+	private TreeSet<Weight> evictionOrder = new TreeSet<Weight>();
+	
 	public SessionAwareCache (String cacheName, final CacheFactory cacheFactory, final Type type, int maxStaleness) {
 		assert (cacheFactory != null);
 		
@@ -96,14 +142,20 @@ public class SessionAwareCache<T> {
 		T result = localCache.get(id);
 		
 		if (result == null) {
+			//the entry may have been expired or evicted by the underlying cache
+			removeWeight(id);
 			id.setSessionId(null);
 			
 			id.setUserName(id.originalUserName);
 			result = distributedCache.get(id);
 			
 			if (result == null) {
+				removeWeight(id);
 				id.setUserName(null);
 				result = distributedCache.get(id);
+				if (result == null) {
+					removeWeight(id);
+				}
 			}
 			
 			if (result instanceof Cachable) {
@@ -125,8 +177,11 @@ public class SessionAwareCache<T> {
 					} else {
 						this.localCache.remove(id);
 					}
+					removeWeight(id);
 					return null;
 				}
+				cacheHitBytes.addAndGet(c.getSizeEstimate());
+				hitWeight(id);
 			}
 			LogManager.logTrace(LogConstants.CTX_DQP, "Cache hit for", id); //$NON-NLS-1$
 			cacheHit.getAndIncrement();
@@ -148,6 +203,52 @@ public class SessionAwareCache<T> {
 		return cachePuts.get();
 	}
 	
+	/**
+	 * @return the estimated bytes served from the cache
+	 */
+	public long getCacheHitBytes() {
+		return cacheHitBytes.get();
+	}
+	
+	/**
+	 * @return the estimated bytes added to the cache, each of which was produced after a miss
+	 */
+	public long getCachePutBytes() {
+		return cachePutBytes.get();
+	}
+	
+	/**
+	 * @return the percentage of the bytes requested that were served from the cache
+	 */
+	public double getByteHitRatio() {
+		long hit = cacheHitBytes.get();
+		long total = hit + cachePutBytes.get();
+		return total == 0?0:((double)hit/total)*100;
+	}
+	
+	/**
+	 * @return the estimated bytes of the weighed entries
+	 */
+	public synchronized long getTotalCacheBytes() {
+		return sizeBytes;
+	}
+	
+	public synchronized long getMaxSizeBytes() {
+		return maxSizeBytes;
+	}
+	
+	/**
+	 * Set the byte budget for entries with a size estimate.  
+	 * {@link #DEFAULT_MAX_SIZE_BYTES} means that the budget should be determined from the available memory, 
+	 * which is done by the {@link DQPCore} on start.  Until then no budget is enforced.
+	 */
+	public void setMaxSizeBytes(long maxSizeBytes) {
+		synchronized (this) {
+			this.maxSizeBytes = maxSizeBytes;
+		}
+		evict();
+	}
+	
 	public int getTotalCacheEntries() {
 		if (this.localCache == this.distributedCache) {
 			return this.localCache.size();
@@ -159,6 +260,7 @@ public class SessionAwareCache<T> {
 		if (determinismLevel.compareTo(Determinism.SESSION_DETERMINISTIC) <= 0) {
 			id.setSessionId(id.originalSessionId);
 			LogManager.logTrace(LogConstants.CTX_DQP, "Removing from session/local cache", id); //$NON-NLS-1$
+			removeWeight(id);
 			return this.localCache.remove(id);
 		} 
 		id.setSessionId(null);
@@ -171,6 +273,7 @@ public class SessionAwareCache<T> {
 		}
 		
 		LogManager.logTrace(LogConstants.CTX_DQP, "Removing from global/distributed cache", id); //$NON-NLS-1$
+		removeWeight(id);
 		return this.distributedCache.remove(id);
 	}
 	
@@ -180,6 +283,7 @@ public class SessionAwareCache<T> {
 			id.setSessionId(id.originalSessionId);
 			LogManager.logTrace(LogConstants.CTX_DQP, "Adding to session/local cache", id); //$NON-NLS-1$
 			this.localCache.put(id, t, ttl);
+			addWeight(id, true, t);
 		} 
 		else {
 			
@@ -202,6 +306,106 @@ public class SessionAwareCache<T> {
 			if (insert) {
 				LogManager.logTrace(LogConstants.CTX_DQP, "Adding to global/distributed cache", id); //$NON-NLS-1$
 				this.distributedCache.put(id, t, ttl);
+				addWeight(id, false, t);
+			}
+		}
+		evict();
+	}
+	
+	private void addWeight(CacheID id, boolean local, T t) {
+		if (!(t instanceof Cachable)) {
+			return;
+		}
+		Cachable c = (Cachable)t;
+		long size = c.getSizeEstimate();
+		if (size <= 0) {
+			return;
+		}
+		cachePutBytes.addAndGet(size);
+		CacheID key = id.clone();
+		Weight weight = new Weight(key, local, size, c.getCost());
+		synchronized (this) {
+			removeWeight(key);
+			weight.priority = inflation + weight.benefit;
+			weight.order = weightOrder++;
+			weights.put(key, weight);
+			evictionOrder.add(weight);
+			sizeBytes += size;
+		}
+	}
+	
+	/**
+	 * Refresh the priority of a hit entry
+	 */
+	private synchronized void hitWeight(CacheID id) {
+		Weight weight = weights.get(id);
+		if (weight == null) {
+			return;
+		}
+		evictionOrder.remove(weight);
+		weight.priority = inflation + weight.benefit;
+		weight.order = weightOrder++;
+		evictionOrder.add(weight);
+	}
+	
+	private synchronized void removeWeight(CacheID id) {
+		Weight weight = weights.remove(id);
+		if (weight != null) {
+			evictionOrder.remove(weight);
+			sizeBytes -= weight.size;
+		}
+	}
+	
+	/**
+	 * Evict the lowest priority entries until we're within the byte budget.
+	 * The inflation value is raised to the priority of each evicted entry, so that 
+	 * entries not hit since are evicted before those that were recently used.
+	 */
+	private void evict() {
+		synchronized (this) {
+			if (maxSizeBytes < 0 || sizeBytes <= maxSizeBytes) {
+				return;
+			}
+		}
+		reconcile();
+		while (true) {
+			Weight weight = null;
+			synchronized (this) {
+				if (maxSizeBytes < 0 || sizeBytes <= maxSizeBytes || evictionOrder.isEmpty()) {
+					return;
+				}
+				weight = evictionOrder.pollFirst();
+				weights.remove(weight.id);
+				sizeBytes -= weight.size;
+				inflation = weight.priority;
+			}
+			LogManager.logDetail(LogConstants.CTX_DQP, "Evicting cache entry over the byte budget", weight.id, weight.size); //$NON-NLS-1$
+			if (weight.local) {
+				this.localCache.remove(weight.id);
+			} else {
+				this.distributedCache.remove(weight.id);
+			}
+		}
+	}
+	
+	/**
+	 * Drop the weights of entries that the underlying caches have expired or evicted on their own,
+	 * so that their bytes are not counted against the live entries.
+	 */
+	private void reconcile() {
+		Set<CacheID> localKeys = this.localCache.keySet();
+		Set<CacheID> distributedKeys = localKeys;
+		if (this.distributedCache != this.localCache) {
+			distributedKeys = this.distributedCache.keySet();
+		}
+		synchronized (this) {
+			for (Iterator<Weight> iter = evictionOrder.iterator(); iter.hasNext();) {
+				Weight weight = iter.next();
+				if (!(weight.local?localKeys:distributedKeys).contains(weight.id)) {
+					iter.remove();
+					weights.remove(weight.id);
+					sizeBytes -= weight.size;
+				}
 			}
 		}
 	}
@@ -216,6 +420,14 @@ public class SessionAwareCache<T> {
 		this.totalRequests.set(0);
 		this.cacheHit.set(0);
 		this.cachePuts.set(0);
+		this.cacheHitBytes.set(0);
+		this.cachePutBytes.set(0);
+		synchronized (this) {
+			this.weights.clear();
+			this.evictionOrder.clear();
+			this.sizeBytes = 0;
+			this.inflation = 0;
+		}
 	}	
 	
 	public void clearForVDB(String vdbName, int version) {
@@ -228,12 +440,13 @@ public class SessionAwareCache<T> {
 		VDBKey vdbKey = new VDBKey(vdbName, version);
 		for (CacheID key:keys) {
 			if (key.vdbInfo.equals(vdbKey)) {
+				removeWeight(key);
 				cache.remove(key);
 			}
 		}
 	}
 	
-	public static class CacheID implements Serializable {
+	public static class CacheID implements Serializable, Cloneable {
 		private static final long serialVersionUID = 8261905111156764744L;
 		private String sql;
 		private VDBKey vdbInfo;
@@ -318,6 +531,15 @@ public class SessionAwareCache<T> {
 	        return HashCodeUtil.hashCode(0, vdbInfo, sql, this.userName, sessionId, parameters);
 	    }
 	    
+	    @Override
+	    public CacheID clone() {
+	    	try {
+				return (CacheID)super.clone();
+			} catch (CloneNotSupportedException e) {
+				throw new TeiidRuntimeException(e);
+			}
+	    }
+	    
 	    @Override
 	    public String toString() {
 	    	return "Cache Entry<" + originalSessionId + "="+ originalUserName + "> params:" + parameters + " sql:" + sql; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.dqp.internal.process;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Tracks the waiting plans of each {@link ResourceGroup} and chooses the next one to admit.
+ * <br/>
+ * Uses weighted fair queueing - each waiting plan is tagged with a virtual finish time of
+ * max(group finish, virtual time) + 1/weight and the smallest tag among the admissible groups wins.
+ * Without configured groups this is the same as a single fifo queue.
+ * <br/>
+ * Not thread-safe, access should be synchronized on the instance.
+ */
+class WorkloadManager {
+	
+	static class Group {
+		final ResourceGroup config;
+		final LinkedList<RequestWorkItem> waiting = new LinkedList<RequestWorkItem>();
+		final LinkedList<Double> tags = new LinkedList<Double>();
+		double finishTag;
+		int active;
+		
+		Group(ResourceGroup config) {
+			this.config = config;
+		}
+		
+		boolean isAtCapacity() {
+			return config.getMaxActivePlans() >= 0 && active >= config.getMaxActivePlans();
+		}
+	}
+	
+	private List<Group> groups = new ArrayList<Group>();
+	private Group defaultGroup = new Group(new ResourceGroup("default")); //$NON-NLS-1$
+	private double virtualTime;
+	private int waitingCount;
+	
+	WorkloadManager(List<ResourceGroup> resourceGroups) {
+		if (resourceGroups != null) {
+			for (ResourceGroup resourceGroup : resourceGroups) {
+				groups.add(new Group(resourceGroup));
+			}
+		}
+	}
+	
+	Group getGroup(DQPWorkContext workContext) {
+		for (Group group : groups) {
+			if (group.config.matches(workContext)) {
+				return group;
+			}
+		}
+		return defaultGroup;
+	}
+	
+	/**
+	 * @return true if the group of the item is allowed another active plan
+	 */
+	boolean canStart(RequestWorkItem workItem) {
+		return !workItem.resourceGroup.isAtCapacity();
+	}
+	
+	void add(RequestWorkItem workItem) {
+		Group group = workItem.resourceGroup;
+		group.finishTag = Math.max(group.finishTag, virtualTime) + 1d/group.config.getWeight();
+		group.waiting.add(workItem);
+		group.tags.add(group.finishTag);
+		waitingCount++;
+	}
+	
+	/**
+	 * Remove the next item to admit
+	 * @return the item or null if there are no waiting items that may be started
+	 */
+	RequestWorkItem next() {
+		Group next = null;
+		double min = Double.MAX_VALUE;
+		if (!defaultGroup.waiting.isEmpty()) {
+			next = defaultGroup;
+			min = defaultGroup.tags.getFirst();
+		}
+		for (Group group : groups) {
+			if (group.waiting.isEmpty() || group.isAtCapacity()) {
+				continue;
+			}
+			double tag = group.tags.getFirst();
+			if (tag < min) {
+				min = tag;
+				next = group;
+			}
+		}
+		if (next == null) {
+			return null;
+		}
+		virtualTime = next.tags.removeFirst();
+		waitingCount--;
+		return next.waiting.removeFirst();
+	}
+	
+	void started(RequestWorkItem workItem) {
+		workItem.resourceGroup.active++;
+	}
+	
+	void finished(RequestWorkItem workItem) {
+		workItem.resourceGroup.active--;
+	}
+	
+	int getWaitingCount() {
+		return waitingCount;
+	}
+	
+	boolean isEmpty() {
+		return waitingCount == 0;
+	}
+
+}
@@ -37,6 +37,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -169,6 +170,7 @@ public class Evaluator {
 
 	public final static char[] REGEX_RESERVED = new char[] {'$', '(', ')', '*', '+', '.', '?', '[', '\\', ']', '^', '{', '|', '}'}; //in sorted order
     private final static MatchCriteria.PatternTranslator LIKE_TO_REGEX = new MatchCriteria.PatternTranslator(new char[] {'%', '_'}, new String[] {".*", "."},  REGEX_RESERVED, '\\', Pattern.DOTALL);  //$NON-NLS-1$ //$NON-NLS-2$
+    private final static ConcurrentHashMap<List<?>, LikeMatcher> LIKE_MATCHERS = new ConcurrentHashMap<List<?>, LikeMatcher>();
     
     private final static char[] SIMILAR_REGEX_RESERVED = new char[] {'$', '.', '\\', '^'}; //in sorted order
     public final static MatchCriteria.PatternTranslator SIMILAR_TO_REGEX = new MatchCriteria.PatternTranslator(
@@ -360,6 +362,16 @@ public class Evaluator {
 		Pattern patternRegex = null;
 		switch (mode) {
 		case LIKE:
+			List<?> key = Arrays.asList(pattern, escape);
+			LikeMatcher likeMatcher = LIKE_MATCHERS.get(key);
+			if (likeMatcher == null) {
+				likeMatcher = LikeMatcher.compile(pattern, escape);
+				MatchCriteria.cache(LIKE_MATCHERS, key, likeMatcher);
+			}
+			Boolean result = likeMatcher.matches(search);
+			if (result != null) {
+				return result;
+			}
 			patternRegex = LIKE_TO_REGEX.translate(pattern, escape);
 			break;
 		case SIMILAR:
@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.eval;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.teiid.api.exception.query.ExpressionEvaluationException;
+import org.teiid.query.QueryPlugin;
+import org.teiid.query.sql.lang.MatchCriteria;
+
+/**
+ * A matcher for LIKE patterns that avoids regex for the common forms:
+ * exact values, values with single char wildcards, and literals separated by %.
+ * <br>
+ * A null result from {@link #matches(CharSequence)} indicates that the regex form must be used
+ * to retain the prior semantics, such as the regex end anchor matching before a final line
+ * terminator or _ matching a supplementary code point.
+ */
+final class LikeMatcher {
+	
+	private static final int HORSPOOL_MIN_LENGTH = 4;
+	
+	/**
+	 * The literal segments separated by %
+	 */
+	private String[] segments;
+	private int[][] shifts;
+	private boolean leadingMatchAny;
+	private boolean trailingMatchAny;
+	/**
+	 * For a pattern without % the positions of _
+	 */
+	private boolean[] singleMatch;
+	private boolean useRegex;
+	
+	private LikeMatcher() {
+		
+	}
+	
+	static LikeMatcher compile(String pattern, char escape) throws ExpressionEvaluationException {
+		LikeMatcher result = new LikeMatcher();
+		if (escape == '%' || escape == '_') {
+			result.useRegex = true;
+			return result;
+		}
+		List<String> parts = new ArrayList<String>();
+		StringBuilder current = new StringBuilder(pattern.length());
+		List<Integer> singleMatches = null;
+		boolean escaped = false;
+		for (int i = 0; i < pattern.length(); i++) {
+			char character = pattern.charAt(i);
+			if (isSurrogate(character)) {
+				result.useRegex = true;
+			}
+			if (escaped) {
+				if (character != '%' && character != '_' && character != escape) {
+					throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30449, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30449, new Object[] {pattern, new Character(escape)}));
+				}
+				current.append(character);
+				escaped = false;
+			} else if (character == escape && character != MatchCriteria.NULL_ESCAPE_CHAR) {
+				escaped = true;
+			} else if (character == '%') {
+				parts.add(current.toString());
+				current.setLength(0);
+			} else {
+				if (character == '_') {
+					if (singleMatches == null) {
+						singleMatches = new ArrayList<Integer>();
+					}
+					singleMatches.add(current.length());
+				}
+				current.append(character);
+			}
+		}
+		if (escaped) {
+			throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30449, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30449, new Object[] {pattern, new Character(escape)}));
+		}
+		parts.add(current.toString());
+		if (result.useRegex) {
+			return result;
+		}
+		if (singleMatches != null) {
+			if (parts.size() > 1) {
+				result.useRegex = true;
+				return result;
+			}
+			result.singleMatch = new boolean[current.length()];
+			for (Integer index : singleMatches) {
+				result.singleMatch[index] = true;
+			}
+		}
+		result.segments = parts.toArray(new String[parts.size()]);
+		if (result.segments.length > 1) {
+			result.leadingMatchAny = result.segments[0].length() == 0;
+			result.trailingMatchAny = result.segments[result.segments.length - 1].length() == 0;
+			result.shifts = new int[result.segments.length][];
+			for (int i = 1; i < result.segments.length - 1; i++) {
+				result.shifts[i] = getShifts(result.segments[i]);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Horspool bad character shifts with chars folded into 256 buckets.  
+	 * Colliding chars take the smaller shift, which is safe.
+	 */
+	private static int[] getShifts(String segment) {
+		int length = segment.length();
+		if (length < HORSPOOL_MIN_LENGTH) {
+			return null;
+		}
+		int[] shifts = new int[256];
+		for (int i = 0; i < shifts.length; i++) {
+			shifts[i] = length;
+		}
+		for (int i = 0; i < length - 1; i++) {
+			shifts[segment.charAt(i) & 0xff] = length - 1 - i;
+		}
+		return shifts;
+	}
+	
+	/**
+	 * @return the match result or null if the regex form should be used
+	 */
+	Boolean matches(CharSequence search) {
+		if (useRegex) {
+			return null;
+		}
+		int length = search.length();
+		if (!trailingMatchAny && length > 0 && isLineTerminator(search.charAt(length - 1))) {
+			return null;
+		}
+		if (segments.length == 1) {
+			String segment = segments[0];
+			if (singleMatch == null) {
+				return length == segment.length() && regionMatches(search, 0, segment);
+			}
+			for (int i = 0; i < length; i++) {
+				if (isSurrogate(search.charAt(i))) {
+					return null;
+				}
+			}
+			if (length != segment.length()) {
+				return Boolean.FALSE;
+			}
+			for (int i = 0; i < length; i++) {
+				if (!singleMatch[i] && segment.charAt(i) != search.charAt(i)) {
+					return Boolean.FALSE;
+				}
+			}
+			return Boolean.TRUE;
+		}
+		int start = 0;
+		int end = length;
+		String first = segments[0];
+		if (!leadingMatchAny) {
+			if (length < first.length() || !regionMatches(search, 0, first)) {
+				return Boolean.FALSE;
+			}
+			start = first.length();
+		}
+		String last = segments[segments.length - 1];
+		if (!trailingMatchAny) {
+			end = length - last.length();
+			if (end < start || !regionMatches(search, end, last)) {
+				return Boolean.FALSE;
+			}
+		}
+		for (int i = 1; i < segments.length - 1; i++) {
+			String segment = segments[i];
+			int index = indexOf(search, segment, shifts[i], start, end);
+			if (index < 0) {
+				return Boolean.FALSE;
+			}
+			start = index + segment.length();
+		}
+		return Boolean.TRUE;
+	}
+	
+	private static boolean isSurrogate(char c) {
+		return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+	}
+	
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+	
+	private static boolean regionMatches(CharSequence search, int offset, String segment) {
+		if (search instanceof String) {
+			return ((String)search).startsWith(segment, offset);
+		}
+		for (int i = 0; i < segment.length(); i++) {
+			if (search.charAt(offset + i) != segment.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Find the first occurrence of the segment that lies entirely within [start, end)
+	 */
+	static int indexOf(CharSequence search, String segment, int[] shifts, int start, int end) {
+		int length = segment.length();
+		if (search instanceof String) {
+			int index = ((String)search).indexOf(segment, start);
+			if (index < 0 || index + length > end) {
+				return -1;
+			}
+			return index;
+		}
+		int lastIndex = length - 1;
+		if (shifts == null) {
+			for (int i = start; i + length <= end; i++) {
+				if (regionMatches(search, i, segment)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		char lastChar = segment.charAt(lastIndex);
+		for (int i = start; i + length <= end;) {
+			char c = search.charAt(i + lastIndex);
+			if (c == lastChar && regionMatches(search, i, segment)) {
+				return i;
+			}
+			i += shifts[c & 0xff];
+		}
+		return -1;
+	}
+	
+}
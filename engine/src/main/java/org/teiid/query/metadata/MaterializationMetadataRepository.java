@@ -21,8 +21,14 @@
  */
 package org.teiid.query.metadata;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.teiid.core.types.DataTypeManager;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
+import org.teiid.metadata.Column;
 import org.teiid.metadata.MetadataFactory;
 import org.teiid.metadata.MetadataRepository;
 import org.teiid.metadata.Table;
@@ -47,6 +53,19 @@ public class MaterializationMetadataRepository extends MetadataRepository {
 	public static final String MATVIEW_STAGE_TABLE = "{http://www.teiid.org/ext/relational/2012}MATERIALIZED_STAGE_TABLE"; //$NON-NLS-1$
 	public static final String MATVIEW_SHARE_SCOPE = "{http://www.teiid.org/ext/relational/2012}MATVIEW_SHARE_SCOPE"; //$NON-NLS-1$
 	public static final String MATVIEW_ONERROR_ACTION = "{http://www.teiid.org/ext/relational/2012}MATVIEW_ONERROR_ACTION"; //$NON-NLS-1$
+	/* optional implicit load script partitioning - the load is split into MATVIEW_PARTITION_COUNT slices by abs(mod(partition column, count)) 
+	 * and up to MATVIEW_LOAD_CONCURRENCY slices are fetched together.  The partition column must be integral. */
+	public static final String MATVIEW_PARTITION_COLUMN = "{http://www.teiid.org/ext/relational/2012}MATVIEW_PARTITION_COLUMN"; //$NON-NLS-1$
+	public static final String MATVIEW_PARTITION_COUNT = "{http://www.teiid.org/ext/relational/2012}MATVIEW_PARTITION_COUNT"; //$NON-NLS-1$
+	public static final String MATVIEW_LOAD_CONCURRENCY = "{http://www.teiid.org/ext/relational/2012}MATVIEW_LOAD_CONCURRENCY"; //$NON-NLS-1$
+	/* integer priority of scheduled loads, higher values are loaded first when loads are queued */
+	public static final String MATVIEW_LOAD_PRIORITY = "{http://www.teiid.org/ext/relational/2012}MATVIEW_LOAD_PRIORITY"; //$NON-NLS-1$
+	/* comma separated column names set on an index of an internal matview to also store in the index, so that it may be covering */
+	public static final String MATVIEW_INDEX_INCLUDE = "{http://www.teiid.org/ext/relational/2012}MATVIEW_INDEX_INCLUDE"; //$NON-NLS-1$
+	
+	private static final Set<String> INTEGRAL_TYPES = new HashSet<String>(Arrays.asList(DataTypeManager.DefaultDataTypes.BYTE, 
+			DataTypeManager.DefaultDataTypes.SHORT, DataTypeManager.DefaultDataTypes.INTEGER, DataTypeManager.DefaultDataTypes.LONG, 
+			DataTypeManager.DefaultDataTypes.BIG_INTEGER));
 	
 	public enum LoadStates {NEEDS_LOADING, LOADING, LOADED, FAILED_LOAD};
 	public enum Scope {NONE, VDB, SCHEMA};
@@ -74,6 +93,16 @@ public class MaterializationMetadataRepository extends MetadataRepository {
 						throw new TranslatorException(QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31144));
 					}
 					
+					String partitionColumn = table.getProperty(MATVIEW_PARTITION_COLUMN, false);
+					if (partitionColumn != null && loadScript != null) {
+						LogManager.logWarning(LogConstants.CTX_MATVIEWS, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31153, table.getFullName()));
+					} else if (partitionColumn != null) {
+						Column column = table.getColumnByName(partitionColumn);
+						if (column == null || !INTEGRAL_TYPES.contains(column.getRuntimeType())) {
+							LogManager.logWarning(LogConstants.CTX_MATVIEWS, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31155, partitionColumn, table.getFullName()));
+						}
+					}
+					
 					if (beforeScript == null || afterScript == null) {
 						LogManager.logWarning(LogConstants.CTX_MATVIEWS, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31144));
 					}
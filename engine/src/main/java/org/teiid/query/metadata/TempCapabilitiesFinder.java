@@ -46,6 +46,8 @@ public class TempCapabilitiesFinder implements CapabilitiesFinder {
 		tempCaps.setCapabilitySupport(Capability.CRITERIA_LIKE_REGEX, true);
 		tempCaps.setCapabilitySupport(Capability.CRITERIA_SIMILAR, true);
 		tempCaps.setCapabilitySupport(Capability.QUERY_AGGREGATES_COUNT_STAR, true);
+		tempCaps.setCapabilitySupport(Capability.QUERY_AGGREGATES_MIN, true);
+		tempCaps.setCapabilitySupport(Capability.QUERY_AGGREGATES_MAX, true);
 		tempCaps.setCapabilitySupport(Capability.ARRAY_TYPE, true);
 		tempCaps.setSourceProperty(Capability.MAX_IN_CRITERIA_SIZE, 100000);
 		tempCaps.setSourceProperty(Capability.MAX_DEPENDENT_PREDICATES, 1);
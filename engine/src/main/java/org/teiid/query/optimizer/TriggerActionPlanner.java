@@ -39,6 +39,8 @@ import org.teiid.language.SQLConstants;
 import org.teiid.query.analysis.AnalysisRecord;
 import org.teiid.query.metadata.QueryMetadataInterface;
 import org.teiid.query.optimizer.capabilities.CapabilitiesFinder;
+import org.teiid.query.optimizer.capabilities.SourceCapabilities.Capability;
+import org.teiid.query.optimizer.relational.rules.CapabilitiesUtil;
 import org.teiid.query.optimizer.relational.rules.RuleChooseJoinStrategy;
 import org.teiid.query.optimizer.relational.rules.RuleMergeCriteria;
 import org.teiid.query.processor.ProcessorPlan;
@@ -49,8 +51,10 @@ import org.teiid.query.resolver.QueryResolver;
 import org.teiid.query.resolver.util.ResolverUtil;
 import org.teiid.query.rewriter.QueryRewriter;
 import org.teiid.query.sql.LanguageObject;
+import org.teiid.query.sql.ProcedureReservedWords;
 import org.teiid.query.sql.lang.*;
 import org.teiid.query.sql.navigator.DeepPostOrderNavigator;
+import org.teiid.query.sql.proc.Block;
 import org.teiid.query.sql.proc.CommandStatement;
 import org.teiid.query.sql.proc.CreateProcedureCommand;
 import org.teiid.query.sql.proc.Statement;
@@ -59,8 +63,10 @@ import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.sql.symbol.GroupSymbol;
 import org.teiid.query.sql.util.SymbolMap;
+import org.teiid.query.sql.visitor.ElementCollectorVisitor;
 import org.teiid.query.sql.visitor.ExpressionMappingVisitor;
 import org.teiid.query.sql.visitor.GroupCollectorVisitor;
+import org.teiid.query.sql.visitor.ValueIteratorProviderCollectorVisitor;
 import org.teiid.query.util.CommandContext;
 
 
@@ -113,8 +119,61 @@ public final class TriggerActionPlanner {
 		ProcedurePlan rowProcedure = (ProcedurePlan)QueryOptimizer.optimizePlan(command, metadata, idGenerator, capFinder, analysisRecord, context);
 		rowProcedure.setRunInContext(false);
 		result.setRowProcedure(rowProcedure);
+		result.setBatchModelName(getBatchModelName(ta, metadata, capFinder));
 		return result;
 	}
+	
+	/**
+	 * look for the simple case of a trigger action consisting only of insert/update/delete statements 
+	 * against a single physical model that supports batched updates.  The per row commands 
+	 * can then be sent to the source in batches rather than individually.
+	 * @return the model name or null if batching cannot be used
+	 */
+	private String getBatchModelName(TriggerAction ta, QueryMetadataInterface metadata, 
+			CapabilitiesFinder capFinder) throws QueryMetadataException, TeiidComponentException {
+		Block block = ta.getBlock();
+		if (block.getExceptionGroup() != null || block.getStatements().isEmpty()) {
+			return null;
+		}
+		Object batchModelId = null;
+		for (Statement s : block.getStatements()) {
+			if (!(s instanceof CommandStatement)) {
+				return null;
+			}
+			Command command = ((CommandStatement)s).getCommand();
+			if (command instanceof Insert) {
+				if (((Insert)command).getQueryExpression() != null) {
+					return null;
+				}
+			} else if (!(command instanceof Update || command instanceof Delete)) {
+				return null;
+			}
+			GroupSymbol group = ((ProcedureContainer)command).getGroup();
+			if (group.isTempTable() || metadata.isVirtualGroup(group.getMetadataID())) {
+				return null;
+			}
+			//subqueries could observe the deferred changes 
+			if (!ValueIteratorProviderCollectorVisitor.getValueIteratorProviders(command).isEmpty()) {
+				return null;
+			}
+			//the deferred commands will not report the actual update count
+			for (ElementSymbol es : ElementCollectorVisitor.getElements(command, false)) {
+				if (es.getShortName().equalsIgnoreCase(ProcedureReservedWords.ROWCOUNT)) {
+					return null;
+				}
+			}
+			Object modelId = metadata.getModelID(group.getMetadataID());
+			if (batchModelId == null) {
+				if (metadata.isMultiSource(modelId) || !CapabilitiesUtil.supports(Capability.BATCHED_UPDATES, modelId, metadata, capFinder)) {
+					return null;
+				}
+				batchModelId = modelId;
+			} else if (!batchModelId.equals(modelId)) {
+				return null;
+			}
+		}
+		return metadata.getFullName(batchModelId);
+	}
 
 	/**
 	 * look for the simple case of a mapping to a single insert statement trigger action - and reconstruct the plan as a single insert
@@ -40,6 +40,7 @@ import org.teiid.query.QueryPlugin;
 import org.teiid.query.metadata.QueryMetadataInterface;
 import org.teiid.query.metadata.TempMetadataAdapter;
 import org.teiid.query.optimizer.capabilities.CapabilitiesFinder;
+import org.teiid.query.optimizer.capabilities.SourceCapabilities.Capability;
 import org.teiid.query.optimizer.relational.RelationalPlanner;
 import org.teiid.query.optimizer.relational.plantree.NodeConstants;
 import org.teiid.query.optimizer.relational.plantree.NodeConstants.Info;
@@ -70,6 +71,7 @@ public class NewCalculateCostUtil {
     private final static float compareTime = .0001f; //TODO: a better estimate would be based upon the number of conjuncts
     private final static float readTime = .001f; //TODO: should come from the connector
     private final static float procNewRequestTime = 1; //TODO: should come from the connector
+    private final static float loadTime = .001f; //TODO: should come from the connector
     
     enum Stat {
     	NDV,
@@ -1179,13 +1181,16 @@ public class NewCalculateCostUtil {
 				PlanNode accessNode = NodeEditor.findParent(target, NodeConstants.Types.ACCESS);
 
 		        float setCriteriaBatchSize = indSymbolNDV;
+		        boolean keySetPushdown = false;
                 
 		        if (accessNode != null) {
-		            setCriteriaBatchSize = CapabilitiesUtil.getMaxInCriteriaSize(RuleRaiseAccess.getModelIDFromAccess(accessNode, metadata), metadata, capFinder);
+		        	Object modelID = RuleRaiseAccess.getModelIDFromAccess(accessNode, metadata);
+		        	keySetPushdown = CapabilitiesUtil.supports(Capability.DEPENDENT_JOIN, modelID, metadata, capFinder);
+		            setCriteriaBatchSize = CapabilitiesUtil.getMaxInCriteriaSize(modelID, metadata, capFinder);
 		            if (setCriteriaBatchSize < 1) {
 		                setCriteriaBatchSize = indSymbolNDV;
 		            } else {
-		            	int numberOfSets = CapabilitiesUtil.getMaxDependentPredicates(RuleRaiseAccess.getModelIDFromAccess(accessNode, metadata), metadata, capFinder);
+		            	int numberOfSets = CapabilitiesUtil.getMaxDependentPredicates(modelID, metadata, capFinder);
 		            	if (numberOfSets > 0) {
 		            		setCriteriaBatchSize *= Math.max(1, numberOfSets /dependentExpressions.size()); //scale down to be conservative 
 		            	}
@@ -1233,7 +1238,7 @@ public class NewCalculateCostUtil {
 				if (!usesKey && accessNode != null && target.getType() == NodeConstants.Types.SOURCE && target.getChildCount() == 0) {
 					usesIndex = usesKey(depElems, target.getGroups(), metadata, false);
 				}
-		        float[] estimates = estimateCost(accessNode, setCriteriaBatchSize, usesIndex, depTargetCardinality, indSymbolNDV, dependentCardinality, depSymbolNDV);
+		        float[] estimates = estimateCost(accessNode, setCriteriaBatchSize, keySetPushdown, usesIndex, depTargetCardinality, indSymbolNDV, dependentCardinality, depSymbolNDV);
 		        if (estimates[1] < 0) {
 		        	if (dca.expectedCardinality == null) {
 		        		dca.expectedCardinality = estimates[0];
@@ -1260,7 +1265,7 @@ public class NewCalculateCostUtil {
 		        	} else {
 		        		break;
 		        	}
-		        	estimates = estimateCost(accessNode, setCriteriaBatchSize, usesIndex, depTargetCardinality, indSymbolNDV, dependentCardinality, depSymbolNDV);
+		        	estimates = estimateCost(accessNode, setCriteriaBatchSize, keySetPushdown, usesIndex, depTargetCardinality, indSymbolNDV, dependentCardinality, depSymbolNDV);
 		        }
 		        dca.maxNdv[i] = indSymbolNDV;
 			}
@@ -1268,7 +1273,12 @@ public class NewCalculateCostUtil {
         return dca;
 	}
 	
-	private static float[] estimateCost(PlanNode accessNode, float setCriteriaBatchSize, boolean usesIndex, float depTargetCardinality, 
+	/**
+	 * @param keySetPushdown true if the source can receive the whole key set, which will be bulk loaded into a 
+	 * source temporary table rather than sent as multiple in predicate queries
+	 * @return the expected dependent cardinality and the relative cost of the dependent join
+	 */
+	static float[] estimateCost(PlanNode accessNode, float setCriteriaBatchSize, boolean keySetPushdown, boolean usesIndex, float depTargetCardinality, 
 			float indSymbolNDV, float dependentCardinality, float depSymbolNDV) {
         float dependentAccessCardinality = Math.min(depTargetCardinality, depTargetCardinality * indSymbolNDV / depSymbolNDV);
         float scaledCardinality = Math.min(dependentCardinality, dependentCardinality * indSymbolNDV / depSymbolNDV);
@@ -1276,6 +1286,9 @@ public class NewCalculateCostUtil {
         float newDependentQueries = accessNode == null?0:(float)Math.ceil(indSymbolNDV / setCriteriaBatchSize);
         
         float relativeCost = newDependentQueries*procNewRequestTime;
+        if (keySetPushdown && newDependentQueries > 1) {
+        	relativeCost = Math.min(relativeCost, procNewRequestTime + indSymbolNDV*loadTime);
+        }
         float relativeComparisonCost = (numberComparisons - safeLog(scaledCardinality) /*no longer needed by the join*/
             /*sort cost reduction, however it's always true if its on the source and using an index
               TODO: there are other cost reductions, which we could get by checking the other parent nodes */
@@ -38,14 +38,17 @@ import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.id.IDGenerator;
 import org.teiid.core.types.DataTypeManager;
+import org.teiid.dqp.internal.process.PreparedPlan;
 import org.teiid.dqp.internal.process.Request;
 import org.teiid.language.SQLConstants.Reserved;
 import org.teiid.logging.LogManager;
 import org.teiid.metadata.Column;
+import org.teiid.metadata.FunctionMethod.Determinism;
 import org.teiid.query.QueryPlugin;
 import org.teiid.query.analysis.AnalysisRecord;
 import org.teiid.query.metadata.QueryMetadataInterface;
 import org.teiid.query.metadata.TempMetadataAdapter;
+import org.teiid.query.metadata.TempMetadataID;
 import org.teiid.query.metadata.TempMetadataStore;
 import org.teiid.query.optimizer.QueryOptimizer;
 import org.teiid.query.optimizer.capabilities.CapabilitiesFinder;
@@ -68,6 +71,7 @@ import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.sql.symbol.GroupSymbol;
 import org.teiid.query.sql.util.VariableContext;
+import org.teiid.query.sql.visitor.GroupCollectorVisitor;
 import org.teiid.query.util.CommandContext;
 import org.teiid.query.validator.ValidationVisitor;
 
@@ -142,52 +146,107 @@ public class ExecDynamicSqlInstruction extends ProgramInstruction {
 			LogManager.logTrace(org.teiid.logging.LogConstants.CTX_DQP,
 					new Object[] { "Executing dynamic sql ", value }); //$NON-NLS-1$
 
-			Command command = QueryParser.getQueryParser().parseCommand(value.toString());
-			command.setExternalGroupContexts(dynamicCommand.getExternalGroupContexts());
-			command.setTemporaryMetadata(dynamicCommand.getTemporaryMetadata().clone());
 			updateContextWithUsingValues(procEnv, localContext);
 			
-			TempMetadataStore metadataStore = command.getTemporaryMetadata();
-            
-            if (dynamicCommand.getUsing() != null
-                            && !dynamicCommand.getUsing().isEmpty()) {
-                metadataStore.addTempGroup(Reserved.USING, new LinkedList<ElementSymbol>(dynamicCommand.getUsing().getClauseMap().keySet()));
-                GroupSymbol using = new GroupSymbol(Reserved.USING);
-                using.setMetadataID(metadataStore.getTempGroupID(Reserved.USING));
-                command.addExternalGroupToContext(using);
-                metadataStore.addTempGroup(ProcedureReservedWords.DVARS, new LinkedList<ElementSymbol>(dynamicCommand.getUsing().getClauseMap().keySet()));
-                using = new GroupSymbol(ProcedureReservedWords.DVARS);
-                using.setMetadataID(metadataStore.getTempGroupID(ProcedureReservedWords.DVARS));
-                command.addExternalGroupToContext(using);
-            }
-
-			QueryResolver.resolveCommand(command, metadata.getDesignTimeMetadata());
-
-			validateDynamicCommand(procEnv, command);
-
-			// create a new set of variables including vars
-			Map<ElementSymbol, Expression> nameValueMap = createVariableValuesMap(localContext);
-            ValidationVisitor visitor = new ValidationVisitor();
-            Request.validateWithVisitor(visitor, metadata, command);
-
-            if (dynamicCommand.getAsColumns() != null
-					&& !dynamicCommand.getAsColumns().isEmpty()) {
-        		command = QueryRewriter.createInlineViewQuery(new GroupSymbol("X"), command, metadata, dynamicCommand.getAsColumns()); //$NON-NLS-1$
-				if (dynamicCommand.getIntoGroup() != null) {
-					Insert insert = new Insert(dynamicCommand.getIntoGroup(), dynamicCommand.getAsColumns(), Collections.emptyList());
-					insert.setQueryExpression((Query)command);
-					command = insert;
+			CommandContext context = procEnv.getContext();
+			String cacheKey = getCacheKey(value.toString());
+			PreparedPlan pp = null;
+			if (cacheKey != null) {
+				pp = context.getPlan(cacheKey);
+			}
+			
+			Command command = null;
+			ProcessorPlan commandPlan = null;
+			
+			if (pp != null) {
+				command = pp.getCommand();
+				commandPlan = pp.getPlan().clone();
+				for (Object id : pp.getAccessInfo().getObjectsAccessed()) {
+					context.accessedPlanningObject(id);
 				}
+				pushCall(context);
+			} else {
+				command = QueryParser.getQueryParser().parseCommand(value.toString());
+				command.setExternalGroupContexts(dynamicCommand.getExternalGroupContexts());
+				command.setTemporaryMetadata(dynamicCommand.getTemporaryMetadata().clone());
+				
+				TempMetadataStore metadataStore = command.getTemporaryMetadata();
+	            
+	            if (dynamicCommand.getUsing() != null
+	                            && !dynamicCommand.getUsing().isEmpty()) {
+	                metadataStore.addTempGroup(Reserved.USING, new LinkedList<ElementSymbol>(dynamicCommand.getUsing().getClauseMap().keySet()));
+	                GroupSymbol using = new GroupSymbol(Reserved.USING);
+	                using.setMetadataID(metadataStore.getTempGroupID(Reserved.USING));
+	                command.addExternalGroupToContext(using);
+	                metadataStore.addTempGroup(ProcedureReservedWords.DVARS, new LinkedList<ElementSymbol>(dynamicCommand.getUsing().getClauseMap().keySet()));
+	                using = new GroupSymbol(ProcedureReservedWords.DVARS);
+	                using.setMetadataID(metadataStore.getTempGroupID(ProcedureReservedWords.DVARS));
+	                command.addExternalGroupToContext(using);
+	            }
+	
+				QueryResolver.resolveCommand(command, metadata.getDesignTimeMetadata());
+	
+				validateDynamicCommand(procEnv, command);
+	
+	            ValidationVisitor visitor = new ValidationVisitor();
+	            Request.validateWithVisitor(visitor, metadata, command);
+	            
+	            if (cacheKey != null) {
+	            	//temp table definitions may differ between executions
+	            	for (GroupSymbol group : GroupCollectorVisitor.getGroups(command, true)) {
+	            		if (group.isTempTable()) {
+	            			cacheKey = null;
+	            			break;
+	            		}
+	            	}
+	            }
+	
+	            if (dynamicCommand.getAsColumns() != null
+						&& !dynamicCommand.getAsColumns().isEmpty()) {
+	        		command = QueryRewriter.createInlineViewQuery(new GroupSymbol("X"), command, metadata, dynamicCommand.getAsColumns()); //$NON-NLS-1$
+					if (dynamicCommand.getIntoGroup() != null) {
+						Insert insert = new Insert(dynamicCommand.getIntoGroup(), dynamicCommand.getAsColumns(), Collections.emptyList());
+						insert.setQueryExpression((Query)command);
+						command = insert;
+					}
+				}
+	            
+	            if (cacheKey == null) {
+					// create a new set of variables including vars
+					Map<ElementSymbol, Expression> nameValueMap = createVariableValuesMap(localContext);
+					command = QueryRewriter.rewrite(command, metadata, context, nameValueMap);
+		            commandPlan = QueryOptimizer.optimizePlan(command, metadata,
+							idGenerator, capFinder, AnalysisRecord
+									.createNonRecordingRecord(), context);
+	            } else {
+	            	//plan with variable references rather than the current values so that the plan may be reused
+	            	Determinism determinismLevel = context.resetDeterminismLevel();
+	            	try {
+	            		CommandContext clone = context.clone();
+	            		command = QueryRewriter.rewrite(command, metadata, clone);
+	            		ProcessorPlan plan = QueryOptimizer.optimizePlan(command, metadata,
+								idGenerator, capFinder, AnalysisRecord
+										.createNonRecordingRecord(), clone);
+	            		Object pid = getParentId();
+	            		if (!(pid instanceof TempMetadataID)) {
+	            			clone.accessedPlanningObject(pid);
+	            		}
+	            		pp = new PreparedPlan();
+	            		pp.setPlan(plan, clone);
+	            		pp.setCommand(command);
+	            		Determinism cacheLevel = context.getDeterminismLevel();
+	            		if (cacheLevel.compareTo(Determinism.USER_DETERMINISTIC) > 0) {
+	            			//data roles may affect the plan
+	            			cacheLevel = Determinism.USER_DETERMINISTIC;
+	            		}
+	            		context.putPlan(cacheKey, pp, cacheLevel);
+	            		commandPlan = plan.clone();
+	            	} finally {
+	            		context.setDeterminismLevel(determinismLevel);
+	            	}
+	            }
 			}
             
-			command = QueryRewriter.rewrite(command, metadata, procEnv.getContext(),
-					nameValueMap);
-
-            ProcessorPlan commandPlan = QueryOptimizer.optimizePlan(command, metadata,
-					idGenerator, capFinder, AnalysisRecord
-							.createNonRecordingRecord(), procEnv
-							.getContext());
-            
 			CreateCursorResultSetInstruction inst = new CreateCursorResultSetInstruction(null, commandPlan, dynamicCommand.getIntoGroup() != null?Mode.UPDATE:returnable?Mode.HOLD:Mode.NOHOLD) {
 				@Override
 				public void process(ProcedurePlan procEnv)
@@ -318,9 +377,14 @@ public class ExecDynamicSqlInstruction extends ProgramInstruction {
 			}
 		}
 
-		// do a recursion check
-		// Add group to recursion stack
-		CommandContext context = procEnv.getContext();
+		pushCall(procEnv.getContext());
+	}
+
+	/**
+	 * do a recursion check
+	 * Add group to recursion stack
+	 */
+	private void pushCall(CommandContext context) throws QueryProcessingException {
 		if (parentProcCommand.getUpdateType() != Command.TYPE_UNKNOWN) {
 			context.pushCall(Command.getCommandToken(parentProcCommand.getUpdateType()) + " " + parentProcCommand.getVirtualGroup()); //$NON-NLS-1$
 		} else {
@@ -329,6 +393,51 @@ public class ExecDynamicSqlInstruction extends ProgramInstruction {
 			}
 		}
 	}
+	
+	/**
+	 * The plan cache key must account for everything that affects resolving and planning
+	 * the dynamic command other than the vdb and user, which are part of the cache id.
+	 * That includes the variables in scope, since the same statement may appear in several blocks.
+	 * @return the key or null if the plan should not be cached
+	 */
+	private String getCacheKey(String sql) {
+		if (parentProcCommand.getVirtualGroup() == null) {
+			//anonymous blocks do not have a stable scope
+			return null;
+		}
+		StringBuilder key = new StringBuilder("dynamic sql:"); //$NON-NLS-1$
+		key.append(parentProcCommand.getUpdateType()).append(' ').append(parentProcCommand.getVirtualGroup().getName());
+		key.append('\n').append(dynamicCommand);
+		if (dynamicCommand.getUsing() != null) {
+			for (SetClause setClause : dynamicCommand.getUsing().getClauses()) {
+				key.append('\n').append(DataTypeManager.getDataTypeName(setClause.getSymbol().getType()));
+			}
+		}
+		//the same statement in different blocks may see different variables
+		if (dynamicCommand.getExternalGroupContexts() != null) {
+			for (GroupSymbol group : dynamicCommand.getExternalGroupContexts().getAllGroups()) {
+				key.append('\n').append(group.getName());
+				if (group.getMetadataID() instanceof TempMetadataID) {
+					for (TempMetadataID element : ((TempMetadataID)group.getMetadataID()).getElements()) {
+						key.append(' ').append(element.getName()).append(' ').append(DataTypeManager.getDataTypeName(element.getType()));
+					}
+				}
+			}
+		}
+		key.append('\n').append(sql);
+		return key.toString();
+	}
+	
+	private Object getParentId() {
+		Object pid = parentProcCommand.getVirtualGroup().getMetadataID();
+		if (pid instanceof TempMetadataID) {
+			TempMetadataID tid = (TempMetadataID)pid;
+			if (tid.getOriginalMetadataID() != null) {
+				pid = tid.getOriginalMetadataID();
+			}
+		}
+		return pid;
+	}
 
 	/**
 	 * Returns a deep clone
@@ -22,6 +22,7 @@
 
 package org.teiid.query.processor.proc;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -37,19 +38,63 @@ import org.teiid.core.TeiidProcessingException;
 import org.teiid.dqp.service.TransactionContext;
 import org.teiid.dqp.service.TransactionContext.Scope;
 import org.teiid.dqp.service.TransactionService;
+import org.teiid.events.EventDistributor;
 import org.teiid.query.QueryPlugin;
 import org.teiid.query.eval.Evaluator;
 import org.teiid.query.processor.BatchCollector;
+import org.teiid.query.processor.CollectionTupleSource;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.processor.ProcessorPlan;
 import org.teiid.query.processor.QueryProcessor;
+import org.teiid.query.processor.RegisterRequestParameter;
+import org.teiid.query.sql.lang.BatchedUpdateCommand;
 import org.teiid.query.sql.lang.Command;
+import org.teiid.query.sql.lang.Delete;
+import org.teiid.query.sql.lang.Insert;
+import org.teiid.query.sql.lang.Update;
 import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.util.CommandContext;
 
 public class ForEachRowPlan extends ProcessorPlan {
 	
+	/**
+	 * Collects the per row insert/update/delete commands against the batch model
+	 * so that they may be sent to the source as {@link BatchedUpdateCommand}s.
+	 * An update count of 1 is returned for each deferred command.
+	 */
+	private final class BatchingDataManager implements ProcessorDataManager {
+		@Override
+		public TupleSource registerRequest(CommandContext context,
+				Command command, String modelName,
+				RegisterRequestParameter parameterObject)
+				throws TeiidComponentException, TeiidProcessingException {
+			if (!batchModelName.equals(modelName) || (parameterObject != null && parameterObject.connectorBindingId != null) || !isBatchable(command)) {
+				return dataMgr.registerRequest(context, command, modelName, parameterObject);
+			}
+			if (batch == null) {
+				batch = new ArrayList<Command>();
+				batchParameter = parameterObject;
+			}
+			batch.add(command);
+			return CollectionTupleSource.createUpdateCountTupleSource(1);
+		}
+
+		@Override
+		public Object lookupCodeValue(CommandContext context,
+				String codeTableName, String returnElementName,
+				String keyElementName, Object keyValue)
+				throws BlockedException, TeiidComponentException,
+				TeiidProcessingException {
+			return dataMgr.lookupCodeValue(context, codeTableName, returnElementName, keyElementName, keyValue);
+		}
+
+		@Override
+		public EventDistributor getEventDistributor() {
+			return dataMgr.getEventDistributor();
+		}
+	}
+
 	private ProcessorPlan queryPlan;
 	private ProcedurePlan rowProcedure;
 	private Map<ElementSymbol, Expression> params;
@@ -65,6 +110,12 @@ public class ForEachRowPlan extends ProcessorPlan {
     private int updateCount;
     
     private TransactionContext planContext;
+    
+    private String batchModelName;
+    private ProcessorDataManager batchingDataMgr;
+    private List<Command> batch;
+    private RegisterRequestParameter batchParameter;
+    private TupleSource batchSource;
 
 	@Override
 	public ProcessorPlan clone() {
@@ -73,6 +124,7 @@ public class ForEachRowPlan extends ProcessorPlan {
 		clone.setRowProcedure((ProcedurePlan) rowProcedure.clone());
 		clone.setParams(params);
 		clone.setLookupMap(lookupMap);
+		clone.setBatchModelName(batchModelName);
 		return clone;
 	}
 
@@ -84,6 +136,11 @@ public class ForEachRowPlan extends ProcessorPlan {
 				this.rowProcessor.closeProcessing();
 			}
 		}
+		if (this.batchSource != null) {
+			this.batchSource.closeSource();
+			this.batchSource = null;
+		}
+		this.batch = null;
 		if (this.planContext != null) {
 			TransactionService ts = this.getContext().getTransactionServer();
 			try {
@@ -118,8 +175,10 @@ public class ForEachRowPlan extends ProcessorPlan {
 		try {
 			while (true) {
 				if (currentTuple == null) {
+					flushBatch(false);
 					currentTuple = tupleSource.nextTuple();
 					if (currentTuple == null) {
+						flushBatch(true);
 						if (this.planContext != null) {
 							TransactionService ts = this.getContext().getTransactionServer();
 							ts.commit(this.planContext);
@@ -133,7 +192,14 @@ public class ForEachRowPlan extends ProcessorPlan {
 				if (this.rowProcessor == null) {
 					rowProcedure.reset();
 					CommandContext context = getContext().clone();
-					this.rowProcessor = new QueryProcessor(rowProcedure, context, this.bufferMgr, this.dataMgr);
+					ProcessorDataManager rowDataMgr = this.dataMgr;
+					if (this.batchModelName != null) {
+						if (this.batchingDataMgr == null) {
+							this.batchingDataMgr = new BatchingDataManager();
+						}
+						rowDataMgr = this.batchingDataMgr;
+					}
+					this.rowProcessor = new QueryProcessor(rowProcedure, context, this.bufferMgr, rowDataMgr);
 					Evaluator eval = new Evaluator(Collections.emptyMap(), dataMgr, context);
 					for (Map.Entry<ElementSymbol, Expression> entry : this.params.entrySet()) {
 						Integer index = this.lookupMap.get(entry.getValue());
@@ -158,6 +224,43 @@ public class ForEachRowPlan extends ProcessorPlan {
 		}
 	}
 
+	/**
+	 * Send the collected commands to the source once a full batch is available,
+	 * or any remaining commands if forced.  Processing may resume here after
+	 * a {@link BlockedException}.
+	 */
+	private void flushBatch(boolean force) throws BlockedException,
+			TeiidComponentException, TeiidProcessingException {
+		if (this.batchSource == null) {
+			if (this.batch == null || (!force && this.batch.size() < this.bufferMgr.getProcessorBatchSize())) {
+				return;
+			}
+			Command command = null;
+			if (this.batch.size() == 1) {
+				command = this.batch.get(0);
+			} else {
+				command = new BatchedUpdateCommand(this.batch);
+			}
+			//the batch is retained until the request is registered, since registering may block
+			this.batchSource = this.dataMgr.registerRequest(getContext(), command, this.batchModelName, this.batchParameter);
+			this.batch = null;
+			this.batchParameter = null;
+		}
+		while (this.batchSource.nextTuple() != null) {
+			//consume the update counts
+		}
+		this.batchSource.closeSource();
+		this.batchSource = null;
+	}
+	
+	private static boolean isBatchable(Command command) {
+		if (command instanceof Insert) {
+			Insert insert = (Insert)command;
+			return insert.getQueryExpression() == null && insert.getTupleSource() == null;
+		}
+		return command instanceof Update || command instanceof Delete;
+	}
+
 	@Override
 	public void open() throws TeiidComponentException, TeiidProcessingException {
     	TransactionContext tc = this.getContext().getTransactionContext();
@@ -195,6 +298,18 @@ public class ForEachRowPlan extends ProcessorPlan {
 		this.lookupMap = symbolMap;
 	}
 	
+	/**
+	 * Set the physical model to which the row procedure insert/update/delete commands
+	 * may be sent in batches, or null if each command should be executed individually.
+	 */
+	public void setBatchModelName(String batchModelName) {
+		this.batchModelName = batchModelName;
+	}
+	
+	public String getBatchModelName() {
+		return batchModelName;
+	}
+	
 	@Override
 	public void reset() {
 		super.reset();
@@ -205,6 +320,9 @@ public class ForEachRowPlan extends ProcessorPlan {
 		this.queryProcessor = null;
 		this.tupleSource = null;
 		this.planContext = null;
+		this.batch = null;
+		this.batchParameter = null;
+		this.batchSource = null;
 	}
 	
 	@Override
@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+package org.teiid.query.processor.relational;
+
+import java.util.List;
+import java.util.Map;
+
+import org.teiid.query.eval.Evaluator;
+import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.symbol.Constant;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.sql.symbol.Expression;
+
+/**
+ * A compiled form of simple criteria that is evaluated a batch at a time.
+ * <br>
+ * Rather than evaluating the full criteria against each tuple, each predicate 
+ * is evaluated column-wise over a selection vector of the row offsets that have passed 
+ * the prior predicates.  Only comparisons of columns to constants or other columns, 
+ * is null, and conjuncts of those are supported.  As with a select node, an unknown result
+ * is treated as false. 
+ */
+abstract class BatchFilter {
+	
+	/**
+	 * Compile the criteria
+	 * @return the filter or null if the criteria cannot be evaluated a batch at a time
+	 */
+	static BatchFilter compile(Criteria crit, Map<Expression, Integer> elementMap) {
+		if (crit instanceof CompoundCriteria) {
+			CompoundCriteria cc = (CompoundCriteria)crit;
+			if (cc.getOperator() != CompoundCriteria.AND) {
+				return null;
+			}
+			BatchFilter[] filters = new BatchFilter[cc.getCriteria().size()];
+			for (int i = 0; i < filters.length; i++) {
+				filters[i] = compile(cc.getCriteria().get(i), elementMap);
+				if (filters[i] == null) {
+					return null;
+				}
+			}
+			return new AndFilter(filters);
+		}
+		if (crit instanceof IsNullCriteria) {
+			IsNullCriteria inc = (IsNullCriteria)crit;
+			int index = getIndex(inc.getExpression(), elementMap);
+			if (index == -1) {
+				return null;
+			}
+			return new IsNullFilter(index, inc.isNegated());
+		}
+		if (crit instanceof CompareCriteria) {
+			CompareCriteria cc = (CompareCriteria)crit;
+			if (cc.getLeftExpression().getType().isArray()) {
+				return null;
+			}
+			int leftIndex = getIndex(cc.getLeftExpression(), elementMap);
+			if (leftIndex == -1) {
+				return null;
+			}
+			Expression right = cc.getRightExpression();
+			if (right instanceof Constant) {
+				Constant c = (Constant)right;
+				if (c.isMultiValued()) {
+					return null;
+				}
+				return new CompareFilter(leftIndex, -1, c.getValue(), cc);
+			}
+			int rightIndex = getIndex(right, elementMap);
+			if (rightIndex == -1) {
+				return null;
+			}
+			return new CompareFilter(leftIndex, rightIndex, null, cc);
+		}
+		return null;
+	}
+	
+	private static int getIndex(Expression ex, Map<Expression, Integer> elementMap) {
+		if (!(ex instanceof ElementSymbol)) {
+			return -1;
+		}
+		Integer index = elementMap.get(ex);
+		if (index == null) {
+			return -1;
+		}
+		return index;
+	}
+	
+	/**
+	 * Select the matching rows of the tuples
+	 * @param selection will be populated with the matching row offsets, must be at least as large as tuples
+	 * @return the number of matching rows
+	 */
+	int select(List<? extends List<?>> tuples, int[] selection) {
+		int size = tuples.size();
+		for (int i = 0; i < size; i++) {
+			selection[i] = i;
+		}
+		return filter(tuples, selection, size);
+	}
+	
+	/**
+	 * Filter the selection in place
+	 * @param size the number of valid entries in the selection
+	 * @return the number of remaining entries
+	 */
+	abstract int filter(List<? extends List<?>> tuples, int[] selection, int size);
+	
+	static class AndFilter extends BatchFilter {
+		private BatchFilter[] filters;
+		
+		AndFilter(BatchFilter[] filters) {
+			this.filters = filters;
+		}
+		
+		@Override
+		int filter(List<? extends List<?>> tuples, int[] selection, int size) {
+			for (int i = 0; i < filters.length && size > 0; i++) {
+				size = filters[i].filter(tuples, selection, size);
+			}
+			return size;
+		}
+	}
+	
+	static class IsNullFilter extends BatchFilter {
+		private int index;
+		private boolean negated;
+		
+		IsNullFilter(int index, boolean negated) {
+			this.index = index;
+			this.negated = negated;
+		}
+		
+		@Override
+		int filter(List<? extends List<?>> tuples, int[] selection, int size) {
+			int result = 0;
+			for (int i = 0; i < size; i++) {
+				int row = selection[i];
+				if ((tuples.get(row).get(index) == null) ^ negated) {
+					selection[result++] = row;
+				}
+			}
+			return result;
+		}
+	}
+	
+	static class CompareFilter extends BatchFilter {
+		private int leftIndex;
+		private int rightIndex;
+		private Object value;
+		private CompareCriteria criteria;
+		
+		CompareFilter(int leftIndex, int rightIndex, Object value, CompareCriteria criteria) {
+			this.leftIndex = leftIndex;
+			this.rightIndex = rightIndex;
+			this.value = value;
+			this.criteria = criteria;
+		}
+		
+		@Override
+		int filter(List<? extends List<?>> tuples, int[] selection, int size) {
+			if (rightIndex == -1 && value == null) {
+				return 0;
+			}
+			int result = 0;
+			for (int i = 0; i < size; i++) {
+				int row = selection[i];
+				List<?> tuple = tuples.get(row);
+				Object left = tuple.get(leftIndex);
+				if (left == null) {
+					continue;
+				}
+				Object right = value;
+				if (rightIndex != -1) {
+					right = tuple.get(rightIndex);
+					if (right == null) {
+						continue;
+					}
+				}
+				if (Evaluator.compare(criteria, left, right) == Boolean.TRUE) {
+					selection[result++] = row;
+				}
+			}
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.processor.relational;
+
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.query.function.FunctionMethods;
+import org.teiid.query.sql.symbol.Constant;
+
+/**
+ * A simple bloom filter over value hash codes used to reduce the rows from the dependent
+ * side of a dependent join when the independent values cannot be sent to the source.
+ * <br/>
+ * There are no false negatives, so a row that is rejected cannot match the independent side. 
+ */
+final class BloomFilter {
+	
+	private static final int MAX_BITS = 1 << 26;
+	
+	private long[] bits;
+	private int numBits;
+	private int numHashes;
+	
+	/**
+	 * @param expectedCount the expected number of distinct values
+	 * @param falsePositiveRate the desired false positive rate, which will be exceeded
+	 * if the filter would otherwise require more than 8MB
+	 */
+	BloomFilter(int expectedCount, double falsePositiveRate) {
+		expectedCount = Math.max(1, expectedCount);
+		double optimal = -expectedCount * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+		numBits = (int)Math.max(64, Math.min(MAX_BITS, optimal));
+		numHashes = (int)Math.max(1, Math.min(16, Math.round((double)numBits / expectedCount * Math.log(2))));
+		bits = new long[(numBits + 63) >>> 6];
+		numBits = bits.length << 6;
+	}
+	
+	/**
+	 * @return true if values of the given type can be filtered by their hash codes 
+	 * consistently with the engine comparison of values
+	 */
+	static boolean canFilter(Class<?> type) {
+		if (type == DataTypeManager.DefaultDataClasses.STRING) {
+			return Constant.COLLATION_LOCALE == null;
+		}
+		return type != DataTypeManager.DefaultDataClasses.BIG_DECIMAL
+				&& type != DataTypeManager.DefaultDataClasses.OBJECT
+				&& !DataTypeManager.isLOB(type)
+				&& Comparable.class.isAssignableFrom(type);
+	}
+	
+	void add(Object value) {
+		long hash = hash(value);
+		int h1 = (int)hash;
+		int h2 = (int)(hash >>> 32);
+		for (int i = 0; i < numHashes; i++) {
+			int index = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+			bits[index >>> 6] |= 1L << index;
+		}
+	}
+	
+	boolean mightContain(Object value) {
+		long hash = hash(value);
+		int h1 = (int)hash;
+		int h2 = (int)(hash >>> 32);
+		for (int i = 0; i < numHashes; i++) {
+			int index = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+			if ((bits[index >>> 6] & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static long hash(Object value) {
+		if (DataTypeManager.PAD_SPACE && value instanceof String) {
+			value = FunctionMethods.rightTrim((String)value, ' ', false);
+		}
+		long z = value.hashCode() * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	int getNumBits() {
+		return numBits;
+	}
+
+}
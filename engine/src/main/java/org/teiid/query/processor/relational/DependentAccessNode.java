@@ -22,11 +22,14 @@
 
 package org.teiid.query.processor.relational;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.core.util.Assertion;
+import org.teiid.query.processor.relational.DependentCriteriaProcessor.SetState;
 import org.teiid.query.sql.lang.Command;
 import org.teiid.query.sql.lang.Criteria;
 import org.teiid.query.sql.lang.Query;
@@ -50,6 +53,8 @@ public class DependentAccessNode extends AccessNode {
     private DependentCriteriaProcessor criteriaProcessor;
     private Criteria dependentCrit;
     private boolean sort = true;
+    private int[] filterIndexes;
+    private BloomFilter[] filters;
     /**
      * Cached rewritten command to be used as the base for all dependent queries.
      */
@@ -76,6 +81,8 @@ public class DependentAccessNode extends AccessNode {
         dependentCrit = null;
         sort = true;
         rewrittenCommand = null;
+        filterIndexes = null;
+        filters = null;
     }
     
     @Override
@@ -142,6 +149,10 @@ public class DependentAccessNode extends AccessNode {
             dependentCrit = criteriaProcessor.prepareCriteria();
         }
         
+        if (this.filters == null) {
+        	initFilters();
+        }
+        
         query.setCriteria(dependentCrit);
         
         if (sort && query.getOrderBy() != null && criteriaProcessor.hasNextCommand()) {
@@ -171,6 +182,41 @@ public class DependentAccessNode extends AccessNode {
         return result;
     }
 
+    /**
+     * Determine the output columns that can be checked against filters of the independent 
+     * values that were not sent to the source.
+     */
+    private void initFilters() {
+    	List<Integer> indexes = new ArrayList<Integer>(2);
+    	List<BloomFilter> bloomFilters = new ArrayList<BloomFilter>(2);
+    	for (SetState state : criteriaProcessor.getFilteredSetStates()) {
+			int index = getElements().indexOf(state.dependentExpression);
+			if (index != -1) {
+				indexes.add(index);
+				bloomFilters.add(state.filter);
+			}
+		}
+    	this.filterIndexes = new int[indexes.size()];
+    	for (int i = 0; i < filterIndexes.length; i++) {
+    		filterIndexes[i] = indexes.get(i);
+		}
+    	this.filters = bloomFilters.toArray(new BloomFilter[bloomFilters.size()]);
+    }
+    
+    @Override
+    protected void addBatchRow(List<?> row) {
+    	if (filters != null) {
+	    	for (int i = 0; i < filters.length; i++) {
+				Object value = row.get(filterIndexes[i]);
+				//as with an IN predicate, a null value or a non-matching value cannot join
+				if (value == null || !filters[i].mightContain(value)) {
+					return;
+				}
+			}
+    	}
+    	super.addBatchRow(row);
+    }
+
     /**
      * @see org.teiid.query.processor.relational.AccessNode#hasNextCommand()
      */
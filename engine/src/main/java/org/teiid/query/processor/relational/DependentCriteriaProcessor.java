@@ -30,6 +30,7 @@ import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
+import org.teiid.logging.MessageLevel;
 import org.teiid.query.QueryPlugin;
 import org.teiid.query.optimizer.relational.rules.NewCalculateCostUtil;
 import org.teiid.query.processor.relational.SortUtility.Mode;
@@ -66,6 +67,13 @@ public class DependentCriteriaProcessor {
         
         boolean overMax;
         
+        /**
+         * The dependent side expression, set only if the values may be filtered
+         */
+        Expression dependentExpression;
+        
+        BloomFilter filter;
+        
         long replacementSize() {
     		return replacement.size() * valueCount;
     	}
@@ -126,11 +134,35 @@ public class DependentCriteriaProcessor {
                 	if (!setState.overMax && distinctCount > setState.maxNdv) {
                 		LogManager.logWarning(LogConstants.CTX_DQP, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30011, valueSource, setState.valueExpression, setState.maxNdv));
                 		setState.overMax = true;
+                		buildFilter(setState, distinctCount);
                 	}
     			}
             }
         }
         
+        /**
+         * The values will not be sent to the source, so instead build a filter to
+         * reduce the dependent rows before they are joined
+         */
+        private void buildFilter(SetState setState, int distinctCount) throws TeiidComponentException {
+        	if (setState.dependentExpression == null) {
+        		return;
+        	}
+        	BloomFilter filter = new BloomFilter(distinctCount, FILTER_FALSE_POSITIVE_RATE);
+        	ValueIterator iter = dvs.getValueIterator(setState.valueExpression);
+        	while (iter.hasNext()) {
+        		Object value = iter.next();
+        		if (value != null) {
+        			filter.add(value);
+        		}
+        	}
+        	iter.reset();
+        	setState.filter = filter;
+        	if (LogManager.isMessageToBeRecorded(LogConstants.CTX_DQP, MessageLevel.DETAIL)) {
+        		LogManager.logDetail(LogConstants.CTX_DQP, "Filtering dependent values of", setState.dependentExpression, "with a bloom filter of", filter.getNumBits(), "bits"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        	}
+        }
+        
         public void close() {
         	if (this.sortUtility != null) {
         		this.sortUtility.remove();
@@ -150,6 +182,7 @@ public class DependentCriteriaProcessor {
         
     }
     
+    private static final double FILTER_FALSE_POSITIVE_RATE = .01;
     private static final int SORT = 2;
     private static final int SET_PROCESSING = 3;
 
@@ -210,6 +243,8 @@ public class DependentCriteriaProcessor {
                 state.valueExpression = dsc.getValueExpression();
                 if (dsc.hasMultipleAttributes()) {
                 	state.valueCount = ((Array)dsc.getExpression()).getExpressions().size();
+                } else if (BloomFilter.canFilter(dsc.getExpression().getType())) {
+                	state.dependentExpression = dsc.getExpression();
                 }
                 TupleState ts = dependentState.get(source);
                 if (ts == null) {
@@ -438,6 +473,26 @@ public class DependentCriteriaProcessor {
         return hasNextCommand;
     }
     
+    /**
+     * @return the set states whose values were not sent to the source, but that may be used to filter the results.
+     * Valid only after the criteria has been prepared.
+     */
+    List<SetState> getFilteredSetStates() {
+    	List<SetState> result = null;
+    	for (SetState state : setStates.values()) {
+			if (state.filter != null) {
+				if (result == null) {
+					result = new ArrayList<SetState>(2);
+				}
+				result.add(state);
+			}
+		}
+    	if (result == null) {
+    		return Collections.emptyList();
+    	}
+    	return result;
+    }
+    
     public Criteria replaceDependentCriteria(AbstractSetCriteria crit, SetState state) throws TeiidComponentException {
     	if (state.overMax) {
             DependentValueSource originalVs = (DependentValueSource)dependentNode.getContext().getVariableContext().getGlobalValue(((DependentSetCriteria)crit).getContextSymbol());
@@ -22,8 +22,11 @@
 
 package org.teiid.query.processor.relational;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
+import org.teiid.core.util.PropertiesUtils;
 import org.teiid.language.SortSpecification.NullOrdering;
 import org.teiid.query.sql.symbol.Constant;
 
@@ -57,6 +60,27 @@ import org.teiid.query.sql.symbol.Constant;
  * </pre>
  */
 public class ListNestedSortComparator<T extends Comparable<? super T>> implements java.util.Comparator<List<T>> {
+	
+	static boolean USE_NORMALIZED_KEYS = PropertiesUtils.getBooleanProperty(System.getProperties(), "org.teiid.normalizedSortKeys", true); //$NON-NLS-1$
+	
+	private static final class KeyedTuple {
+		final byte[] key;
+		final int distinctLength;
+		final List<?> tuple;
+		
+		KeyedTuple(byte[] key, int distinctLength, List<?> tuple) {
+			this.key = key;
+			this.distinctLength = distinctLength;
+			this.tuple = tuple;
+		}
+	}
+	
+	private static final Comparator<KeyedTuple> KEYED_COMPARATOR = new Comparator<KeyedTuple>() {
+		@Override
+		public int compare(KeyedTuple o1, KeyedTuple o2) {
+			return NormalizedKeyEncoder.compare(o1.key, o2.key);
+		}
+	};
 
     /**
      * Specifies which fields to sort on.
@@ -186,6 +210,52 @@ public class ListNestedSortComparator<T extends Comparable<? super T>> implement
     	return 0;
     }
     
+    /**
+     * Perform a stable sort of the tuples by first encoding the sort columns of each row
+     * into a byte comparable key, so that each comparison is a simple array comparison 
+     * rather than a per column {@link Comparable} call.
+     * <br/>
+     * The distinct flag is maintained as with {@link #compare(List, List)}. 
+     * @return false if the tuples have values that cannot be encoded and were not sorted
+     */
+    public boolean sortByNormalizedKeys(List<List<?>> tuples) {
+    	if (!USE_NORMALIZED_KEYS || tuples.size() < 2) {
+    		return false;
+    	}
+    	NormalizedKeyEncoder encoder = new NormalizedKeyEncoder();
+    	KeyedTuple[] keyed = new KeyedTuple[tuples.size()];
+    	int i = 0;
+    	for (List<?> tuple : tuples) {
+    		encoder.reset();
+    		int distinctLength = -1;
+    		for (int k = 0; k < sortParameters.length; k++) {
+    			if (tuple.size() <= sortParameters[k]) {
+    				return false;
+    			}
+    			boolean asc = orderTypes != null?orderTypes.get(k):this.ascendingOrder;
+    			if (!encoder.encode(tuple.get(sortParameters[k]), getNullOrdering(k), asc)) {
+    				return false;
+    			}
+    			if (k == distinctIndex) {
+    				distinctLength = encoder.length();
+    			}
+    		}
+    		keyed[i++] = new KeyedTuple(encoder.getKey(), distinctLength, tuple);
+    	}
+    	//object sorts are stable
+    	Arrays.sort(keyed, KEYED_COMPARATOR);
+    	for (i = 0; i < keyed.length; i++) {
+    		KeyedTuple kt = keyed[i];
+    		if (i > 0 && isDistinct && kt.distinctLength != -1 
+    				&& kt.distinctLength == keyed[i - 1].distinctLength 
+    				&& NormalizedKeyEncoder.prefixEquals(kt.key, keyed[i - 1].key, kt.distinctLength)) {
+    			isDistinct = false;
+    		}
+    		tuples.set(i, kt.tuple);
+    	}
+    	return true;
+    }
+    
     private NullOrdering getNullOrdering(int index) {
     	if (nullOrdering != null) {
     		return nullOrdering.get(index);
@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.processor.relational;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.language.SortSpecification.NullOrdering;
+import org.teiid.query.sql.symbol.Constant;
+
+/**
+ * Encodes sort column values into a byte array such that an unsigned lexicographic 
+ * comparison of the arrays matches the ordering of {@link ListNestedSortComparator}.
+ * <br/>
+ * Each column encoding is prefix free, so that the keys of rows that are equal through a
+ * given column share the same prefix.  Values that cannot be encoded, such as collated strings 
+ * or lobs, are reported by {@link #encode(Object, NullOrdering, boolean)} returning false.
+ */
+final class NormalizedKeyEncoder {
+	
+	static final Comparator<byte[]> COMPARATOR = new Comparator<byte[]>() {
+		@Override
+		public int compare(byte[] o1, byte[] o2) {
+			return NormalizedKeyEncoder.compare(o1, o2);
+		}
+	};
+	
+	private static final boolean CAN_ENCODE_STRINGS = Constant.COLLATION_LOCALE == null;
+	
+	private byte[] bytes = new byte[64];
+	private int length;
+	
+	void reset() {
+		length = 0;
+	}
+	
+	int length() {
+		return length;
+	}
+	
+	byte[] getKey() {
+		return Arrays.copyOf(bytes, length);
+	}
+	
+	/**
+	 * Append the encoding of the value
+	 * @return false if the value cannot be encoded
+	 */
+	boolean encode(Object value, NullOrdering nullOrdering, boolean ascending) {
+		int start = length;
+		if (value == null) {
+			writeByte(nullOrdering == NullOrdering.LAST ? 2 : 0);
+		} else {
+			writeByte(1);
+		}
+		if (nullOrdering != null) {
+			//nulls are placed independent of the sort direction
+			start = length;
+		}
+		if (value != null && !encodeValue(value)) {
+			return false;
+		}
+		if (!ascending) {
+			for (int i = start; i < length; i++) {
+				bytes[i] = (byte)~bytes[i];
+			}
+		}
+		return true;
+	}
+
+	private boolean encodeValue(Object value) {
+		Class<?> clazz = value.getClass();
+		if (clazz == Integer.class) {
+			writeInt(((Integer)value).intValue() ^ Integer.MIN_VALUE);
+		} else if (clazz == String.class) {
+			return CAN_ENCODE_STRINGS && writeString((String)value);
+		} else if (clazz == Long.class) {
+			writeLong(((Long)value).longValue() ^ Long.MIN_VALUE);
+		} else if (clazz == Double.class) {
+			writeLong(sortableBits(Double.doubleToLongBits((Double)value)));
+		} else if (clazz == Float.class) {
+			writeLong(sortableBits(Double.doubleToLongBits((Float)value)));
+		} else if (clazz == Short.class) {
+			writeChar(((Short)value).shortValue() ^ Short.MIN_VALUE);
+		} else if (clazz == Byte.class) {
+			writeByte(((Byte)value).byteValue() ^ Byte.MIN_VALUE);
+		} else if (clazz == Boolean.class) {
+			writeByte(((Boolean)value).booleanValue() ? 1 : 0);
+		} else if (clazz == Character.class) {
+			writeChar(((Character)value).charValue());
+		} else if (clazz == java.sql.Date.class || clazz == java.sql.Time.class) {
+			writeLong(((java.util.Date)value).getTime() ^ Long.MIN_VALUE);
+		} else if (clazz == Timestamp.class) {
+			Timestamp ts = (Timestamp)value;
+			writeLong(ts.getTime() ^ Long.MIN_VALUE);
+			writeInt(ts.getNanos());
+		} else {
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Float widening to double is exact and order preserving, so both use the double encoding
+	 * which matches the total order of {@link Double#compareTo(Double)}.
+	 */
+	private static long sortableBits(long bits) {
+		return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+	}
+
+	/**
+	 * Strings are written as big-endian chars with each 0 byte escaped as 0 255 and 
+	 * terminated by 0 0.
+	 */
+	private boolean writeString(String value) {
+		int end = value.length();
+		if (DataTypeManager.PAD_SPACE) {
+			while (end > 0 && value.charAt(end - 1) == ' ') {
+				end--;
+			}
+		}
+		for (int i = 0; i < end; i++) {
+			char c = value.charAt(i);
+			if (DataTypeManager.PAD_SPACE && c < ' ') {
+				//trailing spaces would be significant relative to this char
+				return false;
+			}
+			writeEscaped(c >>> 8);
+			writeEscaped(c);
+		}
+		writeByte(0);
+		writeByte(0);
+		return true;
+	}
+	
+	private void writeEscaped(int b) {
+		b &= 0xff;
+		writeByte(b);
+		if (b == 0) {
+			writeByte(0xff);
+		}
+	}
+	
+	private void writeLong(long v) {
+		writeInt((int)(v >>> 32));
+		writeInt((int)v);
+	}
+
+	private void writeInt(int v) {
+		writeChar(v >>> 16);
+		writeChar(v);
+	}
+	
+	private void writeChar(int v) {
+		writeByte(v >>> 8);
+		writeByte(v);
+	}
+	
+	private void writeByte(int b) {
+		if (length == bytes.length) {
+			bytes = Arrays.copyOf(bytes, length << 1);
+		}
+		bytes[length++] = (byte)b;
+	}
+	
+	static int compare(byte[] b1, byte[] b2) {
+		int n = Math.min(b1.length, b2.length);
+		for (int i = 0; i < n; i++) {
+			int diff = (b1[i] & 0xff) - (b2[i] & 0xff);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return b1.length - b2.length;
+	}
+	
+	/**
+	 * @return true if the keys share the same first length bytes
+	 */
+	static boolean prefixEquals(byte[] b1, byte[] b2, int length) {
+		if (b1.length < length || b2.length < length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (b1[i] != b2[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -116,7 +116,7 @@ public abstract class RelationalNode implements Cloneable, BatchProducer {
         this.getProcessingState().dataMgr = dataMgr;
         
         if(context.getCollectNodeStatistics()) {
-            this.getProcessingState().nodeStatistics = new RelationalNodeStatistics();
+            this.getProcessingState().nodeStatistics = new RelationalNodeStatistics(context.getBufferUsage());
         }
 
         if (getOutputElements() != null) {
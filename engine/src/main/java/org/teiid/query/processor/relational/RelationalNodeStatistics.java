@@ -25,6 +25,7 @@ package org.teiid.query.processor.relational;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.teiid.common.buffer.BufferUsage;
 import org.teiid.common.buffer.TupleBatch;
 
 
@@ -66,12 +67,36 @@ public class RelationalNodeStatistics {
     // The amount of times a Block or Componenet Exception occurs for this node
     private int nodeBlocks;
     
+    // Buffer usage of the request sampled at the start of each batch
+    private BufferUsage bufferUsage;
+    private long batchStartReserved;
+    private long batchStartSpilled;
+    private long batchStartReads;
+    
+    // The net reserved bytes held by this node (includes children) and the max seen at the end of a batch 
+    private long nodeReservedBytes;
+    private long nodePeakReservedBytes;
+    
+    // The bytes written to storage and batches read from storage for the request during nextBatch calls (includes children)
+    private long nodeSpilledBytes;
+    private long nodeBatchesRead;
+    
     public RelationalNodeStatistics() {
         this.setNodeStartTime = false;
     }
     
+    public RelationalNodeStatistics(BufferUsage bufferUsage) {
+    	this();
+    	this.bufferUsage = bufferUsage;
+    }
+    
     public void startBatchTimer() {
         this.batchStartTime = System.currentTimeMillis();
+        if (this.bufferUsage != null) {
+        	this.batchStartReserved = this.bufferUsage.getReservedBytes();
+        	this.batchStartSpilled = this.bufferUsage.getSpilledBytes();
+        	this.batchStartReads = this.bufferUsage.getBatchesRead();
+        }
     }
     
     void setBatchStartTime(long batchStartTime) {
@@ -80,6 +105,12 @@ public class RelationalNodeStatistics {
     
     public void stopBatchTimer() {
         this.batchEndTime = System.currentTimeMillis();
+        if (this.bufferUsage != null) {
+        	this.nodeReservedBytes += this.bufferUsage.getReservedBytes() - this.batchStartReserved;
+        	this.nodePeakReservedBytes = Math.max(this.nodePeakReservedBytes, this.nodeReservedBytes);
+        	this.nodeSpilledBytes += this.bufferUsage.getSpilledBytes() - this.batchStartSpilled;
+        	this.nodeBatchesRead += this.bufferUsage.getBatchesRead() - this.batchStartReads;
+        }
     }
     
     void setBatchEndTime(long batchEndTime) {
@@ -117,13 +148,18 @@ public class RelationalNodeStatistics {
     }
     
     public List<String> getStatisticsList() {
-    	ArrayList<String> statisticsList = new ArrayList<String>(6);
+    	ArrayList<String> statisticsList = new ArrayList<String>(9);
     	statisticsList.add("Node Output Rows: " + this.nodeOutputRows); //$NON-NLS-1$
         statisticsList.add("Node Next Batch Process Time: " + this.nodeNextBatchProcessingTime); //$NON-NLS-1$
         statisticsList.add("Node Cumulative Next Batch Process Time: " + this.nodeCumulativeNextBatchProcessingTime); //$NON-NLS-1$
         statisticsList.add("Node Cumulative Process Time: " + this.nodeCumulativeProcessingTime); //$NON-NLS-1$
         statisticsList.add("Node Next Batch Calls: " + this.nodeNextBatchCalls); //$NON-NLS-1$
         statisticsList.add("Node Blocks: " + this.nodeBlocks); //$NON-NLS-1$
+        if (this.bufferUsage != null) {
+        	statisticsList.add("Node Peak Reserved Bytes: " + this.nodePeakReservedBytes); //$NON-NLS-1$
+        	statisticsList.add("Node Cumulative Spilled Bytes: " + this.nodeSpilledBytes); //$NON-NLS-1$
+        	statisticsList.add("Node Cumulative Batches Read: " + this.nodeBatchesRead); //$NON-NLS-1$
+        }
         return statisticsList;
     }
     
@@ -183,6 +219,27 @@ public class RelationalNodeStatistics {
     public long getNodeStartTime() {
         return this.nodeStartTime;
     }
+    /**
+     * @return the max net bytes reserved by this node and its children, sampled at the end of each batch 
+     */
+    public long getNodePeakReservedBytes() {
+		return nodePeakReservedBytes;
+	}
+    
+    /**
+     * @return the bytes written to storage for the request while this node or its children were processing 
+     */
+    public long getNodeSpilledBytes() {
+		return nodeSpilledBytes;
+	}
+    
+    /**
+     * @return the batches read from storage for the request while this node or its children were processing 
+     */
+    public long getNodeBatchesRead() {
+		return nodeBatchesRead;
+	}
+    
     /** 
      * @return Returns the batchEndTime.
      * @since 4.2
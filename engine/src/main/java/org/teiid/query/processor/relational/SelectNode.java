@@ -51,10 +51,17 @@ public class SelectNode extends SubqueryAwareRelationalNode {
     // Derived element lookup map
     private Map<Expression, Integer> elementMap; 
     private int[] projectionIndexes;
+    private boolean identityProjection;
+    private BatchFilter batchFilter;
 	
     // State if blocked on evaluating a criteria
     private TupleBatch currentBatch;
     private int currentRow = 1;
+    
+    // Selection vector state when using the batch filter
+    private int[] selection;
+    private int selectionSize;
+    private int selectionIndex;
 
 	protected SelectNode() {
 		super();
@@ -69,6 +76,8 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         
         currentBatch = null;
         currentRow = 1;
+        selectionSize = 0;
+        selectionIndex = 0;
     }
 
 	public void setCriteria(Criteria criteria) { 
@@ -91,6 +100,11 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         if(this.elementMap == null) {
             this.elementMap = createLookupMap(this.getChildren()[0].getElements());
             this.projectionIndexes = getProjectionIndexes(this.elementMap, projectedExpressions!=null?projectedExpressions:getElements());
+            this.identityProjection = this.projectionIndexes.length == this.getChildren()[0].getElements().size();
+            for (int i = 0; i < this.projectionIndexes.length && this.identityProjection; i++) {
+            	this.identityProjection = this.projectionIndexes[i] == i;
+            }
+            this.batchFilter = BatchFilter.compile(this.criteria, this.elementMap);
         }
 	}
 	
@@ -102,16 +116,34 @@ public class SelectNode extends SubqueryAwareRelationalNode {
 		
         if(currentBatch == null) {
         	currentBatch = this.getChildren()[0].nextBatch();
+        	if (batchFilter != null) {
+        		List<List<?>> tuples = currentBatch.getTuples();
+        		if (selection == null || selection.length < tuples.size()) {
+        			selection = new int[tuples.size()];
+        		}
+        		selectionSize = batchFilter.select(tuples, selection);
+        		selectionIndex = 0;
+        	}
         }
 
-        while (currentRow <= currentBatch.getEndRow() && !isBatchFull()) {
-    		List<?> tuple = currentBatch.getTuple(currentRow);
-
-            if(getEvaluator(this.elementMap).evaluate(this.criteria, tuple)) {
-                addBatchRow(projectTuple(this.projectionIndexes, tuple));
-            }
-            currentRow++;
-		}
+        if (batchFilter != null) {
+        	List<List<?>> tuples = currentBatch.getTuples();
+        	while (selectionIndex < selectionSize && !isBatchFull()) {
+        		addBatchRow(projectTuple(tuples.get(selection[selectionIndex++])));
+        	}
+        	if (selectionIndex == selectionSize) {
+        		currentRow = currentBatch.getEndRow() + 1;
+        	}
+        } else {
+	        while (currentRow <= currentBatch.getEndRow() && !isBatchFull()) {
+	    		List<?> tuple = currentBatch.getTuple(currentRow);
+	
+	            if(getEvaluator(this.elementMap).evaluate(this.criteria, tuple)) {
+	                addBatchRow(projectTuple(tuple));
+	            }
+	            currentRow++;
+			}
+        }
         
         if (currentRow > currentBatch.getEndRow()) {
 	        if(currentBatch.getTerminationFlag()) {
@@ -122,6 +154,13 @@ public class SelectNode extends SubqueryAwareRelationalNode {
         
     	return pullBatch();
 	}
+	
+	private List<?> projectTuple(List<?> tuple) {
+		if (identityProjection) {
+			return tuple;
+		}
+		return projectTuple(this.projectionIndexes, tuple);
+	}
     
 	protected void getNodeString(StringBuffer str) {
 		super.getNodeString(str);
@@ -140,6 +179,8 @@ public class SelectNode extends SubqueryAwareRelationalNode {
 		target.elementMap = elementMap;
 		target.projectionIndexes = projectionIndexes;
 		target.projectedExpressions = projectedExpressions;
+		target.identityProjection = identityProjection;
+		target.batchFilter = batchFilter;
 	}
     
     public PlanNode getDescriptionProperties() {   
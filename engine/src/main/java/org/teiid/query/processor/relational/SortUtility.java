@@ -366,7 +366,9 @@ public class SortUtility {
 		        activeTupleBuffers.add(sublist);
 		        if (this.mode == Mode.SORT) {
 		        	//perform a stable sort
-		    		Collections.sort((List<List<?>>)workingTuples, comparator);
+		        	if (!comparator.sortByNormalizedKeys((List<List<?>>)workingTuples)) {
+		        		Collections.sort((List<List<?>>)workingTuples, comparator);
+		        	}
 		        }
 		        for (List<?> list : workingTuples) {
 					sublist.addTuple(list);
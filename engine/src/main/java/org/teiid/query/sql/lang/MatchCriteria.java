@@ -24,13 +24,13 @@ package org.teiid.query.sql.lang;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import org.teiid.api.exception.query.ExpressionEvaluationException;
 import org.teiid.core.util.EquivalenceUtil;
 import org.teiid.core.util.HashCodeUtil;
-import org.teiid.core.util.LRUCache;
 import org.teiid.core.util.PropertiesUtils;
 import org.teiid.language.Like.MatchMode;
 import org.teiid.query.QueryPlugin;
@@ -241,7 +241,8 @@ public class MatchCriteria extends PredicateCriteria implements Negatable {
         return criteriaCopy;
 	}
 	
-    private final static LRUCache<List<?>, Pattern> patternCache = new LRUCache<List<?>, Pattern>(100);
+    static final int MAX_CACHE_SIZE = 100;
+    private final static ConcurrentHashMap<List<?>, Pattern> patternCache = new ConcurrentHashMap<List<?>, Pattern>();
     
     public static Pattern getPattern(String newPattern, String originalPattern, int flags) throws ExpressionEvaluationException {
     	List<?> key = Arrays.asList(newPattern, flags);
@@ -249,7 +250,7 @@ public class MatchCriteria extends PredicateCriteria implements Negatable {
         if (p == null) {
             try {	        
     	        p = Pattern.compile(newPattern, Pattern.DOTALL);
-    	        patternCache.put(key, p);
+    	        cache(patternCache, key, p);
     		} catch(PatternSyntaxException e) {
                  throw new ExpressionEvaluationException(QueryPlugin.Event.TEIID30448, e, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30448, new Object[]{originalPattern, e.getMessage()}));
     		}
@@ -257,6 +258,16 @@ public class MatchCriteria extends PredicateCriteria implements Negatable {
         return p;
     }
 
+    /**
+     * Add to a lock-free cache, which is simply cleared once full
+     */
+    public static <K, V> void cache(ConcurrentHashMap<K, V> cache, K key, V value) {
+    	if (cache.size() >= MAX_CACHE_SIZE) {
+    		cache.clear();
+    	}
+    	cache.put(key, value);
+    }
+
 	/**
      * <p>Utility to convert the pattern into a different match syntax</p>
      */
@@ -266,7 +277,7 @@ public class MatchCriteria extends PredicateCriteria implements Negatable {
 	    private char[] toReplace;
 	    private String[] replacements;
 	    private int flags;
-	    private final LRUCache<List<?>, Pattern> cache = new LRUCache<List<?>, Pattern>(100);
+	    private final ConcurrentHashMap<List<?>, Pattern> cache = new ConcurrentHashMap<List<?>, Pattern>();
 
 	    /**
 	     * @param newWildCard replacement for %
@@ -284,16 +295,11 @@ public class MatchCriteria extends PredicateCriteria implements Negatable {
 	    
 	    public Pattern translate(String pattern, char escape) throws ExpressionEvaluationException {
 	        List<?> key = Arrays.asList(pattern, escape);
-	        Pattern result = null;
-	        synchronized (cache) {
-	        	result = cache.get(key);
-	        }
+	        Pattern result = cache.get(key);
 	        if (result == null) {
 		        String newPattern = getPatternString(pattern, escape);
 		        result = getPattern(newPattern, pattern, flags);
-		        synchronized (cache) {
-			        cache.put(key, result);
-				}
+		        cache(cache, key, result);
 	        }
 	        return result;
 	    }
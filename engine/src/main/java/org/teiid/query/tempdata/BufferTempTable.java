@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+
+package org.teiid.query.tempdata;
+
+import java.util.List;
+
+import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.TupleBuffer;
+import org.teiid.common.buffer.TupleSource;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.query.metadata.TempMetadataID;
+import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.OrderBy;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.sql.symbol.Expression;
+
+/**
+ * A non-updatable {@link TempTable} that answers queries by scanning an existing 
+ * {@link TupleBuffer} rather than a copy of its rows.  The buffer is shared and is not removed 
+ * with the table.
+ */
+class BufferTempTable extends TempTable {
+	
+	private TupleBuffer buffer;
+
+	BufferTempTable(TempMetadataID tid, BufferManager bm, List<ElementSymbol> columns, TupleBuffer buffer, String sessionID) {
+		//use all columns as the key so that the column positions match the buffer
+		super(tid, bm, columns, columns.size(), sessionID);
+		this.buffer = buffer;
+		setUpdatable(false);
+	}
+	
+	@Override
+	public TupleSource createTupleSource(List<? extends Expression> projectedCols, Criteria condition, OrderBy orderBy) 
+			throws TeiidComponentException, TeiidProcessingException {
+		boolean agg = isAggregate(projectedCols);
+		if (agg) {
+			orderBy = null;
+		}
+		TupleSource ts = new QueryTupleSource(buffer.createIndexedTupleSource(), getColumnMap(), agg?getColumns():projectedCols, condition, false);
+		return processQuery(ts, projectedCols, orderBy, agg, false);
+	}
+	
+	@Override
+	public TupleSource createSnapshotTupleSource(List<? extends Expression> projectedCols, Criteria condition, OrderBy orderBy) 
+			throws TeiidComponentException, TeiidProcessingException {
+		return createTupleSource(projectedCols, condition, orderBy);
+	}
+	
+	@Override
+	int reserveBuffers() {
+		//the buffer manages its own memory
+		return 0;
+	}
+	
+	@Override
+	public int getRowCount() {
+		return buffer.getRowCount();
+	}
+
+}
@@ -65,5 +65,12 @@ public interface GlobalTableStore {
 	
 	@Replicated(replicateState=ReplicationMode.PUSH)
 	void loaded(String matTableName, TempTable table);
+	
+	/**
+	 * Pull the full table from another member if the local copy could not be updated from a replicated delta.
+	 * @return null if the table still needs to be pulled
+	 */
+	@Replicated(asynch=false, timeout=5000, replicateState=ReplicationMode.PULL)
+	Boolean pullTable(String matTableName);
 
 }
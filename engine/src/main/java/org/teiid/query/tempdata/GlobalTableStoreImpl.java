@@ -95,6 +95,8 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 	
 	public class MatTableInfo {
 		private long updateTime = -1;
+		private long loadVersion = -1; //increases with each load, typically the update time of the load
+		private boolean pullNeeded; //the current table could not be updated from a delta
 		private MatState state = MatState.NEEDS_LOADING;
 		private Serializable loadingAddress;
 		private long ttl = -1;
@@ -199,12 +201,30 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 		
 	}
 	
+	/**
+	 * The prior version of a reloaded table.  It may only be used to send the delta to
+	 * the table that replaced it.
+	 */
+	private static class DeltaBase {
+		final WeakReference<TempTable> base;
+		final long baseVersion;
+		final TempTable target;
+		
+		DeltaBase(TempTable base, long baseVersion, TempTable target) {
+			this.base = new WeakReference<TempTable>(base);
+			this.baseVersion = baseVersion;
+			this.target = target;
+		}
+	}
+	
 	private ConcurrentHashMap<String, MatTableInfo> matTables = new ConcurrentHashMap<String, MatTableInfo>();
 	private TempTableStore tableStore = new TempTableStore("SYSTEM", TransactionMode.ISOLATE_READS); //$NON-NLS-1$
 	private BufferManager bufferManager;
 	private QueryMetadataInterface metadata;
 	private Serializable localAddress;
 	private VDBMetaData vdbMetaData;
+	private ConcurrentHashMap<String, DeltaBase> deltaBases = new ConcurrentHashMap<String, DeltaBase>();
+	private boolean deltaReplication = true;
 	
 	public GlobalTableStoreImpl(BufferManager bufferManager, VDBMetaData vdbMetaData, QueryMetadataInterface metadata) {
 		this.bufferManager = bufferManager;
@@ -388,8 +408,20 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 
 	@Override
 	public void loaded(String matTableName, TempTable table) {
-		swapTempTable(matTableName, table);
-		this.getMatTableInfo(matTableName).setState(MatState.LOADED, true);
+		MatTableInfo info = getMatTableInfo(matTableName);
+		synchronized (info) {
+			TempTable previous = this.tableStore.getTempTable(matTableName);
+			if (deltaReplication && previous != null && previous != table && info.isValid()) {
+				//retain the prior version so that only the changes need to be replicated
+				this.deltaBases.put(matTableName, new DeltaBase(previous, info.loadVersion, table));
+			} else {
+				this.deltaBases.remove(matTableName);
+			}
+			swapTempTable(matTableName, table);
+			info.setState(MatState.LOADED, true);
+			info.loadVersion = Math.max(info.updateTime, info.loadVersion + 1);
+			info.pullNeeded = false;
+		}
 	}
 	
 	private void swapTempTable(String tempTableName, TempTable tempTable) {
@@ -403,14 +435,18 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 		if (tempTable != null) {
 			TempMetadataID id = tableStore.getMetadataStore().getTempGroupID(matTableName);
 			synchronized (id) {
-				boolean clone = tempTable.getActive().get() != 0;
-				if (clone) {
-					tempTable = tempTable.clone();
+				tempTable = tableStore.getTempTable(matTableName);
+				if (tempTable.beginInPlaceUpdate()) {
+					try {
+						return tempTable.updateTuple(tuple, delete);
+					} finally {
+						tempTable.endInPlaceUpdate();
+					}
 				}
+				//there are snapshot readers, so build the next version from a clone
+				tempTable = tempTable.clone();
 				List<?> result = tempTable.updateTuple(tuple, delete);
-				if (clone) {
-					swapTempTable(matTableName, tempTable);
-				}
+				swapTempTable(matTableName, tempTable);
 				return result;
 			}
 		}
@@ -427,6 +463,7 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 		Create create = getCreateCommand(group, true, metadata);
 		TempTable table = tableStore.addTempTable(tableName, create, bufferManager, false, null);
 		table.setUpdatable(false);
+		table.setZoneMaps(true);
 		CacheHint hint = table.getCacheHint();
 		if (hint != null) {
 			table.setPreferMemory(hint.isPrefersMemory());
@@ -495,8 +532,10 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 	public void getState(OutputStream ostream) {
 		try {
 			ObjectOutputStream oos = new ObjectOutputStream(ostream);
+			//the full state is sent, so the prior versions are no longer needed
+			this.deltaBases.clear();
 			for (Map.Entry<String, TempTable> entry : tableStore.getTempTables().entrySet()) {
-				sendTable(entry.getKey(), oos, true);
+				sendTable(entry.getKey(), oos, true, null);
 			}
 			oos.writeObject(null);
 			oos.close();
@@ -528,7 +567,7 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 	public void getState(String stateId, OutputStream ostream) {
 		try {
 			ObjectOutputStream oos = new ObjectOutputStream(ostream);
-			sendTable(stateId, oos, false);
+			sendTable(stateId, oos, false, getDeltaBase(stateId));
 			oos.close();
 		} catch (IOException e) {
 			 throw new TeiidRuntimeException(QueryPlugin.Event.TEIID30220, e);
@@ -537,7 +576,19 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 		}
 	}
 
-	private void sendTable(String stateId, ObjectOutputStream oos, boolean writeName)
+	/**
+	 * Get the base for a delta of the current table.  The base is only used once, 
+	 * so later requests for the state will get the full table.
+	 */
+	private DeltaBase getDeltaBase(String stateId) {
+		DeltaBase deltaBase = this.deltaBases.remove(stateId);
+		if (deltaBase == null || deltaBase.target != this.tableStore.getTempTable(stateId)) {
+			return null;
+		}
+		return deltaBase;
+	}
+
+	private void sendTable(String stateId, ObjectOutputStream oos, boolean writeName, DeltaBase deltaBase)
 			throws IOException, TeiidComponentException {
 		TempTable tempTable = this.tableStore.getTempTable(stateId);
 		if (tempTable == null) {
@@ -547,13 +598,39 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 		if (!info.isValid()) {
 			return;
 		}
+		TempTableDelta delta = null;
+		TempTable base = deltaBase != null ? deltaBase.base.get() : null;
+		if (base != null) {
+			try {
+				//only worth sending if less than half of the table has changed
+				delta = tempTable.computeDelta(base, tempTable.getRowCount()/2);
+			} catch (TeiidProcessingException e) {
+				LogManager.logDetail(LogConstants.CTX_MATVIEWS, e, "could not compute the delta for", stateId); //$NON-NLS-1$
+			} catch (TeiidComponentException e) {
+				LogManager.logDetail(LogConstants.CTX_MATVIEWS, e, "could not compute the delta for", stateId); //$NON-NLS-1$
+			}
+		}
 		if (writeName) {
 			oos.writeObject(stateId);
 		}
 		oos.writeLong(info.updateTime);
 		oos.writeObject(info.loadingAddress);
 		oos.writeObject(info.state);
-		tempTable.writeTo(oos);
+		oos.writeLong(info.loadVersion);
+		oos.writeBoolean(delta != null);
+		if (delta == null) {
+			tempTable.writeTo(oos);
+			return;
+		}
+		oos.writeLong(deltaBase.baseVersion);
+		LogManager.logDetail(LogConstants.CTX_MATVIEWS, "sending", delta.getChangeCount(), "changed rows for", stateId); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			tempTable.writeDeltaTo(delta, oos);
+		} catch (TeiidProcessingException e) {
+			throw new TeiidComponentException(e);
+		} finally {
+			delta.remove();
+		}
 	}
 
 	@Override
@@ -577,6 +654,12 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 		long updateTime = ois.readLong();
 		Serializable loadingAddress = (Serializable) ois.readObject();
 		MatState state = (MatState)ois.readObject();
+		long loadVersion = ois.readLong();
+		this.deltaBases.remove(stateId);
+		if (ois.readBoolean()) {
+			loadDelta(stateId, ois, updateTime, loadingAddress, state, loadVersion);
+			return;
+		}
 		GroupSymbol group = new GroupSymbol(stateId);
 		if (stateId.startsWith(RelationalPlanner.MAT_PREFIX)) {
 			String viewName = stateId.substring(RelationalPlanner.MAT_PREFIX.length());
@@ -599,10 +682,84 @@ public class GlobalTableStoreImpl implements GlobalTableStore, ReplicatedObject<
 			swapTempTable(stateId, tempTable);
 			info.setState(state, true);
 			info.updateTime = updateTime;
+			info.loadVersion = loadVersion;
+			info.pullNeeded = false;
 			info.loadingAddress = loadingAddress;
 		}
 	}
 
+	/**
+	 * Apply the changes to a clone of the current table so that readers are not affected.
+	 * If the local table is not the version the delta was computed from, or has diverged from 
+	 * the sender, it is removed so that the full table will be pulled on the next access - 
+	 * see {@link #pullTable(String)}.
+	 */
+	private void loadDelta(String stateId, ObjectInputStream ois,
+			long updateTime, Serializable loadingAddress, MatState state, long loadVersion)
+			throws TeiidComponentException, TeiidProcessingException,
+			IOException, ClassNotFoundException {
+		LogManager.logDetail(LogConstants.CTX_DQP, "applying table delta from remote stream", stateId); //$NON-NLS-1$
+		long baseVersion = ois.readLong();
+		MatTableInfo info = this.getMatTableInfo(stateId);
+		TempTable tempTable = this.tableStore.getTempTable(stateId);
+		TempMetadataID id = this.tableStore.getMetadataStore().getTempGroupID(stateId);
+		boolean applied = false;
+		boolean diverged = false;
+		synchronized (info) {
+			if (tempTable == null || id == null || !info.isValid() || info.pullNeeded || info.loadVersion != baseVersion) {
+				tempTable = null;
+			}
+		}
+		if (tempTable != null) {
+			synchronized (id) {
+				tempTable = tempTable.clone();
+				if (tempTable.readDeltaFrom(ois)) {
+					swapTempTable(stateId, tempTable);
+					applied = true;
+				} else {
+					diverged = true;
+				}
+			}
+		}
+		synchronized (info) {
+			if (!applied) {
+				if (diverged) {
+					LogManager.logWarning(LogConstants.CTX_MATVIEWS, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31152, stateId));
+				} else {
+					LogManager.logDetail(LogConstants.CTX_MATVIEWS, "no base for the table delta, the full table will be pulled", stateId); //$NON-NLS-1$
+				}
+				//don't serve or replicate the stale copy
+				this.tableStore.getTempTables().remove(stateId);
+				info.pullNeeded = true;
+				info.setState(MatState.NEEDS_LOADING, false);
+				return;
+			}
+			info.setState(state, true);
+			info.updateTime = updateTime;
+			info.loadVersion = loadVersion;
+			info.loadingAddress = loadingAddress;
+		}
+	}
+	
+	@Override
+	public Boolean pullTable(String matTableName) {
+		MatTableInfo info = getMatTableInfo(matTableName);
+		synchronized (info) {
+			if (info.pullNeeded) {
+				return null;
+			}
+		}
+		return Boolean.TRUE;
+	}
+
+	/**
+	 * Set whether reloaded tables are replicated as a delta from the prior version when possible.
+	 * Defaults to true.
+	 */
+	public void setDeltaReplication(boolean deltaReplication) {
+		this.deltaReplication = deltaReplication;
+	}
+
 	@Override
 	public void droppedMembers(Collection<Serializable> addresses) {
 		for (MatTableInfo info : this.matTables.values()) {
@@ -47,6 +47,7 @@ import org.teiid.common.buffer.BufferManager.TupleSourceType;
 import org.teiid.common.buffer.STree;
 import org.teiid.common.buffer.STree.InsertMode;
 import org.teiid.common.buffer.TupleBrowser;
+import org.teiid.common.buffer.TupleBrowser.ZoneMapFilter;
 import org.teiid.common.buffer.TupleBuffer;
 import org.teiid.common.buffer.TupleSource;
 import org.teiid.core.TeiidComponentException;
@@ -64,14 +65,17 @@ import org.teiid.query.processor.relational.RelationalNode;
 import org.teiid.query.processor.relational.SortUtility;
 import org.teiid.query.processor.relational.SortUtility.Mode;
 import org.teiid.query.sql.lang.CacheHint;
+import org.teiid.query.sql.lang.CompareCriteria;
 import org.teiid.query.sql.lang.Criteria;
 import org.teiid.query.sql.lang.OrderBy;
 import org.teiid.query.sql.lang.SetClauseList;
 import org.teiid.query.sql.symbol.AggregateSymbol;
 import org.teiid.query.sql.symbol.Array;
+import org.teiid.query.sql.symbol.Constant;
 import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
 import org.teiid.query.sql.symbol.ExpressionSymbol;
+import org.teiid.query.sql.util.SymbolMap;
 import org.teiid.query.util.CommandContext;
 import org.teiid.query.util.GeneratedKeysImpl;
 
@@ -164,23 +168,25 @@ public class TempTable implements Cloneable, SearchableTable {
 		}
 	}
 
-	private final class QueryTupleSource implements TupleSource {
+	final class QueryTupleSource implements TupleSource {
 		private final Evaluator eval;
 		private final Criteria condition;
 		private final boolean project;
 		private final int[] indexes;
 		private int reserved;
-		private TupleBrowser browser;
+		private TupleSource browser;
+		private boolean locked;
 
-		private QueryTupleSource(TupleBrowser browser, Map map,
-				List<? extends Expression> projectedCols, Criteria condition) {
+		QueryTupleSource(TupleSource browser, Map map,
+				List<? extends Expression> projectedCols, Criteria condition, boolean locked) {
 			this.browser = browser;
 			this.indexes = RelationalNode.getProjectionIndexes(map, projectedCols);
 			this.eval = new Evaluator(map, null, null);
 			this.condition = condition;
 			this.project = shouldProject();
 			this.reserved = reserveBuffers();
-			if (updatable) {
+			this.locked = locked;
+			if (locked) {
 				lock.readLock().lock();
 			}
 		}
@@ -207,8 +213,9 @@ public class TempTable implements Cloneable, SearchableTable {
 		
 		@Override
 		public void closeSource() {
-			if (updatable) {
+			if (locked) {
 				lock.readLock().unlock();
+				locked = false;
 			}
 			bm.releaseBuffers(reserved);
 			reserved = 0;
@@ -229,6 +236,95 @@ public class TempTable implements Cloneable, SearchableTable {
 
 	}
 
+	/**
+	 * Loads an empty table by building the tree bottom up rather than with row by row inserts.
+	 * Input is first sorted by the primary key - rowid tables are already in key order.
+	 * May be called again after a {@link BlockedException}.
+	 */
+	public final class BulkLoad {
+		private TupleSource source;
+		private SortUtility sort;
+		private int[] indexes;
+		private STree.BulkLoader loader;
+		
+		private BulkLoad(TupleSource tuples, List<ElementSymbol> variables) {
+			List<ElementSymbol> cols = getColumns();
+			this.indexes = new int[cols.size()];
+			for (int i = 0; i < cols.size(); i++) {
+				indexes[i] = variables.indexOf(cols.get(i));
+			}
+			if (rowId != null) {
+				this.source = tuples;
+			} else {
+				OrderBy keyOrder = new OrderBy();
+				for (ElementSymbol es : columns.subList(0, tree.getKeyLength())) {
+					keyOrder.addVariable(es);
+				}
+				this.sort = new SortUtility(tuples, keyOrder.getOrderByItems(), Mode.SORT, bm, sessionID, variables);
+			}
+		}
+		
+		public int process() throws TeiidComponentException, TeiidProcessingException {
+			if (sort != null) {
+				TupleBuffer sorted = sort.sort();
+				sort = null;
+				source = sorted.createIndexedTupleSource(true);
+			}
+			int reserved = reserveBuffers();
+			lock.writeLock().lock();
+			try {
+				if (loader == null) {
+					tree.setBatchInsert(true);
+					loader = tree.createBulkLoader();
+				}
+				List<?> tuple = null;
+				while ((tuple = source.nextTuple()) != null) {
+					List<Object> newTuple = new ArrayList<Object>(columns.size());
+					if (rowId != null) {
+						newTuple.add(rowId.getAndIncrement());
+					}
+					for (int i = 0; i < indexes.length; i++) {
+						if (indexes[i] == -1) {
+							AtomicInteger sequence = sequences.get(i + (rowId != null?1:0));
+							newTuple.add(sequence != null?sequence.getAndIncrement():null);
+						} else {
+							newTuple.add(tuple.get(indexes[i]));
+						}
+					}
+					for (int i = 0; i < notNull.length; i++) {
+						if (newTuple.get(notNull[i]) == null) {
+							 throw new TeiidProcessingException(QueryPlugin.Event.TEIID30236, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30236, columns.get(notNull[i])));
+						}
+					}
+					if (loader.add(newTuple) != null) {
+						 throw new TeiidProcessingException(QueryPlugin.Event.TEIID30238, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID30238, tid.getID()));
+					}
+				}
+				loader.finish();
+				tree.setBatchInsert(false);
+			} finally {
+				lock.writeLock().unlock();
+				bm.releaseBuffers(reserved);
+			}
+			close();
+			int rowCount = tree.getRowCount();
+			tid.setCardinality(rowCount);
+			tid.getTableData().dataModified(rowCount);
+			return rowCount;
+		}
+		
+		public void close() {
+			if (sort != null) {
+				sort.remove();
+				sort = null;
+			}
+			if (source != null) {
+				source.closeSource();
+				source = null;
+			}
+		}
+	}
+
 	private abstract class UpdateProcessor {
 		private TupleSource ts;
 		protected Evaluator eval;
@@ -407,26 +503,51 @@ public class TempTable implements Cloneable, SearchableTable {
 	}
 	
 	void addIndex(List<ElementSymbol> indexColumns, boolean unique) throws TeiidComponentException, TeiidProcessingException {
+		addIndex(indexColumns, unique, Collections.<ElementSymbol>emptyList());
+	}
+	
+	/**
+	 * Add an index that also stores the include columns, so that queries projecting
+	 * only index, include, and key columns are answered from the index without a primary lookup. 
+	 */
+	void addIndex(List<ElementSymbol> indexColumns, boolean unique, List<ElementSymbol> includeColumns) throws TeiidComponentException, TeiidProcessingException {
 		List<ElementSymbol> keyColumns = columns.subList(0, tree.getKeyLength());
 		if (keyColumns.equals(indexColumns) || (indexTables != null && indexTables.containsKey(indexColumns))) {
 			return;
 		}
-		TempTable indexTable = createIndexTable(indexColumns, unique);
-		//TODO: ordered insert optimization
+		TempTable indexTable = createIndexTable(indexColumns, unique, includeColumns);
 		TupleSource ts = createTupleSource(indexTable.getColumns(), null, null);
-		indexTable.insert(ts, indexTable.getColumns(), false, null);
-		indexTable.getTree().compact();
+		BulkLoad load = indexTable.createBulkLoad(ts, indexTable.getColumns());
+		try {
+			load.process();
+		} finally {
+			load.close();
+		}
+	}
+	
+	/**
+	 * Create a {@link BulkLoad} for this table, which should be empty.
+	 * The caller is responsible for closing the load.
+	 */
+	public BulkLoad createBulkLoad(TupleSource tuples, List<ElementSymbol> variables) {
+		return new BulkLoad(tuples, variables);
 	}
 
 	private TempTable createIndexTable(List<ElementSymbol> indexColumns,
-			boolean unique) {
+			boolean unique, List<ElementSymbol> includeColumns) {
 		List<ElementSymbol> allColumns = new ArrayList<ElementSymbol>(indexColumns);
 		for (ElementSymbol elementSymbol : columns.subList(0, tree.getKeyLength())) {
 			if (allColumns.indexOf(elementSymbol) < 0) {
 				allColumns.add(elementSymbol);
 			}
 		}
-		TempTable indexTable = new TempTable(new TempMetadataID("idx", Collections.EMPTY_LIST), this.bm, allColumns, allColumns.size(), this.sessionID); //$NON-NLS-1$
+		int keyLength = allColumns.size();
+		for (ElementSymbol elementSymbol : includeColumns) {
+			if (allColumns.indexOf(elementSymbol) < 0) {
+				allColumns.add(elementSymbol);
+			}
+		}
+		TempTable indexTable = new TempTable(new TempMetadataID("idx", Collections.EMPTY_LIST), this.bm, allColumns, keyLength, this.sessionID); //$NON-NLS-1$
 		indexTable.setPreferMemory(this.tree.isPreferMemory());
 		indexTable.lock = this.lock;
 		if (unique) {
@@ -434,29 +555,121 @@ public class TempTable implements Cloneable, SearchableTable {
 		}
 		if (indexTables == null) {
 			indexTables = new LinkedHashMap<List<ElementSymbol>, TempTable>();
-			indexTables.put(indexColumns, indexTable);
 		}
+		indexTables.put(indexColumns, indexTable);
 		indexTable.setUpdatable(this.updatable);
 		return indexTable;
 	}
 	
-	private int reserveBuffers() {
+	int reserveBuffers() {
 		return bm.reserveBuffers(leafBatchSize + (tree.getHeight() - 1)*keyBatchSize, BufferReserveMode.FORCE);
 	}
 
 	public TupleSource createTupleSource(final List<? extends Expression> projectedCols, final Criteria condition, OrderBy orderBy) throws TeiidComponentException, TeiidProcessingException {
-		//special handling for count(*)
-		boolean agg = false;
-		for (Expression singleElementSymbol : projectedCols) {
-			if (singleElementSymbol instanceof ExpressionSymbol && ((ExpressionSymbol)singleElementSymbol).getExpression() instanceof AggregateSymbol) {
-				agg = true;
-				break;
+		return createTupleSource(projectedCols, condition, orderBy, false);
+	}
+	
+	/**
+	 * Create a tuple source that reads a stable version of the table without taking the read lock.
+	 * While the source is open the table is registered as active, so row level updates will
+	 * be applied to a clone rather than in place - see {@link #beginInPlaceUpdate()}.
+	 */
+	public TupleSource createSnapshotTupleSource(final List<? extends Expression> projectedCols, final Criteria condition, OrderBy orderBy) throws TeiidComponentException, TeiidProcessingException {
+		if (!updatable) {
+			return createTupleSource(projectedCols, condition, orderBy, false);
+		}
+		acquireSnapshot();
+		boolean success = false;
+		try {
+			final TupleSource ts = createTupleSource(projectedCols, condition, orderBy, true);
+			success = true;
+			return new TupleSource() {
+				private boolean closed;
+				
+				@Override
+				public List<?> nextTuple() throws TeiidComponentException,
+						TeiidProcessingException {
+					return ts.nextTuple();
+				}
+				
+				@Override
+				public void closeSource() {
+					if (closed) {
+						return;
+					}
+					closed = true;
+					ts.closeSource();
+					releaseSnapshot();
+				}
+			};
+		} finally {
+			if (!success) {
+				releaseSnapshot();
+			}
+		}
+	}
+	
+	/**
+	 * Register a reader of this version of the table.  Waits only if a single row
+	 * in place update is in progress.
+	 */
+	void acquireSnapshot() {
+		for (;;) {
+			int active = activeReaders.get();
+			if (active < 0) {
+				//wait for the in place update to finish
+				synchronized (activeReaders) {
+					while (activeReaders.get() < 0) {
+						try {
+							activeReaders.wait();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							throw new TeiidRuntimeException(e);
+						}
+					}
+				}
+				continue;
 			}
+			if (activeReaders.compareAndSet(active, active + 1)) {
+				return;
+			}
+		}
+	}
+	
+	void releaseSnapshot() {
+		activeReaders.decrementAndGet();
+	}
+	
+	/**
+	 * Claim the table for an in place update, which is only allowed if there are no active readers.
+	 * Must be followed by {@link #endInPlaceUpdate()} if successful.
+	 * @return false if the update should be applied to a clone instead
+	 */
+	boolean beginInPlaceUpdate() {
+		if (!activeReaders.compareAndSet(0, -1)) {
+			return false;
 		}
+		lock.writeLock().lock();
+		return true;
+	}
+	
+	void endInPlaceUpdate() {
+		lock.writeLock().unlock();
+		synchronized (activeReaders) {
+			activeReaders.set(0);
+			activeReaders.notifyAll();
+		}
+	}
+	
+	private TupleSource createTupleSource(final List<? extends Expression> projectedCols, final Criteria condition, OrderBy orderBy, boolean snapshot) throws TeiidComponentException, TeiidProcessingException {
+		//special handling for count(*), min, and max
+		boolean agg = isAggregate(projectedCols);
 		if (agg) {
 			if (condition == null) {
-				int count = this.getRowCount();
-				return new CollectionTupleSource(Arrays.asList(Collections.nCopies(projectedCols.size(), count)).iterator());
+				List<?> result = getAggregatesFromIndexes(projectedCols);
+				if (result != null) {
+					return new CollectionTupleSource(Arrays.asList(result).iterator());
+				}
 			}
 			orderBy = null;
 		}
@@ -476,15 +689,15 @@ public class TempTable implements Cloneable, SearchableTable {
 			}
 			LogManager.logDetail(LogConstants.CTX_DQP, "Choose index", ii.table, "covering:", ii.coveredCriteria,"ordering:", ii.ordering); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			if (ii.covering) {
-				return ii.table.createTupleSource(projectedCols, condition, orderBy, ii, agg);
+				return ii.table.createTupleSource(projectedCols, condition, orderBy, ii, agg, snapshot);
 			}
 			List<ElementSymbol> pkColumns = this.columns.subList(0, this.tree.getKeyLength());
 			if (ii.ordering != null) {
 				//use order and join
 				primary.valueTs = ii.table.createTupleSource(pkColumns, 
-						ii.coveredCriteria, orderBy, ii, agg);
+						ii.coveredCriteria, orderBy, ii, agg, snapshot);
 				primary.ordering = null;
-				return createTupleSource(projectedCols, ii.nonCoveredCriteria, null, primary, agg);
+				return createTupleSource(projectedCols, ii.nonCoveredCriteria, null, primary, agg, snapshot);
 			} 
 			//order by pk to localize lookup costs, then join
 			OrderBy pkOrderBy = new OrderBy();
@@ -492,35 +705,83 @@ public class TempTable implements Cloneable, SearchableTable {
 				pkOrderBy.addVariable(elementSymbol);
 			}
 			primary.valueTs = ii.table.createTupleSource(pkColumns, 
-					ii.coveredCriteria, pkOrderBy, ii, agg);
-			return createTupleSource(projectedCols, ii.nonCoveredCriteria, orderBy, primary, agg);
+					ii.coveredCriteria, pkOrderBy, ii, agg, snapshot);
+			return createTupleSource(projectedCols, ii.nonCoveredCriteria, orderBy, primary, agg, snapshot);
+		}
+		return createTupleSource(projectedCols, condition, orderBy, ii, agg, snapshot);
+	}
+	
+	static boolean isAggregate(List<? extends Expression> projectedCols) {
+		for (Expression singleElementSymbol : projectedCols) {
+			if (singleElementSymbol instanceof ExpressionSymbol && ((ExpressionSymbol)singleElementSymbol).getExpression() instanceof AggregateSymbol) {
+				return true;
+			}
 		}
-		return createTupleSource(projectedCols, condition, orderBy, ii, agg);
+		return false;
 	}
 
 	private TupleSource createTupleSource(
 			final List<? extends Expression> projectedCols,
-			final Criteria condition, OrderBy orderBy, IndexInfo ii, boolean agg)
+			final Criteria condition, OrderBy orderBy, IndexInfo ii, boolean agg, boolean snapshot)
 			throws TeiidComponentException, TeiidProcessingException {
 		TupleBrowser browser = ii.createTupleBrowser();
-		TupleSource ts = new QueryTupleSource(browser, columnMap, agg?getColumns():projectedCols, condition);
-		
+		if (condition != null) {
+			browser.setZoneMapFilter(createZoneMapFilter(condition));
+		}
+		boolean locked = updatable && !snapshot;
+		TupleSource ts = new QueryTupleSource(browser, columnMap, agg?getColumns():projectedCols, condition, locked);
+		return processQuery(ts, projectedCols, ii.ordering == null?orderBy:null, agg, locked);
+	}
+
+	/**
+	 * Sort, aggregate, or buffer the rows from a table scan as needed.  The scan source
+	 * is closed unless it is returned directly.
+	 * @param orderBy the ordering to apply, or null if the scan is already in order
+	 * @param buffer true if the rows must be read now, such as when the scan holds the read lock
+	 */
+	TupleSource processQuery(TupleSource ts, final List<? extends Expression> projectedCols, 
+			OrderBy orderBy, boolean agg, boolean buffer) throws TeiidComponentException, TeiidProcessingException {
 		boolean usingQueryTupleSource = false;
 		boolean success = false;
 		TupleBuffer tb = null;
 		try {
-			if (ii.ordering == null && orderBy != null) {
+			if (orderBy != null) {
 				SortUtility sort = new SortUtility(ts, orderBy.getOrderByItems(), Mode.SORT, bm, sessionID, projectedCols);
 				sort.setNonBlocking(true);
 				tb = sort.sort();
 			} else if (agg) {
+				int[] aggColumns = getAggregateColumns(projectedCols);
+				Object[] result = new Object[aggColumns.length];
 				int count = 0;
-				while (ts.nextTuple() != null) {
+				List<?> next = null;
+				while ((next = ts.nextTuple()) != null) {
 					count++;
+					for (int i = 0; i < aggColumns.length; i++) {
+						if (aggColumns[i] == 0) {
+							continue;
+						}
+						Object value = next.get(Math.abs(aggColumns[i]) - 1);
+						if (value == null) {
+							continue;
+						}
+						if (result[i] == null) {
+							result[i] = value;
+						} else {
+							int compare = Constant.COMPARATOR.compare(value, result[i]);
+							if (aggColumns[i] > 0 ? compare > 0 : compare < 0) {
+								result[i] = value;
+							}
+						}
+					}
+				}
+				for (int i = 0; i < aggColumns.length; i++) {
+					if (aggColumns[i] == 0) {
+						result[i] = count;
+					}
 				}
 				success = true;
-				return new CollectionTupleSource(Arrays.asList(Collections.nCopies(projectedCols.size(), count)).iterator());
-			} else if (updatable) {
+				return new CollectionTupleSource(Arrays.asList(Arrays.asList(result)).iterator());
+			} else if (buffer) {
 				tb = bm.createTupleBuffer(projectedCols, sessionID, TupleSourceType.PROCESSOR);
 				List<?> next = null;
 				while ((next = ts.nextTuple()) != null) {
@@ -545,6 +806,158 @@ public class TempTable implements Cloneable, SearchableTable {
 		}
 	}
 
+	/**
+	 * Get the column used by each projected aggregate.  0 is used for count(*), otherwise
+	 * the value is the 1-based column index, which is negated for min.  
+	 */
+	private int[] getAggregateColumns(List<? extends Expression> projectedCols) {
+		int[] result = new int[projectedCols.size()];
+		for (int i = 0; i < result.length; i++) {
+			AggregateSymbol aggregate = (AggregateSymbol)SymbolMap.getExpression(projectedCols.get(i));
+			switch (aggregate.getAggregateFunction()) {
+			case COUNT:
+				result[i] = 0;
+				break;
+			case MIN:
+			case MAX:
+				Integer index = columnMap.get(aggregate.getArg(0));
+				if (index == null) {
+					throw new AssertionError("Unsupported aggregate " + aggregate); //$NON-NLS-1$
+				}
+				result[i] = index + 1;
+				if (aggregate.getAggregateFunction() == AggregateSymbol.Type.MIN) {
+					result[i] = -result[i];
+				}
+				break;
+			default:
+				throw new AssertionError("Unsupported aggregate " + aggregate); //$NON-NLS-1$
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Answer unfiltered count(*) from the row count and min/max from the ends of the primary
+	 * or an index tree when the column is leading, so that no scan is needed. 
+	 * @return the aggregate values or null if a scan is required
+	 */
+	private List<?> getAggregatesFromIndexes(List<? extends Expression> projectedCols) throws TeiidComponentException, TeiidProcessingException {
+		int[] aggColumns = getAggregateColumns(projectedCols);
+		Object[] result = new Object[aggColumns.length];
+		for (int i = 0; i < aggColumns.length; i++) {
+			if (aggColumns[i] == 0) {
+				result[i] = getRowCount();
+				continue;
+			}
+			ElementSymbol column = columns.get(Math.abs(aggColumns[i]) - 1);
+			STree index = null;
+			if (columns.indexOf(column) == 0 && rowId == null) {
+				index = this.tree;
+			} else if (indexTables != null) {
+				for (TempTable indexTable : indexTables.values()) {
+					if (indexTable.columns.get(0).equals(column)) {
+						index = indexTable.tree;
+						break;
+					}
+				}
+			}
+			if (index == null) {
+				return null;
+			}
+			//nulls sort low, so the min must skip past them
+			TupleBrowser browser = new TupleBrowser(index, null, null, aggColumns[i] < 0);
+			List<?> next = null;
+			while ((next = browser.nextTuple()) != null) {
+				if (next.get(0) != null) {
+					result[i] = next.get(0);
+					break;
+				}
+				if (aggColumns[i] > 0) {
+					break;
+				}
+			}
+		}
+		return Arrays.asList(result);
+	}
+	
+	/**
+	 * Create a filter from the column to constant comparisons in the condition 
+	 * @return the filter or null if there are no usable predicates 
+	 */
+	private ZoneMapFilter createZoneMapFilter(Criteria condition) {
+		List<CompareCriteria> predicates = null;
+		for (Criteria crit : Criteria.separateCriteriaByAnd(condition)) {
+			if (!(crit instanceof CompareCriteria)) {
+				continue;
+			}
+			CompareCriteria cc = (CompareCriteria)crit;
+			if (!(cc.getLeftExpression() instanceof ElementSymbol) || !(cc.getRightExpression() instanceof Constant) 
+					|| ((Constant)cc.getRightExpression()).isMultiValued()) {
+				continue;
+			}
+			Integer index = columnMap.get(cc.getLeftExpression());
+			if (index == null || !tree.hasZoneMap(index)) {
+				continue;
+			}
+			if (predicates == null) {
+				predicates = new ArrayList<CompareCriteria>(2);
+			}
+			predicates.add(cc);
+		}
+		if (predicates == null) {
+			return null;
+		}
+		final int[] indexes = new int[predicates.size()];
+		final int[] operators = new int[predicates.size()];
+		final Object[] values = new Object[predicates.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			CompareCriteria cc = predicates.get(i);
+			indexes[i] = columnMap.get(cc.getLeftExpression());
+			operators[i] = cc.getOperator();
+			values[i] = ((Constant)cc.getRightExpression()).getValue();
+		}
+		return new ZoneMapFilter() {
+			
+			@Override
+			public boolean canMatch(Object[] min, Object[] max) {
+				for (int i = 0; i < indexes.length; i++) {
+					Object value = values[i];
+					Object minValue = min[indexes[i]];
+					if (value == null || minValue == null) {
+						//null comparisons and all null columns cannot match
+						return false;
+					}
+					Object maxValue = max[indexes[i]];
+					boolean matches = true;
+					switch (operators[i]) {
+					case CompareCriteria.EQ:
+						matches = Constant.COMPARATOR.compare(minValue, value) <= 0 && Constant.COMPARATOR.compare(maxValue, value) >= 0;
+						break;
+					case CompareCriteria.NE:
+						matches = Constant.COMPARATOR.compare(minValue, value) != 0 || Constant.COMPARATOR.compare(maxValue, value) != 0;
+						break;
+					case CompareCriteria.LT:
+						matches = Constant.COMPARATOR.compare(minValue, value) < 0;
+						break;
+					case CompareCriteria.LE:
+						matches = Constant.COMPARATOR.compare(minValue, value) <= 0;
+						break;
+					case CompareCriteria.GT:
+						matches = Constant.COMPARATOR.compare(maxValue, value) > 0;
+						break;
+					case CompareCriteria.GE:
+						matches = Constant.COMPARATOR.compare(maxValue, value) >= 0;
+						break;
+					}
+					if (!matches) {
+						return false;
+					}
+				}
+				return true;
+			}
+		};
+	}
+
 	/**
 	 * TODO: this could easily use statistics - the tree level 1 would be an ideal place
 	 * to compute them, since it minimizes page loads, and is a random sample.
@@ -809,6 +1222,11 @@ public class TempTable implements Cloneable, SearchableTable {
 					for (ElementSymbol es : entry.getKey()) {
 						oos.writeInt(this.columnMap.get(es));
 					}
+					List<ElementSymbol> includeColumns = entry.getValue().getIncludeColumns();
+					oos.writeInt(includeColumns.size());
+					for (ElementSymbol es : includeColumns) {
+						oos.writeInt(this.columnMap.get(es));
+					}
 					entry.getValue().writeTo(oos);
 				}
 			}
@@ -828,11 +1246,105 @@ public class TempTable implements Cloneable, SearchableTable {
 				int colIndex = ois.readInt();
 				indexColumns.add(this.columns.get(colIndex));
 			}
-			TempTable tt = this.createIndexTable(indexColumns, unique);
+			int numIncludes = ois.readInt();
+			ArrayList<ElementSymbol> includeColumns = new ArrayList<ElementSymbol>(numIncludes);
+			for (int j = 0; j < numIncludes; j++) {
+				int colIndex = ois.readInt();
+				includeColumns.add(this.columns.get(colIndex));
+			}
+			TempTable tt = this.createIndexTable(indexColumns, unique, includeColumns);
 			tt.readFrom(ois);
 		}
 	}
 	
+	/**
+	 * Compute an order independent checksum of the table rows.
+	 */
+	long computeChecksum() throws TeiidComponentException, TeiidProcessingException {
+		lock.readLock().lock();
+		try {
+			TupleBrowser browser = new TupleBrowser(this.tree, null, null, OrderBy.ASC);
+			long checksum = 0;
+			List<?> next = null;
+			while ((next = browser.nextTuple()) != null) {
+				checksum += TempTableDelta.rowHash(next);
+			}
+			return checksum;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Compute the changes from the previous version of this table by walking both trees in key order.
+	 * @return the delta or null if the tables are not comparable, have lob or object columns, or there are more than maxChanges
+	 */
+	TempTableDelta computeDelta(TempTable previous, int maxChanges) throws TeiidComponentException, TeiidProcessingException {
+		if (rowId != null || previous.rowId != null || !previous.columns.equals(columns) || previous.getPkLength() != getPkLength() 
+				|| !TempTableDelta.isSupported(columns)) {
+			return null;
+		}
+		TempTableDelta delta = new TempTableDelta(bm.createTupleBuffer(columns, sessionID, TupleSourceType.PROCESSOR),
+				bm.createTupleBuffer(columns, sessionID, TupleSourceType.PROCESSOR));
+		boolean success = false;
+		previous.lock.readLock().lock();
+		lock.readLock().lock();
+		try {
+			TupleBrowser oldBrowser = new TupleBrowser(previous.tree, null, null, OrderBy.ASC);
+			TupleBrowser newBrowser = new TupleBrowser(this.tree, null, null, OrderBy.ASC);
+			List<?> oldTuple = oldBrowser.nextTuple();
+			List<?> newTuple = newBrowser.nextTuple();
+			while (oldTuple != null || newTuple != null) {
+				int compare = 0;
+				if (oldTuple == null) {
+					compare = 1;
+				} else if (newTuple == null) {
+					compare = -1;
+				} else {
+					compare = this.tree.getComparator().compare(oldTuple, newTuple);
+				}
+				if (compare < 0) {
+					delta.addBase(oldTuple);
+					delta.delete(oldTuple);
+					oldTuple = oldBrowser.nextTuple();
+				} else if (compare > 0) {
+					delta.addTarget(newTuple);
+					delta.upsert(newTuple);
+					newTuple = newBrowser.nextTuple();
+				} else {
+					delta.addBase(oldTuple);
+					delta.addTarget(newTuple);
+					if (!oldTuple.equals(newTuple)) {
+						delta.upsert(newTuple);
+					}
+					oldTuple = oldBrowser.nextTuple();
+					newTuple = newBrowser.nextTuple();
+				}
+				if (delta.getChangeCount() > maxChanges) {
+					return null;
+				}
+			}
+			success = true;
+			return delta;
+		} finally {
+			lock.readLock().unlock();
+			previous.lock.readLock().unlock();
+			if (!success) {
+				delta.remove();
+			}
+		}
+	}
+
+	void writeDeltaTo(TempTableDelta delta, ObjectOutputStream oos) throws TeiidComponentException, TeiidProcessingException, IOException {
+		delta.writeTo(oos, TupleBuffer.getTypeNames(columns), leafBatchSize);
+	}
+
+	boolean readDeltaFrom(ObjectInputStream ois) throws TeiidComponentException, TeiidProcessingException, IOException, ClassNotFoundException {
+		boolean result = TempTableDelta.applyTo(this, ois, TupleBuffer.getTypeNames(columns));
+		tid.setCardinality(tree.getRowCount());
+		return result;
+	}
+
 	List<?> updateTuple(List<?> tuple, boolean remove) throws TeiidComponentException {
 		try {
 			lock.writeLock().lock();
@@ -870,6 +1382,14 @@ public class TempTable implements Cloneable, SearchableTable {
 		}
 	}
 	
+	/**
+	 * Maintain per page min/max values to allow scans to skip pages, see {@link STree#setZoneMaps(boolean)}.
+	 * Should be set prior to loading the table.
+	 */
+	void setZoneMaps(boolean zoneMaps) {
+		this.tree.setZoneMaps(zoneMaps);
+	}
+	
 	void setPreferMemory(boolean preferMemory) {
 		this.tree.setPreferMemory(preferMemory);
 	}
@@ -887,6 +1407,13 @@ public class TempTable implements Cloneable, SearchableTable {
 		return this.tid.getCacheHint();
 	}
 	
+	/**
+	 * @return the non-key columns stored by an index table
+	 */
+	private List<ElementSymbol> getIncludeColumns() {
+		return this.columns.subList(this.tree.getKeyLength(), this.columns.size());
+	}
+	
 	public int getPkLength() {
 		if (rowId != null) {
 			return 0;
@@ -65,6 +65,7 @@ import org.teiid.logging.LogManager;
 import org.teiid.metadata.FunctionMethod.Determinism;
 import org.teiid.query.QueryPlugin;
 import org.teiid.query.eval.Evaluator;
+import org.teiid.query.metadata.MaterializationMetadataRepository;
 import org.teiid.query.metadata.QueryMetadataInterface;
 import org.teiid.query.metadata.TempMetadataAdapter;
 import org.teiid.query.metadata.TempMetadataID;
@@ -487,6 +488,10 @@ public class TempTableDataManager implements ProcessorDataManager {
 						load();
 					} else {
 						boolean load = false;
+						if (!info.isUpToDate()) {
+							//get the full table if a replicated delta could not be applied
+							globalStore.pullTable(tableName);
+						}
 						if (!info.isUpToDate()) {
 							boolean invalidate = true;
 							VDBMetaData vdb = context.getVdb();
@@ -535,7 +540,7 @@ public class TempTableDataManager implements ProcessorDataManager {
 					}
 					TempTable table = globalStore.getTempTable(tableName);
 					context.accessedDataObject(group.getMetadataID());
-					TupleSource result = table.createTupleSource(query.getProjectedSymbols(), query.getCriteria(), query.getOrderBy());
+					TupleSource result = table.createSnapshotTupleSource(query.getProjectedSymbols(), query.getCriteria(), query.getOrderBy());
 					cancelMoreWork();
 					return result;
 				}
@@ -631,6 +636,33 @@ public class TempTableDataManager implements ProcessorDataManager {
 		return workContext;
 	}
 
+	/**
+	 * Get the columns listed by the {@link MaterializationMetadataRepository#MATVIEW_INDEX_INCLUDE} property of the index
+	 */
+	private static List<ElementSymbol> getIncludeColumns(QueryMetadataInterface metadata, List<ElementSymbol> allColumns, Object index, String tableName) {
+		String include = metadata.getExtensionProperty(index, MaterializationMetadataRepository.MATVIEW_INDEX_INCLUDE, false);
+		if (include == null) {
+			return Collections.emptyList();
+		}
+		List<ElementSymbol> result = new ArrayList<ElementSymbol>();
+		for (String name : StringUtil.split(include, ",")) { //$NON-NLS-1$
+			name = name.trim();
+			ElementSymbol column = null;
+			for (ElementSymbol es : allColumns) {
+				if (es.getShortName().equalsIgnoreCase(name)) {
+					column = es;
+					break;
+				}
+			}
+			if (column == null) {
+				LogManager.logWarning(LogConstants.CTX_MATVIEWS, QueryPlugin.Util.gs(QueryPlugin.Event.TEIID31154, name, tableName));
+				continue;
+			}
+			result.add(column);
+		}
+		return result;
+	}
+
 	private TupleSource loadGlobalTable(final CommandContext context,
 			final GroupSymbol group, final String tableName, final GlobalTableStore globalStore)
 			throws TeiidComponentException, TeiidProcessingException {
@@ -641,6 +673,7 @@ public class TempTableDataManager implements ProcessorDataManager {
 		table.setUpdatable(false);
 		return new ProxyTupleSource() {
 			TupleSource insertTupleSource;
+			TempTable.BulkLoad bulkLoad;
 			boolean success;
 			QueryProcessor qp;
 			boolean closed;
@@ -655,16 +688,15 @@ public class TempTableDataManager implements ProcessorDataManager {
 						String transformation = metadata.getVirtualPlan(group.getMetadataID()).getQuery();
 						qp = context.getQueryProcessorFactory().createQueryProcessor(transformation, fullName, context);
 						insertTupleSource = new BatchCollector.BatchProducerTupleSource(qp);
+						bulkLoad = table.createBulkLoad(insertTupleSource, allColumns);
 					}
-					table.insert(insertTupleSource, allColumns, false, null);
-					table.getTree().compact();
-					rowCount = table.getRowCount();
+					rowCount = bulkLoad.process();
 					Determinism determinism = qp.getContext().getDeterminismLevel();
 					context.setDeterminismLevel(determinism);
 					//TODO: could pre-process indexes to remove overlap
 					for (Object index : metadata.getIndexesInGroup(group.getMetadataID())) {
 						List<ElementSymbol> columns = GlobalTableStoreImpl.resolveIndex(metadata, allColumns, index);
-						table.addIndex(columns, false);
+						table.addIndex(columns, false, getIncludeColumns(metadata, allColumns, index, tableName));
 					}
 					for (Object key : metadata.getUniqueKeysInGroup(group.getMetadataID())) {
 						List<ElementSymbol> columns = GlobalTableStoreImpl.resolveIndex(metadata, allColumns, key);
@@ -697,6 +729,9 @@ public class TempTableDataManager implements ProcessorDataManager {
 					return;
 				}
 				closed = true;
+				if (bulkLoad != null) {
+					bulkLoad.close();
+				}
 				if (!success) {
 					globalStore.failedLoad(tableName);
 					table.remove();
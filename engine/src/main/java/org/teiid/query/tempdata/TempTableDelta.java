@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.query.tempdata;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.teiid.client.BatchSerializer;
+import org.teiid.common.buffer.TupleBuffer;
+import org.teiid.common.buffer.TupleSource;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.TeiidProcessingException;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.query.sql.symbol.ElementSymbol;
+
+/**
+ * The row level changes needed to transform one version of a keyed {@link TempTable} into another.
+ * <br/>
+ * The checksums are order independent sums of the row hashes of the base and target
+ * tables, which allows a receiver to detect that its copy has diverged from the sender's.
+ */
+class TempTableDelta {
+
+	private long baseChecksum;
+	private long targetChecksum;
+	private TupleBuffer deletes;
+	private TupleBuffer upserts;
+
+	TempTableDelta(TupleBuffer deletes, TupleBuffer upserts) {
+		this.deletes = deletes;
+		this.upserts = upserts;
+	}
+
+	/**
+	 * @return true if the column values can be compared and hashed by value, which is not 
+	 * the case for lob and object columns.  Tables with other columns are always sent in full. 
+	 */
+	static boolean isSupported(List<ElementSymbol> columns) {
+		for (ElementSymbol column : columns) {
+			Class<?> type = column.getType();
+			while (type.isArray()) {
+				type = type.getComponentType();
+			}
+			if (DataTypeManager.isLOB(type) || type == DataTypeManager.DefaultDataClasses.OBJECT) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A hash of the column values that is the same on every member.
+	 */
+	static long rowHash(List<?> tuple) {
+		long h = 1;
+		for (Object value : tuple) {
+			h = 31*h + valueHash(value);
+		}
+		h *= 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 29);
+	}
+
+	private static int valueHash(Object value) {
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Timestamp) {
+			//the timestamp hash does not include the nanos
+			return value.hashCode() ^ ((Timestamp)value).getNanos();
+		}
+		return value.hashCode();
+	}
+
+	void addBase(List<?> tuple) {
+		baseChecksum += rowHash(tuple);
+	}
+
+	void addTarget(List<?> tuple) {
+		targetChecksum += rowHash(tuple);
+	}
+
+	void delete(List<?> tuple) throws TeiidComponentException {
+		deletes.addTuple(tuple);
+	}
+
+	void upsert(List<?> tuple) throws TeiidComponentException {
+		upserts.addTuple(tuple);
+	}
+
+	int getChangeCount() {
+		return deletes.getRowCount() + upserts.getRowCount();
+	}
+
+	void writeTo(ObjectOutputStream oos, String[] types, int batchSize) throws IOException, TeiidComponentException, TeiidProcessingException {
+		oos.writeLong(baseChecksum);
+		oos.writeLong(targetChecksum);
+		writeBuffer(oos, deletes, types, batchSize);
+		writeBuffer(oos, upserts, types, batchSize);
+	}
+
+	private static void writeBuffer(ObjectOutputStream oos, TupleBuffer tb, String[] types, int batchSize) throws IOException, TeiidComponentException, TeiidProcessingException {
+		tb.close();
+		oos.writeInt(tb.getRowCount());
+		TupleSource ts = tb.createIndexedTupleSource();
+		List<List<?>> batch = new ArrayList<List<?>>(batchSize);
+		List<?> tuple = null;
+		while ((tuple = ts.nextTuple()) != null) {
+			batch.add(tuple);
+			if (batch.size() == batchSize) {
+				BatchSerializer.writeBatch(oos, types, batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			BatchSerializer.writeBatch(oos, types, batch);
+		}
+	}
+
+	/**
+	 * Apply a delta written by {@link #writeTo(ObjectOutputStream, String[], int)} to the given table.
+	 * The table should not be visible to readers, i.e. it should be a clone.
+	 * @return true if the table matched the base checksum and now matches the target checksum
+	 */
+	static boolean applyTo(TempTable table, ObjectInputStream ois, String[] types) throws IOException, ClassNotFoundException, TeiidComponentException, TeiidProcessingException {
+		long base = ois.readLong();
+		long target = ois.readLong();
+		long checksum = table.computeChecksum();
+		if (checksum != base) {
+			return false;
+		}
+		int deleteCount = ois.readInt();
+		while (deleteCount > 0) {
+			List<List<Object>> batch = BatchSerializer.readBatch(ois, types);
+			deleteCount -= batch.size();
+			for (List<Object> tuple : batch) {
+				List<?> old = table.updateTuple(tuple, true);
+				if (old == null) {
+					return false;
+				}
+				checksum -= rowHash(old);
+			}
+		}
+		int upsertCount = ois.readInt();
+		while (upsertCount > 0) {
+			List<List<Object>> batch = BatchSerializer.readBatch(ois, types);
+			upsertCount -= batch.size();
+			for (List<Object> tuple : batch) {
+				List<?> old = table.getTree().find(tuple);
+				if (old != null) {
+					//remove first so that secondary index entries are also replaced
+					table.updateTuple(old, true);
+					checksum -= rowHash(old);
+				}
+				table.updateTuple(tuple, false);
+				checksum += rowHash(tuple);
+			}
+		}
+		return checksum == target;
+	}
+
+	void remove() {
+		deletes.remove();
+		upserts.remove();
+	}
+
+}
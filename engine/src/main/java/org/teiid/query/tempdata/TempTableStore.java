@@ -42,6 +42,8 @@ import org.teiid.api.exception.query.ExpressionEvaluationException;
 import org.teiid.api.exception.query.QueryProcessingException;
 import org.teiid.common.buffer.BlockedException;
 import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.TupleBuffer;
+import org.teiid.common.buffer.TupleSource;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.dqp.service.TransactionContext;
@@ -161,7 +163,7 @@ public class TempTableStore {
     		synchronizations.remove(id);
     		if (transactionMode == TransactionMode.ISOLATE_READS) {
 				for (TempTable table : tables.values()) {
-					table.getActive().decrementAndGet();
+					table.releaseSnapshot();
 				}
     		} else {
     			HashSet<TempTable> current = new HashSet<TempTable>(tempTables.values());
@@ -259,6 +261,40 @@ public class TempTableStore {
         return tempTable;
     }
     
+    /**
+     * Add a non-updatable temp table with the given columns that is bulk loaded from the tuples.
+     * The table is not visible until it has been fully loaded.
+     */
+    public void addTempTable(String tempTableName, List<ElementSymbol> columns, TupleSource tuples, BufferManager buffer) throws TeiidComponentException, TeiidProcessingException {
+    	Create create = new Create();
+    	create.setTable(new GroupSymbol(tempTableName));
+    	create.setElementSymbolsAsColumns(columns);
+    	TempTable tempTable = addTempTable(tempTableName, create, buffer, false, null);
+    	boolean success = false;
+    	TempTable.BulkLoad load = tempTable.createBulkLoad(tuples, tempTable.getColumns());
+    	try {
+    		load.process();
+    		tempTable.setUpdatable(false);
+    		tempTables.put(tempTableName, tempTable);
+    		success = true;
+    	} finally {
+    		load.close();
+    		if (!success) {
+    			tempMetadataStore.removeTempGroup(tempTableName);
+    			tempTable.remove();
+    		}
+    	}
+    }
+    
+    /**
+     * Add a non-updatable temp table with the given columns that reads directly from the buffer.
+     * The buffer is not copied, so it must not be removed while the table is in use.
+     */
+    public void addTempTable(String tempTableName, List<ElementSymbol> columns, TupleBuffer tuples, BufferManager buffer) {
+    	TempMetadataID id = tempMetadataStore.addTempGroup(tempTableName, columns, false, true);
+    	tempTables.put(tempTableName, new BufferTempTable(id, buffer, new ArrayList<ElementSymbol>(columns), tuples, sessionID));
+    }
+    
     public void removeTempTableByName(final String tempTableName, CommandContext context) throws TeiidProcessingException {
     	TempTableSynchronization synch = getSynchronization(context);
     	tempMetadataStore.removeTempGroup(tempTableName);
@@ -443,7 +479,7 @@ public class TempTableStore {
     						synchronized (synch) {
 								if (!synch.isCompleted()) {
 									synch.tables.put(tempTableID, tempTable);
-									result.getActive().getAndIncrement();
+									result.acquireSnapshot();
 								}
 							}
     					}
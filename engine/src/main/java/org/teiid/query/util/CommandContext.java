@@ -39,6 +39,7 @@ import org.teiid.adminapi.impl.SessionMetadata;
 import org.teiid.adminapi.impl.VDBMetaData;
 import org.teiid.api.exception.query.QueryProcessingException;
 import org.teiid.common.buffer.BufferManager;
+import org.teiid.common.buffer.BufferUsage;
 import org.teiid.common.buffer.TupleSource;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidException;
@@ -178,6 +179,7 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 	    private boolean returnAutoGeneratedKeys;
 	    private GeneratedKeysImpl generatedKeys;
 	    private long reservedBuffers;
+	    private BufferUsage bufferUsage = new BufferUsage();
 
 		private AuthorizationValidator authorizationValidator;
 		
@@ -742,6 +744,7 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 			if (this.globalState.reservedBuffers > 0) {
 				long toRelease = this.globalState.reservedBuffers;
 				this.globalState.reservedBuffers = 0;
+				this.globalState.bufferUsage.addReservedBytes(-toRelease);
 				this.globalState.bufferManager.releaseOrphanedBuffers(toRelease);
 			}
 			if (this.globalState.reusableExecutions != null) {
@@ -954,8 +957,15 @@ public class CommandContext implements Cloneable, org.teiid.CommandContext {
 	}
 
 	public long addAndGetReservedBuffers(int i) {
+		if (i != 0) {
+			globalState.bufferUsage.addReservedBytes(i);
+		}
 		return globalState.reservedBuffers += i;
 	}
+	
+	public BufferUsage getBufferUsage() {
+		return globalState.bufferUsage;
+	}
 
 	@Override
 	public Object setSessionVariable(String key, Object value) {
@@ -110,7 +110,14 @@ BEGIN
 	DECLARE string scope = (SELECT "value" from SYS.Properties WHERE UID = VARIABLES.uid AND Name = '{http://www.teiid.org/ext/relational/2012}MATVIEW_SHARE_SCOPE');
 	DECLARE string matViewTable = (SELECT TargetName from SYSADMIN.MatViews WHERE VDBName = VARIABLES.vdbName AND SchemaName = schemaName AND Name = viewName);
 	DECLARE string action = (SELECT "Value" from SYS.Properties WHERE UID = VARIABLES.uid AND Name = '{http://www.teiid.org/ext/relational/2012}MATVIEW_ONERROR_ACTION');
+	DECLARE string partitionColumn = (SELECT "value" from SYS.Properties WHERE UID = VARIABLES.uid AND Name = '{http://www.teiid.org/ext/relational/2012}MATVIEW_PARTITION_COLUMN');
+	DECLARE integer partitionCount = (SELECT convert("value", integer) from SYS.Properties WHERE UID = VARIABLES.uid AND Name = '{http://www.teiid.org/ext/relational/2012}MATVIEW_PARTITION_COUNT');
+	DECLARE integer loadConcurrency = (SELECT convert("value", integer) from SYS.Properties WHERE UID = VARIABLES.uid AND Name = '{http://www.teiid.org/ext/relational/2012}MATVIEW_LOAD_CONCURRENCY');
 	DECLARE boolean implicitLoadScript = false;
+	DECLARE boolean partitionedLoad = false;
+	DECLARE integer slice = 0;
+	DECLARE integer sliceEnd = 0;
+	DECLARE string sliceQuery;
 	
 	IF ((scope IS null) OR (scope = 'NONE'))
 	BEGIN 
@@ -171,13 +178,93 @@ BEGIN
     END
 	
     IF(VARIABLES.status = 'LOAD')
-    BEGIN ATOMIC
+    BEGIN
     	IF (VARIABLES.loadScript IS null)
     	BEGIN
     		VARIABLES.loadScript = 'INSERT INTO ' || matViewStageTable || ' SELECT * FROM ' || schemaName || '.' || viewName || ' OPTION NOCACHE ' || schemaName || '.' || viewName;
     		VARIABLES.implicitLoadScript = true;
+    		VARIABLES.partitionedLoad = VARIABLES.partitionColumn IS NOT null AND VARIABLES.partitionCount > 1;
+    		IF (VARIABLES.partitionedLoad)
+    		BEGIN
+    			/* the slices only cover every row of an integral column, otherwise load the whole view at once */
+    			DECLARE string partitionType = (SELECT DataType FROM SYS.Columns WHERE VDBName = VARIABLES.vdbName AND SchemaName = schemaName AND TableName = viewName AND Name = VARIABLES.partitionColumn);
+    			VARIABLES.partitionedLoad = partitionType IN ('byte', 'short', 'integer', 'long', 'biginteger');
+    		END
     	END
+    END
+	
+    IF(VARIABLES.status = 'LOAD' AND VARIABLES.partitionedLoad)
+    BEGIN
+        /* the slices are not loaded in a single transaction so that the status table reflects the progress of the load */
+        VARIABLES.partitionColumn = '"' || replace(partitionColumn, '"', '""') || '"';
+    	IF (VARIABLES.beforeLoadScript IS NOT null)
+    	BEGIN
+    	   VARIABLES.index = 1;
+    	   declare string[] strings = tokenize(VARIABLES.beforeLoadScript, ';');
+    	   VARIABLES.lineCount = array_length(strings);
+    	    WHILE (index <= lineCount)
+    	    BEGIN 
+        	   EXECUTE IMMEDIATE array_get(strings, index);
+        	   index = index +1;
+        	END
+        END
+
+        /* each slice is a separate branch of a union so that up to loadConcurrency slices are fetched from the sources at the same time */
+        IF (VARIABLES.loadConcurrency IS null OR VARIABLES.loadConcurrency < 1)
+        BEGIN
+           VARIABLES.loadConcurrency = VARIABLES.partitionCount;
+        END
+        WHILE (slice < partitionCount)
+        BEGIN
+           VARIABLES.sliceEnd = slice + loadConcurrency;
+           IF (VARIABLES.sliceEnd > partitionCount)
+           BEGIN
+              VARIABLES.sliceEnd = partitionCount;
+           END
+           VARIABLES.sliceQuery = null;
+           WHILE (slice < sliceEnd)
+           BEGIN
+              VARIABLES.loadScript = 'SELECT * FROM ' || schemaName || '.' || viewName || ' WHERE abs(mod(' || partitionColumn || ', ' || partitionCount || ')) = ' || slice;
+              IF (slice = 0)
+              BEGIN
+                 VARIABLES.loadScript = loadScript || ' OR ' || partitionColumn || ' IS NULL';
+              END
+              IF (VARIABLES.sliceQuery IS null)
+              BEGIN
+                 VARIABLES.sliceQuery = loadScript;
+              END
+              ELSE
+              BEGIN
+                 VARIABLES.sliceQuery = sliceQuery || ' UNION ALL ' || loadScript;
+              END
+              slice = slice + 1;
+           END
+           EXECUTE IMMEDIATE 'INSERT INTO ' || matViewStageTable || ' ' || sliceQuery || ' OPTION NOCACHE ' || schemaName || '.' || viewName;
+           rowsUpdated = rowsUpdated + VARIABLES.rowcount;
+           EXECUTE IMMEDIATE updateStmt || ' AND loadNumber = DVARS.loadNumber' USING  loadNumber = VARIABLES.loadNumber, vdbName = VARIABLES.vdbName, vdbVersion = VARIABLES.vdbVersion, schemaName = schemaName, viewName = viewName, updated = now(), LoadState = 'LOADING', valid = VARIABLES.valid AND NOT invalidate, cardinality = VARIABLES.rowsUpdated;
+        END
     	
+    	IF (VARIABLES.afterLoadScript IS NOT null)
+    	BEGIN
+            VARIABLES.index = 1;
+            declare string[] strings = tokenize(VARIABLES.afterLoadScript, ';');
+            VARIABLES.lineCount = array_length(strings);
+            WHILE (index <= lineCount)
+            BEGIN 
+               EXECUTE IMMEDIATE array_get(strings, index);
+               index = index +1;
+            END        
+        END
+        
+        EXECUTE IMMEDIATE updateStmt || ' AND loadNumber = DVARS.loadNumber' USING  loadNumber = VARIABLES.loadNumber, vdbName = VARIABLES.vdbName, vdbVersion = VARIABLES.vdbVersion, schemaName = schemaName, viewName = viewName, updated = now(), LoadState = 'LOADED', valid = true, cardinality = VARIABLES.rowsUpdated;        			
+        VARIABLES.status = 'DONE';
+    EXCEPTION e 
+        EXECUTE IMMEDIATE updateStmt || ' AND loadNumber = DVARS.loadNumber' USING  loadNumber = VARIABLES.loadNumber, vdbName = VARIABLES.vdbName, vdbVersion = VARIABLES.vdbVersion, schemaName = schemaName, viewName = viewName, updated = now(), LoadState = 'FAILED_LOAD', valid = VARIABLES.valid AND NOT invalidate, cardinality = -1;
+        VARIABLES.status = 'FAILED';
+        VARIABLES.rowsUpdated = -3;
+    END
+    ELSE IF(VARIABLES.status = 'LOAD')
+    BEGIN ATOMIC
     	IF (VARIABLES.beforeLoadScript IS NOT null)
     	BEGIN
     	   VARIABLES.index = 1;
@@ -105,6 +105,87 @@ public class TestSTree {
 				
 	}
 	
+	@Test public void testBulkLoad() throws TeiidComponentException, TeiidProcessingException {
+		BufferManagerImpl bm = BufferManagerFactory.createBufferManager();
+		bm.setProcessorBatchSize(4);
+		
+		ElementSymbol e1 = new ElementSymbol("x");
+		e1.setType(Integer.class);
+		ElementSymbol e2 = new ElementSymbol("y");
+		e2.setType(String.class);
+		List<ElementSymbol> elements = Arrays.asList(e1, e2);
+		STree map = bm.createSTree(elements, "1", 1);
+		
+		int size = (1<<16)+(1<<4)+1;
+		
+		STree.BulkLoader loader = map.createBulkLoader();
+		for (int i = 0; i < size; i++) {
+			assertNull(loader.add(Arrays.asList(i*2, String.valueOf(i))));
+		}
+		assertNotNull(loader.add(Arrays.asList(0, "0")));
+		loader.finish();
+		assertEquals(size, map.getRowCount());
+		
+		for (int i = 0; i < size; i++) {
+			assertEquals(String.valueOf(i), map.find(Arrays.asList(i*2)).get(1));
+			assertNull(map.find(Arrays.asList(i*2 + 1)));
+		}
+		
+		//the result should be usable for normal updates
+		assertNull(map.insert(Arrays.asList(1, "a"), InsertMode.NEW, -1));
+		assertNotNull(map.remove(Arrays.asList(0)));
+		
+		TupleBrowser tb = new TupleBrowser(map, null, null, true);
+		assertEquals(Arrays.asList(1, "a"), tb.nextTuple());
+		assertEquals(Arrays.asList(2, "1"), tb.nextTuple());
+	}
+	
+	@Test public void testZoneMaps() throws TeiidComponentException, TeiidProcessingException {
+		BufferManagerImpl bm = BufferManagerFactory.createBufferManager();
+		bm.setProcessorBatchSize(4);
+		
+		ElementSymbol e1 = new ElementSymbol("x");
+		e1.setType(Integer.class);
+		ElementSymbol e2 = new ElementSymbol("y");
+		e2.setType(Integer.class);
+		List<ElementSymbol> elements = Arrays.asList(e1, e2);
+		STree map = bm.createSTree(elements, "1", 1);
+		map.setZoneMaps(true);
+		
+		int size = 1<<12;
+		
+		STree.BulkLoader loader = map.createBulkLoader();
+		for (int i = 0; i < size; i++) {
+			assertNull(loader.add(Arrays.asList(i, size - i)));
+		}
+		loader.finish();
+		//also maintained on insert
+		assertNull(map.insert(Arrays.asList(size, 100), InsertMode.NEW, -1));
+		
+		final int[] skipped = new int[1];
+		TupleBrowser tb = new TupleBrowser(map, null, null, true);
+		tb.setZoneMapFilter(new TupleBrowser.ZoneMapFilter() {
+			
+			@Override
+			public boolean canMatch(Object[] min, Object[] max) {
+				if ((Integer)min[1] > 100 || (Integer)max[1] < 100) {
+					skipped[0]++;
+					return false;
+				}
+				return true;
+			}
+		});
+		int matches = 0;
+		List<?> tuple = null;
+		while ((tuple = tb.nextTuple()) != null) {
+			if (tuple.get(1).equals(100)) {
+				matches++;
+			}
+		}
+		assertEquals(2, matches);
+		assertTrue(skipped[0] > 0);
+	}
+	
 	@Test public void testStorageWrites() throws TeiidComponentException {
 		BufferManagerImpl bm = BufferManagerFactory.createBufferManager();
 		bm.setProcessorBatchSize(32);
@@ -276,6 +276,22 @@ public class TestAuthorizationValidationVisitor {
         helpTest("SELECT e1 FROM pm1.g1", RealMetadataFactory.example1Cached(), new String[] {"pm1.g1.e1", "pm1.g1"}, RealMetadataFactory.example1VDB(), svc, svc1); //$NON-NLS-1$
     }
     
+    @Test public void testPermissionChange() throws Exception {
+    	VDBMetaData vdb = RealMetadataFactory.example1VDB();
+    	DataPolicyMetadata svc = new DataPolicyMetadata();
+    	svc.setName("test"); //$NON-NLS-1$
+    	svc.addPermission(addResource(DataPolicy.PermissionType.READ, "pm1")); //$NON-NLS-1$
+    	
+    	helpTest("SELECT e1 FROM pm1.g1", RealMetadataFactory.example1Cached(), new String[] {}, vdb, svc); //$NON-NLS-1$
+    	
+    	//the cached decisions for the policy should not be used
+    	PermissionMetaData p = addResource(DataPolicy.PermissionType.READ, "pm1.g1"); //$NON-NLS-1$
+    	p.setAllowRead(false);
+    	svc.addPermission(p);
+    	
+    	helpTest("SELECT e1 FROM pm1.g1", RealMetadataFactory.example1Cached(), new String[] {"pm1.g1.e1", "pm1.g1"}, vdb, svc); //$NON-NLS-1$
+    }
+    
     @Test public void testEverythingAccessible1() throws Exception {
         helpTest("SELECT e1 FROM (select e1 from pm1.g1) x", RealMetadataFactory.example1Cached(), new String[] {}, RealMetadataFactory.example1VDB(), exampleAuthSvc1); //$NON-NLS-1$
     }
@@ -25,7 +25,10 @@ package org.teiid.dqp.internal.process;
 import static org.junit.Assert.*;
 
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -104,6 +107,10 @@ public class TestDQPCore {
     private AutoGenDataService agds;
 
     @Before public void setUp() throws Exception {
+    	setUp(false);
+    }
+    
+    private void setUp(boolean semanticResultSetCache) throws Exception {
     	agds = new AutoGenDataService();
         DQPWorkContext context = RealMetadataFactory.buildWorkContext(RealMetadataFactory.createTransformationMetadata(RealMetadataFactory.exampleBQTCached().getMetadataStore(), "bqt"));
         context.getVDB().getModel("BQT3").setVisible(false); //$NON-NLS-1$
@@ -127,6 +134,7 @@ public class TestDQPCore {
         config = new DQPConfiguration();
         config.setMaxActivePlans(1);
         config.setUserRequestSourceConcurrency(2);
+        config.setSemanticResultSetCacheEnabled(semanticResultSetCache);
         DefaultAuthorizationValidator daa = new DefaultAuthorizationValidator();
         daa.setPolicyDecider(new DataRolePolicyDecider());
         config.setAuthorizationValidator(daa);
@@ -154,6 +162,47 @@ public class TestDQPCore {
     	assertEquals(2, core.getUserRequestSourceConcurrency());
     }
 
+    @Test public void testWeightedFairAdmission() throws Exception {
+    	ResourceGroup api = new ResourceGroup("api"); //$NON-NLS-1$
+    	api.setApplicationName("api"); //$NON-NLS-1$
+    	api.setWeight(3);
+    	ResourceGroup adhoc = new ResourceGroup("adhoc"); //$NON-NLS-1$
+    	adhoc.setUserName("analyst"); //$NON-NLS-1$
+    	adhoc.setMaxActivePlans(1);
+    	WorkloadManager wm = new WorkloadManager(Arrays.asList(api, adhoc));
+    	
+    	DQPWorkContext workContext = new DQPWorkContext();
+    	workContext.getSession().setUserName("analyst"); //$NON-NLS-1$
+    	WorkloadManager.Group adhocGroup = wm.getGroup(workContext);
+    	assertSame(adhoc, adhocGroup.config);
+    	workContext.getSession().setApplicationName("api"); //$NON-NLS-1$
+    	WorkloadManager.Group apiGroup = wm.getGroup(workContext);
+    	assertSame(api, apiGroup.config);
+    	
+    	List<RequestWorkItem> adhocItems = new ArrayList<RequestWorkItem>();
+    	for (int i = 0; i < 4; i++) {
+    		RequestWorkItem item = Mockito.mock(RequestWorkItem.class);
+    		item.resourceGroup = i < 2 ? adhocGroup : apiGroup;
+    		if (i < 2) {
+    			adhocItems.add(item);
+    		}
+    		wm.add(item);
+    	}
+    	//the heavier weight api group is admitted ahead of the earlier adhoc plans
+    	assertSame(apiGroup, wm.next().resourceGroup);
+    	assertSame(apiGroup, wm.next().resourceGroup);
+    	RequestWorkItem item = wm.next();
+    	assertSame(adhocItems.get(0), item);
+    	wm.started(item);
+    	//the second adhoc plan must wait for the group cap
+    	assertFalse(wm.canStart(adhocItems.get(1)));
+    	assertNull(wm.next());
+    	assertEquals(1, wm.getWaitingCount());
+    	wm.finished(item);
+    	assertSame(adhocItems.get(1), wm.next());
+    	assertTrue(wm.isEmpty());
+    }
+
     @Test public void testRequest1() throws Exception {
     	helpExecute("SELECT IntKey FROM BQT1.SmallA", "a"); //$NON-NLS-1$ //$NON-NLS-2$
     }
@@ -647,6 +696,36 @@ public class TestDQPCore {
         assertEquals(1, this.core.getRsCache().getCacheHitCount());
     }
     
+    @Test public void testSemanticRsCache() throws Exception {
+        //the semantic cache is created when the core is started
+        core.stop();
+        setUp(true);
+        String sql = "select IntKey, StringKey FROM BQT1.SmallA where StringKey = 'a'"; //$NON-NLS-1$
+        String userName = "1"; //$NON-NLS-1$
+        int sessionid = 1; //$NON-NLS-1$
+        agds.setUseIntCounter(true);
+        RequestMessage reqMsg = exampleRequestMessage(sql);
+        reqMsg.setUseResultSetCache(true);
+        ResultsMessage rm = execute(userName, sessionid, reqMsg);
+        assertEquals(10, rm.getResultsList().size()); //$NON-NLS-1$
+        assertEquals(1, agds.getExecuteCount().get());
+        
+        //answered from the cached results without going back to the source
+        sql = "select count(*) FROM BQT1.SmallA where IntKey < 3 and StringKey = 'a'"; //$NON-NLS-1$
+        reqMsg = exampleRequestMessage(sql);
+        reqMsg.setUseResultSetCache(true);
+        rm = execute(userName, sessionid, reqMsg);
+        assertEquals(Arrays.asList(3), rm.getResultsList().get(0));
+        assertEquals(1, agds.getExecuteCount().get());
+        
+        //not subsumed, a different filter
+        sql = "select count(*) FROM BQT1.SmallA where StringKey = 'b'"; //$NON-NLS-1$
+        reqMsg = exampleRequestMessage(sql);
+        reqMsg.setUseResultSetCache(true);
+        rm = execute(userName, sessionid, reqMsg);
+        assertEquals(2, agds.getExecuteCount().get());
+    }
+    
     @Test public void testLobConcurrency() throws Exception {
     	RequestMessage reqMsg = exampleRequestMessage("select to_bytes(stringkey, 'utf-8') FROM BQT1.SmallA"); 
         reqMsg.setTxnAutoWrapMode(RequestMessage.TXN_WRAP_OFF);
@@ -675,6 +754,23 @@ public class TestDQPCore {
         assertNotNull(t.chunkFuture.get().getBytes());
     }
     
+    @Test public void testPipelinedLobChunks() throws Exception {
+    	RequestMessage reqMsg = exampleRequestMessage("select to_bytes(stringkey, 'utf-8') FROM BQT1.SmallA");
+        reqMsg.setTxnAutoWrapMode(RequestMessage.TXN_WRAP_OFF);
+        ResultsMessage rm = execute("A", 1, reqMsg);
+        BlobType bt = (BlobType)rm.getResultsList().get(0).get(0);
+        ResultsFuture<LobChunk> first = core.requestNextLobChunk(1, reqMsg.getExecutionId(), bt.getReferenceStreamId());
+        ResultsFuture<LobChunk> second = core.requestNextLobChunk(1, reqMsg.getExecutionId(), bt.getReferenceStreamId());
+        ResultsFuture<LobChunk> third = core.requestNextLobChunk(1, reqMsg.getExecutionId(), bt.getReferenceStreamId());
+        LobChunk chunk = first.get();
+        assertTrue(chunk.isLast());
+        assertTrue(chunk.getBytes().length > 0);
+        //the stream should not be restarted by the outstanding requests
+        assertTrue(second.get().isLast());
+        assertEquals(0, second.get().getBytes().length);
+        assertEquals(0, third.get().getBytes().length);
+    }
+
     @Test public void testServerTimeout() throws Exception {
     	RequestMessage reqMsg = exampleRequestMessage("select to_bytes(stringkey, 'utf-8') FROM BQT1.SmallA"); 
         reqMsg.setTxnAutoWrapMode(RequestMessage.TXN_WRAP_OFF);
@@ -29,6 +29,8 @@ import org.junit.Test;
 import org.mockito.Mockito;
 import org.teiid.adminapi.impl.SessionMetadata;
 import org.teiid.cache.Cachable;
+import org.teiid.cache.CacheConfiguration;
+import org.teiid.cache.CacheConfiguration.Policy;
 import org.teiid.cache.DefaultCacheFactory;
 import org.teiid.common.buffer.BufferManager;
 import org.teiid.dqp.internal.process.SessionAwareCache.CacheID;
@@ -164,6 +166,59 @@ public class TestSessionAwareCache {
 		assertNull(cache.get(id));
 	}
 
+	@Test public void testByteBudget() {
+		
+		SessionAwareCache<Cachable> cache = new SessionAwareCache<Cachable>("resultset", DefaultCacheFactory.INSTANCE, SessionAwareCache.Type.RESULTSET, 0);
+		cache.setMaxSizeBytes(1000);
+		
+		Cachable cheap = Mockito.mock(Cachable.class);
+		Mockito.stub(cheap.getSizeEstimate()).toReturn(600l);
+		Mockito.stub(cheap.getCost()).toReturn(10l);
+		Cachable expensive = Mockito.mock(Cachable.class);
+		Mockito.stub(expensive.getSizeEstimate()).toReturn(600l);
+		Mockito.stub(expensive.getCost()).toReturn(1000l);
+		
+		CacheID cheapId = new CacheID(buildWorkContext(), new ParseInfo(), "SELECT * FROM FOO");
+		cache.put(cheapId, Determinism.SESSION_DETERMINISTIC, cheap, null);
+		CacheID expensiveId = new CacheID(buildWorkContext(), new ParseInfo(), "SELECT * FROM BAR");
+		cache.put(expensiveId, Determinism.SESSION_DETERMINISTIC, expensive, null);
+		
+		//the cheaper to recompute entry is evicted even though it was added first
+		assertEquals(600, cache.getTotalCacheBytes());
+		assertNull(cache.get(new CacheID(buildWorkContext(), new ParseInfo(), "SELECT * FROM FOO")));
+		assertSame(expensive, cache.get(new CacheID(buildWorkContext(), new ParseInfo(), "SELECT * FROM BAR")));
+		assertEquals(100/3d, cache.getByteHitRatio(), .001);
+		
+		cache.remove(expensiveId, Determinism.SESSION_DETERMINISTIC);
+		assertEquals(0, cache.getTotalCacheBytes());
+	}
+
+	@Test public void testUnderlyingEviction() {
+		//the underlying cache only holds 2 entries
+		SessionAwareCache<Cachable> cache = new SessionAwareCache<Cachable>("resultset", new DefaultCacheFactory(new CacheConfiguration(Policy.LRU, 60*60, 2, "default")), SessionAwareCache.Type.RESULTSET, 0);
+		cache.setMaxSizeBytes(1000);
+		
+		Cachable[] entries = new Cachable[3];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = Mockito.mock(Cachable.class);
+			Mockito.stub(entries[i].getSizeEstimate()).toReturn(400l);
+			Mockito.stub(entries[i].getCost()).toReturn(10l);
+			cache.put(new CacheID(buildWorkContext(), new ParseInfo(), "SELECT " + i), Determinism.SESSION_DETERMINISTIC, entries[i], null);
+		}
+		
+		//the bytes of the entry dropped by the underlying cache are reconciled rather than evicting a live entry
+		assertEquals(800, cache.getTotalCacheBytes());
+		assertSame(entries[1], cache.get(new CacheID(buildWorkContext(), new ParseInfo(), "SELECT 1")));
+		assertSame(entries[2], cache.get(new CacheID(buildWorkContext(), new ParseInfo(), "SELECT 2")));
+		
+		//a miss also drops the weight
+		cache.setMaxSizeBytes(-1);
+		cache.put(new CacheID(buildWorkContext(), new ParseInfo(), "SELECT 0"), Determinism.SESSION_DETERMINISTIC, entries[0], null);
+		assertEquals(1200, cache.getTotalCacheBytes());
+		assertNull(cache.get(new CacheID(buildWorkContext(), new ParseInfo(), "SELECT 1")));
+		assertEquals(800, cache.getTotalCacheBytes());
+	}
+
 	public static DQPWorkContext buildWorkContext() {
 		DQPWorkContext workContext = new DQPWorkContext();
 		SessionMetadata session = new SessionMetadata();
@@ -762,6 +762,19 @@ public class TestCalculateCostUtil {
         assertEquals(cost, plan.getRootNode().getEstimateNodeCardinality());
 	}
     
+    @Test public void testDependentKeySetCost() {
+    	PlanNode accessNode = NodeFactory.getNewNode(NodeConstants.Types.ACCESS);
+    	float[] inList = NewCalculateCostUtil.estimateCost(accessNode, 100, false, true, 1000000, 10000, 1000000, 1000000);
+    	float[] keySet = NewCalculateCostUtil.estimateCost(accessNode, 100, true, true, 1000000, 10000, 1000000, 1000000);
+    	assertEquals(inList[0], keySet[0], 0);
+    	//100 source queries vs. a single query and a bulk load of 10000 keys
+    	assertEquals(89, inList[1] - keySet[1], .1);
+    	//a single in predicate is still used when the keys fit
+    	keySet = NewCalculateCostUtil.estimateCost(accessNode, 100, true, true, 1000000, 50, 1000000, 1000000);
+    	inList = NewCalculateCostUtil.estimateCost(accessNode, 100, false, true, 1000000, 50, 1000000, 1000000);
+    	assertEquals(inList[1], keySet[1], 0);
+    }
+    
     @Test public void testUnion() throws Exception {
     	helpTestSetOp("UNION ", 1375000.0f); //$NON-NLS-1$
     }
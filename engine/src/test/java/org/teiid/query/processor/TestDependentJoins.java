@@ -44,6 +44,7 @@ import org.teiid.query.optimizer.capabilities.BasicSourceCapabilities;
 import org.teiid.query.optimizer.capabilities.DefaultCapabilitiesFinder;
 import org.teiid.query.optimizer.capabilities.FakeCapabilitiesFinder;
 import org.teiid.query.optimizer.capabilities.SourceCapabilities.Capability;
+import org.teiid.query.processor.relational.DependentAccessNode;
 import org.teiid.query.processor.relational.JoinNode;
 import org.teiid.query.processor.relational.RelationalNode;
 import org.teiid.query.processor.relational.RelationalPlan;
@@ -1195,6 +1196,62 @@ public class TestDependentJoins {
         assertNull(s.getDependentValues());
 	}
 	
+    /**
+     * over the max the values are not sent to the source, but are still used to filter the dependent rows
+     */
+    @Test public void testFilterOverMax() throws Exception {
+        String sql = "SELECT pm1.g1.e1, pm2.g1.e2 FROM pm1.g1, pm2.g1 MAKEDEP(max:2) WHERE pm1.g1.e1 = pm2.g1.e1 order by pm2.g1.e2"; //$NON-NLS-1$
+        
+        List<?>[] expected = new List<?>[] { 
+            Arrays.asList("b", 0), //$NON-NLS-1$
+            Arrays.asList("b", 7), //$NON-NLS-1$
+        };    
+        
+        QueryMetadataInterface metadata = RealMetadataFactory.example1Cached();
+        FakeDataManager dataManager = new FakeDataManager();
+        dataManager.registerTuples(metadata, "pm1.g1", new List<?>[] { //$NON-NLS-1$
+        		Arrays.asList("a", 0, false, 2.0), //$NON-NLS-1$
+        		Arrays.asList("b", 1, true, null), //$NON-NLS-1$
+        		Arrays.asList("c", 2, false, 0.0), //$NON-NLS-1$
+        });
+        dataManager.registerTuples(metadata, "pm2.g1", new List<?>[] { //$NON-NLS-1$
+        		Arrays.asList("b", 0, false, 2.0), //$NON-NLS-1$
+        		Arrays.asList("b", 7, false, 2.0), //$NON-NLS-1$
+        		Arrays.asList("d", 3, true, 7.0), //$NON-NLS-1$
+        		Arrays.asList(null, 1, true, null),
+        });
+        
+        DefaultCapabilitiesFinder dcf = new DefaultCapabilitiesFinder(TestOptimizer.getTypicalCapabilities());
+        ProcessorPlan plan = TestProcessor.helpGetPlan(sql, metadata, dcf);
+        TestOptimizer.checkDependentJoinCount(plan, 1);
+
+        CommandContext cc = TestProcessor.createCommandContext();
+        cc.setCollectNodeStatistics(true);
+        TestProcessor.doProcess(plan, dataManager, expected, cc);
+        //the values were not pushed to the source
+        for (String query : dataManager.getQueries()) {
+        	assertFalse(query, query.contains(" IN ")); //$NON-NLS-1$
+        }
+        //but the null and non-matching dependent rows are removed before the join
+        DependentAccessNode dan = findDependentAccessNode(((RelationalPlan)plan).getRootNode());
+        assertEquals(2, dan.getNodeStatistics().getNodeOutputRows());
+	}
+    
+    private static DependentAccessNode findDependentAccessNode(RelationalNode node) {
+    	if (node instanceof DependentAccessNode) {
+    		return (DependentAccessNode)node;
+    	}
+    	for (RelationalNode child : node.getChildren()) {
+    		if (child != null) {
+    			DependentAccessNode result = findDependentAccessNode(child);
+    			if (result != null) {
+    				return result;
+    			}
+    		}
+    	}
+    	return null;
+    }
+	
     @Test public void testFullDepJoin() throws Exception {
     	BasicSourceCapabilities caps = TestOptimizer.getTypicalCapabilities();
     	caps.setCapabilitySupport(Capability.FULL_DEPENDENT_JOIN, true);
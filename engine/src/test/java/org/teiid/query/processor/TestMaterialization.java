@@ -46,7 +46,9 @@ import org.teiid.query.optimizer.capabilities.CapabilitiesFinder;
 import org.teiid.query.optimizer.capabilities.DefaultCapabilitiesFinder;
 import org.teiid.query.optimizer.relational.RelationalPlanner;
 import org.teiid.query.tempdata.GlobalTableStoreImpl;
+import org.teiid.query.tempdata.GlobalTableStoreImpl.MatState;
 import org.teiid.query.tempdata.GlobalTableStoreImpl.MatTableInfo;
+import org.teiid.query.tempdata.TempTable;
 import org.teiid.query.tempdata.TempTableDataManager;
 import org.teiid.query.tempdata.TempTableStore;
 import org.teiid.query.tempdata.TempTableStore.TransactionMode;
@@ -116,6 +118,48 @@ public class TestMaterialization {
 		this.globalStore.setState(codeTableName, new ByteArrayInputStream(baos.toByteArray()));
 	}
 	
+	@Test public void testDeltaReplication() throws Exception {
+		execute("SELECT * from vgroup3 where x = 'one'", Arrays.asList("one", "zne"));
+		String matTableName = RelationalPlanner.MAT_PREFIX + "MATVIEW.VGROUP3";
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		this.globalStore.getState(matTableName, baos);
+		TransformationMetadata actualMetadata = RealMetadataFactory.exampleMaterializedView();
+		GlobalTableStoreImpl replica = new GlobalTableStoreImpl(BufferManagerFactory.getStandaloneBufferManager(), actualMetadata.getVdbMetaData(), actualMetadata);
+		replica.setState(matTableName, new ByteArrayInputStream(baos.toByteArray()));
+		assertEquals(4, replica.getTempTable(matTableName).getRowCount());
+		
+		//simulate a reload that adds a row
+		TempTable table = this.globalStore.getTempTable(matTableName).clone();
+		table.insert(new CollectionTupleSource(Arrays.asList(Arrays.asList("four", "zour")).iterator()), table.getColumns(), false, null);
+		this.globalStore.loaded(matTableName, table);
+		baos = new ByteArrayOutputStream();
+		this.globalStore.getState(matTableName, baos);
+		byte[] delta = baos.toByteArray();
+		replica.setState(matTableName, new ByteArrayInputStream(delta));
+		assertEquals(5, replica.getTempTable(matTableName).getRowCount());
+		assertTrue(replica.getMatTableInfo(matTableName).isValid());
+		
+		//a member without the base should invalidate rather than apply
+		GlobalTableStoreImpl other = new GlobalTableStoreImpl(BufferManagerFactory.getStandaloneBufferManager(), actualMetadata.getVdbMetaData(), actualMetadata);
+		other.setState(matTableName, new ByteArrayInputStream(delta));
+		assertFalse(other.getMatTableInfo(matTableName).isValid());
+		assertEquals(MatState.NEEDS_LOADING, other.getMatTableInfo(matTableName).getState());
+		assertNull(other.pullTable(matTableName));
+		
+		//the base is only used once, so the pulled state is the full table
+		baos = new ByteArrayOutputStream();
+		this.globalStore.getState(matTableName, baos);
+		other.setState(matTableName, new ByteArrayInputStream(baos.toByteArray()));
+		assertEquals(5, other.getTempTable(matTableName).getRowCount());
+		assertTrue(other.getMatTableInfo(matTableName).isValid());
+		assertNotNull(other.pullTable(matTableName));
+		
+		//the delta should not be applied again
+		replica.setState(matTableName, new ByteArrayInputStream(delta));
+		assertNull(replica.getTempTable(matTableName));
+		assertNull(replica.pullTable(matTableName));
+	}
+	
     @Test(expected=TeiidProcessingException.class) public void testCodeTableResponseException() throws Exception {
     	//duplicate key
     	execute("select lookup('mattable.info', 'e2', 'e1', 'a')");
@@ -162,6 +206,20 @@ public class TestMaterialization {
 		execute("SELECT * from vgroup5 where y is null and z = 2");
 	}
 	
+	@Test public void testIncludeColumnsSecondaryIndex() throws Exception {
+		execute("SELECT y, z from vgroup8 where y in ('zne', 'zwo') and z = 1 order by y desc", Arrays.asList("zwo", 1), Arrays.asList("zne", 1));
+		execute("SELECT x, y, z from vgroup8 where y is null", Arrays.asList(null, null, 1));
+		
+		//the include columns should survive replication
+		String matTableName = RelationalPlanner.MAT_PREFIX + "MATVIEW.VGROUP8";
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		this.globalStore.getState(matTableName, baos);
+		this.globalStore.failedLoad(matTableName);
+		this.globalStore.setState(matTableName, new ByteArrayInputStream(baos.toByteArray()));
+		execute("SELECT y, z from vgroup8 where y in ('zne', 'zwo') and z = 1 order by y desc", Arrays.asList("zwo", 1), Arrays.asList("zne", 1));
+		assertEquals(1, hdm.getCommandHistory().size());
+	}
+	
 	@Test public void testNonCoveringSecondaryIndexWithoutPrimaryKey() throws Exception {
 		execute("SELECT * from vgroup6 where y in ('zne', 'zwo') order by y desc", Arrays.asList("two", "zwo"), Arrays.asList("one", "zne"));
 		execute("SELECT * from vgroup6 where y is null", Arrays.asList((String)null, (String)null));
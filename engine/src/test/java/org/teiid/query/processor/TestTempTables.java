@@ -44,6 +44,7 @@ import org.teiid.api.exception.query.QueryResolverException;
 import org.teiid.cache.DefaultCacheFactory;
 import org.teiid.common.buffer.BufferManager;
 import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.TupleSource;
 import org.teiid.core.TeiidProcessingException;
 import org.teiid.dqp.internal.process.CachedResults;
 import org.teiid.dqp.internal.process.SessionAwareCache;
@@ -55,6 +56,7 @@ import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.optimizer.TestOptimizer;
 import org.teiid.query.optimizer.TestOptimizer.ComparisonMode;
 import org.teiid.query.tempdata.GlobalTableStoreImpl;
+import org.teiid.query.tempdata.TempTable;
 import org.teiid.query.tempdata.TempTableDataManager;
 import org.teiid.query.unittest.RealMetadataFactory;
 
@@ -172,6 +174,33 @@ public class TestTempTables extends TempTableTestHarness {
 		synch.afterCompletion(Status.STATUS_COMMITTED);
 	}
 
+	@Test public void testSnapshotReads() throws Exception {
+		GlobalTableStoreImpl gtsi = new GlobalTableStoreImpl(BufferManagerFactory.getStandaloneBufferManager(), RealMetadataFactory.example1Cached().getVdbMetaData(), RealMetadataFactory.example1Cached());
+		tempStore = gtsi.getTempTableStore();
+		metadata = new TempMetadataAdapter(RealMetadataFactory.example1Cached(), tempStore.getMetadataStore());
+		execute("create local temporary table x (e1 string, e2 integer)", new List[] {Arrays.asList(0)}); //$NON-NLS-1$
+		execute("insert into x (e2, e1) select e2, e1 from pm1.g1", new List[] {Arrays.asList(6)}); //$NON-NLS-1$
+		TempTable table = gtsi.getTempTable("X");
+		TupleSource ts = table.createSnapshotTupleSource(table.getColumns(), null, null);
+		
+		//the open reader forces the update to a new version
+		gtsi.updateMatViewRow("X", Arrays.asList(2), true);
+		assertNotSame(table, gtsi.getTempTable("X"));
+		int count = 0;
+		while (ts.nextTuple() != null) {
+			count++;
+		}
+		ts.closeSource();
+		assertEquals(6, count);
+		execute("select count(*) from x", new List[] {Arrays.asList(5)});
+		
+		//without readers the update is in place
+		table = gtsi.getTempTable("X");
+		gtsi.updateMatViewRow("X", Arrays.asList(3), true);
+		assertSame(table, gtsi.getTempTable("X"));
+		assertEquals(4, table.getRowCount());
+	}
+
 	private void setupTransaction(int isolation) throws RollbackException, SystemException {
 		txn = Mockito.mock(Transaction.class);
 		Mockito.doAnswer(new Answer<Void>() {
@@ -296,6 +325,19 @@ public class TestTempTables extends TempTableTestHarness {
 		execute("select * from x as y where e2 in (3, 2) order by e2 desc", new List[] {Arrays.asList("one", 3), Arrays.asList("one", 2)}); //$NON-NLS-1$
 	}
 	
+	@Test public void testMinMax() throws Exception {
+		execute("create local temporary table x (e1 string, e2 integer, primary key (e2))", new List[] {Arrays.asList(0)}); //$NON-NLS-1$
+		execute("insert into x (e2, e1) values (3, 'a')", new List[] {Arrays.asList(1)}); //$NON-NLS-1$
+		execute("insert into x (e2, e1) values (2, 'b')", new List[] {Arrays.asList(1)}); //$NON-NLS-1$
+		execute("insert into x (e2, e1) values (5, null)", new List[] {Arrays.asList(1)}); //$NON-NLS-1$
+		//from the ends of the primary key
+		execute("select min(e2), max(e2), count(*) from x", new List[] {Arrays.asList(2, 5, 3)}); //$NON-NLS-1$
+		//requires a scan
+		execute("select min(e1), max(e1) from x", new List[] {Arrays.asList("a", "b")}); //$NON-NLS-1$
+		execute("select max(e1), count(*) from x where e2 > 2", new List[] {Arrays.asList("a", 2)}); //$NON-NLS-1$
+		execute("select max(e1) from x where e2 > 5", new List[] {Arrays.asList((String)null)}); //$NON-NLS-1$
+	}
+	
 	@Test public void testOrderByWithoutIndex() throws Exception {
 		execute("create local temporary table x (e1 string, e2 integer, primary key (e2))", new List[] {Arrays.asList(0)}); //$NON-NLS-1$
 		execute("insert into x (e2, e1) values (3, 'a')", new List[] {Arrays.asList(1)}); //$NON-NLS-1$
@@ -578,4 +620,42 @@ public class TestTempTables extends TempTableTestHarness {
 		execute("select x.e1 from x inner join /*+ makeind */ x1 on x.e3 = x1.e3 and x.e2 = x1.e2", new List[] {Arrays.asList("2"), Arrays.asList("1")}); //$NON-NLS-1$
 	}
 	
+	/**
+	 * Range predicates over an internal materialized table large enough to span several pages
+	 * should return the same rows whether or not the page zone maps are used to skip pages
+	 */
+	@Test public void testZoneMapRangeQuery() throws Exception {
+		TransformationMetadata tm = RealMetadataFactory.fromDDL("create foreign table t (x integer, y string); "
+				+ "create view v (x integer, y string) options (materialized true) as select x, y from t", "x", "m");
+		FakeDataManager fdm = new FakeDataManager();
+		List<?>[] rows = new List<?>[2500];
+		for (int i = 0; i < 2000; i++) {
+			rows[i] = Arrays.asList(i % 10 == 0 ? null : i, String.valueOf(i));
+		}
+		//trailing pages with only null x values
+		for (int i = 2000; i < rows.length; i++) {
+			rows[i] = Arrays.asList(null, String.valueOf(i));
+		}
+		fdm.registerTuples(tm, "m.t", rows);
+		setUp(tm, fdm);
+		
+		execute("select count(*) from v", new List[] {Arrays.asList(2500)}); //$NON-NLS-1$
+		execute("select count(*) from v where x >= 1500 and x < 1600", new List[] {Arrays.asList(90)}); //$NON-NLS-1$
+		execute("select x from v where x <= 5 order by x", new List[] {Arrays.asList(1), Arrays.asList(2), Arrays.asList(3), Arrays.asList(4), Arrays.asList(5)}); //$NON-NLS-1$
+		execute("select x from v where x > 1996", new List[] {Arrays.asList(1997), Arrays.asList(1998), Arrays.asList(1999)}); //$NON-NLS-1$
+		execute("select count(*) from v where x <> 5 and x < 10", new List[] {Arrays.asList(8)}); //$NON-NLS-1$
+		execute("select count(*) from v where x > 2000", new List[] {Arrays.asList(0)}); //$NON-NLS-1$
+		
+		//null predicates
+		execute("select count(*) from v where x is null", new List[] {Arrays.asList(700)}); //$NON-NLS-1$
+		execute("select count(*) from v where x = null", new List[] {Arrays.asList(0)}); //$NON-NLS-1$
+		execute("select count(*) from v where x is null and y like '249_'", new List[] {Arrays.asList(10)}); //$NON-NLS-1$
+		
+		//mixed type predicates
+		execute("select x from v where x > 1996.5", new List[] {Arrays.asList(1997), Arrays.asList(1998), Arrays.asList(1999)}); //$NON-NLS-1$
+		execute("select x from v where x = '1501'", new List[] {Arrays.asList(1501)}); //$NON-NLS-1$
+		execute("select x from v where x between 1501 and 1503.0", new List[] {Arrays.asList(1501), Arrays.asList(1502), Arrays.asList(1503)}); //$NON-NLS-1$
+		execute("select count(*) from v where x >= 1500 and y < '1510'", new List[] {Arrays.asList(9)}); //$NON-NLS-1$
+	}
+	
 }
@@ -30,12 +30,18 @@ import java.util.List;
 
 import org.junit.Test;
 import org.teiid.api.exception.query.QueryProcessingException;
+import org.teiid.common.buffer.BlockedException;
+import org.teiid.common.buffer.TupleSource;
+import org.teiid.core.TeiidComponentException;
 import org.teiid.metadata.Table;
 import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.optimizer.TestOptimizer;
 import org.teiid.query.optimizer.capabilities.BasicSourceCapabilities;
 import org.teiid.query.optimizer.capabilities.DefaultCapabilitiesFinder;
+import org.teiid.query.optimizer.capabilities.SourceCapabilities.Capability;
 import org.teiid.query.resolver.TestResolver;
+import org.teiid.query.sql.lang.BatchedUpdateCommand;
+import org.teiid.query.sql.lang.Command;
 import org.teiid.query.util.CommandContext;
 import org.teiid.query.validator.TestUpdateValidator;
 
@@ -248,4 +254,67 @@ public class TestTriggerActions {
     	assertEquals("UPDATE pm1.g1 SET e2 = 1 WHERE e2 = 2", dm.getQueries().get(0));
 	}
     
+	@Test public void testUpdateBatched() throws Exception {
+		TransformationMetadata metadata = TestUpdateValidator.example1();
+		TestUpdateValidator.createView("select 1 as x, 2 as y union all select 2 as x, 3 as y", metadata, GX);
+		Table t = metadata.getMetadataStore().getSchemas().get(VM1).getTables().get(GX);
+		t.setDeletePlan("");
+		t.setUpdatePlan("FOR EACH ROW BEGIN update pm1.g1 set e2 = new.y where e2 = old.y; delete from pm1.g2 where e2 = old.x; END");
+		t.setInsertPlan("");
+		
+		String sql = "update gx set y = 5";
+		
+		HardcodedDataManager dm = new HardcodedDataManager();
+		dm.setFullBatchedUpdate(true);
+		
+		CommandContext context = createCommandContext();
+        BasicSourceCapabilities caps = TestOptimizer.getTypicalCapabilities();
+        caps.setCapabilitySupport(Capability.BATCHED_UPDATES, true);
+        ProcessorPlan plan = TestProcessor.helpGetPlan(TestResolver.helpResolve(sql, metadata), metadata, new DefaultCapabilitiesFinder(caps), context);
+        List<?>[] expected = new List[] {Arrays.asList(2)};
+    	helpProcess(plan, context, dm, expected);
+    	assertEquals(1, dm.getCommandHistory().size());
+    	BatchedUpdateCommand buc = (BatchedUpdateCommand)dm.getCommandHistory().get(0);
+    	assertEquals("UPDATE pm1.g1 SET e2 = 5 WHERE e2 = 2;\nDELETE FROM pm1.g2 WHERE e2 = 1;\nUPDATE pm1.g1 SET e2 = 5 WHERE e2 = 3;\nDELETE FROM pm1.g2 WHERE e2 = 2", buc.getStringForm(true));
+	}
+    
+	@Test public void testUpdateBatchedBlocked() throws Exception {
+		TransformationMetadata metadata = TestUpdateValidator.example1();
+		TestUpdateValidator.createView("select 1 as x, 2 as y union all select 2 as x, 3 as y", metadata, GX);
+		Table t = metadata.getMetadataStore().getSchemas().get(VM1).getTables().get(GX);
+		t.setDeletePlan("");
+		t.setUpdatePlan("FOR EACH ROW BEGIN update pm1.g1 set e2 = new.y where e2 = old.y; END");
+		t.setInsertPlan("");
+		
+		String sql = "update gx set y = 5";
+		
+		HardcodedDataManager dm = new HardcodedDataManager() {
+			private boolean blocked;
+			
+			@Override
+			public TupleSource registerRequest(CommandContext context,
+					Command command, String modelName,
+					RegisterRequestParameter parameterObject)
+					throws TeiidComponentException {
+				if (command instanceof BatchedUpdateCommand && !blocked) {
+					blocked = true;
+					throw BlockedException.INSTANCE;
+				}
+				return super.registerRequest(context, command, modelName, parameterObject);
+			}
+		};
+		dm.setFullBatchedUpdate(true);
+		
+		CommandContext context = createCommandContext();
+        BasicSourceCapabilities caps = TestOptimizer.getTypicalCapabilities();
+        caps.setCapabilitySupport(Capability.BATCHED_UPDATES, true);
+        ProcessorPlan plan = TestProcessor.helpGetPlan(TestResolver.helpResolve(sql, metadata), metadata, new DefaultCapabilitiesFinder(caps), context);
+        List<?>[] expected = new List[] {Arrays.asList(2)};
+    	helpProcess(plan, context, dm, expected);
+    	//the batch must survive the blocked registration
+    	assertEquals(1, dm.getCommandHistory().size());
+    	BatchedUpdateCommand buc = (BatchedUpdateCommand)dm.getCommandHistory().get(0);
+    	assertEquals("UPDATE pm1.g1 SET e2 = 5 WHERE e2 = 2;\nUPDATE pm1.g1 SET e2 = 5 WHERE e2 = 3", buc.getStringForm(true));
+	}
+    
 }
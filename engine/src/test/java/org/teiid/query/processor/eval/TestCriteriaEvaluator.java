@@ -344,6 +344,23 @@ public class TestCriteriaEvaluator {
         helpTestMatch("\\", "\\%", MatchCriteria.NULL_ESCAPE_CHAR, true); //$NON-NLS-1$ //$NON-NLS-2$
     }
     
+    @Test public void testMatchSegments() throws Exception {
+        helpTestMatch("abcdefgabcdxefg", "a%cdxe%g", MatchCriteria.NULL_ESCAPE_CHAR, true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestMatch("abcdefg", "%bcdef%", MatchCriteria.NULL_ESCAPE_CHAR, true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestMatch("abcdefg", "ab%bcd%", MatchCriteria.NULL_ESCAPE_CHAR, false); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestMatch("aba", "ab%ba", MatchCriteria.NULL_ESCAPE_CHAR, false); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestMatch("a_c", "a_c", MatchCriteria.NULL_ESCAPE_CHAR, true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestMatch("a\ud83d\ude00c", "a_c", MatchCriteria.NULL_ESCAPE_CHAR, true); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    
+    /**
+     * The regex form allows a trailing line terminator
+     */
+    @Test public void testMatchTrailingNewLine() throws Exception {
+        helpTestMatch("abc\n", "abc", MatchCriteria.NULL_ESCAPE_CHAR, true); //$NON-NLS-1$ //$NON-NLS-2$
+        helpTestMatch("abc\n", "%c", MatchCriteria.NULL_ESCAPE_CHAR, true); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+    
     @Test public void testSetCriteria1() throws Exception {
         helpTestSetCriteria(1000, false, true);
     }
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+
+package org.teiid.query.processor.relational;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.teiid.core.types.DataTypeManager;
+
+@SuppressWarnings("nls")
+public class TestBloomFilter {
+
+	@Test public void testNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(1000, .01);
+		for (int i = 0; i < 1000; i++) {
+			filter.add(i * 31);
+			filter.add("value" + i);
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(filter.mightContain(i * 31));
+			assertTrue(filter.mightContain("value" + i));
+		}
+	}
+	
+	@Test public void testFalsePositiveRate() {
+		BloomFilter filter = new BloomFilter(1000, .01);
+		for (int i = 0; i < 1000; i++) {
+			filter.add(i);
+		}
+		int falsePositives = 0;
+		for (int i = 1000; i < 101000; i++) {
+			if (filter.mightContain(i)) {
+				falsePositives++;
+			}
+		}
+		//should be near 1%
+		assertTrue(String.valueOf(falsePositives), falsePositives < 2000);
+	}
+	
+	@Test public void testSizing() {
+		//-n ln(p) / ln(2)^2 bits, rounded up to whole longs
+		assertEquals(9600, new BloomFilter(1000, .01).getNumBits());
+		//at least a single long
+		assertEquals(64, new BloomFilter(1, .01).getNumBits());
+		assertEquals(64, new BloomFilter(0, .01).getNumBits());
+		//capped at 8MB
+		assertEquals(1 << 26, new BloomFilter(100000000, .01).getNumBits());
+	}
+	
+	@Test public void testCanFilter() {
+		assertTrue(BloomFilter.canFilter(DataTypeManager.DefaultDataClasses.INTEGER));
+		assertTrue(BloomFilter.canFilter(DataTypeManager.DefaultDataClasses.TIMESTAMP));
+		assertFalse(BloomFilter.canFilter(DataTypeManager.DefaultDataClasses.BIG_DECIMAL));
+		assertFalse(BloomFilter.canFilter(DataTypeManager.DefaultDataClasses.OBJECT));
+		assertFalse(BloomFilter.canFilter(DataTypeManager.DefaultDataClasses.CLOB));
+	}
+
+}
@@ -30,6 +30,7 @@ import java.util.List;
 
 import org.junit.Test;
 import org.teiid.common.buffer.BufferManagerFactory;
+import org.teiid.common.buffer.BufferUsage;
 import org.teiid.common.buffer.TupleBatch;
 import org.teiid.core.TeiidComponentException;
 import org.teiid.core.TeiidProcessingException;
@@ -86,6 +87,27 @@ public class TestRelationalNodeStatistics {
     	assertEquals(700, stats.getNodeNextBatchProcessingTime());
     }
 
+    @Test public void testBufferUsage() {
+    	BufferUsage usage = new BufferUsage();
+    	RelationalNodeStatistics stats = new RelationalNodeStatistics(usage);
+    	stats.startBatchTimer();
+    	usage.addReservedBytes(100);
+    	usage.addSpilledBytes(50);
+    	usage.batchRead();
+    	stats.stopBatchTimer();
+    	stats.startBatchTimer();
+    	usage.addReservedBytes(-100);
+    	stats.stopBatchTimer();
+    	//activity outside of the node is not counted
+    	usage.addReservedBytes(500);
+    	usage.addSpilledBytes(50);
+    	assertEquals(100, stats.getNodePeakReservedBytes());
+    	assertEquals(50, stats.getNodeSpilledBytes());
+    	assertEquals(1, stats.getNodeBatchesRead());
+    	assertEquals(500, usage.getPeakReservedBytes());
+    	assertTrue(stats.getStatisticsList().contains("Node Cumulative Spilled Bytes: 50"));
+    }
+
     @Test public void testDescriptionProperties() throws Exception {
         List[] data = createData(1000);
         FakeRelationalNode fakeNode = createFakeNode(data);
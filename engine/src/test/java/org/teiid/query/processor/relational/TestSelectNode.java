@@ -46,7 +46,10 @@ import org.teiid.query.processor.FakeDataManager;
 import org.teiid.query.processor.ProcessorDataManager;
 import org.teiid.query.processor.QueryProcessor;
 import org.teiid.query.sql.lang.CompareCriteria;
+import org.teiid.query.sql.lang.CompoundCriteria;
 import org.teiid.query.sql.lang.Criteria;
+import org.teiid.query.sql.lang.IsNullCriteria;
+import org.teiid.query.sql.lang.SetCriteria;
 import org.teiid.query.sql.symbol.Constant;
 import org.teiid.query.sql.symbol.ElementSymbol;
 import org.teiid.query.sql.symbol.Expression;
@@ -144,7 +147,8 @@ public class TestSelectNode {
         List elements = new ArrayList();
         elements.add(es1);
         
-        CompareCriteria crit = new CompareCriteria(es1, CompareCriteria.EQ, new Constant(new Integer(1)));
+        //use criteria that is evaluated a row at a time
+        SetCriteria crit = new SetCriteria(es1, Arrays.asList(new Constant(new Integer(1))));
         
         List[] data = new List[] {
         	Arrays.asList(1),
@@ -233,6 +237,39 @@ public class TestSelectNode {
 
     }
 
+    @Test public void testBatchFilter() throws TeiidComponentException, TeiidProcessingException {
+        ElementSymbol es1 = new ElementSymbol("e1"); //$NON-NLS-1$
+        es1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+
+        ElementSymbol es2 = new ElementSymbol("e2"); //$NON-NLS-1$
+        es2.setType(DataTypeManager.DefaultDataClasses.STRING);
+        
+        List elements = new ArrayList();
+        elements.add(es1);
+        elements.add(es2);
+        
+        IsNullCriteria isNull = new IsNullCriteria(es2);
+        isNull.setNegated(true);
+        Criteria crit = new CompoundCriteria(CompoundCriteria.AND, new CompareCriteria(es1, CompareCriteria.GE, new Constant(new Integer(2))), isNull);
+        
+        List[] data = new List[] {
+        	Arrays.asList(1, "a"),
+        	Arrays.asList(2, "b"),
+        	Arrays.asList(null, "c"),
+        	Arrays.asList(3, null),
+        	Arrays.asList(4, "d"),
+        	Arrays.asList(5, "e"),
+        };
+        
+        List[] expected = new List[] {
+        	Arrays.asList(2, "b"),
+        	Arrays.asList(4, "d"),
+        	Arrays.asList(5, "e"),
+        };
+        
+        helpTestSelect(elements, crit, data, elements, null, expected);
+    }
+
     @Test public void testSelectWithLookup() throws TeiidComponentException, TeiidProcessingException {
         ElementSymbol es1 = new ElementSymbol("e1"); //$NON-NLS-1$
         es1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
@@ -25,10 +25,12 @@ package org.teiid.query.processor.relational;
 import static org.junit.Assert.*;
 import static org.teiid.query.optimizer.TestOptimizer.*;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.TreeSet;
 
 import org.junit.Test;
@@ -196,6 +198,36 @@ public class TestSortNode {
         assertNull(data[2].get(0));
     }
         
+    @Test public void testNormalizedKeySort() {
+    	Random r = new Random(1);
+    	String[] strings = new String[] {"", "a", "a\u0000", "ab", "b", "\u0100", null}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+    	Double[] doubles = new Double[] {-1.5, -0.0, 0.0, 2.0, Double.NaN, Double.NEGATIVE_INFINITY, null};
+    	List<List<?>> data = new ArrayList<List<?>>();
+    	for (int i = 0; i < 500; i++) {
+    		Integer intValue = r.nextInt(5) == 0 ? null : r.nextInt(7) - 3;
+    		Timestamp ts = new Timestamp(r.nextInt(3) - 1);
+    		ts.setNanos(r.nextInt(3));
+    		data.add(Arrays.asList(intValue, strings[r.nextInt(strings.length)], doubles[r.nextInt(doubles.length)], ts, i));
+    	}
+    	for (NullOrdering nullOrdering : new NullOrdering[] {null, NullOrdering.FIRST, NullOrdering.LAST}) {
+    		ListNestedSortComparator comparator = new ListNestedSortComparator(new int[] {0, 1, 2, 3}, Arrays.asList(true, false, true, false));
+    		comparator.setNullOrdering(Collections.nCopies(4, nullOrdering));
+    		List<List<?>> expected = new ArrayList<List<?>>(data);
+    		Collections.sort(expected, comparator);
+    		List<List<?>> actual = new ArrayList<List<?>>(data);
+    		assertTrue(comparator.sortByNormalizedKeys(actual));
+    		assertEquals(expected, actual);
+    	}
+    	ListNestedSortComparator comparator = new ListNestedSortComparator(new int[] {4});
+    	assertTrue(comparator.sortByNormalizedKeys(data));
+    	assertTrue(comparator.isDistinct());
+    	comparator = new ListNestedSortComparator(new int[] {0});
+    	assertTrue(comparator.sortByNormalizedKeys(data));
+    	assertFalse(comparator.isDistinct());
+    	data.add(Arrays.asList(new Object[] {new Object()}));
+    	assertFalse(comparator.sortByNormalizedKeys(data));
+    }
+        
     @Test public void testNoSort() throws Exception {
         helpTestAllSorts(0);
     }    
@@ -26,8 +26,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -37,6 +38,7 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.teiid.adminapi.impl.VDBMetaData;
+import org.teiid.core.util.NamedThreadFactory;
 import org.teiid.deployers.VDBRepository;
 import org.teiid.dqp.internal.process.DQPCore;
 import org.teiid.jdbc.TeiidSQLException;
@@ -46,7 +48,7 @@ import org.teiid.runtime.MaterializationManager;
 
 class MaterializationManagementService implements Service<MaterializationManager> {
 	
-	private Timer timer;
+	private ScheduledExecutorService scheduler;
 	private MaterializationManager manager;
 	protected final InjectedValue<DQPCore> dqpInjector = new InjectedValue<DQPCore>();
 	protected final InjectedValue<Executor> executorInjector = new InjectedValue<Executor>();
@@ -59,12 +61,17 @@ class MaterializationManagementService implements Service<MaterializationManager
 	
 	@Override
 	public void start(StartContext context) throws StartException {
-		timer = new Timer("Teiid Timer", true); //$NON-NLS-1$
+		scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Teiid Timer")); //$NON-NLS-1$
 		manager = new MaterializationManager(shutdownListener) {
 			
 			@Override
-			public Timer getTimer() {
-				return timer;
+			public ScheduledExecutorService getScheduledExecutor() {
+				return scheduler;
+			}
+			
+			@Override
+			protected boolean isOverloaded() {
+				return dqpInjector.getValue().getWaitingPlanCount() > 0;
 			}
 			
 			@Override
@@ -111,7 +118,7 @@ class MaterializationManagementService implements Service<MaterializationManager
 
 	@Override
 	public void stop(StopContext context) {
-		timer.cancel();
+		scheduler.shutdownNow();
 		vdbRepositoryInjector.getValue().removeListener(manager);
 	}
 
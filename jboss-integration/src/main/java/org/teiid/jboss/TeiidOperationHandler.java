@@ -78,6 +78,7 @@ import org.teiid.metadata.Schema;
 import org.teiid.query.metadata.DDLStringVisitor;
 import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.query.tempdata.TempTableDataManager;
+import org.teiid.runtime.MaterializationManager;
 import org.teiid.translator.TranslatorProperty.PropertyType;
 import org.teiid.vdb.runtime.VDBKey;
 
@@ -725,6 +726,8 @@ class CacheStatistics extends BaseCachehandler {
 		stats.setHitRatio(cache.getRequestCount() == 0?0:((double)cache.getCacheHitCount()/cache.getRequestCount())*100);
 		stats.setTotalEntries(cache.getTotalCacheEntries());
 		stats.setRequestCount(cache.getRequestCount());
+		stats.setByteHitRatio(cache.getByteHitRatio());
+		stats.setTotalBytes(cache.getTotalCacheBytes());
 		return stats;
 	}
 
@@ -1666,3 +1669,41 @@ class EngineStatistics extends TeiidOperationHandler {
 		builder.setReplyParameters(VDBMetadataMapper.EngineStatisticsMetadataMapper.INSTANCE.getAttributeDefinitions());
 	}
 }
+
+class GetMatViewLoadLag extends BaseOperationHandler<MaterializationManager> {
+	protected GetMatViewLoadLag() {
+		super("get-matview-load-lag"); //$NON-NLS-1$
+	}
+
+	@Override
+	protected MaterializationManager getService(OperationContext context, PathAddress pathAddress, ModelNode operation) throws OperationFailedException {
+        ServiceController<?> sc = context.getServiceRegistry(false).getRequiredService(TeiidServiceNames.MATVIEW_SERVICE);
+        return MaterializationManager.class.cast(sc.getValue());
+	}
+
+	@Override
+	protected void executeOperation(OperationContext context, MaterializationManager manager, ModelNode operation) throws OperationFailedException {
+		if (!operation.hasDefined(OperationsConstants.VDB_NAME.getName())) {
+			throw new OperationFailedException(new ModelNode().set(IntegrationPlugin.Util.getString(OperationsConstants.VDB_NAME.getName()+MISSING)));
+		}
+		if (!operation.hasDefined(OperationsConstants.VDB_VERSION.getName())) {
+			throw new OperationFailedException(new ModelNode().set(IntegrationPlugin.Util.getString(OperationsConstants.VDB_VERSION.getName()+MISSING)));
+		}
+
+		ModelNode result = context.getResult();
+		String vdbName = operation.get(OperationsConstants.VDB_NAME.getName()).asString();
+		int vdbVersion = operation.get(OperationsConstants.VDB_VERSION.getName()).asInt();
+		TeiidOperationHandler.checkVDB(context, vdbName, vdbVersion);
+		for (Map.Entry<String, Long> entry : manager.getLoadLag(vdbName, vdbVersion).entrySet()) {
+			result.get(entry.getKey()).set(entry.getValue());
+		}
+	}
+
+	@Override
+	protected void describeParameters(SimpleOperationDefinitionBuilder builder) {
+		builder.addParameter(OperationsConstants.VDB_NAME);
+		builder.addParameter(OperationsConstants.VDB_VERSION);
+		builder.setReplyType(ModelType.OBJECT);
+		builder.setReplyValueType(ModelType.LONG);
+	}
+}
@@ -76,6 +76,7 @@ public class TeiidSubsytemResourceDefinition extends SimpleResourceDefinition {
 		new ReadRARDescription().register(resourceRegistration);
 		new GetSchema().register(resourceRegistration);
 		new EngineStatistics().register(resourceRegistration);
+		new GetMatViewLoadLag().register(resourceRegistration);
 		new ReadTranslatorProperties().register(resourceRegistration);
     }
 
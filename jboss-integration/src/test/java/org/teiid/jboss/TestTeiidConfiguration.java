@@ -207,7 +207,7 @@ public class TestTeiidConfiguration extends AbstractSubsystemBaseTest {
         List<String> opNames = getList(result);
 		String[] ops = { "add","add-anyauthenticated-role","add-data-role","add-source","assign-datasource",
 				"cache-statistics","cache-types","cancel-request","change-vdb-connection-type",
-				"clear-cache","engine-statistics","execute-query","get-query-plan","get-schema", "get-translator","get-vdb",
+				"clear-cache","engine-statistics","execute-query","get-matview-load-lag","get-query-plan","get-schema", "get-translator","get-vdb",
 				"list-long-running-requests","list-requests","list-requests-per-session",
 				"list-requests-per-vdb","list-sessions","list-transactions","list-translators",
 				"list-vdbs","mark-datasource-available","read-attribute",
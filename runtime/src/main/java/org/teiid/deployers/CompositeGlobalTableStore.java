@@ -123,6 +123,11 @@ public class CompositeGlobalTableStore implements GlobalTableStore {
 	public TempTable getTempTable(String matTableName) {
 		return getStoreForTable(matTableName).getTempTable(matTableName);
 	}
+	
+	@Override
+	public Boolean pullTable(String matTableName) {
+		return getStoreForTable(matTableName).pullTable(matTableName);
+	}
 
 	@Override
 	public Serializable getAddress() {
@@ -22,23 +22,28 @@
 package org.teiid.runtime;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.teiid.adminapi.impl.VDBMetaData;
+import org.teiid.core.util.PropertiesUtils;
 import org.teiid.core.util.StringUtil;
 import org.teiid.deployers.CompositeVDB;
 import org.teiid.deployers.ContainerLifeCycleListener;
 import org.teiid.deployers.VDBLifeCycleListener;
 import org.teiid.logging.LogConstants;
 import org.teiid.logging.LogManager;
+import org.teiid.logging.MessageLevel;
 import org.teiid.metadata.MetadataStore;
 import org.teiid.metadata.Schema;
 import org.teiid.metadata.Table;
@@ -46,13 +51,76 @@ import org.teiid.query.metadata.MaterializationMetadataRepository;
 import org.teiid.query.metadata.TransformationMetadata;
 import org.teiid.vdb.runtime.VDBKey;
 
+/**
+ * Manages the scheduled refresh of external materialized views.
+ * <br/>
+ * The scheduler is only used to dispatch work.  Status checks and loads are run on the
+ * executor, and at most {@link #getMaxConcurrentLoads()} loads are running at a time.  Views
+ * that are due are queued by priority and then by how long they have been due.  The default maximum
+ * can be set with the org.teiid.maxConcurrentMatViewLoads system property.
+ */
 public abstract class MaterializationManager implements VDBLifeCycleListener {
 	
+	private static final int DEFAULT_MAX_CONCURRENT_LOADS = 4;
+	private static final long OVERLOADED_RETRY_DELAY = 5000;
+	private static final long MAX_JITTER = 60000;
+	
 	private interface MaterializationAction {
 		void process(Table table);
 	}
 	
-	private Map<VDBKey, List<TimerTask>> scheduledTasks = Collections.synchronizedMap(new HashMap<VDBKey,List<TimerTask>>());
+	/**
+	 * The refresh state of a single view
+	 */
+	class ScheduledView implements Comparable<ScheduledView> {
+		final VDBMetaData vdb;
+		final Table table;
+		final int priority;
+		long ttl;
+		ScheduledFuture<?> future;
+		long dueTime;
+		long lag;
+		boolean queued;
+		boolean loading;
+		boolean cancelled;
+		
+		ScheduledView(VDBMetaData vdb, Table table) {
+			this.vdb = vdb;
+			this.table = table;
+			this.priority = getPriority(table);
+		}
+		
+		@Override
+		public int compareTo(ScheduledView o) {
+			if (priority != o.priority) {
+				return priority > o.priority?-1:1;
+			}
+			if (dueTime != o.dueTime) {
+				return dueTime < o.dueTime?-1:1;
+			}
+			return 0;
+		}
+	}
+	
+	private static int getPriority(Table table) {
+		String priorityStr = table.getProperty(MaterializationMetadataRepository.MATVIEW_LOAD_PRIORITY, false);
+		if (priorityStr == null) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(priorityStr.trim());
+		} catch (NumberFormatException e) {
+			LogManager.logWarning(LogConstants.CTX_MATVIEWS, RuntimePlugin.Util.gs(RuntimePlugin.Event.TEIID40118, priorityStr, table.getFullName()));
+			return 0;
+		}
+	}
+	
+	private ConcurrentHashMap<VDBKey, ConcurrentHashMap<String, ScheduledView>> scheduledViews = new ConcurrentHashMap<VDBKey, ConcurrentHashMap<String, ScheduledView>>();
+	private PriorityQueue<ScheduledView> pendingLoads = new PriorityQueue<ScheduledView>();
+	private int activeLoads;
+	private int maxConcurrentLoads = Math.max(1, PropertiesUtils.getIntProperty(System.getProperties(), "org.teiid.maxConcurrentMatViewLoads", DEFAULT_MAX_CONCURRENT_LOADS)); //$NON-NLS-1$
+	private boolean drainScheduled;
+	private Random random = new Random();
 	private ContainerLifeCycleListener shutdownListener;
 	
 	public MaterializationManager (ContainerLifeCycleListener shutdownListener) {
@@ -71,11 +139,19 @@ public abstract class MaterializationManager implements VDBLifeCycleListener {
 		final VDBMetaData vdb = cvdb.getVDB();
 		
         // cancel any matview load pending tasks
-		List<TimerTask> tasks = scheduledTasks.remove(new VDBKey(vdb.getName(), vdb.getVersion()));
-		if (tasks != null && !tasks.isEmpty()) {
-	        for (TimerTask tt:tasks) {
-	        	tt.cancel();
-	        }
+		ConcurrentHashMap<String, ScheduledView> views = scheduledViews.remove(new VDBKey(vdb.getName(), vdb.getVersion()));
+		if (views != null) {
+			synchronized (this) {
+				for (ScheduledView view : views.values()) {
+					view.cancelled = true;
+					if (view.future != null) {
+						view.future.cancel(false);
+					}
+					if (view.queued) {
+						pendingLoads.remove(view);
+					}
+				}
+			}
 		}
         
         // If VDB is being undeployed, run the shutdown triggers
@@ -160,45 +236,127 @@ public abstract class MaterializationManager implements VDBLifeCycleListener {
 		}
 	}
 	
+	private ScheduledView getScheduledView(VDBMetaData vdb, Table table) {
+		VDBKey key = new VDBKey(vdb.getName(), vdb.getVersion());
+		ConcurrentHashMap<String, ScheduledView> views = scheduledViews.get(key);
+		if (views == null) {
+			views = new ConcurrentHashMap<String, ScheduledView>();
+			ConcurrentHashMap<String, ScheduledView> existing = scheduledViews.putIfAbsent(key, views);
+			if (existing != null) {
+				views = existing;
+			}
+		}
+		ScheduledView view = views.get(table.getFullName());
+		if (view == null) {
+			view = new ScheduledView(vdb, table);
+			ScheduledView existing = views.putIfAbsent(table.getFullName(), view);
+			if (existing != null) {
+				view = existing;
+			}
+		}
+		return view;
+	}
+	
+	/**
+	 * Schedule a status check of the given view after the delay.  A random jitter of up to 10% of the delay is 
+	 * added so that views with the same ttl do not all refresh at once. 
+	 */
 	public void scheduleJob(VDBMetaData vdb, Table table, long ttl, long delay) {
-		TimerTask task = new JobSchedular(vdb, table, ttl, delay);
-		queueTask(vdb, task, delay);
+		scheduleJob(getScheduledView(vdb, table), ttl, delay);
 	}
 	
-	private void runJob(VDBMetaData vdb, Table table,  long ttl, long delay) {
-		TimerTask task = new QueryJob(vdb, table, ttl, delay);
-		queueTask(vdb, task, delay);
-	}	
+	/**
+	 * Reschedule an existing view.  The view is used directly rather than looked up again, so that
+	 * a view removed with its vdb is not recreated.
+	 */
+	void scheduleJob(final ScheduledView view, long ttl, long delay) {
+		if (delay > 0) {
+			long maxJitter = Math.min(delay/10, MAX_JITTER);
+			if (maxJitter > 0) {
+				delay += (long)(random.nextDouble() * maxJitter);
+			}
+		} else {
+			delay = 0;
+		}
+		synchronized (this) {
+			if (view.cancelled) {
+				return;
+			}
+			view.ttl = ttl;
+			if (view.future != null) {
+				view.future.cancel(false);
+			}
+			view.future = getScheduledExecutor().schedule(new Runnable() {
+				@Override
+				public void run() {
+					getExecutor().execute(new JobSchedular(view));
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+	}
 	
-	private void queueTask(VDBMetaData vdb, TimerTask task, long delay) {
-		VDBKey key = new VDBKey(vdb.getName(), vdb.getVersion());
-		List<TimerTask> tasks = scheduledTasks.get(key);
-		if (tasks == null) {
-			tasks = new ArrayList<TimerTask>();
-			scheduledTasks.put(key, tasks);
+	private void runJob(ScheduledView view) {
+		synchronized (this) {
+			if (view.cancelled || view.queued || view.loading) {
+				return;
+			}
+			view.queued = true;
+			view.dueTime = System.currentTimeMillis();
+			pendingLoads.add(view);
 		}
-		synchronized(tasks) {
-			tasks.add(task);
+		drain();
+	}
+	
+	/**
+	 * Start as many pending loads as allowed.  If there is already a backlog of user work 
+	 * the pending loads are retried after a delay.
+	 */
+	private void drain() {
+		synchronized (this) {
+			while (activeLoads < maxConcurrentLoads && !pendingLoads.isEmpty()) {
+				if (isOverloaded()) {
+					if (!drainScheduled) {
+						drainScheduled = true;
+						getScheduledExecutor().schedule(new Runnable() {
+							@Override
+							public void run() {
+								synchronized (MaterializationManager.this) {
+									drainScheduled = false;
+								}
+								drain();
+							}
+						}, OVERLOADED_RETRY_DELAY, TimeUnit.MILLISECONDS);
+					}
+					return;
+				}
+				ScheduledView view = pendingLoads.poll();
+				view.queued = false;
+				view.loading = true;
+				view.lag = System.currentTimeMillis() - view.dueTime;
+				if (LogManager.isMessageToBeRecorded(LogConstants.CTX_MATVIEWS, MessageLevel.DETAIL)) {
+					LogManager.logDetail(LogConstants.CTX_MATVIEWS, "Starting the load of", view.table.getFullName(), "after waiting", view.lag, "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+				activeLoads++;
+				getExecutor().execute(new QueryJob(view));
+			}
 		}
-		getTimer().schedule(task, (delay < 0)?0:delay);
 	}
 	
-	class JobSchedular extends TimerTask {
-		protected Table table;
-		protected long ttl;
-		protected long delay;
-		protected VDBMetaData vdb;
+	class JobSchedular implements Runnable {
+		protected ScheduledView view;
 		
-		public JobSchedular(VDBMetaData vdb, Table table, long ttl, long delay) {
-			this.vdb = vdb;
-			this.table = table;
-			this.ttl = ttl;
-			this.delay = delay;
+		public JobSchedular(ScheduledView view) {
+			this.view = view;
 		}
 		
 		@Override
 		public void run() {
-			scheduledTasks.remove(this);
+			if (view.cancelled) {
+				return;
+			}
+			Table table = view.table;
+			VDBMetaData vdb = view.vdb;
+			long ttl = view.ttl;
 			String query = "execute SYSADMIN.matViewStatus('"+table.getParent().getName()+"', '"+table.getName()+"')"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			
 			List<Map<String, String>> result = null;
@@ -206,12 +364,11 @@ public abstract class MaterializationManager implements VDBLifeCycleListener {
 				result = executeQuery(vdb, query);
 			} catch (SQLException e) {
 				LogManager.logWarning(LogConstants.CTX_MATVIEWS, e, e.getMessage());
-				scheduleJob(vdb, table, ttl, Math.min(ttl/4, 60000)); // re-schedule the same job in one minute
+				scheduleJob(view, ttl, Math.min(ttl/4, 60000)); // re-schedule the same job in one minute
 				return;
 			}
 			
 			long updated = 0L;
-			this.delay = ttl;
 			String loadstate = null;
 			boolean valid = false;
 			if (result != null && !result.isEmpty()) {
@@ -226,25 +383,25 @@ public abstract class MaterializationManager implements VDBLifeCycleListener {
 			long elapsed = System.currentTimeMillis() - updated;
 			if (loadstate == null || loadstate.equalsIgnoreCase("needs_loading") || !valid) { //$NON-NLS-1$
 				// no entry found run immediately
-				runJob(vdb, table, ttl, 0L); 
+				runJob(view); 
 			}
 			else if (loadstate.equalsIgnoreCase("loading")) { //$NON-NLS-1$
 				// if the process is already loading do nothing
 			}
 			else if (loadstate.equalsIgnoreCase("loaded")) { //$NON-NLS-1$
 				if (elapsed >= ttl) {
-					runJob(vdb, table, ttl, 0L);
+					runJob(view);
 				}
 				else {
-					scheduleJob(vdb, table, ttl, (ttl-elapsed));
+					scheduleJob(view, ttl, (ttl-elapsed));
 				}
 			}
 			else if (loadstate.equalsIgnoreCase("failed_load")) { //$NON-NLS-1$
 				if (elapsed > ttl/4 || elapsed > 60000) { // exceeds 1/4 of cached time or 5 mins
-					runJob(vdb, table, ttl, 0L);
+					runJob(view);
 				}
 				else {
-					scheduleJob(vdb, table, ttl, Math.min(((ttl/4)-elapsed), (60000-elapsed)));
+					scheduleJob(view, ttl, Math.min(((ttl/4)-elapsed), (60000-elapsed)));
 				}
 			}
 		}
@@ -252,31 +409,74 @@ public abstract class MaterializationManager implements VDBLifeCycleListener {
 	
 	class QueryJob extends JobSchedular {
 		
-		public QueryJob(VDBMetaData vdb,Table table, long ttl, long delay) {
-			super(vdb, table, ttl, delay);
+		public QueryJob(ScheduledView view) {
+			super(view);
 		}
 
 		@Override
 		public void run() {
-			scheduledTasks.remove(this);
-			getExecutor().execute(new Runnable() {
-				@Override
-				public void run() {
-					String query = "execute SYSADMIN.loadMatView('"+table.getParent().getName()+"','"+table.getName()+"')"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-					try {
-						executeQuery(vdb, query);
-						scheduleJob(vdb, table, ttl, ttl);
-					} catch (SQLException e) {
-						LogManager.logWarning(LogConstants.CTX_MATVIEWS, e, e.getMessage());
-						scheduleJob(vdb, table, ttl, Math.min(ttl/4, 60000)); // re-schedule the same job in one minute
-						return;						
-					}
+			Table table = view.table;
+			VDBMetaData vdb = view.vdb;
+			long ttl = view.ttl;
+			long delay = ttl;
+			try {
+				if (view.cancelled) {
+					return;
 				}
-			});
+				String query = "execute SYSADMIN.loadMatView('"+table.getParent().getName()+"','"+table.getName()+"')"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				try {
+					executeQuery(vdb, query);
+				} catch (SQLException e) {
+					LogManager.logWarning(LogConstants.CTX_MATVIEWS, e, e.getMessage());
+					delay = Math.min(ttl/4, 60000); // re-schedule the same job in one minute
+				}
+			} finally {
+				synchronized (MaterializationManager.this) {
+					view.loading = false;
+					activeLoads--;
+				}
+				drain();
+			}
+			scheduleJob(view, ttl, delay);
 		}
-	}	
+	}
+	
+	/**
+	 * Get the refresh lag in milliseconds of each scheduled view of the given vdb keyed by the view name.  
+	 * For a view that is waiting to be or is being loaded this is the time since the refresh was due, 
+	 * otherwise it is how long the last load waited to start. 
+	 */
+	public Map<String, Long> getLoadLag(String vdbName, int vdbVersion) {
+		Map<String, ScheduledView> views = scheduledViews.get(new VDBKey(vdbName, vdbVersion));
+		if (views == null) {
+			return Collections.emptyMap();
+		}
+		Map<String, Long> result = new TreeMap<String, Long>();
+		long now = System.currentTimeMillis();
+		synchronized (this) {
+			for (ScheduledView view : views.values()) {
+				result.put(view.table.getFullName(), (view.queued || view.loading)?now - view.dueTime:view.lag);
+			}
+		}
+		return result;
+	}
+	
+	public int getMaxConcurrentLoads() {
+		return maxConcurrentLoads;
+	}
+	
+	public void setMaxConcurrentLoads(int maxConcurrentLoads) {
+		this.maxConcurrentLoads = Math.max(1, maxConcurrentLoads);
+	}
+	
+	/**
+	 * @return true if loads should be delayed due to user load
+	 */
+	protected boolean isOverloaded() {
+		return false;
+	}
 		
-	public abstract Timer getTimer();
+	public abstract ScheduledExecutorService getScheduledExecutor();
 	public abstract Executor getExecutor();
 	public abstract List<Map<String, String>> executeQuery(VDBMetaData vdb, String cmd) throws SQLException;
 }
@@ -129,5 +129,6 @@ public class RuntimePlugin {
     	TEIID40115,
     	TEIID40116,
     	TEIID40117,
+    	TEIID40118,
     }
 }
@@ -37,6 +37,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
@@ -60,6 +61,7 @@ import org.teiid.core.types.SQLXMLImpl;
 import org.teiid.core.util.ObjectConverterUtil;
 import org.teiid.core.util.UnitTestUtil;
 import org.teiid.deployers.VirtualDatabaseException;
+import org.teiid.dqp.internal.process.ResourceGroup;
 import org.teiid.jdbc.TeiidDriver;
 import org.teiid.jdbc.TeiidSQLException;
 import org.teiid.language.Command;
@@ -330,6 +332,23 @@ public class TestEmbeddedServer {
 		assertEquals("HELLO WORLD", rs.getString(1));
 	}
 	
+	@Test public void testResourceGroups() throws Exception {
+		EmbeddedConfiguration ec = new EmbeddedConfiguration();
+		ResourceGroup rg = new ResourceGroup("reports");
+		rg.setVdbName("test");
+		rg.setMaxActivePlans(1);
+		ec.setResourceGroups(Arrays.asList(rg));
+		es.start(ec);
+		es.deployVDB(new ByteArrayInputStream("<vdb name=\"test\" version=\"1\"><model name=\"test\" type=\"VIRTUAL\"><metadata type=\"DDL\"><![CDATA[CREATE VIEW helloworld as SELECT 'HELLO WORLD';]]> </metadata></model></vdb>".getBytes()));
+		Connection c = es.getDriver().connect("jdbc:teiid:test", null);
+		for (int i = 0; i < 2; i++) {
+			ResultSet rs = c.createStatement().executeQuery("select * from helloworld");
+			rs.next();
+			assertEquals("HELLO WORLD", rs.getString(1));
+			rs.close();
+		}
+	}
+	
 	@Test public void testXMLDeployWithVDBImport() throws Exception {
 		es.start(new EmbeddedConfiguration());
 		es.deployVDB(new ByteArrayInputStream("<vdb name=\"test\" version=\"1\"><model name=\"test\" type=\"VIRTUAL\"><metadata type=\"DDL\"><![CDATA[CREATE VIEW helloworld as SELECT 'HELLO WORLD';]]> </metadata></model></vdb>".getBytes()));
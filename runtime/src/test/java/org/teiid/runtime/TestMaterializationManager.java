@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+package org.teiid.runtime;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.teiid.adminapi.impl.VDBMetaData;
+import org.teiid.deployers.CompositeVDB;
+import org.teiid.deployers.ContainerLifeCycleListener;
+import org.teiid.metadata.Schema;
+import org.teiid.metadata.Table;
+import org.teiid.query.metadata.MaterializationMetadataRepository;
+
+@SuppressWarnings("nls")
+public class TestMaterializationManager {
+
+	private LinkedList<Runnable> scheduled = new LinkedList<Runnable>();
+	private LinkedList<Runnable> tasks = new LinkedList<Runnable>();
+	private List<String> loads = new ArrayList<String>();
+	private Runnable onLoad;
+	private MaterializationManager manager;
+	private VDBMetaData vdb;
+	private Schema schema;
+
+	@Before public void setUp() {
+		final ScheduledExecutorService scheduler = Mockito.mock(ScheduledExecutorService.class);
+		Mockito.stub(scheduler.schedule(Mockito.any(Runnable.class), Mockito.anyLong(), Mockito.any(TimeUnit.class))).toAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				scheduled.add((Runnable)invocation.getArguments()[0]);
+				return null;
+			}
+		});
+		manager = new MaterializationManager(Mockito.mock(ContainerLifeCycleListener.class)) {
+
+			@Override
+			public ScheduledExecutorService getScheduledExecutor() {
+				return scheduler;
+			}
+
+			@Override
+			public Executor getExecutor() {
+				return new Executor() {
+					@Override
+					public void execute(Runnable command) {
+						tasks.add(command);
+					}
+				};
+			}
+
+			@Override
+			public List<Map<String, String>> executeQuery(VDBMetaData vdb, String cmd) throws SQLException {
+				if (cmd.startsWith("execute SYSADMIN.loadMatView")) {
+					loads.add(cmd.substring(cmd.lastIndexOf(',') + 2, cmd.length() - 2));
+					if (onLoad != null) {
+						onLoad.run();
+					}
+				}
+				//no status, so a load is needed
+				return Collections.emptyList();
+			}
+		};
+		vdb = new VDBMetaData();
+		vdb.setName("x");
+		vdb.setVersion(1);
+		schema = new Schema();
+		schema.setName("s");
+	}
+
+	private Table createView(String name, String priority) {
+		Table table = new Table();
+		table.setName(name);
+		table.setParent(schema);
+		if (priority != null) {
+			table.setProperty(MaterializationMetadataRepository.MATVIEW_LOAD_PRIORITY, priority);
+		}
+		return table;
+	}
+
+	private void runAll(LinkedList<Runnable> runnables) {
+		Runnable r = null;
+		while ((r = runnables.poll()) != null) {
+			r.run();
+		}
+	}
+
+	@Test public void testLoadPriority() {
+		manager.setMaxConcurrentLoads(1);
+		manager.scheduleJob(vdb, createView("a", "invalid"), 100000, 0);
+		manager.scheduleJob(vdb, createView("c", "1"), 100000, 0);
+		manager.scheduleJob(vdb, createView("b", "5"), 100000, 0);
+		runAll(scheduled);
+		runAll(tasks);
+		//a is loaded first as nothing else is due, then by priority
+		assertEquals(Arrays.asList("a", "b", "c"), loads);
+		//each view is rescheduled once after its load
+		assertEquals(3, scheduled.size());
+	}
+
+	@Test public void testLoadLag() {
+		manager.setMaxConcurrentLoads(1);
+		manager.scheduleJob(vdb, createView("a", null), 100000, 0);
+		manager.scheduleJob(vdb, createView("b", null), 100000, 0);
+		runAll(scheduled);
+		//run the status checks, so that a is loading and b is waiting
+		tasks.poll().run();
+		tasks.poll().run();
+		assertEquals(1, tasks.size());
+		Map<String, Long> lag = manager.getLoadLag("x", 1);
+		assertEquals(Arrays.asList("s.a", "s.b"), new ArrayList<String>(lag.keySet()));
+		assertTrue(lag.get("s.b") >= 0);
+		runAll(tasks);
+		assertEquals(2, manager.getLoadLag("x", 1).size());
+		assertTrue(manager.getLoadLag("y", 1).isEmpty());
+	}
+
+	@Test public void testRemovedDuringLoad() {
+		final CompositeVDB cvdb = Mockito.mock(CompositeVDB.class);
+		Mockito.stub(cvdb.getVDB()).toReturn(vdb);
+		onLoad = new Runnable() {
+			@Override
+			public void run() {
+				manager.beforeRemove(vdb.getName(), vdb.getVersion(), cvdb);
+			}
+		};
+		manager.scheduleJob(vdb, createView("a", null), 100000, 0);
+		runAll(scheduled);
+		runAll(tasks);
+		assertEquals(Arrays.asList("a"), loads);
+		//the removed view must not be rescheduled
+		assertTrue(scheduled.isEmpty());
+	}
+
+}
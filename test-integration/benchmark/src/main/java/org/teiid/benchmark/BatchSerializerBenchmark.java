@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.teiid.client.BatchSerializer;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.core.util.AccessibleByteArrayOutputStream;
+
+/**
+ * {@link BatchSerializer} write and read of single column batches
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@SuppressWarnings("nls")
+public class BatchSerializerBenchmark {
+	
+	@Param({DataTypeManager.DefaultDataTypes.STRING, "repeatedstring", DataTypeManager.DefaultDataTypes.INTEGER, 
+		DataTypeManager.DefaultDataTypes.BIG_DECIMAL, DataTypeManager.DefaultDataTypes.DATE, 
+		DataTypeManager.DefaultDataTypes.TIME, DataTypeManager.DefaultDataTypes.TIMESTAMP})
+	public String type;
+	
+	@Param({"1024"})
+	public int batchSize;
+	
+	private String[] types;
+	private List<List<?>> batch;
+	private byte[] bytes;
+	private int length;
+	
+	@Setup
+	public void setup() throws Exception {
+		String typeName = type;
+		if (type.equals("repeatedstring")) {
+			typeName = DataTypeManager.DefaultDataTypes.STRING;
+		}
+		types = new String[] {typeName};
+		batch = new ArrayList<List<?>>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			batch.add(Arrays.asList(value(i)));
+		}
+		AccessibleByteArrayOutputStream baos = write();
+		bytes = baos.getBuffer();
+		length = baos.getCount();
+	}
+
+	private Object value(int i) {
+		if (type.equals("repeatedstring")) {
+			return "aaaaaaaa";
+		}
+		if (type.equals(DataTypeManager.DefaultDataTypes.STRING)) {
+			return String.valueOf(i);
+		}
+		if (type.equals(DataTypeManager.DefaultDataTypes.INTEGER)) {
+			return i;
+		}
+		if (type.equals(DataTypeManager.DefaultDataTypes.BIG_DECIMAL)) {
+			return BigDecimal.valueOf(i, 2);
+		}
+		if (type.equals(DataTypeManager.DefaultDataTypes.DATE)) {
+			return new Date(i * 86400000l);
+		}
+		if (type.equals(DataTypeManager.DefaultDataTypes.TIME)) {
+			return new Time(i * 1000l);
+		}
+		return new Timestamp(i * 1000l);
+	}
+	
+	private AccessibleByteArrayOutputStream write() throws Exception {
+		AccessibleByteArrayOutputStream baos = new AccessibleByteArrayOutputStream(5000);
+		ObjectOutputStream out = new ObjectOutputStream(baos);
+		BatchSerializer.writeBatch(out, types, batch);
+		out.close();
+		return baos;
+	}
+	
+	@Benchmark
+	public int writeBatch() throws Exception {
+		return write().getCount();
+	}
+	
+	@Benchmark
+	public int readBatch() throws Exception {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes, 0, length));
+		List<List<Object>> result = BatchSerializer.readBatch(in, types);
+		in.close();
+		return result.size();
+	}
+
+}
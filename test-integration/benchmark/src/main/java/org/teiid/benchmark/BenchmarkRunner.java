@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+/**
+ * Runs the benchmarks and optionally compares the scores against a baseline from a previous build.
+ * <br/>
+ * Usage: java -jar benchmarks.jar [-save file] [-baseline file] [-threshold percent] [jmh options]
+ * <br/>
+ * -save writes the scores of this run as a properties file that can be used as a later baseline.
+ * -baseline prints a comparison report and exits with a non-zero status if any benchmark is worse 
+ * than the baseline by more than the threshold, which defaults to 10 percent.
+ */
+@SuppressWarnings("nls")
+public class BenchmarkRunner {
+	
+	public static void main(String[] args) throws Exception {
+		String save = null;
+		String baseline = null;
+		double threshold = 10;
+		List<String> jmhArgs = new ArrayList<String>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-save") && i + 1 < args.length) {
+				save = args[++i];
+			} else if (args[i].equals("-baseline") && i + 1 < args.length) {
+				baseline = args[++i];
+			} else if (args[i].equals("-threshold") && i + 1 < args.length) {
+				threshold = Double.parseDouble(args[++i]);
+			} else {
+				jmhArgs.add(args[i]);
+			}
+		}
+		Collection<RunResult> results = new Runner(new CommandLineOptions(jmhArgs.toArray(new String[jmhArgs.size()]))).run();
+		
+		Map<String, RunResult> current = new TreeMap<String, RunResult>();
+		Properties scores = new Properties();
+		for (RunResult result : results) {
+			String key = getKey(result.getParams());
+			current.put(key, result);
+			scores.setProperty(key, String.valueOf(result.getPrimaryResult().getScore()));
+		}
+		if (save != null) {
+			OutputStream os = new FileOutputStream(save);
+			try {
+				scores.store(os, "teiid benchmark scores"); 
+			} finally {
+				os.close();
+			}
+		}
+		if (baseline != null && !report(current, load(baseline), threshold)) {
+			System.exit(1);
+		}
+	}
+	
+	static String getKey(BenchmarkParams params) {
+		StringBuilder key = new StringBuilder(params.getBenchmark());
+		for (String param : params.getParamsKeys()) {
+			key.append(':').append(param).append('=').append(params.getParam(param));
+		}
+		return key.toString();
+	}
+
+	private static Properties load(String file) throws IOException {
+		Properties props = new Properties();
+		InputStream is = new FileInputStream(file);
+		try {
+			props.load(is);
+		} finally {
+			is.close();
+		}
+		return props;
+	}
+	
+	/**
+	 * Print the change of each benchmark relative to the baseline.
+	 * @return false if any benchmark regressed by more than the threshold
+	 */
+	static boolean report(Map<String, RunResult> current, Properties baseline, double threshold) {
+		boolean ok = true;
+		System.out.println();
+		System.out.println(String.format("%-100s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Change"));
+		for (Map.Entry<String, RunResult> entry : current.entrySet()) {
+			RunResult result = entry.getValue();
+			double score = result.getPrimaryResult().getScore();
+			String unit = result.getPrimaryResult().getScoreUnit();
+			String base = baseline.getProperty(entry.getKey());
+			if (base == null) {
+				System.out.println(String.format("%-100s %14s %14.3f %9s %s", entry.getKey(), "-", score, "new", unit));
+				continue;
+			}
+			double baseScore = Double.parseDouble(base);
+			double change = baseScore == 0?0:(score - baseScore) * 100 / baseScore;
+			//throughput is better when higher, time is better when lower
+			double improvement = result.getParams().getMode() == Mode.Throughput?change:-change;
+			String flag = "";
+			if (improvement < -threshold) {
+				flag = " REGRESSION";
+				ok = false;
+			}
+			System.out.println(String.format("%-100s %14.3f %14.3f %+8.1f%% %s%s", entry.getKey(), baseScore, score, change, unit, flag));
+		}
+		return ok;
+	}
+
+}
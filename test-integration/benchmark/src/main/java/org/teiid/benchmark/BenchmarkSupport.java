@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.teiid.common.buffer.impl.BufferFrontedFileStoreCache;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.common.buffer.impl.FileStorageManager;
+import org.teiid.core.TeiidComponentException;
+import org.teiid.core.types.DataTypeManager;
+import org.teiid.query.sql.symbol.ElementSymbol;
+
+/**
+ * Shared setup for the benchmarks.  Data is generated from a fixed seed so that runs
+ * of different builds see the same shapes.
+ */
+@SuppressWarnings("nls")
+public class BenchmarkSupport {
+	
+	public enum Shape {
+		/** unique ascending keys */
+		SORTED,
+		/** unique keys in random order */
+		RANDOM,
+		/** random keys drawn from a small domain */
+		DUPLICATES
+	}
+	
+	public static BufferManagerImpl createBufferManager(BufferFrontedFileStoreCache cache) throws TeiidComponentException {
+		BufferManagerImpl bm = new BufferManagerImpl();
+		bm.setMaxProcessingKB(1<<12);
+		bm.setMaxReserveKB((1<<18)-(1<<16));
+		bm.setMaxActivePlans(20);
+		bm.setCache(cache);
+		bm.initialize();
+		return bm;
+	}
+	
+	public static BufferFrontedFileStoreCache createCache(long memoryBufferSpace) throws TeiidComponentException {
+		BufferFrontedFileStoreCache cache = new BufferFrontedFileStoreCache();
+		cache.setMemoryBufferSpace(memoryBufferSpace);
+		FileStorageManager fsm = new FileStorageManager();
+		File dir = new File(System.getProperty("java.io.tmpdir"), "teiid-benchmark");
+		fsm.setStorageDirectory(dir.getAbsolutePath());
+		cache.setStorageManager(fsm);
+		cache.initialize();
+		return cache;
+	}
+	
+	public static List<ElementSymbol> intStringElements() {
+		ElementSymbol elem1 = new ElementSymbol("e1");
+		elem1.setType(DataTypeManager.DefaultDataClasses.INTEGER);
+		ElementSymbol elem2 = new ElementSymbol("e2");
+		elem2.setType(DataTypeManager.DefaultDataClasses.STRING);
+		return Arrays.asList(elem1, elem2);
+	}
+	
+	/**
+	 * @return rows of (integer, string) in the given shape
+	 */
+	public static List<List<?>> intStringRows(int rowCount, Shape shape) {
+		Random r = new Random(0);
+		List<List<?>> data = new ArrayList<List<?>>(rowCount);
+		for (int i = 0; i < rowCount; i++) {
+			int key = i;
+			if (shape == Shape.DUPLICATES) {
+				key = r.nextInt(Math.max(1, rowCount/100));
+			}
+			data.add(Arrays.asList(key, String.valueOf(key)));
+		}
+		if (shape == Shape.RANDOM) {
+			Collections.shuffle(data, r);
+		}
+		return data;
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.teiid.adminapi.impl.ModelMetaData;
+import org.teiid.runtime.EmbeddedConfiguration;
+import org.teiid.runtime.EmbeddedServer;
+import org.teiid.translator.loopback.LoopbackExecutionFactory;
+
+/**
+ * End to end queries through the {@link EmbeddedServer} local driver.  The two source models use 
+ * separate loopback sources so that joins and grouping across them are performed by the engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@SuppressWarnings("nls")
+public class EmbeddedQueryBenchmark {
+	
+	@Param({"1000", "100000"})
+	public int rowCount;
+	
+	@Param({"SELECT e1, e2 FROM src1.t", 
+		"SELECT src1.t.e1, src2.t.e2 FROM src1.t, src2.t WHERE src1.t.e1 = src2.t.e1", 
+		"SELECT e2, count(*) FROM (SELECT e2 FROM src1.t UNION ALL SELECT e2 FROM src2.t) x GROUP BY e2",
+		"SELECT e1, e2 FROM src1.t ORDER BY e2 DESC LIMIT 100"})
+	public String sql;
+	
+	private EmbeddedServer server;
+	private Connection connection;
+	
+	@Setup
+	public void setup() throws Exception {
+		server = new EmbeddedServer();
+		EmbeddedConfiguration config = new EmbeddedConfiguration();
+		config.setUseDisk(false);
+		server.start(config);
+		
+		LoopbackExecutionFactory lef = new LoopbackExecutionFactory();
+		lef.setRowCount(rowCount);
+		lef.setIncrementRows(true);
+		lef.start();
+		server.addTranslator("loopback", lef);
+		
+		server.deployVDB("bench", sourceModel("src1"), sourceModel("src2"));
+		connection = server.getDriver().connect("jdbc:teiid:bench", null);
+	}
+
+	private ModelMetaData sourceModel(String name) {
+		ModelMetaData mmd = new ModelMetaData();
+		mmd.setName(name);
+		mmd.setSchemaSourceType("ddl");
+		mmd.setSchemaText("CREATE FOREIGN TABLE t (e1 integer, e2 string)");
+		mmd.addSourceMapping(name, "loopback", null);
+		return mmd;
+	}
+	
+	@TearDown
+	public void tearDown() throws Exception {
+		connection.close();
+		server.stop();
+	}
+	
+	@Benchmark
+	public int query() throws Exception {
+		Statement s = connection.createStatement();
+		try {
+			ResultSet rs = s.executeQuery(sql);
+			int count = 0;
+			while (rs.next()) {
+				count++;
+			}
+			return count;
+		} finally {
+			s.close();
+		}
+	}
+
+}
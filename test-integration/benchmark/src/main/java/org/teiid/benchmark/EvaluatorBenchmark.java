@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.teiid.query.eval.Evaluator;
+import org.teiid.query.function.FunctionLibrary;
+import org.teiid.query.function.SystemFunctionManager;
+import org.teiid.query.metadata.BasicQueryMetadata;
+import org.teiid.query.metadata.TempMetadataAdapter;
+import org.teiid.query.metadata.TempMetadataID;
+import org.teiid.query.metadata.TempMetadataStore;
+import org.teiid.query.parser.QueryParser;
+import org.teiid.query.resolver.util.ResolverVisitor;
+import org.teiid.query.sql.symbol.ElementSymbol;
+import org.teiid.query.sql.symbol.Expression;
+import org.teiid.query.sql.symbol.GroupSymbol;
+import org.teiid.query.sql.visitor.ElementCollectorVisitor;
+import org.teiid.query.util.CommandContext;
+
+/**
+ * {@link Evaluator} evaluation of resolved expressions against a row of t(e1 integer, e2 string)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@SuppressWarnings("nls")
+public class EvaluatorBenchmark {
+	
+	@Param({"e1 * 2 + 1", 
+		"concat(e2, 'x')", 
+		"e2 like 'a%g'", 
+		"e2 like '%b_d%'", 
+		"case when e1 > 5 then e2 else 'b' end", 
+		"cast(e1 as string)",
+		"e1 in (1, 3, 5, 7, 11, 13)"})
+	public String expression;
+	
+	private Expression expr;
+	private Evaluator evaluator;
+	private List<?> tuple = Arrays.asList(12, "abcdefg");
+	
+	@Setup
+	public void setup() throws Exception {
+		final FunctionLibrary library = new SystemFunctionManager().getSystemFunctionLibrary();
+		TempMetadataStore store = new TempMetadataStore();
+		List<ElementSymbol> elements = BenchmarkSupport.intStringElements();
+		TempMetadataID id = store.addTempGroup("t", elements);
+		GroupSymbol group = new GroupSymbol("t");
+		group.setMetadataID(id);
+		TempMetadataAdapter metadata = new TempMetadataAdapter(new BasicQueryMetadata() {
+			@Override
+			public FunctionLibrary getFunctionLibrary() {
+				return library;
+			}
+		}, store);
+		expr = QueryParser.getQueryParser().parseExpression(expression);
+		ResolverVisitor.resolveLanguageObject(expr, Arrays.asList(group), metadata);
+		Map<ElementSymbol, Integer> lookup = new HashMap<ElementSymbol, Integer>();
+		for (ElementSymbol es : ElementCollectorVisitor.getElements(expr, false)) {
+			lookup.put(es, es.getShortName().equals("e1")?0:1);
+		}
+		evaluator = new Evaluator(lookup, null, new CommandContext());
+	}
+	
+	@Benchmark
+	public Object evaluate() throws Exception {
+		return evaluator.evaluate(expr, tuple);
+	}
+
+}
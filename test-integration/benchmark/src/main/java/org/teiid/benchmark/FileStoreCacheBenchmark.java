@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.*;
+import org.teiid.common.buffer.Cache;
+import org.teiid.common.buffer.CacheEntry;
+import org.teiid.common.buffer.Serializer;
+import org.teiid.common.buffer.impl.BufferFrontedFileStoreCache;
+import org.teiid.core.TeiidComponentException;
+
+/**
+ * {@link BufferFrontedFileStoreCache} add and get of fixed size entries.  The memory buffer 
+ * space is varied so that gets are served either from memory or from disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FileStoreCacheBenchmark {
+	
+	private static final int ENTRY_COUNT = 1000;
+	
+	private static final class IntArraySerializer implements Serializer<int[]> {
+		@Override
+		public int[] deserialize(ObjectInput ois) throws IOException, ClassNotFoundException {
+			int[] result = new int[ois.readInt()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = ois.readInt();
+			}
+			return result;
+		}
+
+		@Override
+		public Long getId() {
+			return 1l;
+		}
+
+		@Override
+		public void serialize(int[] obj, ObjectOutput oos) throws IOException {
+			oos.writeInt(obj.length);
+			for (int i = 0; i < obj.length; i++) {
+				oos.writeInt(obj[i]);
+			}
+		}
+
+		@Override
+		public boolean useSoftCache() {
+			return false;
+		}
+	}
+	
+	/**
+	 * number of ints in each entry
+	 */
+	@Param({"256", "16384"})
+	public int entrySize;
+	
+	@Param({"67108864", "1048576"})
+	public long memoryBufferSpace;
+	
+	private BufferFrontedFileStoreCache cache;
+	private IntArraySerializer serializer = new IntArraySerializer();
+	private WeakReference<IntArraySerializer> ref = new WeakReference<IntArraySerializer>(serializer);
+	private AtomicLong ids = new AtomicLong(ENTRY_COUNT);
+	private int next;
+	
+	@Setup
+	public void setup() throws Exception {
+		cache = BenchmarkSupport.createCache(memoryBufferSpace);
+		cache.createCacheGroup(serializer.getId());
+		for (long i = 0; i < ENTRY_COUNT; i++) {
+			add(i);
+		}
+	}
+	
+	@TearDown
+	public void tearDown() {
+		cache.shutdown();
+	}
+
+	private void add(long id) throws Exception {
+		CacheEntry ce = new CacheEntry(id);
+		ce.setObject(new int[entrySize]);
+		cache.addToCacheGroup(serializer.getId(), ce.getId());
+		cache.add(ce, serializer);
+	}
+	
+	@Benchmark
+	public boolean addRemove() throws Exception {
+		long id = ids.getAndIncrement();
+		add(id);
+		return cache.remove(serializer.getId(), id);
+	}
+	
+	@Benchmark
+	public Object get() throws Exception {
+		next = (next + 1) % ENTRY_COUNT;
+		return get(cache, Long.valueOf(next));
+	}
+
+	private <T> Object get(Cache<T> c, Long oid) throws TeiidComponentException {
+		T info = c.lockForLoad(oid, serializer);
+		try {
+			return c.get(info, oid, ref).getObject();
+		} finally {
+			c.unlockForLoad(info);
+		}
+	}
+
+}
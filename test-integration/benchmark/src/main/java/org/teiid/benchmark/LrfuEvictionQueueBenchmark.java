@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.*;
+import org.teiid.common.buffer.BaseCacheEntry;
+import org.teiid.common.buffer.CacheKey;
+import org.teiid.common.buffer.impl.LrfuEvictionQueue;
+
+/**
+ * {@link LrfuEvictionQueue} access recording and eviction under a skewed access pattern
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LrfuEvictionQueueBenchmark {
+	
+	@Param({"1000", "100000"})
+	public int entryCount;
+	
+	private AtomicLong clock = new AtomicLong();
+	private LrfuEvictionQueue<BaseCacheEntry> queue;
+	private BaseCacheEntry[] entries;
+	private long nextId;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		queue = new LrfuEvictionQueue<BaseCacheEntry>(clock);
+		entries = new BaseCacheEntry[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			entries[i] = newEntry();
+			queue.add(entries[i]);
+		}
+	}
+
+	private BaseCacheEntry newEntry() {
+		return new BaseCacheEntry(new CacheKey(nextId++, clock.get(), 0));
+	}
+	
+	@Benchmark
+	public void touch() {
+		clock.addAndGet(100);
+		//favor the low entries to approximate a hot set
+		next = (next * 31 + 7) % entryCount;
+		int index = next;
+		if ((next & 1) == 0) {
+			index /= 8;
+		}
+		BaseCacheEntry entry = entries[index];
+		synchronized (entry) {
+			queue.touch(entry);
+		}
+	}
+	
+	@Benchmark
+	public BaseCacheEntry evictAndAdd() {
+		clock.incrementAndGet();
+		BaseCacheEntry evicted = queue.firstEntry(true);
+		BaseCacheEntry entry = newEntry();
+		queue.add(entry);
+		return evicted;
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.teiid.common.buffer.STree;
+import org.teiid.common.buffer.STree.InsertMode;
+import org.teiid.common.buffer.impl.BufferFrontedFileStoreCache;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+
+/**
+ * {@link STree} insert and point lookup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class STreeBenchmark {
+	
+	@Param({"10000", "500000"})
+	public int rowCount;
+	
+	@Param({"SORTED", "RANDOM"})
+	public BenchmarkSupport.Shape shape;
+	
+	private BufferFrontedFileStoreCache cache;
+	private BufferManagerImpl bm;
+	private List<List<?>> data;
+	private STree loaded;
+	
+	@Setup
+	public void setup() throws Exception {
+		cache = BenchmarkSupport.createCache(1<<26);
+		bm = BenchmarkSupport.createBufferManager(cache);
+		data = BenchmarkSupport.intStringRows(rowCount, shape);
+		loaded = createTree();
+		insert(loaded);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		loaded.remove();
+		bm.shutdown();
+	}
+
+	private STree createTree() {
+		return bm.createSTree(BenchmarkSupport.intStringElements(), "benchmark", 1); //$NON-NLS-1$
+	}
+	
+	private void insert(STree tree) throws Exception {
+		for (List<?> tuple : data) {
+			tree.insert(tuple, InsertMode.NEW, rowCount);
+		}
+	}
+	
+	@Benchmark
+	public int insert() throws Exception {
+		STree tree = createTree();
+		try {
+			insert(tree);
+			return tree.getRowCount();
+		} finally {
+			tree.remove();
+		}
+	}
+	
+	@Benchmark
+	public int find() throws Exception {
+		int found = 0;
+		for (List<?> tuple : data) {
+			if (loaded.find(tuple) != null) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * See the COPYRIGHT.txt file distributed with this work for information
+ * regarding copyright ownership.  Some portions may be licensed
+ * to Red Hat, Inc. under one or more contributor license agreements.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ */
+
+package org.teiid.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.teiid.common.buffer.TupleBuffer;
+import org.teiid.common.buffer.TupleSource;
+import org.teiid.common.buffer.impl.BufferFrontedFileStoreCache;
+import org.teiid.common.buffer.impl.BufferManagerImpl;
+import org.teiid.query.processor.CollectionTupleSource;
+import org.teiid.query.processor.relational.SortUtility;
+import org.teiid.query.sql.symbol.ElementSymbol;
+
+/**
+ * {@link SortUtility} sort and duplicate removal of (integer, string) rows keyed on the integer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SortBenchmark {
+	
+	@Param({"1000", "100000", "500000"})
+	public int rowCount;
+	
+	@Param({"SORTED", "RANDOM", "DUPLICATES"})
+	public BenchmarkSupport.Shape shape;
+	
+	@Param({"SORT", "DUP_REMOVE"})
+	public SortUtility.Mode mode;
+	
+	private BufferFrontedFileStoreCache cache;
+	private BufferManagerImpl bm;
+	private List<ElementSymbol> elements;
+	private List<List<?>> data;
+	
+	@Setup
+	public void setup() throws Exception {
+		cache = BenchmarkSupport.createCache(1<<26);
+		bm = BenchmarkSupport.createBufferManager(cache);
+		elements = BenchmarkSupport.intStringElements();
+		data = BenchmarkSupport.intStringRows(rowCount, shape);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		bm.shutdown();
+	}
+	
+	@Benchmark
+	public int sort() throws Exception {
+		TupleSource ts = new CollectionTupleSource(data.iterator());
+		SortUtility su = new SortUtility(ts, elements.subList(0, 1), Arrays.asList(Boolean.TRUE), mode, bm, "benchmark", elements); //$NON-NLS-1$
+		TupleBuffer result = su.sort();
+		int count = result.getRowCount();
+		result.remove();
+		return count;
+	}
+
+}
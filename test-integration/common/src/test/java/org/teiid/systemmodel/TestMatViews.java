@@ -33,6 +33,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -51,6 +52,7 @@ import org.teiid.metadata.FunctionMethod.Determinism;
 import org.teiid.metadata.FunctionMethod.PushDown;
 import org.teiid.metadata.FunctionParameter;
 import org.teiid.runtime.HardCodedExecutionFactory;
+import org.teiid.translator.jdbc.h2.H2ExecutionFactory;
 import org.teiid.translator.loopback.LoopbackExecutionFactory;
 
 @SuppressWarnings("nls")
@@ -390,4 +392,69 @@ public class TestMatViews {
 		assertFalse(rs.next());
 	}
 
+	@Test public void testPartitionedLoad() throws Exception {
+		//the partition column name requires quoting
+		helpTestPartitionedLoad("part key");
+	}
+	
+	@Test public void testPartitionedLoadNonIntegral() throws Exception {
+		//loaded without partitioning
+		helpTestPartitionedLoad("val");
+	}
+
+	private void helpTestPartitionedLoad(String partitionColumn) throws Exception {
+		JdbcDataSource h2ds = new JdbcDataSource();
+		h2ds.setURL("jdbc:h2:mem:partitioned");
+		//keeps the in memory db open for the duration of the test
+		Connection h2 = h2ds.getConnection();
+		try {
+			Statement h2s = h2.createStatement();
+			h2s.execute("create table status (VDBName varchar(50), VDBVersion integer, SchemaName varchar(50), Name varchar(256), TargetSchemaName varchar(50), TargetName varchar(256), Valid boolean, LoadState varchar(25), Cardinality integer, Updated timestamp, LoadNumber integer)");
+			h2s.execute("create table src (pk integer, val varchar(10))");
+			h2s.execute("create table mat (pk integer, val varchar(10))");
+			h2s.execute("insert into src values (1, 'a'), (2, 'b'), (3, 'c'), (-4, 'd'), (5, 'e'), (null, 'f')");
+			
+			H2ExecutionFactory h2ef = new H2ExecutionFactory();
+			h2ef.start();
+			server.addTranslator("h2", h2ef);
+			server.addConnectionFactory("java:/h2", h2ds);
+			
+			ModelMetaData phy = new ModelMetaData();
+			phy.setName("phy");
+			phy.setSchemaSourceType("DDL");
+			phy.setSchemaText("CREATE FOREIGN TABLE status (VDBName string, VDBVersion integer, SchemaName string, Name string, TargetSchemaName string, TargetName string, Valid boolean, LoadState string, Cardinality integer, Updated timestamp, LoadNumber integer);" 
+					+ "CREATE FOREIGN TABLE src (pk integer, val string); CREATE FOREIGN TABLE mat (pk integer, val string);");
+			phy.addSourceMapping("h2", "h2", "java:/h2");
+			
+			ModelMetaData virt = new ModelMetaData();
+			virt.setName("virt");
+			virt.setModelType(Type.VIRTUAL);
+			virt.setSchemaSourceType("DDL");
+			virt.setSchemaText("CREATE VIEW v (\"part key\" integer, val string) OPTIONS (MATERIALIZED true, MATERIALIZED_TABLE 'phy.mat', "
+					+ "\"teiid_rel:MATERIALIZED_STAGE_TABLE\" 'phy.mat', \"teiid_rel:MATVIEW_STATUS_TABLE\" 'phy.status', "
+					+ "\"teiid_rel:MATVIEW_PARTITION_COLUMN\" '" + partitionColumn + "', \"teiid_rel:MATVIEW_PARTITION_COUNT\" '3', \"teiid_rel:MATVIEW_LOAD_CONCURRENCY\" '2') "
+					+ "AS SELECT pk, val FROM src");
+			server.deployVDB("partitioned", phy, virt);
+			
+			Connection c = server.getDriver().connect("jdbc:teiid:partitioned", null);
+			Statement s = c.createStatement();
+			ResultSet rs = s.executeQuery("select * from (call SYSADMIN.loadMatView('virt', 'v')) p");
+			assertTrue(rs.next());
+			assertEquals(6, rs.getInt(1));
+			
+			rs = h2s.executeQuery("select count(*), count(distinct val) from mat");
+			assertTrue(rs.next());
+			assertEquals(6, rs.getInt(1));
+			assertEquals(6, rs.getInt(2));
+			
+			rs = h2s.executeQuery("select LoadState, Cardinality, Valid from status where Name = 'v'");
+			assertTrue(rs.next());
+			assertEquals("LOADED", rs.getString(1));
+			assertEquals(6, rs.getInt(2));
+			assertTrue(rs.getBoolean(3));
+		} finally {
+			h2.close();
+		}
+	}
+
 }